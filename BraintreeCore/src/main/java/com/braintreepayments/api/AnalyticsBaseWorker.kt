@@ -18,6 +18,6 @@ abstract class AnalyticsBaseWorker(
 ) : Worker(context, workerParams) {
 
     internal open fun createAnalyticsClientFromInputData(): AnalyticsClient {
-        return AnalyticsClient(applicationContext)
+        return BraintreeRuntime.getInstance(applicationContext).analyticsClient
     }
 }
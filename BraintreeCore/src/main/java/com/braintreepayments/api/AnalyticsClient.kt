@@ -1,7 +1,9 @@
 package com.braintreepayments.api
 
 import android.content.Context
+import android.os.SystemClock
 import androidx.annotation.VisibleForTesting
+import androidx.annotation.WorkerThread
 import androidx.work.Data
 import androidx.work.ExistingWorkPolicy
 import androidx.work.ListenableWorker
@@ -13,21 +15,38 @@ import org.json.JSONException
 import org.json.JSONObject
 import java.util.*
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
 
 @Suppress("SwallowedException", "TooGenericExceptionCaught")
 internal class AnalyticsClient @VisibleForTesting constructor(
     private val httpClient: BraintreeHttpClient,
     private val analyticsDatabase: AnalyticsDatabase,
     private val workManager: WorkManager,
-    private val deviceInspector: DeviceInspector
+    private val deviceInspector: DeviceInspector,
+    private val random: Random = Random(),
+    private val uploadScheduler: AnalyticsUploadScheduler = AnalyticsUploadScheduler(workManager),
+    private val crashReportStore: CrashReportStore? = null,
+    private val metricsRecorder: AnalyticsMetricsRecorder = AnalyticsMetricsRecorder.getInstance(),
+    // more than one client can exist in a process, so the once-per-process flag is shared
+    private val hasWrittenPendingCrashReports: AtomicBoolean = HAS_WRITTEN_PENDING_CRASH_REPORTS
 ) {
-    private var lastKnownAnalyticsUrl: String? = null
 
     constructor(context: Context) : this(
-        BraintreeHttpClient(),
+        context, BraintreeRuntime.getInstance(context).httpClient
+    )
+
+    constructor(
+        context: Context,
+        httpClient: BraintreeHttpClient,
+        crashReportStore: CrashReportStore = CrashReportStore(context.applicationContext)
+    ) : this(
+        httpClient,
         getInstance(context.applicationContext),
         WorkManager.getInstance(context.applicationContext),
-        DeviceInspector()
+        DeviceInspector(),
+        Random(),
+        AnalyticsUploadScheduler.getInstance(context.applicationContext),
+        crashReportStore
     )
 
     fun sendEvent(
@@ -49,21 +68,54 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         integration: String?,
         timestamp: Long,
         authorization: Authorization
+    ): UUID? {
+        val sampleRate = eventName?.let { configuration.getAnalyticsSampleRate(it) } ?: 1.0
+        if (!isSampled(sampleRate)) {
+            metricsRecorder.onEventSampledOut()
+            return null
+        }
+        metricsRecorder.onEventEnqueued()
+        scheduleAnalyticsWrite("android.$eventName", timestamp, 1.0 / sampleRate, authorization)
+        return scheduleAnalyticsUpload(configuration, authorization, sessionId, integration)
+    }
+
+    fun sendSpan(
+        configuration: Configuration,
+        span: AnalyticsSpan,
+        sessionId: String?,
+        integration: String?,
+        authorization: Authorization
     ): UUID {
-        lastKnownAnalyticsUrl = configuration.analyticsUrl
-        scheduleAnalyticsWrite("android.$eventName", timestamp, authorization)
+        val inputData = Data.Builder()
+            .putString(WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(WORK_INPUT_KEY_SPAN_NAME, "android.${span.name}")
+            .putLong(WORK_INPUT_KEY_TIMESTAMP, span.startTimestamp)
+            .putLong(WORK_INPUT_KEY_SPAN_DURATION, span.end().durationMillis)
+            .putString(WORK_INPUT_KEY_SPAN_ATTRIBUTES, JSONObject(span.attributes).toString())
+            .build()
+        enqueueAnalyticsWrite(inputData)
         return scheduleAnalyticsUpload(configuration, authorization, sessionId, integration)
     }
 
+    private fun isSampled(sampleRate: Double): Boolean = when {
+        sampleRate >= 1.0 -> true
+        sampleRate <= 0.0 -> false
+        else -> random.nextDouble() < sampleRate
+    }
+
     private fun scheduleAnalyticsWrite(
-        eventName: String, timestamp: Long, authorization: Authorization
+        eventName: String, timestamp: Long, sampleWeight: Double, authorization: Authorization
     ) {
         val inputData = Data.Builder()
             .putString(WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
             .putString(WORK_INPUT_KEY_EVENT_NAME, eventName)
             .putLong(WORK_INPUT_KEY_TIMESTAMP, timestamp)
+            .putDouble(WORK_INPUT_KEY_SAMPLE_WEIGHT, sampleWeight)
             .build()
+        enqueueAnalyticsWrite(inputData)
+    }
 
+    private fun enqueueAnalyticsWrite(inputData: Data) {
         val analyticsWorkRequest =
             OneTimeWorkRequest.Builder(AnalyticsWriteToDbWorker::class.java)
                 .setInputData(inputData)
@@ -74,19 +126,74 @@ internal class AnalyticsClient @VisibleForTesting constructor(
     }
 
     fun writeAnalytics(inputData: Data): ListenableWorker.Result {
+        writePendingCrashReports()
+        if (inputData.hasKeyWithValueOfType(WORK_INPUT_KEY_SPAN_NAME, String::class.java)) {
+            return writeSpan(inputData)
+        }
         val eventName = inputData.getString(WORK_INPUT_KEY_EVENT_NAME)
         val timestamp = inputData.getLong(WORK_INPUT_KEY_TIMESTAMP, INVALID_TIMESTAMP)
+        val sampleWeight = inputData.getDouble(WORK_INPUT_KEY_SAMPLE_WEIGHT, 1.0)
 
         return if (eventName == null || timestamp == INVALID_TIMESTAMP) {
+            metricsRecorder.onEventDropped()
             ListenableWorker.Result.failure()
         } else {
             val event = AnalyticsEvent(eventName, timestamp)
-            val analyticsEventDao = analyticsDatabase.analyticsEventDao()
-            analyticsEventDao.insertEvent(event)
+            event.sampleWeight = sampleWeight
+            insertOrAggregateEvent(event)
+            metricsRecorder.onEventPersisted()
+            ListenableWorker.Result.success()
+        }
+    }
+
+    private fun writeSpan(inputData: Data): ListenableWorker.Result {
+        val spanName = inputData.getString(WORK_INPUT_KEY_SPAN_NAME)
+        val timestamp = inputData.getLong(WORK_INPUT_KEY_TIMESTAMP, INVALID_TIMESTAMP)
+        val duration = inputData.getLong(WORK_INPUT_KEY_SPAN_DURATION, AnalyticsSpan.DURATION_UNFINISHED)
+        val attributes = inputData.getString(WORK_INPUT_KEY_SPAN_ATTRIBUTES) ?: "{}"
+
+        return if (spanName == null || timestamp == INVALID_TIMESTAMP || duration < 0) {
+            ListenableWorker.Result.failure()
+        } else {
+            val span = AnalyticsSpanRecord(spanName, timestamp, duration, attributes)
+            analyticsDatabase.analyticsSpanDao().insertSpan(span)
             ListenableWorker.Result.success()
         }
     }
 
+    /**
+     * Merge the event into an existing record of the same kind when one was written within the
+     * aggregation window; otherwise insert a new record. Writes are serialized through a unique
+     * [WORK_NAME_ANALYTICS_WRITE] work chain, so two writes cannot interleave. An upload can still
+     * delete the record between the lookup and the update, in which case the event is inserted.
+     */
+    private fun insertOrAggregateEvent(event: AnalyticsEvent) {
+        val analyticsEventDao = analyticsDatabase.analyticsEventDao()
+        val windowStart = event.timestamp - AGGREGATION_WINDOW_MILLIS
+        val aggregateEvent =
+            analyticsEventDao.findAggregateEvent(event.name, event.sampleWeight, windowStart)
+        val isAggregated = aggregateEvent != null &&
+                analyticsEventDao.incrementEventCount(aggregateEvent.id, event.count) > 0
+        if (!isAggregated) {
+            analyticsEventDao.insertEvent(event)
+        }
+    }
+
+    /**
+     * Remove uploaded events and spans. Events are removed by subtracting the uploaded counts, so
+     * events aggregated into a record while its upload was in flight are kept for the next upload.
+     */
+    private fun deleteUploadedRecords(
+        events: List<AnalyticsEvent>, spans: List<AnalyticsSpanRecord>
+    ) {
+        val analyticsEventDao = analyticsDatabase.analyticsEventDao()
+        analyticsDatabase.runInTransaction(Runnable {
+            events.forEach { analyticsEventDao.subtractEventCount(it.id, it.count) }
+            analyticsEventDao.deleteUploadedEvents()
+            analyticsDatabase.analyticsSpanDao().deleteSpans(spans)
+        })
+    }
+
     private fun scheduleAnalyticsUpload(
         configuration: Configuration,
         authorization: Authorization,
@@ -99,18 +206,14 @@ internal class AnalyticsClient @VisibleForTesting constructor(
             .putString(WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
-
-        val analyticsWorkRequest = OneTimeWorkRequest.Builder(AnalyticsUploadWorker::class.java)
-            .setInitialDelay(DELAY_TIME_SECONDS, TimeUnit.SECONDS)
-            .setInputData(inputData)
-            .build()
-        workManager.enqueueUniqueWork(
-            WORK_NAME_ANALYTICS_UPLOAD, ExistingWorkPolicy.KEEP, analyticsWorkRequest
-        )
-        return analyticsWorkRequest.id
+        return uploadScheduler.scheduleUpload(inputData)
     }
 
-    fun uploadAnalytics(context: Context?, inputData: Data): ListenableWorker.Result {
+    fun uploadAnalytics(
+        context: Context?,
+        inputData: Data,
+        runAttemptCount: Int = 0
+    ): ListenableWorker.Result {
         val configuration = getConfigurationFromData(inputData)
         val authorization = getAuthorizationFromData(inputData)
         val sessionId = inputData.getString(WORK_INPUT_KEY_SESSION_ID)
@@ -122,56 +225,80 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         } else {
             try {
                 val analyticsEventDao = analyticsDatabase.analyticsEventDao()
+                val analyticsSpanDao = analyticsDatabase.analyticsSpanDao()
                 val events = analyticsEventDao.getAllEvents()
-                if (events.isNotEmpty()) {
+                val spans = analyticsSpanDao.getSpans(SPAN_UPLOAD_BATCH_SIZE)
+                val pendingCount = events.size + spans.size
+                val isDeferred = pendingCount > 0 && uploadScheduler.deferUploadIfNeeded(
+                    inputData, pendingCount, deviceInspector.isNetworkMetered(context)
+                )
+                if (pendingCount > 0 && !isDeferred) {
                     val metadata = deviceInspector.getDeviceMetadata(context, sessionId, integration)
                     val analyticsRequest = serializeEvents(authorization, events, metadata)
+                    if (spans.isNotEmpty()) {
+                        analyticsRequest.put(SPANS_KEY, serializeSpans(spans))
+                    }
                     configuration?.analyticsUrl?.let { analyticsUrl ->
+                        val uploadStart = SystemClock.elapsedRealtime()
                         httpClient.post(
                             analyticsUrl, analyticsRequest.toString(), configuration, authorization
                         )
-                        analyticsEventDao.deleteEvents(events)
+                        // each record can hold several aggregated events
+                        metricsRecorder.onUploadSucceeded(
+                            events.sumOf { it.count }, pendingCount,
+                            SystemClock.elapsedRealtime() - uploadStart
+                        )
+                        deleteUploadedRecords(events, spans)
+                        uploadScheduler.onUploadSucceeded()
                     }
                 }
                 ListenableWorker.Result.success()
             } catch (e: Exception) {
-                ListenableWorker.Result.failure()
+                metricsRecorder.onUploadFailed(e)
+                if (runAttemptCount + 1 < MAX_UPLOAD_ATTEMPTS) {
+                    uploadScheduler.onUploadRetry()
+                    ListenableWorker.Result.retry()
+                } else {
+                    ListenableWorker.Result.failure()
+                }
             }
         }
     }
 
-    fun reportCrash(
-        context: Context?, sessionId: String?, integration: String?, authorization: Authorization?
-    ) {
-        reportCrash(context, sessionId, integration, System.currentTimeMillis(), authorization)
+    /**
+     * Snapshot the analytics pipeline counters and measure the database. Queries the database, so
+     * this must not be called on the main thread.
+     */
+    @WorkerThread
+    fun getMetrics(): AnalyticsMetrics {
+        val rowCount = analyticsDatabase.analyticsEventDao().getEventCount() +
+                analyticsDatabase.analyticsSpanDao().getSpanCount()
+        return metricsRecorder.snapshot(
+            rowCount, measureDatabaseSizeBytes(), uploadScheduler.metrics
+        )
     }
 
-    @VisibleForTesting
-    fun reportCrash(
-        context: Context?,
-        sessionId: String?,
-        integration: String?,
-        timestamp: Long,
-        authorization: Authorization?
-    ) {
-        if (authorization == null) {
-            return
+    private fun measureDatabaseSizeBytes(): Long {
+        val database = analyticsDatabase.openHelper.readableDatabase
+        val pageCount = database.query("PRAGMA page_count").use { cursor ->
+            if (cursor.moveToFirst()) cursor.getLong(0) else 0L
         }
-        val metadata = deviceInspector.getDeviceMetadata(context, sessionId, integration)
-        val event = AnalyticsEvent("android.crash", timestamp)
-        val events = listOf(event)
-        try {
-            val analyticsRequest = serializeEvents(authorization, events, metadata)
-            lastKnownAnalyticsUrl?.let { analyticsUrl ->
-                httpClient.post(
-                    analyticsUrl,
-                    analyticsRequest.toString(),
-                    null,
-                    authorization,
-                    HttpNoResponse()
-                )
+        return pageCount * database.pageSize
+    }
+
+    /**
+     * Move crashes recorded by a previous process into the analytics database so they are sent
+     * with the next upload. Runs once per process, from startup warm-up or from the first
+     * analytics write, whichever comes first. Writes to the database, so this must not be called
+     * on the main thread.
+     */
+    @WorkerThread
+    fun writePendingCrashReports() {
+        if (crashReportStore != null && hasWrittenPendingCrashReports.compareAndSet(false, true)) {
+            val analyticsEventDao = analyticsDatabase.analyticsEventDao()
+            crashReportStore.drain().forEach { timestamp ->
+                analyticsEventDao.insertEvent(AnalyticsEvent(CRASH_EVENT_NAME, timestamp))
             }
-        } catch (e: JSONException) { /* ignored */
         }
     }
 
@@ -195,20 +322,51 @@ internal class AnalyticsClient @VisibleForTesting constructor(
             eventObject = JSONObject()
                 .put(KIND_KEY, analyticsEvent.name)
                 .put(TIMESTAMP_KEY, analyticsEvent.timestamp)
+            if (analyticsEvent.count > 1) {
+                eventObject.put(COUNT_KEY, analyticsEvent.count)
+            }
+            if (analyticsEvent.sampleWeight != 1.0) {
+                eventObject.put(SAMPLE_WEIGHT_KEY, analyticsEvent.sampleWeight)
+            }
             eventObjects.put(eventObject)
         }
         requestObject.put(ANALYTICS_KEY, eventObjects)
         return requestObject
     }
 
+    @Throws(JSONException::class)
+    private fun serializeSpans(spans: List<AnalyticsSpanRecord>): JSONArray {
+        val spanObjects = JSONArray()
+        for (span in spans) {
+            spanObjects.put(
+                JSONObject()
+                    .put(NAME_KEY, span.name)
+                    .put(TIMESTAMP_KEY, span.timestamp)
+                    .put(DURATION_KEY, span.duration)
+                    .put(ATTRIBUTES_KEY, JSONObject(span.attributes))
+            )
+        }
+        return spanObjects
+    }
+
     companion object {
         private const val ANALYTICS_KEY = "analytics"
         private const val KIND_KEY = "kind"
         private const val TIMESTAMP_KEY = "timestamp"
+        private const val COUNT_KEY = "count"
+        private const val SAMPLE_WEIGHT_KEY = "sample_weight"
+        private const val SPANS_KEY = "spans"
+        private const val NAME_KEY = "name"
+        private const val DURATION_KEY = "duration_ms"
+        private const val ATTRIBUTES_KEY = "attributes"
         private const val META_KEY = "_meta"
         private const val TOKENIZATION_KEY = "tokenization_key"
         private const val AUTHORIZATION_FINGERPRINT_KEY = "authorization_fingerprint"
         private const val INVALID_TIMESTAMP: Long = -1
+        private const val CRASH_EVENT_NAME = "android.crash"
+
+        private val HAS_WRITTEN_PENDING_CRASH_REPORTS = AtomicBoolean(false)
+
         const val WORK_NAME_ANALYTICS_UPLOAD = "uploadAnalytics"
         const val WORK_NAME_ANALYTICS_WRITE = "writeAnalyticsToDb"
         const val WORK_INPUT_KEY_AUTHORIZATION = "authorization"
@@ -217,7 +375,14 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         const val WORK_INPUT_KEY_INTEGRATION = "integration"
         const val WORK_INPUT_KEY_SESSION_ID = "sessionId"
         const val WORK_INPUT_KEY_TIMESTAMP = "timestamp"
-        private const val DELAY_TIME_SECONDS = 30L
+        const val WORK_INPUT_KEY_SAMPLE_WEIGHT = "sampleWeight"
+        const val WORK_INPUT_KEY_SPAN_NAME = "spanName"
+        const val WORK_INPUT_KEY_SPAN_DURATION = "spanDuration"
+        const val WORK_INPUT_KEY_SPAN_ATTRIBUTES = "spanAttributes"
+        private const val MAX_UPLOAD_ATTEMPTS = 5
+        private const val SPAN_UPLOAD_BATCH_SIZE = 100
+        private val AGGREGATION_WINDOW_MILLIS =
+            TimeUnit.SECONDS.toMillis(AnalyticsUploadScheduler.UPLOAD_DELAY_SECONDS)
 
         private fun getAuthorizationFromData(inputData: Data?): Authorization? =
             inputData?.getString(WORK_INPUT_KEY_AUTHORIZATION)?.let {
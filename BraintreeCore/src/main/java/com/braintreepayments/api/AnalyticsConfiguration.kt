@@ -7,10 +7,14 @@ import org.json.JSONObject
  * Contains configuration for Braintree analytics calls
  * @property url url of the Braintree analytics service.
  */
-internal data class AnalyticsConfiguration(val url: String) {
+internal data class AnalyticsConfiguration(
+    val url: String,
+    internal val sampleRates: Map<String, Double> = emptyMap()
+) {
 
     constructor(json: JSONObject?) : this(
-        Json.optString(json, URL_KEY, "")
+        Json.optString(json, URL_KEY, ""),
+        parseSampleRates(json?.optJSONObject(SAMPLE_RATES_KEY))
     )
 
     /**
@@ -18,7 +22,28 @@ internal data class AnalyticsConfiguration(val url: String) {
      */
     val isEnabled: Boolean = !TextUtils.isEmpty(url)
 
+    /**
+     * Get the fraction of events of a given kind that should be recorded.
+     *
+     * @param eventName the analytics event name without the platform prefix.
+     * @return a sample rate in the range `[0.0, 1.0]`; `1.0` when no rate is configured.
+     */
+    fun sampleRateFor(eventName: String): Double = sampleRates[eventName] ?: DEFAULT_SAMPLE_RATE
+
     companion object {
         private const val URL_KEY = "url"
+        private const val SAMPLE_RATES_KEY = "sampleRates"
+        private const val DEFAULT_SAMPLE_RATE = 1.0
+
+        private fun parseSampleRates(json: JSONObject?): Map<String, Double> {
+            val sampleRates = mutableMapOf<String, Double>()
+            json?.keys()?.forEach { eventName ->
+                val rate = json.optDouble(eventName, DEFAULT_SAMPLE_RATE)
+                if (!rate.isNaN()) {
+                    sampleRates[eventName] = rate.coerceIn(0.0, 1.0)
+                }
+            }
+            return sampleRates
+        }
     }
 }
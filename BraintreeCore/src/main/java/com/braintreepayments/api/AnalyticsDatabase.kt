@@ -4,17 +4,47 @@ import android.content.Context
 import androidx.room.Database
 import androidx.room.Room
 import androidx.room.RoomDatabase
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
 
-@Database(entities = [AnalyticsEvent::class], version = 1)
+@Database(entities = [AnalyticsEvent::class, AnalyticsSpanRecord::class], version = 3)
 internal abstract class AnalyticsDatabase : RoomDatabase() {
 
     abstract fun analyticsEventDao(): AnalyticsEventDao
 
+    abstract fun analyticsSpanDao(): AnalyticsSpanDao
+
     companion object {
 
         @Volatile
         private var INSTANCE: AnalyticsDatabase? = null
 
+        // add aggregation count and sample weight columns to analytics events
+        private val MIGRATION_1_2 = object : Migration(1, 2) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                database.execSQL(
+                    "ALTER TABLE analytics_event ADD COLUMN count INTEGER NOT NULL DEFAULT 1"
+                )
+                database.execSQL(
+                    "ALTER TABLE analytics_event ADD COLUMN sample_weight REAL NOT NULL DEFAULT 1"
+                )
+            }
+        }
+
+        // add a table for latency spans
+        private val MIGRATION_2_3 = object : Migration(2, 3) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                database.execSQL(
+                    "CREATE TABLE IF NOT EXISTS analytics_span (" +
+                            "_id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                            "name TEXT NOT NULL, " +
+                            "timestamp INTEGER NOT NULL, " +
+                            "duration INTEGER NOT NULL, " +
+                            "attributes TEXT NOT NULL)"
+                )
+            }
+        }
+
         // Ref: https://developer.android.com/codelabs/android-room-with-a-view-kotlin#7
         @JvmStatic
         fun getInstance(context: Context): AnalyticsDatabase =
@@ -23,7 +53,9 @@ internal abstract class AnalyticsDatabase : RoomDatabase() {
                     context.applicationContext,
                     AnalyticsDatabase::class.java,
                     "analytics_database"
-                ).build()
+                )
+                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3)
+                    .build()
                 INSTANCE = instance
                 // return instance
                 instance
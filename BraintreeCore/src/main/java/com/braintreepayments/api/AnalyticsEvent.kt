@@ -19,4 +19,18 @@ open class AnalyticsEvent internal constructor(
     @PrimaryKey(autoGenerate = true)
     @ColumnInfo(name = "_id")
     var id = 0
+
+    /**
+     * Number of identical events merged into this record within a single aggregation window.
+     */
+    @JvmField
+    @ColumnInfo(name = "count", defaultValue = "1")
+    var count = 1
+
+    /**
+     * Inverse of the sample rate that was applied when this event was recorded.
+     */
+    @JvmField
+    @ColumnInfo(name = "sample_weight", defaultValue = "1")
+    var sampleWeight = 1.0
 }
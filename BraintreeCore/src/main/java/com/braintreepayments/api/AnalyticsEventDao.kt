@@ -1,7 +1,6 @@
 package com.braintreepayments.api
 
 import androidx.room.Dao
-import androidx.room.Delete
 import androidx.room.Insert
 import androidx.room.Query
 
@@ -14,6 +13,28 @@ internal interface AnalyticsEventDao {
     @Query("SELECT * FROM analytics_event")
     fun getAllEvents(): List<AnalyticsEvent>
 
-    @Delete
-    fun deleteEvents(events: List<AnalyticsEvent>)
+    /**
+     * Remove [count] uploaded events from a record. Events aggregated into the record after it was
+     * read for upload stay in it.
+     */
+    @Query("UPDATE analytics_event SET count = count - :count WHERE _id = :id")
+    fun subtractEventCount(id: Int, count: Int)
+
+    @Query("DELETE FROM analytics_event WHERE count <= 0")
+    fun deleteUploadedEvents()
+
+    @Query(
+        "SELECT * FROM analytics_event WHERE name = :name AND sample_weight = :sampleWeight " +
+                "AND timestamp > :windowStart ORDER BY timestamp ASC LIMIT 1"
+    )
+    fun findAggregateEvent(name: String, sampleWeight: Double, windowStart: Long): AnalyticsEvent?
+
+    /**
+     * @return the number of records updated; 0 if the record was deleted after an upload
+     */
+    @Query("UPDATE analytics_event SET count = count + :count WHERE _id = :id")
+    fun incrementEventCount(id: Int, count: Int): Int
+
+    @Query("SELECT COUNT(*) FROM analytics_event")
+    fun getEventCount(): Long
 }
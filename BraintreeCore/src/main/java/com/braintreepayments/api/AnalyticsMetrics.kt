@@ -0,0 +1,43 @@
+package com.braintreepayments.api
+
+/**
+ * A point-in-time snapshot of the SDK's analytics pipeline health for the current process.
+ * Counters start at zero when the process starts; gauges are measured when the snapshot is taken.
+ *
+ * @property eventsEnqueued events accepted by the SDK and queued for writing to the database
+ * @property eventsSampledOut events discarded because of a configured sample rate
+ * @property eventsPersisted events written to the analytics database, including events merged
+ * into an existing record
+ * @property eventsBuffered events queued for writing that have not been persisted yet
+ * @property eventsUploaded events successfully sent to the analytics service, counting each event
+ * merged into an aggregated record
+ * @property eventsDropped events discarded because they could not be written
+ * @property databaseRowCount events and spans currently stored in the analytics database
+ * @property databaseSizeBytes size of the analytics database
+ * @property uploadBatchCount successful upload requests
+ * @property lastUploadBatchSize records sent in the most recent successful upload
+ * @property maxUploadBatchSize records sent in the largest successful upload
+ * @property lastUploadLatencyMillis duration of the most recent successful upload request
+ * @property totalUploadLatencyMillis combined duration of all successful upload requests
+ * @property uploadsScheduled upload jobs scheduled, including early flushes and deferrals
+ * @property uploadRetries failed uploads rescheduled with backoff
+ * @property uploadFailureReasons failed upload attempts keyed by the exception class name
+ */
+class AnalyticsMetrics internal constructor(
+    val eventsEnqueued: Long,
+    val eventsSampledOut: Long,
+    val eventsPersisted: Long,
+    val eventsBuffered: Long,
+    val eventsUploaded: Long,
+    val eventsDropped: Long,
+    val databaseRowCount: Long,
+    val databaseSizeBytes: Long,
+    val uploadBatchCount: Long,
+    val lastUploadBatchSize: Long,
+    val maxUploadBatchSize: Long,
+    val lastUploadLatencyMillis: Long,
+    val totalUploadLatencyMillis: Long,
+    val uploadsScheduled: Long,
+    val uploadRetries: Long,
+    val uploadFailureReasons: Map<String, Long>
+)
@@ -0,0 +1,97 @@
+package com.braintreepayments.api
+
+import androidx.annotation.VisibleForTesting
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Process-wide counters for the analytics pipeline. More than one [AnalyticsClient] can exist in a
+ * process, so counters live here rather than on the client. Recording is a single atomic update;
+ * snapshots, and the gauges in them, are only computed when read.
+ */
+internal class AnalyticsMetricsRecorder @VisibleForTesting constructor() {
+
+    private val eventsEnqueued = AtomicLong()
+    private val eventsSampledOut = AtomicLong()
+    private val eventsPersisted = AtomicLong()
+    private val eventsUploaded = AtomicLong()
+    private val eventsDropped = AtomicLong()
+    private val uploadBatchCount = AtomicLong()
+    private val lastUploadBatchSize = AtomicLong()
+    private val maxUploadBatchSize = AtomicLong()
+    private val lastUploadLatencyMillis = AtomicLong()
+    private val totalUploadLatencyMillis = AtomicLong()
+    private val uploadFailureReasons = ConcurrentHashMap<String, AtomicLong>()
+
+    fun onEventEnqueued() {
+        eventsEnqueued.incrementAndGet()
+    }
+
+    fun onEventSampledOut() {
+        eventsSampledOut.incrementAndGet()
+    }
+
+    fun onEventPersisted() {
+        eventsPersisted.incrementAndGet()
+    }
+
+    fun onEventDropped() {
+        eventsDropped.incrementAndGet()
+    }
+
+    fun onUploadSucceeded(eventCount: Int, batchSize: Int, latencyMillis: Long) {
+        eventsUploaded.addAndGet(eventCount.toLong())
+        uploadBatchCount.incrementAndGet()
+        lastUploadBatchSize.set(batchSize.toLong())
+        updateMax(maxUploadBatchSize, batchSize.toLong())
+        lastUploadLatencyMillis.set(latencyMillis)
+        totalUploadLatencyMillis.addAndGet(latencyMillis)
+    }
+
+    // AtomicLong.accumulateAndGet requires API 24
+    private fun updateMax(counter: AtomicLong, value: Long) {
+        var current = counter.get()
+        while (value > current && !counter.compareAndSet(current, value)) {
+            current = counter.get()
+        }
+    }
+
+    fun onUploadFailed(error: Exception) {
+        uploadFailureReasons.getOrPut(error.javaClass.simpleName) { AtomicLong() }.incrementAndGet()
+    }
+
+    fun snapshot(
+        databaseRowCount: Long,
+        databaseSizeBytes: Long,
+        schedulingMetrics: AnalyticsSchedulingMetrics
+    ): AnalyticsMetrics {
+        val persisted = eventsPersisted.get()
+        val dropped = eventsDropped.get()
+        val enqueued = eventsEnqueued.get()
+        return AnalyticsMetrics(
+            eventsEnqueued = enqueued,
+            eventsSampledOut = eventsSampledOut.get(),
+            eventsPersisted = persisted,
+            // writes queued by a previous process can be persisted by this one
+            eventsBuffered = (enqueued - persisted - dropped).coerceAtLeast(0),
+            eventsUploaded = eventsUploaded.get(),
+            eventsDropped = dropped,
+            databaseRowCount = databaseRowCount,
+            databaseSizeBytes = databaseSizeBytes,
+            uploadBatchCount = uploadBatchCount.get(),
+            lastUploadBatchSize = lastUploadBatchSize.get(),
+            maxUploadBatchSize = maxUploadBatchSize.get(),
+            lastUploadLatencyMillis = lastUploadLatencyMillis.get(),
+            totalUploadLatencyMillis = totalUploadLatencyMillis.get(),
+            uploadsScheduled = schedulingMetrics.uploadsScheduled,
+            uploadRetries = schedulingMetrics.uploadRetries,
+            uploadFailureReasons = uploadFailureReasons.mapValues { it.value.get() }
+        )
+    }
+
+    companion object {
+        private val INSTANCE = AnalyticsMetricsRecorder()
+
+        fun getInstance(): AnalyticsMetricsRecorder = INSTANCE
+    }
+}
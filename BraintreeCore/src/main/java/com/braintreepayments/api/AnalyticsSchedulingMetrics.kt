@@ -0,0 +1,19 @@
+package com.braintreepayments.api
+
+/**
+ * Counts of the scheduling decisions made by [AnalyticsUploadScheduler] in the current process.
+ *
+ * @property uploadsScheduled upload work requests enqueued, including flushes and deferrals
+ * @property uploadsFlushedOnBackground uploads started early because the app moved to the
+ * background
+ * @property uploadsDeferredForActiveRequests uploads postponed because SDK requests were in flight
+ * @property uploadsDeferredForMeteredNetwork large uploads postponed until an unmetered network
+ * @property uploadRetries failed uploads rescheduled with exponential backoff
+ */
+internal data class AnalyticsSchedulingMetrics(
+    val uploadsScheduled: Long,
+    val uploadsFlushedOnBackground: Long,
+    val uploadsDeferredForActiveRequests: Long,
+    val uploadsDeferredForMeteredNetwork: Long,
+    val uploadRetries: Long
+)
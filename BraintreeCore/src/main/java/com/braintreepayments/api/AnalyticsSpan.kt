@@ -0,0 +1,56 @@
+package com.braintreepayments.api
+
+import android.os.SystemClock
+import androidx.annotation.RestrictTo
+
+/**
+ * A timed operation reported through the analytics pipeline. Durations are measured with
+ * [SystemClock.elapsedRealtime] so spans that cross an app or browser switch can be resumed from
+ * their persisted start values.
+ *
+ * @property name the span name without the platform prefix
+ * @property startTimestamp wall clock time in milliseconds when the span started
+ * @property startElapsedRealtime [SystemClock.elapsedRealtime] when the span started
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+class AnalyticsSpan @JvmOverloads constructor(
+    val name: String,
+    val startTimestamp: Long = System.currentTimeMillis(),
+    val startElapsedRealtime: Long = SystemClock.elapsedRealtime()
+) {
+
+    private val mutableAttributes = LinkedHashMap<String, String>()
+
+    /**
+     * Attributes describing this span, in insertion order.
+     */
+    val attributes: Map<String, String>
+        get() = mutableAttributes
+
+    /**
+     * Duration of the span in milliseconds, or [DURATION_UNFINISHED] until [end] is called.
+     */
+    var durationMillis = DURATION_UNFINISHED
+        private set
+
+    fun setAttribute(key: String, value: String?): AnalyticsSpan {
+        value?.let { mutableAttributes[key] = it }
+        return this
+    }
+
+    /**
+     * Stop the span's timer. Calling this more than once has no effect.
+     */
+    fun end(): AnalyticsSpan {
+        if (durationMillis == DURATION_UNFINISHED) {
+            // elapsed realtime resets on reboot; clamp so a resumed span can never be negative
+            durationMillis = (SystemClock.elapsedRealtime() - startElapsedRealtime).coerceAtLeast(0)
+        }
+        return this
+    }
+
+    companion object {
+        const val DURATION_UNFINISHED = -1L
+    }
+}
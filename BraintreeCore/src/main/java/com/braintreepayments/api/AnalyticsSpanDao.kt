@@ -0,0 +1,22 @@
+package com.braintreepayments.api
+
+import androidx.room.Dao
+import androidx.room.Delete
+import androidx.room.Insert
+import androidx.room.Query
+
+@Dao
+internal interface AnalyticsSpanDao {
+
+    @Insert
+    fun insertSpan(span: AnalyticsSpanRecord)
+
+    @Query("SELECT * FROM analytics_span ORDER BY _id ASC LIMIT :limit")
+    fun getSpans(limit: Int): List<AnalyticsSpanRecord>
+
+    @Delete
+    fun deleteSpans(spans: List<AnalyticsSpanRecord>)
+
+    @Query("SELECT COUNT(*) FROM analytics_span")
+    fun getSpanCount(): Long
+}
@@ -0,0 +1,22 @@
+package com.braintreepayments.api
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.PrimaryKey
+
+/**
+ * A completed [AnalyticsSpan] persisted for batched upload.
+ *
+ * @property attributes span attributes serialized as a JSON object string
+ */
+@Entity(tableName = "analytics_span")
+internal class AnalyticsSpanRecord(
+    val name: String,
+    val timestamp: Long,
+    val duration: Long,
+    val attributes: String
+) {
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "_id")
+    var id = 0
+}
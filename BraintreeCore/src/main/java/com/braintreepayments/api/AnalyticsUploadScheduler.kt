@@ -0,0 +1,188 @@
+package com.braintreepayments.api
+
+import android.content.ComponentCallbacks2
+import android.content.Context
+import android.content.res.Configuration
+import androidx.annotation.VisibleForTesting
+import androidx.work.BackoffPolicy
+import androidx.work.Constraints
+import androidx.work.Data
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequest
+import androidx.work.WorkManager
+import java.util.UUID
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Decides when analytics uploads run. Uploads are delayed by default, flushed immediately when
+ * the host application moves to the background, deferred while SDK network requests are in
+ * flight, and deferred to an unmetered network when a large backlog of events has built up.
+ */
+internal class AnalyticsUploadScheduler @VisibleForTesting constructor(
+    private val workManager: WorkManager,
+    private val activeRequestCounter: () -> Int = { HttpClient.getActiveRequestCount() }
+) : ComponentCallbacks2 {
+
+    @Volatile
+    private var lastInputData: Data? = null
+
+    @Volatile
+    private var hasUnflushedEvents = false
+
+    private val uploadsScheduled = AtomicLong()
+    private val uploadsFlushedOnBackground = AtomicLong()
+    private val uploadsDeferredForActiveRequests = AtomicLong()
+    private val uploadsDeferredForMeteredNetwork = AtomicLong()
+    private val uploadRetries = AtomicLong()
+
+    /**
+     * A snapshot of the scheduling decisions made in this process.
+     */
+    val metrics: AnalyticsSchedulingMetrics
+        get() = AnalyticsSchedulingMetrics(
+            uploadsScheduled = uploadsScheduled.get(),
+            uploadsFlushedOnBackground = uploadsFlushedOnBackground.get(),
+            uploadsDeferredForActiveRequests = uploadsDeferredForActiveRequests.get(),
+            uploadsDeferredForMeteredNetwork = uploadsDeferredForMeteredNetwork.get(),
+            uploadRetries = uploadRetries.get()
+        )
+
+    /**
+     * Schedule a delayed upload. An upload that is already pending is kept.
+     */
+    fun scheduleUpload(inputData: Data): UUID {
+        lastInputData = inputData
+        hasUnflushedEvents = true
+        return enqueueUpload(
+            inputData, UPLOAD_DELAY_SECONDS, NetworkType.CONNECTED, ExistingWorkPolicy.KEEP
+        )
+    }
+
+    /**
+     * Replace any pending delayed upload with one that runs as soon as a network is available.
+     */
+    fun flushUpload() {
+        val inputData = lastInputData
+        if (inputData != null && hasUnflushedEvents) {
+            hasUnflushedEvents = false
+            uploadsFlushedOnBackground.incrementAndGet()
+            enqueueUpload(inputData, 0, NetworkType.CONNECTED, ExistingWorkPolicy.REPLACE)
+        }
+    }
+
+    /**
+     * Called from a running upload worker before any events are sent. When the upload should
+     * wait, a follow-up upload is chained after the current one and `true` is returned.
+     *
+     * @param inputData the input data of the running upload
+     * @param pendingEventCount the number of events waiting to be uploaded
+     * @param isNetworkMetered `true` if the active network is metered
+     * @return `true` if the upload was deferred
+     */
+    fun deferUploadIfNeeded(
+        inputData: Data,
+        pendingEventCount: Int,
+        isNetworkMetered: Boolean
+    ): Boolean {
+        val deferralCount = inputData.getInt(WORK_INPUT_KEY_DEFERRAL_COUNT, 0)
+        if (deferralCount >= MAX_DEFERRALS) {
+            return false
+        }
+
+        return if (activeRequestCounter() > 0) {
+            uploadsDeferredForActiveRequests.incrementAndGet()
+            enqueueDeferredUpload(
+                inputData, deferralCount, ACTIVE_REQUEST_DEFERRAL_SECONDS, NetworkType.CONNECTED
+            )
+            true
+        } else if (isNetworkMetered && pendingEventCount >= LARGE_BACKLOG_EVENT_COUNT) {
+            uploadsDeferredForMeteredNetwork.incrementAndGet()
+            enqueueDeferredUpload(inputData, deferralCount, 0, NetworkType.UNMETERED)
+            true
+        } else {
+            false
+        }
+    }
+
+    fun onUploadSucceeded() {
+        hasUnflushedEvents = false
+    }
+
+    fun onUploadRetry() {
+        uploadRetries.incrementAndGet()
+    }
+
+    private fun enqueueDeferredUpload(
+        inputData: Data,
+        deferralCount: Int,
+        delaySeconds: Long,
+        networkType: NetworkType
+    ) {
+        val deferredInputData = Data.Builder()
+            .putAll(inputData)
+            .putInt(WORK_INPUT_KEY_DEFERRAL_COUNT, deferralCount + 1)
+            .build()
+        // chain after the running upload; KEEP would drop the request since this work is running
+        enqueueUpload(
+            deferredInputData, delaySeconds, networkType, ExistingWorkPolicy.APPEND_OR_REPLACE
+        )
+    }
+
+    private fun enqueueUpload(
+        inputData: Data,
+        delaySeconds: Long,
+        networkType: NetworkType,
+        existingWorkPolicy: ExistingWorkPolicy
+    ): UUID {
+        val constraints = Constraints.Builder()
+            .setRequiredNetworkType(networkType)
+            .build()
+        val analyticsWorkRequest = OneTimeWorkRequest.Builder(AnalyticsUploadWorker::class.java)
+            .setInitialDelay(delaySeconds, TimeUnit.SECONDS)
+            .setConstraints(constraints)
+            .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_DELAY_SECONDS, TimeUnit.SECONDS)
+            .setInputData(inputData)
+            .build()
+        workManager.enqueueUniqueWork(
+            AnalyticsClient.WORK_NAME_ANALYTICS_UPLOAD, existingWorkPolicy, analyticsWorkRequest
+        )
+        uploadsScheduled.incrementAndGet()
+        return analyticsWorkRequest.id
+    }
+
+    override fun onTrimMemory(level: Int) {
+        if (level == ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            flushUpload()
+        }
+    }
+
+    override fun onConfigurationChanged(newConfig: Configuration) { /* ignored */ }
+
+    override fun onLowMemory() { /* ignored */ }
+
+    companion object {
+        const val UPLOAD_DELAY_SECONDS = 30L
+        const val WORK_INPUT_KEY_DEFERRAL_COUNT = "deferralCount"
+
+        private const val ACTIVE_REQUEST_DEFERRAL_SECONDS = 10L
+        private const val BACKOFF_DELAY_SECONDS = 30L
+        private const val LARGE_BACKLOG_EVENT_COUNT = 100
+        private const val MAX_DEFERRALS = 3
+
+        @Volatile
+        private var INSTANCE: AnalyticsUploadScheduler? = null
+
+        fun getInstance(context: Context): AnalyticsUploadScheduler =
+            INSTANCE ?: synchronized(this) {
+                INSTANCE ?: AnalyticsUploadScheduler(
+                    WorkManager.getInstance(context.applicationContext)
+                ).also {
+                    // onTrimMemory(TRIM_MEMORY_UI_HIDDEN) signals the app moving to the background
+                    context.applicationContext.registerComponentCallbacks(it)
+                    INSTANCE = it
+                }
+            }
+    }
+}
@@ -16,6 +16,6 @@ open class AnalyticsUploadWorker(
 
     override fun doWork(): Result {
         val analyticsClient = createAnalyticsClientFromInputData()
-        return analyticsClient.uploadAnalytics(applicationContext, inputData)
+        return analyticsClient.uploadAnalytics(applicationContext, inputData, runAttemptCount)
     }
 }
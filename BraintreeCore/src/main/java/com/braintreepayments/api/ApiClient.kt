@@ -11,39 +11,83 @@ import org.json.JSONObject
 class ApiClient(private val braintreeClient: BraintreeClient) {
 
     fun tokenizeGraphQL(tokenizePayload: JSONObject, callback: TokenizeCallback) =
-        braintreeClient.run {
-            sendAnalyticsEvent("card.graphql.tokenization.started")
-            sendGraphQLPOST(tokenizePayload.toString(), object : HttpResponseCallback {
-                override fun onResult(responseBody: String?, httpError: Exception?) {
-                    parseResponseToJSON(responseBody)?.let { json ->
-                        sendAnalyticsEvent("card.graphql.tokenization.success")
-                        callback.onResult(json, null)
-                    } ?: httpError?.let { error ->
-                        sendAnalyticsEvent("card.graphql.tokenization.failure")
-                        callback.onResult(null, error)
-                    }
+        tokenizeGraphQL(tokenizePayload.toString(), callback)
+
+    /**
+     * Tokenize with an already serialized [tokenizePayload], so callers that write the request
+     * body directly don't build a [JSONObject] first.
+     */
+    fun tokenizeGraphQL(tokenizePayload: String, callback: TokenizeCallback) =
+        tokenizeGraphQL(tokenizePayload, null, callback)
+
+    /**
+     * Tokenize with an already resolved [requestContext], so flows that continue with more
+     * requests after tokenizing resolve authorization and configuration once.
+     */
+    fun tokenizeGraphQL(
+        tokenizePayload: String,
+        requestContext: BraintreeRequestContext?,
+        callback: TokenizeCallback
+    ) = braintreeClient.run {
+        sendAnalyticsEvent("card.graphql.tokenization.started")
+        val span = AnalyticsSpan(TOKENIZE_SPAN).setAttribute(SPAN_ATTRIBUTE_API, "graphql")
+        val responseCallback = object : HttpResponseCallback {
+            override fun onResult(responseBody: String?, httpError: Exception?) {
+                parseResponseToJSON(responseBody)?.let { json ->
+                    sendAnalyticsEvent("card.graphql.tokenization.success")
+                    sendAnalyticsSpan(span.setAttribute(SPAN_ATTRIBUTE_OUTCOME, "success"))
+                    callback.onResult(json, null)
+                } ?: httpError?.let { error ->
+                    sendAnalyticsEvent("card.graphql.tokenization.failure")
+                    sendAnalyticsSpan(span.setAttribute(SPAN_ATTRIBUTE_OUTCOME, "failure"))
+                    callback.onResult(null, error)
                 }
-            })
+            }
         }
+        if (requestContext != null) {
+            sendGraphQLPOST(tokenizePayload, requestContext, responseCallback)
+        } else {
+            sendGraphQLPOST(tokenizePayload, responseCallback)
+        }
+    }
 
     fun tokenizeREST(paymentMethod: PaymentMethod, callback: TokenizeCallback) =
-        braintreeClient.run {
-            val url = versionedPath("$PAYMENT_METHOD_ENDPOINT/${paymentMethod.apiPath}")
-            paymentMethod.setSessionId(braintreeClient.sessionId)
+        tokenizeREST(paymentMethod, null, callback)
 
-            sendAnalyticsEvent("card.rest.tokenization.started")
-            sendPOST(url, paymentMethod.buildJSON().toString(), object : HttpResponseCallback {
-                override fun onResult(responseBody: String?, httpError: Exception?) {
-                    parseResponseToJSON(responseBody)?.let { json ->
-                        sendAnalyticsEvent("card.rest.tokenization.success")
-                        callback.onResult(json, null)
-                    } ?: httpError?.let { error ->
-                        sendAnalyticsEvent("card.rest.tokenization.failure")
-                        callback.onResult(null, error)
-                    }
+    /**
+     * Tokenize with an already resolved [requestContext], so callers sending several requests
+     * resolve authorization and configuration once.
+     */
+    fun tokenizeREST(
+        paymentMethod: PaymentMethod,
+        requestContext: BraintreeRequestContext?,
+        callback: TokenizeCallback
+    ) = braintreeClient.run {
+        val url = versionedPath("$PAYMENT_METHOD_ENDPOINT/${paymentMethod.apiPath}")
+        paymentMethod.setSessionId(braintreeClient.sessionId)
+
+        sendAnalyticsEvent("card.rest.tokenization.started")
+        val span = AnalyticsSpan(TOKENIZE_SPAN).setAttribute(SPAN_ATTRIBUTE_API, "rest")
+        val responseCallback = object : HttpResponseCallback {
+            override fun onResult(responseBody: String?, httpError: Exception?) {
+                parseResponseToJSON(responseBody)?.let { json ->
+                    sendAnalyticsEvent("card.rest.tokenization.success")
+                    sendAnalyticsSpan(span.setAttribute(SPAN_ATTRIBUTE_OUTCOME, "success"))
+                    callback.onResult(json, null)
+                } ?: httpError?.let { error ->
+                    sendAnalyticsEvent("card.rest.tokenization.failure")
+                    sendAnalyticsSpan(span.setAttribute(SPAN_ATTRIBUTE_OUTCOME, "failure"))
+                    callback.onResult(null, error)
                 }
-            })
+            }
+        }
+        val data = paymentMethod.buildJSON().toString()
+        if (requestContext != null) {
+            sendPOST(url, data, requestContext, responseCallback)
+        } else {
+            sendPOST(url, data, responseCallback)
         }
+    }
 
     private fun parseResponseToJSON(responseBody: String?): JSONObject? =
         responseBody?.let {
@@ -57,6 +101,10 @@ class ApiClient(private val braintreeClient: BraintreeClient) {
     companion object {
         const val PAYMENT_METHOD_ENDPOINT = "payment_methods"
 
+        private const val TOKENIZE_SPAN = "card.tokenize"
+        private const val SPAN_ATTRIBUTE_API = "api"
+        private const val SPAN_ATTRIBUTE_OUTCOME = "outcome"
+
         @JvmStatic
         fun versionedPath(path: String): String {
             return "/v1/$path"
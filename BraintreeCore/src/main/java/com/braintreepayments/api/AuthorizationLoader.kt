@@ -1,26 +1,49 @@
 package com.braintreepayments.api
 
+import android.os.SystemClock
+
 internal class AuthorizationLoader(
     initialAuthString: String?,
-    private val clientTokenProvider: ClientTokenProvider?
+    private val clientTokenProvider: ClientTokenProvider?,
+    private val refreshPolicy: ClientTokenRefreshPolicy? = null,
+    private val elapsedRealtime: () -> Long = { SystemClock.elapsedRealtime() }
 ) {
     // cache initial auth if available
+    @Volatile
     var authorizationFromCache = initialAuthString?.let { Authorization.fromString(it) }
 
+    /**
+     * Notified with a completed span each time a client token is fetched from the
+     * [ClientTokenProvider].
+     */
+    var spanListener: ((AnalyticsSpan) -> Unit)? = null
+
+    private val lock = Any()
+
+    /**
+     * A provider request and the callbacks waiting on it. The generation is the value of
+     * [generation] when the request started.
+     */
+    private class PendingRequest(val generation: Int) {
+        val callbacks = mutableListOf<AuthorizationCallback>()
+    }
+
+    // all guarded by lock
+    private var pendingRequest: PendingRequest? = null
+    private var clientTokenFetchedAt = 0L
+
+    // bumped on each invalidation, so tokens from requests that started earlier aren't used
+    private var generation = 0
+
     fun loadAuthorization(callback: AuthorizationCallback) {
-        if (authorizationFromCache != null) {
-            callback.onAuthorizationResult(authorizationFromCache, null)
+        val cachedAuthorization = authorizationFromCache
+        if (cachedAuthorization != null) {
+            callback.onAuthorizationResult(cachedAuthorization, null)
+            if (isClientTokenStale()) {
+                fetchClientToken(null)
+            }
         } else if (clientTokenProvider != null) {
-            clientTokenProvider.getClientToken(object : ClientTokenCallback {
-                override fun onSuccess(clientToken: String) {
-                    authorizationFromCache = Authorization.fromString(clientToken)
-                    callback.onAuthorizationResult(authorizationFromCache, null)
-                }
-
-                override fun onFailure(error: Exception) {
-                    callback.onAuthorizationResult(null, error)
-                }
-            })
+            fetchClientToken(callback)
         } else {
             val clientSDKSetupURL =
                 "https://developer.paypal.com/braintree/docs/guides/client-sdk/setup/android/v4#initialization"
@@ -32,7 +55,79 @@ internal class AuthorizationLoader(
     fun invalidateClientToken() {
         // only invalidate client token cache if we can fetch a new one with a client token provider
         if (clientTokenProvider != null) {
-            authorizationFromCache = null
+            synchronized(lock) {
+                generation++
+                authorizationFromCache = null
+                clientTokenFetchedAt = 0L
+            }
+            if (refreshPolicy?.prefetchAfterInvalidation == true) {
+                fetchClientToken(null)
+            }
+        }
+    }
+
+    private fun isClientTokenStale(): Boolean {
+        val maxTokenAgeMillis = refreshPolicy?.maxTokenAgeMillis ?: return false
+        return clientTokenProvider != null && synchronized(lock) {
+            clientTokenFetchedAt > 0 && elapsedRealtime() - clientTokenFetchedAt >= maxTokenAgeMillis
         }
     }
+
+    /**
+     * Request a client token from the [ClientTokenProvider], joining the request that is already
+     * in flight if there is one. A null callback starts a background refresh.
+     *
+     * Requests that started before the client token was last invalidated aren't joined. When
+     * such a request returns, its token is discarded and its callbacks wait for a new token.
+     */
+    private fun fetchClientToken(callback: AuthorizationCallback?) {
+        val request = synchronized(lock) {
+            pendingRequest?.takeIf { it.generation == generation }?.let { currentRequest ->
+                callback?.let { currentRequest.callbacks.add(it) }
+                return
+            }
+            PendingRequest(generation).also { newRequest ->
+                callback?.let { newRequest.callbacks.add(it) }
+                pendingRequest = newRequest
+            }
+        }
+
+        val span = AnalyticsSpan(AUTHORIZATION_LOAD_SPAN)
+        clientTokenProvider?.getClientToken(object : ClientTokenCallback {
+            override fun onSuccess(clientToken: String) {
+                val authorization = Authorization.fromString(clientToken)
+                val isCurrent = synchronized(lock) {
+                    completeRequest(request)
+                    (request.generation == generation).also { isCurrent ->
+                        if (isCurrent) {
+                            authorizationFromCache = authorization
+                            clientTokenFetchedAt = elapsedRealtime()
+                        }
+                    }
+                }
+                if (isCurrent) {
+                    request.callbacks.forEach { it.onAuthorizationResult(authorization, null) }
+                    spanListener?.invoke(span.end())
+                } else {
+                    request.callbacks.forEach { loadAuthorization(it) }
+                }
+            }
+
+            override fun onFailure(error: Exception) {
+                synchronized(lock) { completeRequest(request) }
+                request.callbacks.forEach { it.onAuthorizationResult(null, error) }
+            }
+        })
+    }
+
+    // once a request completes, later callers start a new one
+    private fun completeRequest(request: PendingRequest) {
+        if (pendingRequest === request) {
+            pendingRequest = null
+        }
+    }
+
+    companion object {
+        private const val AUTHORIZATION_LOAD_SPAN = "authorization.client-token-provider"
+    }
 }
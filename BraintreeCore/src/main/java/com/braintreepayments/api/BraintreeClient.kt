@@ -6,8 +6,10 @@ import android.content.pm.ActivityInfo
 import android.net.Uri
 import androidx.annotation.RestrictTo
 import androidx.annotation.VisibleForTesting
+import androidx.annotation.WorkerThread
 import androidx.fragment.app.FragmentActivity
 import com.braintreepayments.api.IntegrationType.Integration
+import java.util.concurrent.atomic.AtomicBoolean
 
 /**
  * Core Braintree class that handles network requests.
@@ -34,17 +36,30 @@ open class BraintreeClient @VisibleForTesting internal constructor(
     val sessionId: String,
 
     private val authorizationLoader: AuthorizationLoader,
-    private val analyticsClient: AnalyticsClient,
-    private val httpClient: BraintreeHttpClient,
-    private val graphQLClient: BraintreeGraphQLClient,
-    private val browserSwitchClient: BrowserSwitchClient,
-    private val configurationLoader: ConfigurationLoader,
+    analyticsClient: Lazy<AnalyticsClient>,
+    httpClient: Lazy<BraintreeHttpClient>,
+    graphQLClient: Lazy<BraintreeGraphQLClient>,
+    browserSwitchClient: Lazy<BrowserSwitchClient>,
+    configurationLoader: Lazy<ConfigurationLoader>,
+    private val crashReportStore: CrashReportStore,
     private val manifestValidator: ManifestValidator,
     private val returnUrlScheme: String,
     private val braintreeDeepLinkReturnUrlScheme: String,
 ) {
 
+    // dependencies are resolved on first use to keep construction cheap on the main thread
+    private val analyticsClient: AnalyticsClient by analyticsClient
+    private val httpClient: BraintreeHttpClient by httpClient
+    private val graphQLClient: BraintreeGraphQLClient by graphQLClient
+    private val browserSwitchClient: BrowserSwitchClient by browserSwitchClient
+    private val configurationLoader: ConfigurationLoader by lazy {
+        configurationLoader.value.also { loader ->
+            loader.spanListener = { span -> sendAnalyticsSpan(span) }
+        }
+    }
+
     private val crashReporter: CrashReporter
+    private val hasStartedCrashReporter = AtomicBoolean(false)
     private var launchesBrowserSwitchAsNewTask: Boolean = false
 
     // NOTE: this constructor is used to make dependency injection easy
@@ -58,6 +73,7 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         graphQLClient = params.graphQLClient,
         browserSwitchClient = params.browserSwitchClient,
         configurationLoader = params.configurationLoader,
+        crashReportStore = params.crashReportStore,
         manifestValidator = params.manifestValidator,
         returnUrlScheme = params.returnUrlScheme,
         braintreeDeepLinkReturnUrlScheme = params.braintreeReturnUrlScheme
@@ -89,6 +105,27 @@ open class BraintreeClient @VisibleForTesting internal constructor(
     constructor(context: Context, clientTokenProvider: ClientTokenProvider) :
             this(BraintreeOptions(context = context, clientTokenProvider = clientTokenProvider))
 
+    /**
+     * Create a new instance of [BraintreeClient] using a [ClientTokenProvider] that is asked for a
+     * replacement client token in the background according to a [ClientTokenRefreshPolicy].
+     *
+     * @param context                  Android Context
+     * @param clientTokenProvider      An implementation of [ClientTokenProvider] that
+     * [BraintreeClient] will use to fetch a client token on demand.
+     * @param clientTokenRefreshPolicy When to fetch a replacement client token ahead of time
+     */
+    constructor(
+        context: Context,
+        clientTokenProvider: ClientTokenProvider,
+        clientTokenRefreshPolicy: ClientTokenRefreshPolicy
+    ) : this(
+        BraintreeOptions(
+            context = context,
+            clientTokenProvider = clientTokenProvider,
+            clientTokenRefreshPolicy = clientTokenRefreshPolicy
+        )
+    )
+
     /**
      * Create a new instance of [BraintreeClient] using a tokenization key or client token and a
      * custom url scheme.
@@ -174,7 +211,7 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         // merchants already have access to Crash statistics via GooglePlay. We also have crash
         // statistics access via the sdk console
         crashReporter = CrashReporter(this)
-        crashReporter.start()
+        authorizationLoader.spanListener = { span -> sendAnalyticsSpan(span) }
     }
 
     /**
@@ -183,11 +220,37 @@ open class BraintreeClient @VisibleForTesting internal constructor(
      * @param callback [ConfigurationCallback]
      */
     open fun getConfiguration(callback: ConfigurationCallback) {
+        getRequestContext { requestContext, error ->
+            callback.onResult(requestContext?.configuration, error)
+        }
+    }
+
+    /**
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun getAuthorization(callback: AuthorizationCallback) {
+        // every SDK request is authorized first, so this installs the crash handler once the
+        // SDK has work to do rather than when the client is constructed
+        if (hasStartedCrashReporter.compareAndSet(false, true)) {
+            crashReporter.start()
+        }
+        authorizationLoader.loadAuthorization(callback)
+    }
+
+    /**
+     * Resolve the [Authorization] and [Configuration] for a payment flow once. Pass the result to
+     * the [BraintreeRequestContext] variants of the request methods for the rest of the flow.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun getRequestContext(callback: BraintreeRequestContextCallback) {
         getAuthorization { authorization, authError ->
             if (authorization != null) {
                 configurationLoader.loadConfiguration(authorization) { configuration, configError ->
                     if (configuration != null) {
-                        callback.onResult(configuration, null)
+                        callback.onResult(BraintreeRequestContext(authorization, configuration), null)
                     } else {
                         callback.onResult(null, configError)
                     }
@@ -202,111 +265,166 @@ open class BraintreeClient @VisibleForTesting internal constructor(
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    fun getAuthorization(callback: AuthorizationCallback) {
-        authorizationLoader.loadAuthorization(callback)
+    fun sendAnalyticsEvent(eventName: String) {
+        getRequestContext { requestContext, _ ->
+            requestContext?.let { sendAnalyticsEvent(eventName, it) }
+        }
     }
 
     /**
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    fun sendAnalyticsEvent(eventName: String) {
-        getAuthorization { authorization, _ ->
-            if (authorization != null) {
-                getConfiguration { configuration, _ ->
-                    sendAnalyticsEvent(eventName, configuration, authorization)
-                }
-            }
-        }
-    }
-
-    private fun sendAnalyticsEvent(
-        eventName: String,
-        configuration: Configuration?,
-        authorization: Authorization
-    ) {
+    fun sendAnalyticsEvent(eventName: String, requestContext: BraintreeRequestContext) {
+        val configuration = requestContext.configuration
         if (isAnalyticsEnabled(configuration)) {
             analyticsClient.sendEvent(
-                configuration!!,
+                configuration,
                 eventName,
                 sessionId,
                 integrationType,
-                authorization
+                requestContext.authorization
             )
         }
     }
 
+    /**
+     * Ends the given span if it is still running and records it for upload with the next
+     * analytics batch.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendAnalyticsSpan(span: AnalyticsSpan) {
+        span.end()
+        getRequestContext { requestContext, _ ->
+            if (requestContext != null && isAnalyticsEnabled(requestContext.configuration)) {
+                analyticsClient.sendSpan(
+                    requestContext.configuration,
+                    span,
+                    sessionId,
+                    integrationType,
+                    requestContext.authorization
+                )
+            }
+        }
+    }
+
     /**
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     fun sendGET(url: String, responseCallback: HttpResponseCallback) {
-        getAuthorization { authorization, authError ->
-            if (authorization != null) {
-                getConfiguration { configuration, configError ->
-                    if (configuration != null) {
-                        httpClient.get(url, configuration, authorization, responseCallback)
-                    } else {
-                        responseCallback.onResult(null, configError)
-                    }
-                }
+        getRequestContext { requestContext, error ->
+            if (requestContext != null) {
+                sendGET(url, requestContext, responseCallback)
             } else {
-                responseCallback.onResult(null, authError)
+                responseCallback.onResult(null, error)
             }
         }
     }
 
+    /**
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGET(
+        url: String,
+        requestContext: BraintreeRequestContext,
+        responseCallback: HttpResponseCallback
+    ) {
+        httpClient.get(
+            url,
+            requestContext.configuration,
+            requestContext.authorization,
+            responseCallback
+        )
+    }
+
     /**
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     fun sendPOST(url: String, data: String, responseCallback: HttpResponseCallback) {
-        getAuthorization { authorization, authError ->
-            if (authorization != null) {
-                getConfiguration { configuration, configError ->
-                    if (configuration != null) {
-                        httpClient.post(
-                            url,
-                            data,
-                            configuration,
-                            authorization,
-                            responseCallback
-                        )
-                    } else {
-                        responseCallback.onResult(null, configError)
-                    }
-                }
+        getRequestContext { requestContext, error ->
+            if (requestContext != null) {
+                sendPOST(url, data, requestContext, responseCallback)
             } else {
-                responseCallback.onResult(null, authError)
+                responseCallback.onResult(null, error)
             }
         }
     }
 
+    /**
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendPOST(
+        url: String,
+        data: String,
+        requestContext: BraintreeRequestContext,
+        responseCallback: HttpResponseCallback
+    ) {
+        httpClient.post(
+            url,
+            data,
+            requestContext.configuration,
+            requestContext.authorization,
+            responseCallback
+        )
+    }
+
     /**
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     fun sendGraphQLPOST(payload: String?, responseCallback: HttpResponseCallback) {
-        getAuthorization { authorization, authError ->
-            if (authorization != null) {
-                getConfiguration { configuration, configError ->
-                    if (configuration != null) {
-                        graphQLClient.post(
-                            payload,
-                            configuration,
-                            authorization,
-                            responseCallback
-                        )
-                    } else {
-                        responseCallback.onResult(null, configError)
-                    }
-                }
+        getRequestContext { requestContext, error ->
+            if (requestContext != null) {
+                sendGraphQLPOST(payload, requestContext, responseCallback)
             } else {
-                responseCallback.onResult(null, authError)
+                responseCallback.onResult(null, error)
             }
         }
     }
 
+    /**
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGraphQLPOST(
+        payload: String?,
+        requestContext: BraintreeRequestContext,
+        responseCallback: HttpResponseCallback
+    ) {
+        graphQLClient.post(
+            payload,
+            requestContext.configuration,
+            requestContext.authorization,
+            responseCallback
+        )
+    }
+
+    /**
+     * Send a GraphQL operation whose response is passed to [responseCallback] even when it has
+     * errors, so an operation that selects several fields can map each error to its field.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGraphQLPOSTAllowingPartialResults(
+        payload: String?,
+        requestContext: BraintreeRequestContext,
+        responseCallback: HttpResponseCallback
+    ) {
+        graphQLClient.postAllowingPartialResults(
+            payload,
+            requestContext.configuration,
+            requestContext.authorization,
+            responseCallback
+        )
+    }
+
     /**
      * @suppress
      */
@@ -425,16 +543,28 @@ open class BraintreeClient @VisibleForTesting internal constructor(
     }
 
     /**
+     * Get a snapshot of the SDK's analytics pipeline health, suitable for periodic polling by
+     * your own telemetry. Counters cover the current process; the snapshot measures the
+     * analytics database, so call this from a background thread.
+     *
+     * @return [AnalyticsMetrics] for the current process
+     */
+    @WorkerThread
+    fun getAnalyticsMetrics(): AnalyticsMetrics = analyticsClient.getMetrics()
+
+    /**
+     * Record a crash for upload on the next launch. This runs on the crashing thread, so it only
+     * appends the crash timestamp to disk, without creating or waiting on the analytics client.
+     *
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    fun reportCrash() = authorizationLoader.authorizationFromCache?.let { authorization ->
-        analyticsClient.reportCrash(applicationContext, sessionId, integrationType, authorization)
-    }
+    fun reportCrash() = crashReportStore.append(System.currentTimeMillis())
 
     /**
      * For clients using a [ClientTokenProvider], call this method to invalidate the existing,
-     * cached client token. A new client token will be fetched by the SDK when it is needed.
+     * cached client token. A new client token will be fetched by the SDK when it is needed, or
+     * immediately if [ClientTokenRefreshPolicy.prefetchAfterInvalidation] is enabled.
      *
      * For clients not using a [ClientTokenProvider], this method does nothing.
      */
@@ -466,6 +596,17 @@ open class BraintreeClient @VisibleForTesting internal constructor(
 
     companion object {
 
+        /**
+         * Whether GraphQL operations sent within a few milliseconds of each other may be combined
+         * into one request, when your gateway configuration supports it. Disabled by default.
+         *
+         * This applies to every [BraintreeClient] in the process, so set it once, for example in
+         * `Application.onCreate()`.
+         */
+        @JvmStatic
+        @Volatile
+        var isGraphQLBatchingEnabled = false
+
         /**
          * @suppress
          */
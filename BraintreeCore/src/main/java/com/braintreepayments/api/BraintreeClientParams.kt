@@ -4,30 +4,56 @@ import android.content.Context
 import androidx.annotation.VisibleForTesting
 import com.braintreepayments.api.IntegrationType.Integration
 
-internal data class BraintreeClientParams @VisibleForTesting constructor(
+/**
+ * Dependencies for a [BraintreeClient]. Any dependency that isn't provided is created on first
+ * use, so constructing a [BraintreeClient] does not open the analytics database, initialize
+ * WorkManager, or load the pinned TLS certificates.
+ */
+internal class BraintreeClientParams @VisibleForTesting constructor(
     val context: Context,
     val sessionId: String,
     val authorizationLoader: AuthorizationLoader,
     val returnUrlScheme: String,
-    val httpClient: BraintreeHttpClient = BraintreeHttpClient(),
-    val graphQLClient: BraintreeGraphQLClient = BraintreeGraphQLClient(),
-    val analyticsClient: AnalyticsClient = AnalyticsClient(context),
-    val browserSwitchClient: BrowserSwitchClient = BrowserSwitchClient(),
+    val runtime: BraintreeRuntime = BraintreeRuntime.getInstance(context),
+    httpClient: BraintreeHttpClient? = null,
+    graphQLClient: BraintreeGraphQLClient? = null,
+    analyticsClient: AnalyticsClient? = null,
+    browserSwitchClient: BrowserSwitchClient? = null,
     val manifestValidator: ManifestValidator = ManifestValidator(),
     val uuidHelper: UUIDHelper = UUIDHelper(),
-    val configurationLoader: ConfigurationLoader = ConfigurationLoader(context, httpClient),
+    configurationLoader: ConfigurationLoader? = null,
+    crashReportStore: CrashReportStore? = null,
     @Integration val integrationType: String,
 ) {
 
     constructor(options: BraintreeOptions) : this(
         context = options.context,
         authorizationLoader = options.run {
-            AuthorizationLoader(initialAuthString, clientTokenProvider)
+            AuthorizationLoader(initialAuthString, clientTokenProvider, clientTokenRefreshPolicy)
         },
         sessionId = options.sessionId ?: createUniqueSessionId(),
         returnUrlScheme = options.returnUrlScheme ?: createDefaultReturnUrlScheme(options.context),
         integrationType = options.integrationType ?: IntegrationType.CUSTOM
-    )
+    ) {
+        runtime.warmUpInBackground()
+    }
+
+    val httpClient: Lazy<BraintreeHttpClient> =
+        httpClient?.let { lazyOf(it) } ?: lazy { runtime.httpClient }
+
+    val graphQLClient: Lazy<BraintreeGraphQLClient> =
+        graphQLClient?.let { lazyOf(it) } ?: lazy { runtime.graphQLClient }
+
+    val analyticsClient: Lazy<AnalyticsClient> =
+        analyticsClient?.let { lazyOf(it) } ?: lazy { runtime.analyticsClient }
+
+    val browserSwitchClient: Lazy<BrowserSwitchClient> =
+        browserSwitchClient?.let { lazyOf(it) } ?: lazy { runtime.browserSwitchClient }
+
+    val crashReportStore: CrashReportStore = crashReportStore ?: runtime.crashReportStore
+
+    val configurationLoader: Lazy<ConfigurationLoader> = configurationLoader?.let { lazyOf(it) }
+        ?: lazy { ConfigurationLoader(context, this.httpClient.value) }
 
     val applicationContext: Context = context.applicationContext
     val braintreeReturnUrlScheme =
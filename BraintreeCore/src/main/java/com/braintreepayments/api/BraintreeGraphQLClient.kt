@@ -3,9 +3,22 @@ package com.braintreepayments.api
 import java.util.Locale
 
 internal class BraintreeGraphQLClient(
-    private val httpClient: HttpClient = createDefaultHttpClient()
+    private val httpClient: HttpClient = createDefaultHttpClient(),
+    private val batcher: GraphQLOperationBatcher = GraphQLOperationBatcher(),
+    // read for each operation, so the merchant's opt-in applies to clients already created
+    private val isBatchingEnabled: () -> Boolean = { BraintreeClient.isGraphQLBatchingEnabled },
+    // returns responses with errors as they are; only created for operations that ask for it
+    partialResultsHttpClient: Lazy<HttpClient> = lazy {
+        createDefaultHttpClient(allowsPartialResults = true)
+    }
 ) {
 
+    private val partialResultsHttpClient: HttpClient by partialResultsHttpClient
+
+    // cleared if the server reports that it doesn't support persisted queries at all
+    @Volatile
+    private var persistedQueriesSupported = true
+
     fun post(
         path: String?,
         data: String?,
@@ -30,29 +43,130 @@ internal class BraintreeGraphQLClient(
         httpClient.sendRequest(request, callback)
     }
 
+    /**
+     * When the configuration enables persisted queries, the request is first sent with only the
+     * hash of its query document, and sent again with the full document if the server doesn't
+     * have it stored yet. If the server doesn't support persisted queries, the request is sent
+     * again unchanged and persisted queries aren't used from then on.
+     *
+     * When the configuration enables batching, operations sent close together are combined into
+     * one request by [GraphQLOperationBatcher].
+     */
     fun post(
         data: String?,
         configuration: Configuration,
         authorization: Authorization,
         callback: HttpResponseCallback
+    ) {
+        postOperation(data, configuration, authorization, false, callback)
+    }
+
+    /**
+     * Like [post], but a response with errors is passed to [callback] as it is, so an operation
+     * that selects several fields can map each error to the field it belongs to. Errors about
+     * persisted queries are still handled here. These operations are never batched.
+     */
+    fun postAllowingPartialResults(
+        data: String?,
+        configuration: Configuration,
+        authorization: Authorization,
+        callback: HttpResponseCallback
+    ) {
+        postOperation(data, configuration, authorization, true, callback)
+    }
+
+    private fun postOperation(
+        data: String?,
+        configuration: Configuration,
+        authorization: Authorization,
+        allowsPartialResults: Boolean,
+        callback: HttpResponseCallback
     ) {
         if (authorization is InvalidAuthorization) {
             val message = authorization.errorMessage
             callback.onResult(null, BraintreeException(message))
             return
         }
-        val request = HttpRequest()
-            .method("POST")
-            .path("")
-            .data(data)
-            .baseUrl(configuration.graphQLUrl)
-            .addHeader("User-Agent", "braintree/android/" + BuildConfig.VERSION_NAME)
-            .addHeader("Authorization",
-                String.format(Locale.US, "Bearer %s", authorization.bearer))
-            .addHeader("Braintree-Version", GraphQLConstants.Headers.API_VERSION)
-        httpClient.sendRequest(request, callback)
+
+        val persistedQuery = if (shouldUsePersistedQueries(configuration)) {
+            GraphQLPersistedQuery.fromPayload(data)
+        } else {
+            null
+        }
+        if (persistedQuery == null) {
+            sendOperation(data, configuration, authorization, allowsPartialResults, callback)
+            return
+        }
+
+        val hashOnlyPayload = persistedQuery.hashOnlyPayload
+        sendOperation(hashOnlyPayload, configuration, authorization, allowsPartialResults, object : HttpResponseCallback {
+            override fun onResult(responseBody: String?, httpError: Exception?) {
+                if (httpError is PersistedQueryNotFoundException) {
+                    // a server without persisted queries may also reject the hash in the full
+                    // payload, so it gets the request exactly as the caller built it
+                    val retryPayload = if (httpError.isSupported) {
+                        persistedQuery.fullPayload
+                    } else {
+                        persistedQueriesSupported = false
+                        data
+                    }
+                    sendOperation(
+                        retryPayload,
+                        configuration,
+                        authorization,
+                        allowsPartialResults,
+                        callback
+                    )
+                } else {
+                    callback.onResult(responseBody, httpError)
+                }
+            }
+        })
+    }
+
+    private fun sendOperation(
+        data: String?,
+        configuration: Configuration,
+        authorization: Authorization,
+        allowsPartialResults: Boolean,
+        callback: HttpResponseCallback
+    ) {
+        if (allowsPartialResults) {
+            // a batched response is split by the batcher, which raises each operation's errors
+            val request = createRequest(data, configuration, authorization)
+            partialResultsHttpClient.sendRequest(request, callback)
+        } else if (data != null && shouldBatch(configuration) && batcher.canBatch(data)) {
+            val batchKey = "${configuration.graphQLUrl} ${authorization.bearer}"
+            batcher.enqueue(data, batchKey, callback) { body, batchCallback ->
+                httpClient.sendRequest(createRequest(body, configuration, authorization), batchCallback)
+            }
+        } else {
+            httpClient.sendRequest(createRequest(data, configuration, authorization), callback)
+        }
     }
 
+    private fun shouldBatch(configuration: Configuration) =
+        isBatchingEnabled() &&
+            configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.BATCH_OPERATIONS)
+
+    private fun shouldUsePersistedQueries(configuration: Configuration) =
+        persistedQueriesSupported &&
+            configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.PERSISTED_QUERIES)
+
+    private fun createRequest(
+        data: String?,
+        configuration: Configuration,
+        authorization: Authorization
+    ) = HttpRequest()
+        .method("POST")
+        .path("")
+        .data(data)
+        .baseUrl(configuration.graphQLUrl)
+        .addHeader("User-Agent", "braintree/android/" + BuildConfig.VERSION_NAME)
+        .addHeader("Authorization",
+            String.format(Locale.US, "Bearer %s", authorization.bearer))
+        .addHeader("Braintree-Version", GraphQLConstants.Headers.API_VERSION)
+
     @Throws(Exception::class)
     fun post(
         path: String?,
@@ -78,9 +192,9 @@ internal class BraintreeGraphQLClient(
 
     companion object {
 
-        private fun createDefaultHttpClient(): HttpClient {
+        private fun createDefaultHttpClient(allowsPartialResults: Boolean = false): HttpClient {
             val socketFactory = TLSSocketFactory(TLSCertificatePinning.certInputStream)
-            return HttpClient(socketFactory, BraintreeGraphQLResponseParser())
+            return HttpClient(socketFactory, BraintreeGraphQLResponseParser(allowsPartialResults))
         }
     }
 }
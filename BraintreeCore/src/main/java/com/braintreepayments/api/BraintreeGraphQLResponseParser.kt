@@ -6,12 +6,17 @@ import java.net.HttpURLConnection
 
 /**
  * Class that handles parsing http responses for [BraintreeGraphQLClient].
+ *
+ * @property allowsPartialResults whether a response with errors is returned to the caller, which
+ * maps each error to the field it belongs to, instead of being raised as an exception
  */
 internal class BraintreeGraphQLResponseParser @VisibleForTesting constructor(
-    private val baseParser: HttpResponseParser
+    private val baseParser: HttpResponseParser,
+    private val allowsPartialResults: Boolean = false
 ) : HttpResponseParser {
 
-    constructor() : this(BaseHttpResponseParser())
+    constructor(allowsPartialResults: Boolean = false) :
+        this(BaseHttpResponseParser(), allowsPartialResults)
 
     /**
      * @param responseCode the response code returned when the http request was made.
@@ -21,32 +26,78 @@ internal class BraintreeGraphQLResponseParser @VisibleForTesting constructor(
     @Throws(Exception::class)
     override fun parse(responseCode: Int, connection: HttpURLConnection): String {
         val response = baseParser.parse(responseCode, connection)
-        val errors = JSONObject(response).optJSONArray(GraphQLConstants.Keys.ERRORS)
-        if (errors == null) return response
+        // a batch response is split into its operations, each of which is parsed on its own
+        if (response.trimStart().startsWith("[")) return response
+        return parseOperationResponse(response, allowsPartialResults)
+    }
+
+    companion object {
+
+        /**
+         * @param response the response to a single GraphQL operation
+         * @param allowsPartialResults whether to return a response with errors so the caller can
+         * map each error to its field by [GraphQLConstants.Keys.PATH]
+         * @return [response] if it has no errors, or if [allowsPartialResults] is set and none of
+         * its errors is about a persisted query
+         * @throws ErrorWithResponse if the operation failed with user errors, or another
+         * exception describing the first other error
+         */
+        @Throws(Exception::class)
+        fun parseOperationResponse(response: String, allowsPartialResults: Boolean = false): String {
+            val errors = JSONObject(response).optJSONArray(GraphQLConstants.Keys.ERRORS)
+            if (errors == null) return response
+
+            if (allowsPartialResults) {
+                // persisted query errors are about the whole request, so they are still raised
+                for (i in 0 until errors.length()) {
+                    val error = errors.getJSONObject(i)
+                    error.optJSONObject(GraphQLConstants.Keys.EXTENSIONS)
+                        ?.let { throwIfPersistedQueryError(it, error) }
+                }
+                return response
+            }
+
+            for (i in 0 until errors.length()) {
+                val error = errors.getJSONObject(i)
+                val extensions = error.optJSONObject(GraphQLConstants.Keys.EXTENSIONS)
+                val message = Json.optString(
+                    error,
+                    GraphQLConstants.Keys.MESSAGE,
+                    "An Unexpected Exception Occurred"
+                )
+                if (extensions == null) {
+                    throw UnexpectedException(message)
+                }
+
+                throwIfPersistedQueryError(extensions, error)
 
-        for (i in 0 until errors.length()) {
-            val error = errors.getJSONObject(i)
-            val extensions = error.optJSONObject(GraphQLConstants.Keys.EXTENSIONS)
+                val legacyCode =
+                    Json.optString(extensions, GraphQLConstants.Keys.LEGACY_CODE, "")
+                val errorType =
+                    Json.optString(extensions, GraphQLConstants.Keys.ERROR_TYPE, "")
+
+                if (legacyCode == GraphQLConstants.LegacyErrorCodes.VALIDATION_NOT_ALLOWED) {
+                    throw AuthorizationException(error.getString(GraphQLConstants.Keys.MESSAGE))
+                } else if (errorType != GraphQLConstants.ErrorTypes.USER) {
+                    throw UnexpectedException(message)
+                }
+            }
+            throw ErrorWithResponse.fromGraphQLJson(response)
+        }
+
+        @Throws(PersistedQueryNotFoundException::class)
+        private fun throwIfPersistedQueryError(extensions: JSONObject, error: JSONObject) {
             val message = Json.optString(
                 error,
                 GraphQLConstants.Keys.MESSAGE,
                 "An Unexpected Exception Occurred"
             )
-            if (extensions == null) {
-                throw UnexpectedException(message)
-            }
-
-            val legacyCode =
-                Json.optString(extensions, GraphQLConstants.Keys.LEGACY_CODE, "")
-            val errorType =
-                Json.optString(extensions, GraphQLConstants.Keys.ERROR_TYPE, "")
-
-            if (legacyCode == GraphQLConstants.LegacyErrorCodes.VALIDATION_NOT_ALLOWED) {
-                throw AuthorizationException(error.getString(GraphQLConstants.Keys.MESSAGE))
-            } else if (errorType != GraphQLConstants.ErrorTypes.USER) {
-                throw UnexpectedException(message)
+            when (Json.optString(extensions, GraphQLConstants.Keys.CODE, "")) {
+                GraphQLConstants.ErrorCodes.PERSISTED_QUERY_NOT_FOUND ->
+                    throw PersistedQueryNotFoundException(message, isSupported = true)
+                GraphQLConstants.ErrorCodes.PERSISTED_QUERY_NOT_SUPPORTED ->
+                    throw PersistedQueryNotFoundException(message, isSupported = false)
             }
         }
-        throw ErrorWithResponse.fromGraphQLJson(response)
     }
 }
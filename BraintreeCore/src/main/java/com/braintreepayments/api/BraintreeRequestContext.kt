@@ -0,0 +1,16 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+
+/**
+ * The [Authorization] and [Configuration] resolved for a payment flow. Resolve it once with
+ * [BraintreeClient.getRequestContext] and pass it to the later requests in the same flow so they
+ * don't look up authorization and configuration again.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+data class BraintreeRequestContext(
+    val authorization: Authorization,
+    val configuration: Configuration
+)
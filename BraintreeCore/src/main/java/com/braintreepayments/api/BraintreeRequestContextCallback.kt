@@ -0,0 +1,11 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+
+/**
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+fun interface BraintreeRequestContextCallback {
+    fun onResult(requestContext: BraintreeRequestContext?, error: Exception?)
+}
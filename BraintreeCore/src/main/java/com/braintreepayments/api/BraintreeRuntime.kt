@@ -0,0 +1,78 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import androidx.annotation.VisibleForTesting
+import java.util.concurrent.atomic.AtomicBoolean
+import javax.net.ssl.SSLSocketFactory
+
+/**
+ * Process-scoped dependencies shared by every [BraintreeClient]. Each [BraintreeClient] is a
+ * lightweight facade over this runtime, so apps that create a client per screen share one
+ * background thread pool, one pinned TLS socket factory (which also lets requests reuse pooled
+ * connections), and one set of HTTP and analytics clients.
+ *
+ * Dependencies are created on first use. [warmUpInBackground] creates the expensive ones on a
+ * background thread so the first payment flow doesn't pay for them on the main thread.
+ */
+internal class BraintreeRuntime @VisibleForTesting constructor(
+    private val applicationContext: Context
+) {
+
+    private val scheduler: Scheduler by lazy { ThreadScheduler() }
+
+    private val socketFactory: SSLSocketFactory by lazy {
+        TLSSocketFactory(TLSCertificatePinning.certInputStream)
+    }
+
+    val httpClient: BraintreeHttpClient by lazy {
+        BraintreeHttpClient(HttpClient(socketFactory, BraintreeHttpResponseParser(), scheduler))
+    }
+
+    val graphQLClient: BraintreeGraphQLClient by lazy {
+        BraintreeGraphQLClient(
+            HttpClient(socketFactory, BraintreeGraphQLResponseParser(), scheduler),
+            partialResultsHttpClient = lazy {
+                HttpClient(socketFactory, BraintreeGraphQLResponseParser(allowsPartialResults = true), scheduler)
+            }
+        )
+    }
+
+    val analyticsClient: AnalyticsClient by lazy {
+        AnalyticsClient(applicationContext, httpClient, crashReportStore)
+    }
+
+    val browserSwitchClient: BrowserSwitchClient by lazy { BrowserSwitchClient() }
+
+    // created up front so the crash handler never has to construct, or wait on, anything else
+    val crashReportStore = CrashReportStore(applicationContext)
+
+    private val hasStartedWarmUp = AtomicBoolean(false)
+
+    /**
+     * Create the HTTP clients (which load the pinned certificates), the analytics client (which
+     * initializes WorkManager and the analytics database), and the configuration cache on a
+     * background thread, and move crashes recorded by the previous process into the analytics
+     * database. Only the first call has an effect.
+     */
+    fun warmUpInBackground() {
+        if (hasStartedWarmUp.compareAndSet(false, true)) {
+            scheduler.runOnBackground {
+                httpClient
+                graphQLClient
+                analyticsClient.writePendingCrashReports()
+                ConfigurationCache.getInstance(applicationContext)
+            }
+        }
+    }
+
+    companion object {
+
+        @Volatile
+        private var INSTANCE: BraintreeRuntime? = null
+
+        fun getInstance(context: Context): BraintreeRuntime =
+            INSTANCE ?: synchronized(this) {
+                INSTANCE ?: BraintreeRuntime(context.applicationContext).also { INSTANCE = it }
+            }
+    }
+}
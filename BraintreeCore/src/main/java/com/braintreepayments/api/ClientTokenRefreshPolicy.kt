@@ -0,0 +1,16 @@
+package com.braintreepayments.api
+
+/**
+ * Opt-in settings that let [BraintreeClient] fetch a replacement client token from your
+ * [ClientTokenProvider] in the background, so your server round trip does not delay the next
+ * payment action.
+ *
+ * @property prefetchAfterInvalidation when `true`, a new client token is requested as soon as
+ * [BraintreeClient.invalidateClientToken] is called instead of when the SDK next needs it
+ * @property maxTokenAgeMillis when set, a client token older than this is still used, but a
+ * replacement is fetched in the background the next time the SDK uses it
+ */
+data class ClientTokenRefreshPolicy @JvmOverloads constructor(
+    val prefetchAfterInvalidation: Boolean = true,
+    val maxTokenAgeMillis: Long? = null
+)
@@ -39,7 +39,29 @@ import org.json.JSONObject
  * @property payPalUserAgreementUrl the PayPal app user agreement url.
  * @property supportedCardTypes a list of card types supported by the merchant.
  */
-open class Configuration internal constructor(configurationString: String?) {
+open class Configuration internal constructor(
+    // a cached configuration only turns its JSON into a string when toJson is called
+    configurationString: Lazy<String>,
+    open val assetsUrl: String,
+    open val cardinalAuthenticationJwt: String?,
+    open val clientApiUrl: String,
+    open val environment: String,
+    open val isPayPalEnabled: Boolean,
+    open val isThreeDSecureEnabled: Boolean,
+    open val merchantAccountId: String?,
+    open val merchantId: String,
+    internal val challenges: Set<String>,
+    analyticsConfiguration: Lazy<AnalyticsConfiguration>,
+    braintreeApiConfiguration: Lazy<BraintreeApiConfiguration>,
+    cardConfiguration: Lazy<CardConfiguration>,
+    googlePayConfiguration: Lazy<GooglePayConfiguration>,
+    graphQLConfiguration: Lazy<GraphQLConfiguration>,
+    payPalConfiguration: Lazy<PayPalConfiguration>,
+    samsungPayConfiguration: Lazy<SamsungPayConfiguration>,
+    unionPayConfiguration: Lazy<UnionPayConfiguration>,
+    venmoConfiguration: Lazy<VenmoConfiguration>,
+    visaCheckoutConfiguration: Lazy<VisaCheckoutConfiguration>
+) {
 
     /**
      * @suppress
@@ -71,29 +93,76 @@ open class Configuration internal constructor(configurationString: String?) {
             // NEXT MAJOR VERSION: remove JSON static factory method from public facing API
             return Configuration(configurationString)
         }
+
+        // sub-configuration constructors fall back to defaults instead of throwing, so decoding
+        // one can't fail after fromJson has returned
+        private fun <T> lazySubConfiguration(
+            json: JSONObject,
+            key: String,
+            parse: (JSONObject?) -> T
+        ): Lazy<T> = lazy { parse(json.optJSONObject(key)) }
+
+        private fun parseChallenges(json: JSONObject): Set<String> {
+            val challenges = mutableSetOf<String>()
+            json.optJSONArray(CHALLENGES_KEY)?.let { challengesArray ->
+                for (i in 0 until challengesArray.length()) {
+                    challenges.add(challengesArray.optString(i, ""))
+                }
+            }
+            return challenges
+        }
     }
 
+    private val configurationString: String by configurationString
+
+    // sub-configurations are decoded on first access, since most flows only read one or two
+    internal val analyticsConfiguration: AnalyticsConfiguration by analyticsConfiguration
+    internal val braintreeApiConfiguration: BraintreeApiConfiguration by braintreeApiConfiguration
+    internal val cardConfiguration: CardConfiguration by cardConfiguration
+    internal val googlePayConfiguration: GooglePayConfiguration by googlePayConfiguration
+    internal val graphQLConfiguration: GraphQLConfiguration by graphQLConfiguration
+    internal val payPalConfiguration: PayPalConfiguration by payPalConfiguration
+    internal val samsungPayConfiguration: SamsungPayConfiguration by samsungPayConfiguration
+    internal val unionPayConfiguration: UnionPayConfiguration by unionPayConfiguration
+    internal val venmoConfiguration: VenmoConfiguration by venmoConfiguration
+    internal val visaCheckoutConfiguration: VisaCheckoutConfiguration by visaCheckoutConfiguration
+
     // region Public Properties
-    open val assetsUrl: String
-    open val cardinalAuthenticationJwt: String?
-    open val clientApiUrl: String
-    open val environment: String
     open val isCvvChallengePresent: Boolean
+        get() = challenges.contains("cvv")
+
     open val isGooglePayEnabled: Boolean
+        get() = googlePayConfiguration.isEnabled
+
     open val isLocalPaymentEnabled: Boolean
-    open val isPayPalEnabled: Boolean
+        get() = isPayPalEnabled // Local Payments are enabled when PayPal is enabled
+
     open val isPostalCodeChallengePresent: Boolean
+        get() = challenges.contains("postal_code")
+
     open val isSamsungPayEnabled: Boolean
-    open val isThreeDSecureEnabled: Boolean
+        get() = samsungPayConfiguration.isEnabled
+
     open val isUnionPayEnabled: Boolean
+        get() = unionPayConfiguration.isEnabled
+
     open val isVenmoEnabled: Boolean
+        get() = venmoConfiguration.isAccessTokenValid
+
     open val isVisaCheckoutEnabled: Boolean
-    open val merchantAccountId: String?
-    open val merchantId: String
+        get() = visaCheckoutConfiguration.isEnabled
+
     open val payPalDirectBaseUrl: String?
+        get() = payPalConfiguration.directBaseUrl
+
     open val payPalPrivacyUrl: String?
+        get() = payPalConfiguration.privacyUrl
+
     open val payPalUserAgreementUrl: String?
+        get() = payPalConfiguration.userAgreementUrl
+
     open val supportedCardTypes: List<String>
+        get() = cardConfiguration.supportedCardTypes
     // endregion
 
     // region Internal Properties
@@ -103,18 +172,21 @@ open class Configuration internal constructor(configurationString: String?) {
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val analyticsUrl: String?
+        get() = analyticsConfiguration.url
 
     /**
      * @return The Access Token for Braintree API.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val braintreeApiAccessToken: String
+        get() = braintreeApiConfiguration.accessToken
 
     /**
      * @return the base url for accessing Braintree API.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val braintreeApiUrl: String
+        get() = braintreeApiConfiguration.url
 
     /**
      * @return the authorization fingerprint to use for Google Payment, only allows tokenizing
@@ -122,272 +194,235 @@ open class Configuration internal constructor(configurationString: String?) {
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val googlePayAuthorizationFingerprint: String?
+        get() = googlePayConfiguration.googleAuthorizationFingerprint
 
     /**
      * @return the Google Pay display name to show to the user.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val googlePayDisplayName: String
+        get() = googlePayConfiguration.displayName
 
     /**
      * @return the current Google Pay environment.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val googlePayEnvironment: String?
+        get() = googlePayConfiguration.environment
 
     /**
      * @return the PayPal Client ID used by Google Pay.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val googlePayPayPalClientId: String
+        get() = googlePayConfiguration.paypalClientId
 
     /**
      * @return a list of supported card networks for Google Pay.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val googlePaySupportedNetworks: List<String>
+        get() = googlePayConfiguration.supportedNetworks
 
     /**
      * @return the GraphQL url.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val graphQLUrl: String
+        get() = graphQLConfiguration.url
 
     /**
      * @return `true` if analytics are enabled, `false` otherwise.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val isAnalyticsEnabled: Boolean
+        get() = analyticsConfiguration.isEnabled
 
     /**
      * @return a boolean indicating whether Braintree API is enabled for this merchant.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val isBraintreeApiEnabled: Boolean
+        get() = braintreeApiConfiguration.isEnabled
 
     /**
      * @return `true` if fraud device data collection should occur; `false` otherwise.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val isFraudDataCollectionEnabled: Boolean
+        get() = cardConfiguration.isFraudDataCollectionEnabled
 
     /**
      * @return `true` if GraphQL is enabled for the merchant account; `false` otherwise.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val isGraphQLEnabled: Boolean
+        get() = graphQLConfiguration.isEnabled
 
     /**
      * @return `true` if Kount is enabled for the merchant account; `false` otherwise.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val isKountEnabled: Boolean
+        get() = false // NEXT MAJOR VERSION: remove Kount related properties
 
     /**
      * @return `true` if PayPal touch is currently disabled, `false` otherwise.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val isPayPalTouchDisabled: Boolean
+        get() = payPalConfiguration.isTouchDisabled
 
     /**
      * @return the Kount merchant id set in the Gateway.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val kountMerchantId: String
+        get() = ""
 
     /**
      * @return the PayPal app client id.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val payPalClientId: String?
+        get() = payPalConfiguration.clientId
 
     /**
      * @return the PayPal currency code.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val payPalCurrencyIsoCode: String?
+        get() = payPalConfiguration.currencyIsoCode
 
     /**
      * @return the PayPal app display name.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val payPalDisplayName: String?
+        get() = payPalConfiguration.displayName
 
     /**
      * @return the current environment for PayPal.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val payPalEnvironment: String?
+        get() = payPalConfiguration.environment
 
     /**
      * @return the authorization to use with Samsung Pay.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val samsungPayAuthorization: String
+        get() = samsungPayConfiguration.samsungAuthorization
 
     /**
      * @return the Braintree environment Samsung Pay should interact with.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val samsungPayEnvironment: String
+        get() = samsungPayConfiguration.environment
 
     /**
      * @return the merchant display name for Samsung Pay.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val samsungPayMerchantDisplayName: String
+        get() = samsungPayConfiguration.merchantDisplayName
 
     /**
      * @return the Samsung Pay service id associated with the merchant.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val samsungPayServiceId: String
+        get() = samsungPayConfiguration.serviceId
 
     /**
      * @return a list of card brands supported by Samsung Pay.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val samsungPaySupportedCardBrands: List<String>
+        get() = samsungPayConfiguration.supportedCardBrands
 
     /**
      * @return the Access Token used by the Venmo app to tokenize on behalf of the merchant.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val venmoAccessToken: String
+        get() = venmoConfiguration.accessToken
 
     /**
      * @return the Venmo environment used to handle this payment.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val venmoEnvironment: String
+        get() = venmoConfiguration.environment
 
     /**
      * @return the Venmo merchant id used by the Venmo app to authorize payment.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val venmoMerchantId: String
+        get() = venmoConfiguration.merchantId
 
     /**
      * @return a boolean indicating whether ECD is enabled for this Venmo merchant.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val venmoEnrichedCustomerDataEnabled: Boolean
+        get() = venmoConfiguration.enrichedCustomerDataEnabled
 
     /**
      * @return the Visa Checkout API key configured in the Braintree Control Panel.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val visaCheckoutApiKey: String
+        get() = visaCheckoutConfiguration.apiKey
 
     /**
      * @return the Visa Checkout External Client ID configured in the Braintree Control Panel.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val visaCheckoutExternalClientId: String
+        get() = visaCheckoutConfiguration.externalClientId
 
     /**
      * @return the Visa Checkout supported networks enabled for the merchant account.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val visaCheckoutSupportedNetworks: List<String>
+        get() = visaCheckoutConfiguration.acceptedCardBrands
 
-    private val analyticsConfiguration: AnalyticsConfiguration
-    private val braintreeApiConfiguration: BraintreeApiConfiguration
-    private val cardConfiguration: CardConfiguration
-    private val challenges: MutableSet<String>
-    private val configurationString: String
-    private val googlePayConfiguration: GooglePayConfiguration
-    private val graphQLConfiguration: GraphQLConfiguration
-    private val payPalConfiguration: PayPalConfiguration
-    private val samsungPayConfiguration: SamsungPayConfiguration
-    private val unionPayConfiguration: UnionPayConfiguration
-    private val venmoConfiguration: VenmoConfiguration
-    private val visaCheckoutConfiguration: VisaCheckoutConfiguration
     // endregion
 
-    init {
+    @Throws(JSONException::class)
+    internal constructor(configurationString: String?) : this(
         // TODO: make configuration non-null once ConfigurationLoader is migrated to Kotlin
-        if (configurationString == null) {
-            throw JSONException("Configuration cannot be null")
-        }
-
-        this.configurationString = configurationString
-        val json = JSONObject(configurationString)
-        assetsUrl = Json.optString(json, ASSETS_URL_KEY, "")
-        clientApiUrl = json.getString(CLIENT_API_URL_KEY)
-
-        // parse json challenges
-        challenges = mutableSetOf()
-        json.optJSONArray(CHALLENGES_KEY)?.let { challengesArray ->
-            for (i in 0 until challengesArray.length()) {
-                challenges.add(challengesArray.optString(i, ""))
-            }
-        }
-
-        analyticsConfiguration = AnalyticsConfiguration(json.optJSONObject(ANALYTICS_KEY))
-        braintreeApiConfiguration = BraintreeApiConfiguration(json.optJSONObject(BRAINTREE_API_KEY))
-        cardConfiguration = CardConfiguration(json.optJSONObject(CARD_KEY))
-        cardinalAuthenticationJwt = Json.optString(json, CARDINAL_AUTHENTICATION_JWT, null)
-        environment = json.getString(ENVIRONMENT_KEY)
-        googlePayConfiguration = GooglePayConfiguration(json.optJSONObject(GOOGLE_PAY_KEY))
-        graphQLConfiguration = GraphQLConfiguration(json.optJSONObject(GRAPHQL_KEY))
-        isPayPalEnabled = json.optBoolean(PAYPAL_ENABLED_KEY, false)
-        isThreeDSecureEnabled = json.optBoolean(THREE_D_SECURE_ENABLED_KEY, false)
-        merchantAccountId = Json.optString(json, MERCHANT_ACCOUNT_ID_KEY, null)
-        merchantId = json.getString(MERCHANT_ID_KEY)
-        payPalConfiguration = PayPalConfiguration(json.optJSONObject(PAYPAL_KEY))
-        samsungPayConfiguration = SamsungPayConfiguration(json.optJSONObject(SAMSUNG_PAY_KEY))
-        unionPayConfiguration = UnionPayConfiguration(json.optJSONObject(UNIONPAY_KEY))
-        venmoConfiguration = VenmoConfiguration(json.optJSONObject(PAY_WITH_VENMO_KEY))
-        visaCheckoutConfiguration = VisaCheckoutConfiguration(json.optJSONObject(VISA_CHECKOUT_KEY))
-
-        isCvvChallengePresent = challenges.contains("cvv")
-        isGooglePayEnabled = googlePayConfiguration.isEnabled
-        isLocalPaymentEnabled = isPayPalEnabled // Local Payments are enabled when PayPal is enabled
-        isPostalCodeChallengePresent = challenges.contains("postal_code")
-        isSamsungPayEnabled = samsungPayConfiguration.isEnabled
-        isUnionPayEnabled = unionPayConfiguration.isEnabled
-        isVenmoEnabled = venmoConfiguration.isAccessTokenValid
-        isVisaCheckoutEnabled = visaCheckoutConfiguration.isEnabled
-        payPalDirectBaseUrl = payPalConfiguration.directBaseUrl
-        payPalPrivacyUrl = payPalConfiguration.privacyUrl
-        payPalUserAgreementUrl = payPalConfiguration.userAgreementUrl
-
-        analyticsUrl = analyticsConfiguration.url
-        braintreeApiAccessToken = braintreeApiConfiguration.accessToken
-        braintreeApiUrl = braintreeApiConfiguration.url
-        googlePayAuthorizationFingerprint = googlePayConfiguration.googleAuthorizationFingerprint
-        googlePayDisplayName = googlePayConfiguration.displayName
-        googlePayEnvironment = googlePayConfiguration.environment
-        googlePayPayPalClientId = googlePayConfiguration.paypalClientId
-        googlePaySupportedNetworks = googlePayConfiguration.supportedNetworks
-        graphQLUrl = graphQLConfiguration.url
-        isAnalyticsEnabled = analyticsConfiguration.isEnabled
-        isBraintreeApiEnabled = braintreeApiConfiguration.isEnabled
-        isFraudDataCollectionEnabled = cardConfiguration.isFraudDataCollectionEnabled
-        isGraphQLEnabled = graphQLConfiguration.isEnabled
-        // NEXT MAJOR VERSION: remove Kount related properties
-        isKountEnabled = false
-        isPayPalTouchDisabled = payPalConfiguration.isTouchDisabled
-        kountMerchantId = ""
-        payPalClientId = payPalConfiguration.clientId
-        payPalCurrencyIsoCode = payPalConfiguration.currencyIsoCode
-        payPalDisplayName = payPalConfiguration.displayName
-        payPalEnvironment = payPalConfiguration.environment
-        samsungPayAuthorization = samsungPayConfiguration.samsungAuthorization
-        samsungPayEnvironment = samsungPayConfiguration.environment
-        samsungPayMerchantDisplayName = samsungPayConfiguration.merchantDisplayName
-        samsungPayServiceId = samsungPayConfiguration.serviceId
-        samsungPaySupportedCardBrands = samsungPayConfiguration.supportedCardBrands.toList()
-        supportedCardTypes = cardConfiguration.supportedCardTypes
-        venmoAccessToken = venmoConfiguration.accessToken
-        venmoEnvironment = venmoConfiguration.environment
-        venmoMerchantId = venmoConfiguration.merchantId
-        venmoEnrichedCustomerDataEnabled = venmoConfiguration.enrichedCustomerDataEnabled
-        visaCheckoutApiKey = visaCheckoutConfiguration.apiKey
-        visaCheckoutExternalClientId = visaCheckoutConfiguration.externalClientId
-        visaCheckoutSupportedNetworks = visaCheckoutConfiguration.acceptedCardBrands
-    }
+        configurationString ?: throw JSONException("Configuration cannot be null"),
+        JSONObject(configurationString.orEmpty())
+    )
+
+    private constructor(configurationString: String, json: JSONObject) : this(
+        configurationString = lazyOf(configurationString),
+        assetsUrl = Json.optString(json, ASSETS_URL_KEY, ""),
+        cardinalAuthenticationJwt = Json.optString(json, CARDINAL_AUTHENTICATION_JWT, null),
+        clientApiUrl = json.getString(CLIENT_API_URL_KEY),
+        environment = json.getString(ENVIRONMENT_KEY),
+        isPayPalEnabled = json.optBoolean(PAYPAL_ENABLED_KEY, false),
+        isThreeDSecureEnabled = json.optBoolean(THREE_D_SECURE_ENABLED_KEY, false),
+        merchantAccountId = Json.optString(json, MERCHANT_ACCOUNT_ID_KEY, null),
+        merchantId = json.getString(MERCHANT_ID_KEY),
+        challenges = parseChallenges(json),
+        analyticsConfiguration = lazySubConfiguration(json, ANALYTICS_KEY) { AnalyticsConfiguration(it) },
+        braintreeApiConfiguration = lazySubConfiguration(json, BRAINTREE_API_KEY) { BraintreeApiConfiguration(it) },
+        cardConfiguration = lazySubConfiguration(json, CARD_KEY) { CardConfiguration(it) },
+        googlePayConfiguration = lazySubConfiguration(json, GOOGLE_PAY_KEY) { GooglePayConfiguration(it) },
+        graphQLConfiguration = lazySubConfiguration(json, GRAPHQL_KEY) { GraphQLConfiguration(it) },
+        payPalConfiguration = lazySubConfiguration(json, PAYPAL_KEY) { PayPalConfiguration(it) },
+        samsungPayConfiguration = lazySubConfiguration(json, SAMSUNG_PAY_KEY) { SamsungPayConfiguration(it) },
+        unionPayConfiguration = lazySubConfiguration(json, UNIONPAY_KEY) { UnionPayConfiguration(it) },
+        venmoConfiguration = lazySubConfiguration(json, PAY_WITH_VENMO_KEY) { VenmoConfiguration(it) },
+        visaCheckoutConfiguration = lazySubConfiguration(json, VISA_CHECKOUT_KEY) { VisaCheckoutConfiguration(it) }
+    )
 
     // region Public Methods
     /**
@@ -408,5 +443,14 @@ open class Configuration internal constructor(configurationString: String?) {
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     fun isGraphQLFeatureEnabled(feature: String) = graphQLConfiguration.isFeatureEnabled(feature)
+
+    /**
+     * Get the sample rate configured for an analytics event kind.
+     *
+     * @param eventName The analytics event name without the platform prefix.
+     * @return The fraction of events of this kind that should be recorded.
+     */
+    internal fun getAnalyticsSampleRate(eventName: String) =
+        analyticsConfiguration.sampleRateFor(eventName)
     // endregion
 }
@@ -0,0 +1,213 @@
+package com.braintreepayments.api
+
+import androidx.annotation.VisibleForTesting
+import org.json.JSONException
+import java.io.DataInput
+import java.io.DataOutput
+import java.io.IOException
+
+/**
+ * Versioned binary encoding of [Configuration] used by [ConfigurationCache], so a cached
+ * configuration can be loaded without parsing JSON.
+ *
+ * A record holds a magic number, the schema version, the configuration JSON and then the decoded
+ * fields of [Configuration] and its sub-configurations. The JSON is kept as an opaque blob for
+ * [Configuration.toJson], which can't be rebuilt from the decoded fields, and is only turned into
+ * a string when that is called. It comes before the versioned fields, so a record written with a
+ * different schema version is decoded from its JSON instead.
+ *
+ * [SCHEMA_VERSION] must change whenever the fields written here change.
+ */
+internal object ConfigurationBinaryFormat {
+
+    private const val MAGIC = 0x42544346 // "BTCF"
+
+    @VisibleForTesting
+    internal const val SCHEMA_VERSION = 3
+
+    @Throws(IOException::class)
+    fun write(configuration: Configuration, output: DataOutput) {
+        output.writeInt(MAGIC)
+        output.writeInt(SCHEMA_VERSION)
+        output.writeString(configuration.toJson())
+
+        with(configuration) {
+            output.writeString(assetsUrl)
+            output.writeNullableString(cardinalAuthenticationJwt)
+            output.writeString(clientApiUrl)
+            output.writeString(environment)
+            output.writeBoolean(isPayPalEnabled)
+            output.writeBoolean(isThreeDSecureEnabled)
+            output.writeNullableString(merchantAccountId)
+            output.writeString(merchantId)
+            output.writeStrings(challenges)
+
+            output.writeString(analyticsConfiguration.url)
+            output.writeInt(analyticsConfiguration.sampleRates.size)
+            analyticsConfiguration.sampleRates.forEach { (eventName, sampleRate) ->
+                output.writeString(eventName)
+                output.writeDouble(sampleRate)
+            }
+
+            output.writeString(braintreeApiConfiguration.accessToken)
+            output.writeString(braintreeApiConfiguration.url)
+
+            output.writeStrings(cardConfiguration.supportedCardTypes)
+            output.writeBoolean(cardConfiguration.isFraudDataCollectionEnabled)
+
+            output.writeBoolean(googlePayConfiguration.isEnabled)
+            output.writeNullableString(googlePayConfiguration.googleAuthorizationFingerprint)
+            output.writeNullableString(googlePayConfiguration.environment)
+            output.writeString(googlePayConfiguration.displayName)
+            output.writeStrings(googlePayConfiguration.supportedNetworks)
+            output.writeString(googlePayConfiguration.paypalClientId)
+
+            output.writeString(graphQLConfiguration.url)
+            output.writeStrings(graphQLConfiguration.features)
+
+            output.writeNullableString(payPalConfiguration.directBaseUrl)
+            output.writeNullableString(payPalConfiguration.displayName)
+            output.writeNullableString(payPalConfiguration.clientId)
+            output.writeNullableString(payPalConfiguration.privacyUrl)
+            output.writeNullableString(payPalConfiguration.userAgreementUrl)
+            output.writeNullableString(payPalConfiguration.environment)
+            output.writeBoolean(payPalConfiguration.isTouchDisabled)
+            output.writeNullableString(payPalConfiguration.currencyIsoCode)
+
+            output.writeString(samsungPayConfiguration.environment)
+            output.writeString(samsungPayConfiguration.serviceId)
+            output.writeString(samsungPayConfiguration.merchantDisplayName)
+            output.writeStrings(samsungPayConfiguration.supportedCardBrands)
+            output.writeString(samsungPayConfiguration.samsungAuthorization)
+
+            output.writeBoolean(unionPayConfiguration.isEnabled)
+
+            output.writeString(venmoConfiguration.accessToken)
+            output.writeString(venmoConfiguration.environment)
+            output.writeString(venmoConfiguration.merchantId)
+            output.writeBoolean(venmoConfiguration.enrichedCustomerDataEnabled)
+
+            output.writeString(visaCheckoutConfiguration.apiKey)
+            output.writeString(visaCheckoutConfiguration.externalClientId)
+            output.writeStrings(visaCheckoutConfiguration.acceptedCardBrands)
+        }
+    }
+
+    @Throws(IOException::class)
+    fun read(input: DataInput): Configuration {
+        if (input.readInt() != MAGIC) {
+            throw IOException("Not a cached configuration")
+        }
+        val schemaVersion = input.readInt()
+        val configurationBytes = input.readBytes()
+        if (schemaVersion != SCHEMA_VERSION) {
+            return try {
+                Configuration.fromJson(String(configurationBytes, Charsets.UTF_8))
+            } catch (e: JSONException) {
+                throw IOException("Unable to parse cached configuration", e)
+            }
+        }
+
+        // decoding is cheap without JSON, so sub-configurations are read eagerly
+        return Configuration(
+            configurationString = lazy { String(configurationBytes, Charsets.UTF_8) },
+            assetsUrl = input.readString(),
+            cardinalAuthenticationJwt = input.readNullableString(),
+            clientApiUrl = input.readString(),
+            environment = input.readString(),
+            isPayPalEnabled = input.readBoolean(),
+            isThreeDSecureEnabled = input.readBoolean(),
+            merchantAccountId = input.readNullableString(),
+            merchantId = input.readString(),
+            challenges = input.readStrings().toSet(),
+            analyticsConfiguration = lazyOf(AnalyticsConfiguration(
+                url = input.readString(),
+                sampleRates = (0 until input.readInt()).associate {
+                    input.readString() to input.readDouble()
+                }
+            )),
+            braintreeApiConfiguration = lazyOf(BraintreeApiConfiguration(
+                accessToken = input.readString(),
+                url = input.readString()
+            )),
+            cardConfiguration = lazyOf(CardConfiguration(
+                supportedCardTypes = input.readStrings(),
+                isFraudDataCollectionEnabled = input.readBoolean()
+            )),
+            googlePayConfiguration = lazyOf(GooglePayConfiguration(
+                isEnabled = input.readBoolean(),
+                googleAuthorizationFingerprint = input.readNullableString(),
+                environment = input.readNullableString(),
+                displayName = input.readString(),
+                supportedNetworks = input.readStrings(),
+                paypalClientId = input.readString()
+            )),
+            graphQLConfiguration = lazyOf(GraphQLConfiguration(
+                url = input.readString(),
+                features = input.readStrings().toSet()
+            )),
+            payPalConfiguration = lazyOf(PayPalConfiguration(
+                directBaseUrl = input.readNullableString(),
+                displayName = input.readNullableString(),
+                clientId = input.readNullableString(),
+                privacyUrl = input.readNullableString(),
+                userAgreementUrl = input.readNullableString(),
+                environment = input.readNullableString(),
+                isTouchDisabled = input.readBoolean(),
+                currencyIsoCode = input.readNullableString()
+            )),
+            samsungPayConfiguration = lazyOf(SamsungPayConfiguration(
+                environment = input.readString(),
+                serviceId = input.readString(),
+                merchantDisplayName = input.readString(),
+                supportedCardBrands = input.readStrings(),
+                samsungAuthorization = input.readString()
+            )),
+            unionPayConfiguration = lazyOf(UnionPayConfiguration(isEnabled = input.readBoolean())),
+            venmoConfiguration = lazyOf(VenmoConfiguration(
+                accessToken = input.readString(),
+                environment = input.readString(),
+                merchantId = input.readString(),
+                enrichedCustomerDataEnabled = input.readBoolean()
+            )),
+            visaCheckoutConfiguration = lazyOf(VisaCheckoutConfiguration(
+                apiKey = input.readString(),
+                externalClientId = input.readString(),
+                acceptedCardBrands = input.readStrings()
+            ))
+        )
+    }
+
+    // DataOutput.writeUTF is limited to 64KB, so strings are written as length-prefixed UTF-8
+    private fun DataOutput.writeString(value: String) {
+        val bytes = value.toByteArray(Charsets.UTF_8)
+        writeInt(bytes.size)
+        write(bytes)
+    }
+
+    private fun DataOutput.writeNullableString(value: String?) {
+        writeBoolean(value != null)
+        value?.let { writeString(it) }
+    }
+
+    private fun DataOutput.writeStrings(values: Collection<String>) {
+        writeInt(values.size)
+        values.forEach { writeString(it) }
+    }
+
+    private fun DataInput.readString(): String = String(readBytes(), Charsets.UTF_8)
+
+    private fun DataInput.readBytes(): ByteArray {
+        val length = readInt()
+        if (length < 0) {
+            throw IOException("Invalid string length $length")
+        }
+        val bytes = ByteArray(length)
+        readFully(bytes)
+        return bytes
+    }
+
+    private fun DataInput.readNullableString(): String? = if (readBoolean()) readString() else null
+
+    private fun DataInput.readStrings(): List<String> = List(readInt()) { readString() }
+}
@@ -1,56 +1,231 @@
 package com.braintreepayments.api
 
 import android.content.Context
+import android.util.Base64
 import androidx.annotation.VisibleForTesting
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.security.MessageDigest
+import java.util.concurrent.Executor
 import java.util.concurrent.TimeUnit
 
+/**
+ * Caches fetched configuration for up to [TIME_TO_LIVE] per authorization. At most [maxEntries]
+ * configurations are kept; saving a new one evicts expired entries and then the least recently
+ * used ones, so per-session client tokens don't grow the store without bound.
+ *
+ * Each configuration is stored in [ConfigurationBinaryFormat] in its own file in [directory], while
+ * the index and timestamps are kept in [sharedPreferences]. Files are written and deleted on
+ * [fileExecutor], so saving a configuration doesn't block the thread that fetched it.
+ */
 internal class ConfigurationCache @VisibleForTesting constructor(
-        private val sharedPreferences: BraintreeSharedPreferences
-    ) {
+    private val sharedPreferences: BraintreeSharedPreferences,
+    private val directory: File,
+    private val fileExecutor: Executor,
+    private val maxEntries: Int = MAX_ENTRIES
+) {
+
+    // configurations already read from disk during this process
+    private val loadedConfigurations = mutableMapOf<String, Configuration>()
 
-    fun getConfiguration(cacheKey: String): String? {
+    fun getConfiguration(cacheKey: String): Configuration? {
         return getConfiguration(cacheKey, System.currentTimeMillis())
     }
 
-    fun getConfiguration(cacheKey: String, currentTimeMillis: Long): String? {
-        val timestampKey = "${cacheKey}_timestamp"
-        if (sharedPreferences.containsKey(timestampKey)) {
-            val timeInCache = currentTimeMillis - sharedPreferences.getLong(timestampKey)
-            if (timeInCache < TIME_TO_LIVE) {
-                return sharedPreferences.getString(cacheKey, "")
-            }
+    @Synchronized
+    fun getConfiguration(cacheKey: String, currentTimeMillis: Long): Configuration? {
+        if (isFresh(cacheKey, currentTimeMillis)) {
+            val configuration = loadedConfigurations[cacheKey] ?: readConfiguration(cacheKey)
+                ?.also { loadedConfigurations[cacheKey] = it }
+            configuration?.let { markRecentlyUsed(cacheKey) }
+            return configuration
         }
         return null
     }
 
-    fun saveConfiguration(configuration: Configuration, cacheKey: String?) {
+    fun saveConfiguration(configuration: Configuration, cacheKey: String) {
         saveConfiguration(configuration, cacheKey, System.currentTimeMillis())
     }
 
+    @Synchronized
     fun saveConfiguration(
         configuration: Configuration,
-        cacheKey: String?,
+        cacheKey: String,
         currentTimeMillis: Long
     ) {
-        val timestampKey = "${cacheKey}_timestamp"
-        sharedPreferences.putStringAndLong(
-            cacheKey,
-            configuration.toJson(),
-            timestampKey,
-            currentTimeMillis
-        )
+        fileExecutor.execute { writeConfiguration(cacheKey, configuration) }
+        loadedConfigurations[cacheKey] = configuration
+        sharedPreferences.putLong(timestampKey(cacheKey), currentTimeMillis)
+
+        val retainedKeys = mutableListOf<String>()
+        (listOf(cacheKey) + (readIndex() - cacheKey)).forEach { key ->
+            if (retainedKeys.size < maxEntries && isFresh(key, currentTimeMillis)) {
+                retainedKeys.add(key)
+            } else {
+                removeEntry(key)
+            }
+        }
+        writeIndex(retainedKeys)
+    }
+
+    /**
+     * Run [purgeOrphanedEntries] on [fileExecutor], so listing the cache directory doesn't block
+     * the thread that creates the cache.
+     */
+    fun schedulePurgeOfOrphanedEntries() {
+        fileExecutor.execute { purgeOrphanedEntries() }
+    }
+
+    /**
+     * Remove cached configuration that isn't tracked by the index, e.g. entries written before
+     * the cache was bounded.
+     */
+    @Synchronized
+    fun purgeOrphanedEntries() {
+        val indexedKeys = readIndex().toSet()
+        sharedPreferences.keys
+            .filter { it.endsWith(TIMESTAMP_SUFFIX) }
+            .map { it.removeSuffix(TIMESTAMP_SUFFIX) }
+            .filterNot { it in indexedKeys }
+            .forEach { removeEntry(it) }
+        directory.listFiles()
+            ?.filterNot { it.name in indexedKeys }
+            ?.forEach { it.delete() }
+    }
+
+    private fun isFresh(cacheKey: String, currentTimeMillis: Long): Boolean {
+        val timestampKey = timestampKey(cacheKey)
+        if (sharedPreferences.containsKey(timestampKey)) {
+            val timeInCache = currentTimeMillis - sharedPreferences.getLong(timestampKey)
+            return timeInCache < TIME_TO_LIVE
+        }
+        return false
+    }
+
+    private fun markRecentlyUsed(cacheKey: String) {
+        val index = readIndex()
+        // skip the write in the common case of reading the most recent configuration again
+        if (index.firstOrNull() != cacheKey) {
+            writeIndex(listOf(cacheKey) + (index - cacheKey))
+        }
+    }
+
+    private fun removeEntry(cacheKey: String) {
+        loadedConfigurations.remove(cacheKey)
+        sharedPreferences.remove(timestampKey(cacheKey))
+        // queued behind any pending write of the same entry
+        fileExecutor.execute { File(directory, cacheKey).delete() }
+    }
+
+    private fun readConfiguration(cacheKey: String): Configuration? {
+        val file = File(directory, cacheKey)
+        if (!file.exists()) {
+            return null
+        }
+        return try {
+            DataInputStream(BufferedInputStream(FileInputStream(file))).use {
+                ConfigurationBinaryFormat.read(it)
+            }
+        } catch (e: IOException) {
+            null
+        } catch (e: RuntimeException) {
+            // a corrupt record can decode to invalid lengths
+            null
+        }
+    }
+
+    /**
+     * A failed write leaves the entry in memory only; after a restart it reads as a cache miss.
+     */
+    private fun writeConfiguration(cacheKey: String, configuration: Configuration) {
+        val file = File(directory, cacheKey)
+        // write to a temporary file first so readers never see a partially written record
+        val temporaryFile = File(directory, "$cacheKey$TEMPORARY_FILE_SUFFIX")
+        try {
+            directory.mkdirs()
+            DataOutputStream(BufferedOutputStream(FileOutputStream(temporaryFile))).use {
+                ConfigurationBinaryFormat.write(configuration, it)
+            }
+            temporaryFile.renameTo(file)
+        } catch (e: IOException) {
+            temporaryFile.delete()
+        }
+    }
+
+    private fun readIndex(): List<String> =
+        sharedPreferences.getString(INDEX_KEY, "")
+            ?.split(INDEX_SEPARATOR)
+            ?.filter { it.isNotEmpty() }
+            .orEmpty()
+
+    private fun writeIndex(cacheKeys: List<String>) {
+        sharedPreferences.putString(INDEX_KEY, cacheKeys.joinToString(INDEX_SEPARATOR))
     }
 
     companion object {
         private val TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(5)
+        private const val MAX_ENTRIES = 4
+
+        private const val TIMESTAMP_SUFFIX = "_timestamp"
+        private const val TEMPORARY_FILE_SUFFIX = ".tmp"
+        private const val DIRECTORY_NAME = "com.braintreepayments.api.configuration"
+        private const val INDEX_KEY = "com.braintreepayments.api.CONFIGURATION_CACHE_INDEX"
+        private const val INDEX_SEPARATOR = ","
+        private const val LEGACY_ENTRIES_PURGED_KEY =
+            "com.braintreepayments.api.CONFIGURATION_CACHE_LEGACY_ENTRIES_PURGED"
 
         @Volatile
         private var INSTANCE: ConfigurationCache? = null
         fun getInstance(context: Context): ConfigurationCache =
             INSTANCE ?: synchronized(this) {
+                // timestamps are rewritten every time configuration is fetched, so keep them in
+                // the append-only store instead of rewriting the shared preferences file each time
                 INSTANCE ?: ConfigurationCache(
-                    BraintreeSharedPreferences.getInstance(context)
-                ).also { INSTANCE = it }
+                    BraintreeSharedPreferences.getMappedFileInstance(context),
+                    File(context.applicationContext.cacheDir, DIRECTORY_NAME),
+                    BraintreeSharedPreferences.getWriteExecutor()
+                ).also {
+                    it.schedulePurgeOfOrphanedEntries()
+                    purgeLegacyEntries(BraintreeSharedPreferences.getInstance(context))
+                    INSTANCE = it
+                }
+            }
+
+        /**
+         * @return a fixed-length key for the configuration fetched from [configUrl] with
+         * [authorization], so cache keys don't grow with the size of the bearer token
+         */
+        fun createCacheKey(authorization: Authorization, configUrl: String): String {
+            val digest = MessageDigest.getInstance("SHA-256")
+                .digest("$configUrl${authorization.bearer}".toByteArray())
+            return Base64.encodeToString(digest, Base64.URL_SAFE or Base64.NO_WRAP or Base64.NO_PADDING)
+        }
+
+        /**
+         * Configuration used to be cached in the SDK's shared preferences file, keyed by the
+         * Base64 encoded config URL and bearer, without ever being removed. Remove those entries
+         * once so they stop being loaded with the rest of the file.
+         */
+        @VisibleForTesting
+        internal fun purgeLegacyEntries(legacyPreferences: BraintreeSharedPreferences) {
+            if (legacyPreferences.getBoolean(LEGACY_ENTRIES_PURGED_KEY)) {
+                return
             }
+            legacyPreferences.keys
+                .filter { it.endsWith(TIMESTAMP_SUFFIX) }
+                .forEach { timestampKey ->
+                    legacyPreferences.remove(timestampKey)
+                    legacyPreferences.remove(timestampKey.removeSuffix(TIMESTAMP_SUFFIX))
+                }
+            legacyPreferences.putBoolean(LEGACY_ENTRIES_PURGED_KEY, true)
+        }
+
+        private fun timestampKey(cacheKey: String) = "$cacheKey$TIMESTAMP_SUFFIX"
     }
 }
@@ -2,7 +2,6 @@ package com.braintreepayments.api
 
 import android.content.Context
 import android.net.Uri
-import android.util.Base64
 import org.json.JSONException
 
 internal class ConfigurationLoader internal constructor(
@@ -13,6 +12,12 @@ internal class ConfigurationLoader internal constructor(
         httpClient, ConfigurationCache.getInstance(context)
     )
 
+    /**
+     * Notified with a completed span each time configuration is fetched from the network.
+     * Cache hits are not reported.
+     */
+    var spanListener: ((AnalyticsSpan) -> Unit)? = null
+
     fun loadConfiguration(authorization: Authorization, callback: ConfigurationLoaderCallback) {
         if (authorization is InvalidAuthorization) {
             val message = authorization.errorMessage
@@ -29,6 +34,7 @@ internal class ConfigurationLoader internal constructor(
         cachedConfig?.let {
             callback.onResult(cachedConfig, null)
         } ?: run {
+            val span = AnalyticsSpan(CONFIGURATION_LOAD_SPAN)
             httpClient.get(configUrl, null, authorization, HttpClient.RETRY_MAX_3_TIMES,
                 object : HttpResponseCallback {
                     override fun onResult(responseBody: String?, httpError: Exception?) {
@@ -37,6 +43,7 @@ internal class ConfigurationLoader internal constructor(
                                 val configuration = Configuration.fromJson(it)
                                 saveConfigurationToCache(configuration, authorization, configUrl)
                                 callback.onResult(configuration, null)
+                                spanListener?.invoke(span.end())
                             } catch (jsonException: JSONException) {
                                 callback.onResult(null, jsonException)
                             }
@@ -56,23 +63,16 @@ internal class ConfigurationLoader internal constructor(
         authorization: Authorization,
         configUrl: String
     ) {
-        val cacheKey = createCacheKey(authorization, configUrl)
+        val cacheKey = ConfigurationCache.createCacheKey(authorization, configUrl)
         configurationCache.saveConfiguration(configuration, cacheKey)
     }
 
     private fun getCachedConfiguration(authorization: Authorization, configUrl: String): Configuration? {
-        val cacheKey = createCacheKey(authorization, configUrl)
-        val cachedConfigResponse = configurationCache.getConfiguration(cacheKey)
-        return try {
-            Configuration.fromJson(cachedConfigResponse)
-        } catch (e: JSONException) {
-            null
-        }
+        val cacheKey = ConfigurationCache.createCacheKey(authorization, configUrl)
+        return configurationCache.getConfiguration(cacheKey)
     }
 
     companion object {
-        private fun createCacheKey(authorization: Authorization, configUrl: String): String {
-            return Base64.encodeToString("$configUrl${authorization.bearer}".toByteArray(), 0)
-        }
+        private const val CONFIGURATION_LOAD_SPAN = "configuration.load"
     }
 }
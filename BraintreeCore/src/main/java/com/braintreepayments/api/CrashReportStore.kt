@@ -0,0 +1,58 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import androidx.annotation.VisibleForTesting
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+
+/**
+ * Append-only file of crash timestamps. Records are written from the crashing thread, so writing
+ * is limited to a single small append; records are read back and converted to analytics events
+ * on a background thread when the SDK starts up in the next process.
+ *
+ * Constructing a store does no disk access, so it can be created on the main thread.
+ */
+@Suppress("SwallowedException")
+internal class CrashReportStore private constructor(fileProvider: () -> File) {
+
+    private val file: File by lazy(fileProvider)
+
+    constructor(context: Context) : this({ File(context.filesDir, FILE_NAME) })
+
+    @VisibleForTesting
+    constructor(file: File) : this({ file })
+
+    fun append(timestamp: Long) = synchronized(LOCK) {
+        try {
+            // cap the file so repeated crash loops cannot grow it without bound
+            if (file.length() < MAX_FILE_SIZE_BYTES) {
+                FileOutputStream(file, true).use { it.write("$timestamp\n".toByteArray()) }
+            }
+        } catch (e: IOException) { /* ignored */
+        }
+    }
+
+    /**
+     * Read all recorded crash timestamps and clear the store.
+     */
+    fun drain(): List<Long> = synchronized(LOCK) {
+        if (!file.exists()) {
+            return emptyList()
+        }
+        val timestamps = try {
+            file.readLines().mapNotNull { it.toLongOrNull() }
+        } catch (e: IOException) {
+            emptyList()
+        }
+        file.delete()
+        timestamps
+    }
+
+    companion object {
+        private const val FILE_NAME = "com.braintreepayments.api.crash-reports"
+        private const val MAX_FILE_SIZE_BYTES = 4096L
+
+        private val LOCK = Any()
+    }
+}
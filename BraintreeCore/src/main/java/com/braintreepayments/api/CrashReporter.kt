@@ -2,9 +2,9 @@ package com.braintreepayments.api
 
 import androidx.annotation.IntDef
 import androidx.annotation.VisibleForTesting
-import java.io.PrintWriter
-import java.io.StringWriter
 import java.lang.ref.WeakReference
+import java.util.Collections
+import java.util.IdentityHashMap
 
 internal class CrashReporter @VisibleForTesting constructor(
     private val braintreeClientRef: WeakReference<BraintreeClient>
@@ -29,17 +29,44 @@ internal class CrashReporter @VisibleForTesting constructor(
         defaultExceptionHandler = null
     }
 
+    /**
+     * Inspect the class names of every throwable in the cause and suppressed chains, and of their
+     * stack frames, without formatting the stack trace.
+     */
     @Cause
     private fun determineExceptionCause(ex: Throwable): Int {
-        val stringWriter = StringWriter()
-        ex.printStackTrace(PrintWriter(stringWriter))
-        return if (stringWriter.toString().contains("com.braintreepayments")) {
-            CAUSE_RELATED_TO_BRAINTREE
-        } else if (stringWriter.toString().contains("com.paypal")) {
-            CAUSE_RELATED_TO_PAYPAL
-        } else {
-            CAUSE_UNKNOWN
+        var isRelatedToPayPal = false
+        val visited = Collections.newSetFromMap(IdentityHashMap<Throwable, Boolean>())
+        val pending = ArrayDeque<Throwable>()
+        pending.add(ex)
+        while (pending.isNotEmpty()) {
+            val throwable = pending.removeFirst()
+            if (!visited.add(throwable)) {
+                continue
+            }
+            @Cause val cause = determineCause(throwable.javaClass.name)
+            if (cause == CAUSE_RELATED_TO_BRAINTREE) {
+                return CAUSE_RELATED_TO_BRAINTREE
+            }
+            isRelatedToPayPal = isRelatedToPayPal || cause == CAUSE_RELATED_TO_PAYPAL
+            for (frame in throwable.stackTrace) {
+                @Cause val frameCause = determineCause(frame.className)
+                if (frameCause == CAUSE_RELATED_TO_BRAINTREE) {
+                    return CAUSE_RELATED_TO_BRAINTREE
+                }
+                isRelatedToPayPal = isRelatedToPayPal || frameCause == CAUSE_RELATED_TO_PAYPAL
+            }
+            throwable.cause?.let { pending.add(it) }
+            pending.addAll(throwable.suppressed)
         }
+        return if (isRelatedToPayPal) CAUSE_RELATED_TO_PAYPAL else CAUSE_UNKNOWN
+    }
+
+    @Cause
+    private fun determineCause(className: String): Int = when {
+        className.startsWith(BRAINTREE_PACKAGE_PREFIX) -> CAUSE_RELATED_TO_BRAINTREE
+        className.startsWith(PAYPAL_PACKAGE_PREFIX) -> CAUSE_RELATED_TO_PAYPAL
+        else -> CAUSE_UNKNOWN
     }
 
     private fun handleExceptionWithDefaultBehavior(thread: Thread, ex: Throwable) {
@@ -68,5 +95,8 @@ internal class CrashReporter @VisibleForTesting constructor(
         const val CAUSE_UNKNOWN = 0
         const val CAUSE_RELATED_TO_PAYPAL = 1
         const val CAUSE_RELATED_TO_BRAINTREE = 2
+
+        private const val BRAINTREE_PACKAGE_PREFIX = "com.braintreepayments"
+        private const val PAYPAL_PACKAGE_PREFIX = "com.paypal"
     }
 }
@@ -97,6 +97,17 @@ class DeviceInspector @VisibleForTesting internal constructor(
             connectivityManager.activeNetworkInfo?.typeName
         } ?: "none"
 
+    /**
+     * @param context A context to access the connectivity service.
+     * @return `true` if the active network may incur data charges, `false` otherwise.
+     */
+    internal fun isNetworkMetered(context: Context?): Boolean =
+        context?.let {
+            val connectivityManager =
+                it.getSystemService(Context.CONNECTIVITY_SERVICE) as ConnectivityManager
+            connectivityManager.isActiveNetworkMetered
+        } ?: false
+
     private fun getAppVersion(context: Context?): String = getPackageInfo(context) ?: "VersionUnknown"
 
     private fun getPackageInfo(context: Context?) =
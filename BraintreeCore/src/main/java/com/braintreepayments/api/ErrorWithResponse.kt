@@ -124,7 +124,12 @@ open class ErrorWithResponse : Exception, Parcelable {
             parseJson(json)
         }
 
-        internal fun fromGraphQLJson(json: String?): ErrorWithResponse {
+        /**
+         * @suppress
+         */
+        @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+        @JvmStatic
+        fun fromGraphQLJson(json: String?): ErrorWithResponse {
             val errorWithResponse = ErrorWithResponse().apply {
                 _originalResponse = json
                 statusCode = GRAPHQL_ERROR_CODE
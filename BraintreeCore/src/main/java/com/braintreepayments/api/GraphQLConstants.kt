@@ -10,6 +10,8 @@ object GraphQLConstants {
 
     object Keys {
         const val QUERY = "query"
+        const val DATA = "data"
+        const val PATH = "path"
         const val INPUT = "input"
         const val VARIABLES = "variables"
         const val ERRORS = "errors"
@@ -21,6 +23,10 @@ object GraphQLConstants {
         const val URL = "url"
         const val FEATURES = "features"
         const val OPERATION_NAME = "operationName"
+        const val PERSISTED_QUERY = "persistedQuery"
+        const val SHA256_HASH = "sha256Hash"
+        const val VERSION = "version"
+        const val CODE = "code"
     }
 
     object ErrorTypes {
@@ -32,6 +38,11 @@ object GraphQLConstants {
         const val USER = "Input is invalid."
     }
 
+    object ErrorCodes {
+        const val PERSISTED_QUERY_NOT_FOUND = "PERSISTED_QUERY_NOT_FOUND"
+        const val PERSISTED_QUERY_NOT_SUPPORTED = "PERSISTED_QUERY_NOT_SUPPORTED"
+    }
+
     object LegacyErrorCodes {
         const val VALIDATION_NOT_ALLOWED = "50000"
     }
@@ -42,5 +53,7 @@ object GraphQLConstants {
 
     object Features {
         const val TOKENIZE_CREDIT_CARDS = "tokenize_credit_cards"
+        const val PERSISTED_QUERIES = "persisted_queries"
+        const val BATCH_OPERATIONS = "batch_operations"
     }
 }
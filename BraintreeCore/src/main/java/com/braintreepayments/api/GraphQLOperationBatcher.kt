@@ -0,0 +1,150 @@
+package com.braintreepayments.api
+
+import androidx.annotation.VisibleForTesting
+import org.json.JSONArray
+import org.json.JSONException
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Combines GraphQL operations submitted within [windowMillis] of each other into one request
+ * whose body is a JSON array of the operations, and splits the array response back into a
+ * response for each operation's callback, in submission order.
+ *
+ * Operations are only combined with others that share a batch key, i.e. the same endpoint and
+ * authorization. Operations longer than [maxOperationLength] are never batched.
+ *
+ * Each operation keeps the [HttpRequestScope] it was enqueued in for its callback. A combined
+ * request is shared, so it is sent outside of any scope and isn't canceled with one operation.
+ */
+internal class GraphQLOperationBatcher @VisibleForTesting constructor(
+    private val timer: Lazy<ScheduledExecutorService>,
+    private val windowMillis: Long = DEFAULT_WINDOW_MILLIS,
+    private val maxOperationLength: Int = DEFAULT_MAX_OPERATION_LENGTH,
+    private val maxBatchSize: Int = DEFAULT_MAX_BATCH_SIZE
+) {
+
+    constructor() : this(lazy { TIMER })
+
+    private class Batch(val send: (String, HttpResponseCallback) -> Unit) {
+        val operations = mutableListOf<String>()
+        val callbacks = mutableListOf<HttpResponseCallback>()
+        val scopes = mutableListOf<HttpRequestScope?>()
+    }
+
+    private val pendingBatches = mutableMapOf<String, Batch>()
+
+    fun canBatch(data: String) = data.length <= maxOperationLength
+
+    /**
+     * Add an operation to the pending batch for [batchKey], starting a new batch if there isn't
+     * one. [send] sends a request body and is called once per batch.
+     */
+    fun enqueue(
+        data: String,
+        batchKey: String,
+        callback: HttpResponseCallback,
+        send: (String, HttpResponseCallback) -> Unit
+    ) {
+        val fullBatch = synchronized(pendingBatches) {
+            val batch = pendingBatches[batchKey] ?: Batch(send).also { batch ->
+                pendingBatches[batchKey] = batch
+                val flushTask = Runnable { flush(batchKey, batch) }
+                timer.value.schedule(flushTask, windowMillis, TimeUnit.MILLISECONDS)
+            }
+            batch.operations.add(data)
+            batch.callbacks.add(callback)
+            batch.scopes.add(HttpRequestScope.current())
+
+            if (batch.operations.size >= maxBatchSize) {
+                pendingBatches.remove(batchKey)
+            } else {
+                null
+            }
+        }
+        fullBatch?.let { sendBatch(it) }
+    }
+
+    private fun flush(batchKey: String, batch: Batch) {
+        val isPending = synchronized(pendingBatches) {
+            // the batch may already have been sent because it filled up
+            if (pendingBatches[batchKey] === batch) {
+                pendingBatches.remove(batchKey)
+                true
+            } else {
+                false
+            }
+        }
+        if (isPending) {
+            sendBatch(batch)
+        }
+    }
+
+    private fun sendBatch(batch: Batch) {
+        // a timer flush runs on another thread, so re-enter the scope of a lone operation
+        if (batch.operations.size == 1) {
+            HttpRequestScope.runIn(batch.scopes[0]) {
+                batch.send(batch.operations[0], batch.callbacks[0])
+            }
+            return
+        }
+
+        // operations are already serialized, so join them rather than parsing them into an array
+        val body = batch.operations.joinToString(",", "[", "]")
+        HttpRequestScope.runIn(null) {
+            batch.send(body, object : HttpResponseCallback {
+                override fun onResult(responseBody: String?, httpError: Exception?) {
+                    demultiplex(responseBody, httpError, batch.callbacks, batch.scopes)
+                }
+            })
+        }
+    }
+
+    private fun demultiplex(
+        responseBody: String?,
+        httpError: Exception?,
+        callbacks: List<HttpResponseCallback>,
+        scopes: List<HttpRequestScope?>
+    ) {
+        val responses = try {
+            responseBody?.let { JSONArray(it) }
+        } catch (e: JSONException) {
+            null
+        }
+        if (responses == null || responses.length() != callbacks.size) {
+            val error = httpError ?: UnexpectedException(BATCH_RESPONSE_MISMATCH_MESSAGE)
+            callbacks.forEachIndexed { i, callback ->
+                HttpRequestScope.runIn(scopes[i]) { callback.onResult(null, error) }
+            }
+            return
+        }
+
+        callbacks.forEachIndexed { i, callback ->
+            var operationResponse: String? = null
+            var operationError: Exception? = null
+            try {
+                operationResponse = BraintreeGraphQLResponseParser
+                    .parseOperationResponse(responses.get(i).toString())
+            } catch (e: Exception) {
+                operationError = e
+            }
+            HttpRequestScope.runIn(scopes[i]) { callback.onResult(operationResponse, operationError) }
+        }
+    }
+
+    companion object {
+        private const val DEFAULT_WINDOW_MILLIS = 10L
+        private const val DEFAULT_MAX_OPERATION_LENGTH = 16 * 1024
+        private const val DEFAULT_MAX_BATCH_SIZE = 10
+
+        private const val BATCH_RESPONSE_MISMATCH_MESSAGE =
+            "The batched GraphQL response did not contain a result for each operation."
+
+        private val TIMER: ScheduledExecutorService by lazy {
+            Executors.newSingleThreadScheduledExecutor { runnable ->
+                Thread(runnable, "braintree-graphql-batch").apply { isDaemon = true }
+            }
+        }
+    }
+}
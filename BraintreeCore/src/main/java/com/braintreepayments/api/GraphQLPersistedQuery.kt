@@ -0,0 +1,70 @@
+package com.braintreepayments.api
+
+import androidx.annotation.VisibleForTesting
+import org.json.JSONException
+import org.json.JSONObject
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Builds automatic persisted query requests: the first attempt sends only the SHA-256 hash of the
+ * query document, and if the server doesn't know the hash yet the request is sent again with the
+ * full document so the server can store it.
+ *
+ * @property hashOnlyPayload the request with the query replaced by its hash
+ * @property fullPayload the original request with the hash added, used to register the query
+ */
+internal class GraphQLPersistedQuery private constructor(
+    val hashOnlyPayload: String,
+    val fullPayload: String
+) {
+
+    companion object {
+        private const val PERSISTED_QUERY_VERSION = 1
+
+        // documents are a small, fixed set, so the cache only needs a loose bound
+        private const val MAX_CACHED_HASHES = 32
+        private val hashes = ConcurrentHashMap<String, String>()
+
+        /**
+         * @return the persisted query requests for [payload], or null if it isn't a GraphQL
+         * request with a query document
+         */
+        fun fromPayload(payload: String?): GraphQLPersistedQuery? {
+            val json = try {
+                payload?.let { JSONObject(it) }
+            } catch (e: JSONException) {
+                null
+            } ?: return null
+
+            val query = json.optString(GraphQLConstants.Keys.QUERY)
+            if (query.isEmpty()) {
+                return null
+            }
+
+            val extensions = JSONObject().put(
+                GraphQLConstants.Keys.PERSISTED_QUERY,
+                JSONObject()
+                    .put(GraphQLConstants.Keys.VERSION, PERSISTED_QUERY_VERSION)
+                    .put(GraphQLConstants.Keys.SHA256_HASH, sha256(query))
+            )
+            json.put(GraphQLConstants.Keys.EXTENSIONS, extensions)
+            val fullPayload = json.toString()
+            json.remove(GraphQLConstants.Keys.QUERY)
+            return GraphQLPersistedQuery(json.toString(), fullPayload)
+        }
+
+        /**
+         * @return the lowercase hex SHA-256 hash of [query], as expected by the server
+         */
+        @VisibleForTesting
+        internal fun sha256(query: String): String = hashes[query] ?: run {
+            val digest = MessageDigest.getInstance("SHA-256").digest(query.toByteArray())
+            val hash = digest.joinToString("") { String.format("%02x", it) }
+            if (hashes.size < MAX_CACHED_HASHES) {
+                hashes[query] = hash
+            }
+            hash
+        }
+    }
+}
@@ -3,24 +3,59 @@ package com.braintreepayments.api
 import android.content.Context
 import android.content.res.Resources
 import androidx.annotation.RestrictTo
+import androidx.annotation.VisibleForTesting
 import java.io.IOException
-import java.io.InputStream
+import java.util.concurrent.ConcurrentHashMap
 
 // NEXT_MAJOR_VERSION: remove class once its added to drop in
 /**
+ * Reads GraphQL query documents from raw resources. Each document is read and hashed once per
+ * process, then served from memory.
+ *
  * @suppress
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 object GraphQLQueryHelper {
+
+    private val documents = ConcurrentHashMap<Int, GraphQLQueryDocument>()
+
     @JvmStatic
     @Throws(Resources.NotFoundException::class, IOException::class)
-    fun getQuery(context: Context, queryResource: Int): String {
-        var inputStream: InputStream? = null
-        return try {
-            inputStream = context.resources.openRawResource(queryResource)
-            StreamHelper.getString(inputStream)
-        } finally {
-            inputStream?.close()
+    fun getQuery(context: Context, queryResource: Int): String =
+        getDocument(context, queryResource).query
+
+    /**
+     * @return the query document in [queryResource] along with its hash
+     */
+    @JvmStatic
+    @Throws(Resources.NotFoundException::class, IOException::class)
+    fun getDocument(context: Context, queryResource: Int): GraphQLQueryDocument =
+        documents[queryResource] ?: readDocument(context, queryResource).let {
+            // a concurrent reader may have loaded the same document; keep the first one
+            documents.putIfAbsent(queryResource, it) ?: it
+        }
+
+    private fun readDocument(context: Context, queryResource: Int): GraphQLQueryDocument {
+        // read the document as is; decoding line by line would join lines without a separator
+        val query = context.resources.openRawResource(queryResource).use {
+            String(it.readBytes(), Charsets.UTF_8)
         }
+        return GraphQLQueryDocument(query, GraphQLPersistedQuery.sha256(query))
     }
+
+    @VisibleForTesting
+    internal fun clearCache() = documents.clear()
 }
+
+/**
+ * A GraphQL query document and its hash, as sent in persisted query requests.
+ *
+ * @property query the document text
+ * @property sha256Hash the lowercase hex SHA-256 hash of [query]
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+class GraphQLQueryDocument internal constructor(
+    val query: String,
+    val sha256Hash: String
+)
@@ -1,8 +1,10 @@
 package com.braintreepayments.api
 
+import android.util.JsonWriter
 import androidx.annotation.RestrictTo
 import org.json.JSONException
 import org.json.JSONObject
+import java.io.IOException
 
 /**
  * @suppress
@@ -14,7 +16,7 @@ class MetadataBuilder {
 
     init {
         try {
-            json.put(PLATFORM_KEY, "android")
+            json.put(PLATFORM_KEY, PLATFORM)
         } catch (ignored: JSONException) {
         }
     }
@@ -66,5 +68,25 @@ class MetadataBuilder {
         private const val SESSION_ID_KEY = "sessionId"
         private const val VERSION_KEY = "version"
         private const val PLATFORM_KEY = "platform"
+        private const val PLATFORM = "android"
+
+        /**
+         * Write the metadata a builder would produce with [sessionId], [source] and
+         * [integration] as a JSON object. Null values are omitted, matching [JSONObject.put].
+         */
+        @Throws(IOException::class)
+        internal fun write(
+            writer: JsonWriter,
+            sessionId: String?,
+            source: String?,
+            integration: String?
+        ) {
+            writer.beginObject()
+            writer.name(PLATFORM_KEY).value(PLATFORM)
+            sessionId?.let { writer.name(SESSION_ID_KEY).value(it) }
+            source?.let { writer.name(SOURCE_KEY).value(it) }
+            integration?.let { writer.name(INTEGRATION_KEY).value(it) }
+            writer.endObject()
+        }
     }
 }
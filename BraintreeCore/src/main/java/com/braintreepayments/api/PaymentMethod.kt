@@ -1,9 +1,11 @@
 package com.braintreepayments.api
 
 import android.os.Parcel
+import android.util.JsonWriter
 import androidx.annotation.RestrictTo
 import org.json.JSONException
 import org.json.JSONObject
+import java.io.IOException
 
 /**
  * An abstract class to extend when creating a payment method. Contains logic and
@@ -81,6 +83,16 @@ abstract class PaymentMethod {
             .build()
     }
 
+    /**
+     * Write the same metadata as [buildMetadataJSON] to [writer] without building a [JSONObject].
+     * @suppress
+     */
+    @Throws(IOException::class)
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun writeMetadataJSON(writer: JsonWriter) {
+        MetadataBuilder.write(writer, _sessionId, _source, _integration)
+    }
+
     @Throws(JSONException::class)
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     open fun buildJSON(): JSONObject? {
@@ -0,0 +1,10 @@
+package com.braintreepayments.api
+
+/**
+ * Thrown when the GraphQL server doesn't recognize the hash of a persisted query, or doesn't
+ * support persisted queries, and the request has to be sent again with the full query document.
+ */
+internal class PersistedQueryNotFoundException(
+    message: String?,
+    val isSupported: Boolean
+) : BraintreeException(message)
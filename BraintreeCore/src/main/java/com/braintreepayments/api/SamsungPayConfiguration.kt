@@ -43,7 +43,7 @@ internal data class SamsungPayConfiguration(
             val result = mutableListOf<String>()
             jsonArray?.also { array ->
                 for (i in 0 until array.length()) {
-                    result.add(array.getString(i))
+                    result.add(array.optString(i, ""))
                 }
             }
             return result
@@ -16,38 +16,62 @@ class UUIDHelper {
      * @return A persistent UUID for this application install.
      */
     fun getPersistentUUID(context: Context?): String? {
-        return getPersistentUUID(BraintreeSharedPreferences.getInstance(context))
+        // identifiers never change once created, so read them from disk at most once per process
+        return persistentUUID ?: synchronized(LOCK) {
+            persistentUUID ?: getPersistentUUID(BraintreeSharedPreferences.getInstance(context))
+                .also { persistentUUID = it }
+        }
     }
 
     @VisibleForTesting
-    internal fun getPersistentUUID(braintreeSharedPreferences: BraintreeSharedPreferences): String? {
-        var uuid = braintreeSharedPreferences.getString(BRAINTREE_UUID_KEY, null)
-        if (uuid == null) {
-            uuid = formattedUUID
-            braintreeSharedPreferences.putString(BRAINTREE_UUID_KEY, uuid)
+    internal fun getPersistentUUID(braintreeSharedPreferences: BraintreeSharedPreferences): String? =
+        synchronized(LOCK) {
+            var uuid = braintreeSharedPreferences.getString(BRAINTREE_UUID_KEY, null)
+            if (uuid == null) {
+                uuid = formattedUUID
+                braintreeSharedPreferences.putString(BRAINTREE_UUID_KEY, uuid)
+            }
+            uuid
         }
-        return uuid
-    }
 
     val formattedUUID: String
         get() = UUID.randomUUID().toString().replace("-", "")
 
     fun getInstallationGUID(context: Context?): String {
-        return getInstallationGUID(BraintreeSharedPreferences.getInstance(context))
+        return installationGUID ?: synchronized(LOCK) {
+            installationGUID ?: getInstallationGUID(BraintreeSharedPreferences.getInstance(context))
+                .also { installationGUID = it }
+        }
     }
 
     @VisibleForTesting
-    internal fun getInstallationGUID(braintreeSharedPreferences: BraintreeSharedPreferences): String {
-        var installationGUID = braintreeSharedPreferences.getString(INSTALL_GUID, null)
-        if (installationGUID == null) {
-            installationGUID = UUID.randomUUID().toString()
-            braintreeSharedPreferences.putString(INSTALL_GUID, installationGUID)
+    internal fun getInstallationGUID(braintreeSharedPreferences: BraintreeSharedPreferences): String =
+        synchronized(LOCK) {
+            var installationGUID = braintreeSharedPreferences.getString(INSTALL_GUID, null)
+            if (installationGUID == null) {
+                installationGUID = UUID.randomUUID().toString()
+                braintreeSharedPreferences.putString(INSTALL_GUID, installationGUID)
+            }
+            installationGUID
         }
-        return installationGUID
-    }
 
     companion object {
         private const val BRAINTREE_UUID_KEY = "braintreeUUID"
         private const val INSTALL_GUID = "InstallationGUID"
+
+        // serializes first-time creation so concurrent callers can't persist different values
+        private val LOCK = Any()
+
+        @Volatile
+        private var persistentUUID: String? = null
+
+        @Volatile
+        private var installationGUID: String? = null
+
+        @VisibleForTesting
+        internal fun clearCachedIdentifiers() = synchronized(LOCK) {
+            persistentUUID = null
+            installationGUID = null
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.braintreepayments.api
 
 import android.content.Context
+import androidx.room.Room
 import androidx.test.core.app.ApplicationProvider
 import androidx.work.*
 import com.braintreepayments.api.Authorization.Companion.fromString
@@ -9,6 +10,7 @@ import io.mockk.*
 import org.json.JSONException
 import org.json.JSONObject
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
 import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
@@ -17,6 +19,8 @@ import org.robolectric.RobolectricTestRunner
 import org.skyscreamer.jsonassert.JSONAssert
 import java.io.IOException
 import java.security.GeneralSecurityException
+import java.util.Random
+import java.util.concurrent.atomic.AtomicBoolean
 
 @RunWith(RobolectricTestRunner::class)
 class AnalyticsClientUnitTest {
@@ -31,6 +35,7 @@ class AnalyticsClientUnitTest {
     private lateinit var workManager: WorkManager
     private lateinit var analyticsDatabase: AnalyticsDatabase
     private lateinit var analyticsEventDao: AnalyticsEventDao
+    private lateinit var analyticsSpanDao: AnalyticsSpanDao
 
     private var timestamp: Long = 0
 
@@ -47,9 +52,17 @@ class AnalyticsClientUnitTest {
         deviceInspector = mockk(relaxed = true)
         analyticsDatabase = mockk(relaxed = true)
         analyticsEventDao = mockk(relaxed = true)
+        analyticsSpanDao = mockk(relaxed = true)
         workManager = mockk(relaxed = true)
 
         every { analyticsDatabase.analyticsEventDao() } returns analyticsEventDao
+        every { analyticsEventDao.findAggregateEvent(any(), any(), any()) } returns null
+        every { analyticsEventDao.incrementEventCount(any(), any()) } returns 1
+        every { analyticsDatabase.runInTransaction(any<Runnable>()) } answers {
+            firstArg<Runnable>().run()
+        }
+        every { analyticsDatabase.analyticsSpanDao() } returns analyticsSpanDao
+        every { analyticsSpanDao.getSpans(any()) } returns emptyList()
     }
 
     @Test
@@ -100,6 +113,40 @@ class AnalyticsClientUnitTest {
         assertEquals("sample-integration", workSpec.input.getString("integration"))
     }
 
+    @Test
+    @Throws(JSONException::class)
+    fun sendEvent_whenEventIsSampledOut_doesNotEnqueueWork() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS_SAMPLE_RATES)
+        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val result = sut.sendEvent(configuration, "card.nonce-received", sessionId, integration, 123, authorization)
+
+        assertNull(result)
+        verify { workManager wasNot Called }
+    }
+
+    @Test
+    @Throws(JSONException::class)
+    fun sendEvent_whenEventIsSampledIn_enqueuesWriteWithSampleWeight() {
+        val workRequestSlot = slot<OneTimeWorkRequest>()
+        every {
+            workManager.enqueueUniqueWork(
+                "writeAnalyticsToDb",
+                ExistingWorkPolicy.APPEND_OR_REPLACE,
+                capture(workRequestSlot)
+            )
+        } returns mockk()
+
+        val random = mockk<Random>()
+        every { random.nextDouble() } returns 0.1
+
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS_SAMPLE_RATES)
+        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector, random)
+        sut.sendEvent(configuration, "union-pay.capabilities-received", sessionId, integration, 123, authorization)
+
+        val workSpec = workRequestSlot.captured.workSpec
+        assertEquals(4.0, workSpec.input.getDouble("sampleWeight", 0.0), 0.0)
+    }
+
     @Test
     fun writeAnalytics_whenEventNameAndTimestampArePresent_returnsSuccess() {
         val inputData = Data.Builder()
@@ -150,6 +197,153 @@ class AnalyticsClientUnitTest {
         assertEquals(123, event.timestamp)
     }
 
+    @Test
+    fun writeAnalytics_whenEventExistsWithinAggregationWindow_incrementsCount() {
+        val existingEvent = AnalyticsEvent(eventName, 100)
+        existingEvent.id = 7
+        every { analyticsEventDao.findAggregateEvent(eventName, 1.0, 123 - 30000) } returns existingEvent
+
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
+            .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
+            .build()
+        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val result = sut.writeAnalytics(inputData)
+
+        assertTrue(result is ListenableWorker.Result.Success)
+        verify { analyticsEventDao.incrementEventCount(7, 1) }
+        verify(exactly = 0) { analyticsEventDao.insertEvent(any()) }
+    }
+
+    @Test
+    fun writeAnalytics_whenAggregateEventWasDeletedByUpload_insertsEvent() {
+        val existingEvent = AnalyticsEvent(eventName, 100)
+        existingEvent.id = 7
+        every { analyticsEventDao.findAggregateEvent(eventName, 1.0, 123 - 30000) } returns existingEvent
+        every { analyticsEventDao.incrementEventCount(7, 1) } returns 0
+
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
+            .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
+            .build()
+        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        sut.writeAnalytics(inputData)
+
+        verify { analyticsEventDao.insertEvent(match { it.name == eventName && it.timestamp == 123L }) }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_whenEventIsAggregatedDuringUpload_keepsItForNextUpload() {
+        val database = Room.inMemoryDatabaseBuilder(context, AnalyticsDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+        val writeInputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
+            .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
+            .build()
+        every {
+            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val sut = AnalyticsClient(httpClient, database, workManager, deviceInspector)
+        sut.writeAnalytics(writeInputData)
+        sut.writeAnalytics(writeInputData)
+
+        // a write lands between reading the events and deleting them
+        val uploadedJSON = mutableListOf<String>()
+        every { httpClient.post(any(), any(), any(), any()) } answers {
+            uploadedJSON.add(secondArg())
+            if (uploadedJSON.size == 1) {
+                sut.writeAnalytics(writeInputData)
+            }
+            ""
+        }
+        sut.uploadAnalytics(context, inputData)
+
+        val remainingEvents = database.analyticsEventDao().getAllEvents()
+        assertEquals(1, remainingEvents.size)
+        assertEquals(1, remainingEvents[0].count)
+
+        sut.uploadAnalytics(context, inputData)
+
+        val uploadedCounts = uploadedJSON.map {
+            JSONObject(it).getJSONArray("analytics").getJSONObject(0).optInt("count", 1)
+        }
+        assertEquals(listOf(2, 1), uploadedCounts)
+        assertEquals(0L, database.analyticsEventDao().getEventCount())
+        database.close()
+    }
+
+    @Test
+    @Throws(JSONException::class)
+    fun sendSpan_enqueuesAnalyticsWriteWithSpanData() {
+        val workRequestSlot = slot<OneTimeWorkRequest>()
+        every {
+            workManager.enqueueUniqueWork(
+                "writeAnalyticsToDb",
+                ExistingWorkPolicy.APPEND_OR_REPLACE,
+                capture(workRequestSlot)
+            )
+        } returns mockk()
+
+        val span = AnalyticsSpan("card.tokenize", 123, 1000)
+            .setAttribute("api", "graphql")
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        sut.sendSpan(configuration, span, sessionId, integration, authorization)
+
+        val input = workRequestSlot.captured.workSpec.input
+        assertEquals("android.card.tokenize", input.getString("spanName"))
+        assertEquals(123, input.getLong("timestamp", 0))
+        assertEquals(span.durationMillis, input.getLong("spanDuration", -1))
+        JSONAssert.assertEquals(
+            JSONObject().put("api", "graphql"), JSONObject(input.getString("spanAttributes")), true
+        )
+    }
+
+    @Test
+    fun writeAnalytics_whenSpanDataIsPresent_insertsSpanRecord() {
+        val spanSlot = slot<AnalyticsSpanRecord>()
+        every { analyticsSpanDao.insertSpan(capture(spanSlot)) } returns Unit
+
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SPAN_NAME, "android.card.tokenize")
+            .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
+            .putLong(AnalyticsClient.WORK_INPUT_KEY_SPAN_DURATION, 250)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SPAN_ATTRIBUTES, "{\"api\":\"rest\"}")
+            .build()
+        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val result = sut.writeAnalytics(inputData)
+
+        assertTrue(result is ListenableWorker.Result.Success)
+        val span = spanSlot.captured
+        assertEquals("android.card.tokenize", span.name)
+        assertEquals(123, span.timestamp)
+        assertEquals(250, span.duration)
+        assertEquals("{\"api\":\"rest\"}", span.attributes)
+        verify(exactly = 0) { analyticsEventDao.insertEvent(any()) }
+    }
+
+    @Test
+    fun writeAnalytics_whenSpanDurationIsMissing_returnsFailure() {
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SPAN_NAME, "android.card.tokenize")
+            .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
+            .build()
+        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val result = sut.writeAnalytics(inputData)
+
+        assertTrue(result is ListenableWorker.Result.Failure)
+    }
+
     @Test
     @Throws(Exception::class)
     fun uploadAnalytics_whenNoEventsExist_doesNothing() {
@@ -210,6 +404,38 @@ class AnalyticsClientUnitTest {
         assertEquals(456, eventTwo.getString("timestamp").toLong())
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_whenEventsAreAggregatedOrSampled_sendsCountAndSampleWeight() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+        every {
+            deviceInspector.getDeviceMetadata(context, sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val aggregateEvent = AnalyticsEvent("event0", 123)
+        aggregateEvent.count = 12
+        aggregateEvent.sampleWeight = 4.0
+        every { analyticsEventDao.getAllEvents() } returns listOf(aggregateEvent)
+
+        val analyticsJSONSlot = slot<String>()
+        every { httpClient.post(any(), capture(analyticsJSONSlot), any(), any()) } returns ""
+
+        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        sut.uploadAnalytics(context, inputData)
+
+        val eventOne = JSONObject(analyticsJSONSlot.captured)
+            .getJSONArray("analytics")
+            .getJSONObject(0)
+        assertEquals(12, eventOne.getInt("count"))
+        assertEquals(4.0, eventOne.getDouble("sample_weight"), 0.0)
+    }
+
     @Test
     fun uploadAnalytics_whenConfigurationIsNull_doesNothing() {
         val inputData = Data.Builder()
@@ -308,12 +534,16 @@ class AnalyticsClientUnitTest {
         val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
         sut.uploadAnalytics(context, inputData)
 
-        verify { analyticsEventDao.deleteEvents(events) }
+        verifyOrder {
+            analyticsEventDao.subtractEventCount(events[0].id, 1)
+            analyticsEventDao.subtractEventCount(events[1].id, 1)
+            analyticsEventDao.deleteUploadedEvents()
+        }
     }
 
     @Test
     @Throws(Exception::class)
-    fun uploadAnalytics_whenAnalyticsSendFails_returnsError() {
+    fun uploadAnalytics_whenAnalyticsSendFails_returnsRetry() {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
@@ -337,77 +567,209 @@ class AnalyticsClientUnitTest {
 
         val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
         val result = sut.uploadAnalytics(context, inputData)
-        assertTrue(result is ListenableWorker.Result.Failure)
+        assertTrue(result is ListenableWorker.Result.Retry)
     }
 
     @Test
     @Throws(Exception::class)
-    fun reportCrash_whenLastKnownAnalyticsUrlExists_sendsCrashAnalyticsEvent() {
+    fun uploadAnalytics_whenAnalyticsSendFailsOnFinalAttempt_returnsError() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+
         val metadata = createSampleDeviceMetadata()
         every {
             deviceInspector.getDeviceMetadata(context, sessionId, integration)
         } returns metadata
 
-        val analyticsJSONSlot = slot<String>()
-        every {
-            httpClient.post(
-                "analytics_url",
-                capture(analyticsJSONSlot),
-                isNull(),
-                authorization,
-                any()
-            )
-        } returns Unit
+        val events: MutableList<AnalyticsEvent> = ArrayList()
+        events.add(AnalyticsEvent("event0", 123))
+        events.add(AnalyticsEvent("event1", 456))
+        every { analyticsEventDao.getAllEvents() } returns events
+
+        val httpError = Exception("error")
+        every { httpClient.post(any(), any(), any(), any()) } throws httpError
 
         val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val result = sut.uploadAnalytics(context, inputData, 4)
+        assertTrue(result is ListenableWorker.Result.Failure)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_whenUploadIsDeferred_doesNotSendEvents() {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
-        sut.sendEvent(configuration, eventName, sessionId, integration, authorization)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
 
-        sut.reportCrash(context, sessionId, integration, 123, authorization)
+        val events = listOf(AnalyticsEvent("event0", 123))
+        every { analyticsEventDao.getAllEvents() } returns events
 
-        val analyticsJson = JSONObject(analyticsJSONSlot.captured)
-        val meta = analyticsJson.getJSONObject("_meta")
-        JSONAssert.assertEquals(metadata.toJSON(), meta, true)
+        val uploadScheduler = mockk<AnalyticsUploadScheduler>(relaxed = true)
+        every { uploadScheduler.deferUploadIfNeeded(inputData, 1, false) } returns true
 
-        val array = analyticsJson.getJSONArray("analytics")
-        assertEquals(1, array.length())
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, Random(), uploadScheduler
+        )
+        val result = sut.uploadAnalytics(context, inputData)
 
-        val eventOne = array.getJSONObject(0)
-        assertEquals("android.crash", eventOne.getString("kind"))
-        assertEquals(123, eventOne.getString("timestamp").toLong())
+        assertTrue(result is ListenableWorker.Result.Success)
+        verify { httpClient wasNot Called }
+        verify(exactly = 0) { analyticsEventDao.subtractEventCount(any(), any()) }
+        verify(exactly = 0) { analyticsEventDao.deleteUploadedEvents() }
     }
 
     @Test
     @Throws(JSONException::class)
-    fun reportCrash_whenLastKnownAnalyticsUrlMissing_doesNothing() {
-        val metadata = createSampleDeviceMetadata()
+    fun sendEvent_recordsEnqueuedAndSampledOutEvents() {
+        val metricsRecorder = AnalyticsMetricsRecorder()
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector,
+            metricsRecorder = metricsRecorder
+        )
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS_SAMPLE_RATES)
+        sut.sendEvent(configuration, "card.nonce-received", sessionId, integration, 123, authorization)
+        sut.sendEvent(configuration, eventName, sessionId, integration, 123, authorization)
+
+        val metrics = sut.getMetrics()
+        assertEquals(1, metrics.eventsEnqueued)
+        assertEquals(1, metrics.eventsSampledOut)
+        assertEquals(1, metrics.eventsBuffered)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_recordsUploadBatchAndFailureReasons() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
         every {
             deviceInspector.getDeviceMetadata(context, sessionId, integration)
-        } returns metadata
+        } returns createSampleDeviceMetadata()
+        val aggregateEvent = AnalyticsEvent("event1", 456)
+        aggregateEvent.count = 3
+        every { analyticsEventDao.getAllEvents() } returns listOf(
+            AnalyticsEvent("event0", 123),
+            aggregateEvent
+        )
+
+        val metricsRecorder = AnalyticsMetricsRecorder()
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector,
+            metricsRecorder = metricsRecorder
+        )
+        every { httpClient.post(any(), any(), any(), any()) } returns ""
+        sut.uploadAnalytics(context, inputData)
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
-        sut.reportCrash(context, sessionId, integration, 123, authorization)
+        every { httpClient.post(any(), any(), any(), any()) } throws ServerException("error")
+        sut.uploadAnalytics(context, inputData)
+
+        val metrics = sut.getMetrics()
+        assertEquals(4, metrics.eventsUploaded)
+        assertEquals(1, metrics.uploadBatchCount)
+        assertEquals(2, metrics.lastUploadBatchSize)
+        assertEquals(mapOf("ServerException" to 1L), metrics.uploadFailureReasons)
+    }
+
+    @Test
+    fun uploadAnalytics_withoutAnalyticsUrl_doesNotReportUploadSuccess() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ANALYTICS)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+        every { analyticsEventDao.getAllEvents() } returns listOf(AnalyticsEvent("event0", 123))
+
+        val uploadScheduler = mockk<AnalyticsUploadScheduler>(relaxed = true)
+        every { uploadScheduler.deferUploadIfNeeded(any(), any(), any()) } returns false
+        val metricsRecorder = AnalyticsMetricsRecorder()
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, Random(), uploadScheduler,
+            metricsRecorder = metricsRecorder
+        )
+        sut.uploadAnalytics(context, inputData)
 
-        // or confirmVerified(httpClient)
         verify { httpClient wasNot Called }
+        verify(exactly = 0) { uploadScheduler.onUploadSucceeded() }
+        verify(exactly = 0) { analyticsEventDao.deleteUploadedEvents() }
+        assertEquals(0, sut.getMetrics().eventsUploaded)
     }
 
     @Test
-    @Throws(JSONException::class)
-    fun reportCrash_whenAuthorizationIsNull_doesNothing() {
-        val metadata = createSampleDeviceMetadata()
-        every {
-            deviceInspector.getDeviceMetadata(context, sessionId, integration)
-        } returns metadata
+    fun getMetrics_reportsDatabaseRowCount() {
+        every { analyticsEventDao.getEventCount() } returns 3
+        every { analyticsSpanDao.getSpanCount() } returns 2
+
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector,
+            metricsRecorder = AnalyticsMetricsRecorder()
+        )
+        assertEquals(5, sut.getMetrics().databaseRowCount)
+    }
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
-        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
-        sut.sendEvent(configuration, eventName, sessionId, integration, authorization)
+    @Test
+    fun writeAnalytics_writesCrashesFromPreviousProcessOnce() {
+        val crashReportStore = mockk<CrashReportStore>(relaxed = true)
+        every { crashReportStore.drain() } returns listOf(100L)
+        val insertedEvents = mutableListOf<AnalyticsEvent>()
+        every { analyticsEventDao.insertEvent(capture(insertedEvents)) } returns Unit
 
-        sut.reportCrash(context, sessionId, integration, 123, null)
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
+            .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
+            .build()
+        val hasWrittenPendingCrashReports = AtomicBoolean(false)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector,
+            crashReportStore = crashReportStore,
+            hasWrittenPendingCrashReports = hasWrittenPendingCrashReports
+        )
+        sut.writeAnalytics(inputData)
+        AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector,
+            crashReportStore = crashReportStore,
+            hasWrittenPendingCrashReports = hasWrittenPendingCrashReports
+        ).writeAnalytics(inputData)
+
+        verify(exactly = 1) { crashReportStore.drain() }
+        assertEquals("android.crash", insertedEvents[0].name)
+        assertEquals(100, insertedEvents[0].timestamp)
+    }
 
-        // or confirmVerified(httpClient)
-        verify { httpClient wasNot Called }
+    @Test
+    fun writePendingCrashReports_afterStartupDrain_doesNotDrainAgainOnWrite() {
+        val crashReportStore = mockk<CrashReportStore>(relaxed = true)
+        every { crashReportStore.drain() } returns listOf(100L)
+
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector,
+            crashReportStore = crashReportStore,
+            hasWrittenPendingCrashReports = AtomicBoolean(false)
+        )
+        sut.writePendingCrashReports()
+        sut.writeAnalytics(
+            Data.Builder()
+                .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
+                .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
+                .build()
+        )
+
+        verify(exactly = 1) { crashReportStore.drain() }
+        verify { analyticsEventDao.insertEvent(match { it.name == "android.crash" }) }
     }
 
     companion object {
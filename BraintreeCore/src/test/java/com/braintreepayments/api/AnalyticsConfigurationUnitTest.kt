@@ -30,4 +30,17 @@ class AnalyticsConfigurationUnitTest {
         assertFalse(sut.isEnabled)
         assertTrue(sut.url == "")
     }
+
+    @Test
+    fun sampleRateFor_returnsConfiguredRateOrDefault() {
+        val input = JSONObject()
+            .put("url", "https://example.com/analytics")
+            .put("sampleRates", JSONObject()
+                .put("card.nonce-received", 0.25)
+                .put("union-pay.capabilities-received", 2.0))
+        val sut = AnalyticsConfiguration(input)
+        assertEquals(0.25, sut.sampleRateFor("card.nonce-received"), 0.0)
+        assertEquals(1.0, sut.sampleRateFor("union-pay.capabilities-received"), 0.0)
+        assertEquals(1.0, sut.sampleRateFor("card.graphql.tokenization.started"), 0.0)
+    }
 }
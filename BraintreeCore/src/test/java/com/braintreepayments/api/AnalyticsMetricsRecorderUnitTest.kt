@@ -0,0 +1,70 @@
+package com.braintreepayments.api
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.io.IOException
+
+class AnalyticsMetricsRecorderUnitTest {
+
+    private val schedulingMetrics = AnalyticsSchedulingMetrics(
+        uploadsScheduled = 4,
+        uploadsFlushedOnBackground = 1,
+        uploadsDeferredForActiveRequests = 0,
+        uploadsDeferredForMeteredNetwork = 0,
+        uploadRetries = 2
+    )
+
+    @Test
+    fun snapshot_reportsEventCountersAndBufferedEvents() {
+        val sut = AnalyticsMetricsRecorder()
+        repeat(5) { sut.onEventEnqueued() }
+        sut.onEventSampledOut()
+        repeat(3) { sut.onEventPersisted() }
+        sut.onEventDropped()
+
+        val metrics = sut.snapshot(10, 4096, schedulingMetrics)
+        assertEquals(5, metrics.eventsEnqueued)
+        assertEquals(1, metrics.eventsSampledOut)
+        assertEquals(3, metrics.eventsPersisted)
+        assertEquals(1, metrics.eventsDropped)
+        assertEquals(1, metrics.eventsBuffered)
+        assertEquals(10, metrics.databaseRowCount)
+        assertEquals(4096, metrics.databaseSizeBytes)
+        assertEquals(4, metrics.uploadsScheduled)
+        assertEquals(2, metrics.uploadRetries)
+    }
+
+    @Test
+    fun snapshot_whenMoreEventsPersistedThanEnqueued_reportsNoBufferedEvents() {
+        val sut = AnalyticsMetricsRecorder()
+        sut.onEventPersisted()
+
+        assertEquals(0, sut.snapshot(0, 0, schedulingMetrics).eventsBuffered)
+    }
+
+    @Test
+    fun snapshot_reportsUploadBatchesAndLatency() {
+        val sut = AnalyticsMetricsRecorder()
+        sut.onUploadSucceeded(eventCount = 8, batchSize = 10, latencyMillis = 120)
+        sut.onUploadSucceeded(eventCount = 2, batchSize = 3, latencyMillis = 80)
+
+        val metrics = sut.snapshot(0, 0, schedulingMetrics)
+        assertEquals(10, metrics.eventsUploaded)
+        assertEquals(2, metrics.uploadBatchCount)
+        assertEquals(3, metrics.lastUploadBatchSize)
+        assertEquals(10, metrics.maxUploadBatchSize)
+        assertEquals(80, metrics.lastUploadLatencyMillis)
+        assertEquals(200, metrics.totalUploadLatencyMillis)
+    }
+
+    @Test
+    fun snapshot_groupsUploadFailuresByExceptionClass() {
+        val sut = AnalyticsMetricsRecorder()
+        sut.onUploadFailed(IOException("offline"))
+        sut.onUploadFailed(IOException("timeout"))
+        sut.onUploadFailed(ServerException("error"))
+
+        val metrics = sut.snapshot(0, 0, schedulingMetrics)
+        assertEquals(mapOf("IOException" to 2L, "ServerException" to 1L), metrics.uploadFailureReasons)
+    }
+}
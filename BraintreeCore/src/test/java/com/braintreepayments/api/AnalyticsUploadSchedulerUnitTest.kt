@@ -0,0 +1,131 @@
+package com.braintreepayments.api
+
+import android.content.ComponentCallbacks2
+import androidx.work.Data
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequest
+import androidx.work.WorkManager
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class AnalyticsUploadSchedulerUnitTest {
+
+    private lateinit var workManager: WorkManager
+    private lateinit var inputData: Data
+
+    @Before
+    fun beforeEach() {
+        workManager = mockk(relaxed = true)
+        inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, "sample-session-id")
+            .build()
+    }
+
+    @Test
+    fun scheduleUpload_enqueuesDelayedUploadThatRequiresNetwork() {
+        val workRequestSlot = slot<OneTimeWorkRequest>()
+        every {
+            workManager.enqueueUniqueWork(
+                "uploadAnalytics", ExistingWorkPolicy.KEEP, capture(workRequestSlot)
+            )
+        } returns mockk()
+
+        val sut = AnalyticsUploadScheduler(workManager) { 0 }
+        sut.scheduleUpload(inputData)
+
+        val workSpec = workRequestSlot.captured.workSpec
+        assertEquals(30000, workSpec.initialDelay)
+        assertEquals(NetworkType.CONNECTED, workSpec.constraints.requiredNetworkType)
+        assertEquals(1, sut.metrics.uploadsScheduled)
+    }
+
+    @Test
+    fun onTrimMemory_whenUIHidden_flushesPendingUploadImmediately() {
+        val workRequestSlot = slot<OneTimeWorkRequest>()
+        every {
+            workManager.enqueueUniqueWork(
+                "uploadAnalytics", ExistingWorkPolicy.REPLACE, capture(workRequestSlot)
+            )
+        } returns mockk()
+
+        val sut = AnalyticsUploadScheduler(workManager) { 0 }
+        sut.scheduleUpload(inputData)
+        sut.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN)
+
+        assertEquals(0, workRequestSlot.captured.workSpec.initialDelay)
+        assertEquals(1, sut.metrics.uploadsFlushedOnBackground)
+    }
+
+    @Test
+    fun onTrimMemory_whenNoEventsRecorded_doesNothing() {
+        val sut = AnalyticsUploadScheduler(workManager) { 0 }
+        sut.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN)
+
+        verify(exactly = 0) { workManager.enqueueUniqueWork(any<String>(), any(), any<OneTimeWorkRequest>()) }
+    }
+
+    @Test
+    fun deferUploadIfNeeded_whenRequestsAreInFlight_chainsDelayedUpload() {
+        val workRequestSlot = slot<OneTimeWorkRequest>()
+        every {
+            workManager.enqueueUniqueWork(
+                "uploadAnalytics", ExistingWorkPolicy.APPEND_OR_REPLACE, capture(workRequestSlot)
+            )
+        } returns mockk()
+
+        val sut = AnalyticsUploadScheduler(workManager) { 1 }
+        assertTrue(sut.deferUploadIfNeeded(inputData, 1, false))
+
+        val workSpec = workRequestSlot.captured.workSpec
+        assertEquals(10000, workSpec.initialDelay)
+        assertEquals(1, workSpec.input.getInt("deferralCount", 0))
+        assertEquals("sample-session-id", workSpec.input.getString("sessionId"))
+        assertEquals(1, sut.metrics.uploadsDeferredForActiveRequests)
+    }
+
+    @Test
+    fun deferUploadIfNeeded_whenLargeBacklogOnMeteredNetwork_requiresUnmeteredNetwork() {
+        val workRequestSlot = slot<OneTimeWorkRequest>()
+        every {
+            workManager.enqueueUniqueWork(
+                "uploadAnalytics", ExistingWorkPolicy.APPEND_OR_REPLACE, capture(workRequestSlot)
+            )
+        } returns mockk()
+
+        val sut = AnalyticsUploadScheduler(workManager) { 0 }
+        assertTrue(sut.deferUploadIfNeeded(inputData, 500, true))
+
+        val workSpec = workRequestSlot.captured.workSpec
+        assertEquals(NetworkType.UNMETERED, workSpec.constraints.requiredNetworkType)
+        assertEquals(1, sut.metrics.uploadsDeferredForMeteredNetwork)
+    }
+
+    @Test
+    fun deferUploadIfNeeded_whenSmallBacklogOnMeteredNetwork_returnsFalse() {
+        val sut = AnalyticsUploadScheduler(workManager) { 0 }
+        assertFalse(sut.deferUploadIfNeeded(inputData, 5, true))
+    }
+
+    @Test
+    fun deferUploadIfNeeded_whenMaxDeferralsReached_returnsFalse() {
+        val deferredInputData = Data.Builder()
+            .putAll(inputData)
+            .putInt(AnalyticsUploadScheduler.WORK_INPUT_KEY_DEFERRAL_COUNT, 3)
+            .build()
+
+        val sut = AnalyticsUploadScheduler(workManager) { 1 }
+        assertFalse(sut.deferUploadIfNeeded(deferredInputData, 500, true))
+        verify(exactly = 0) { workManager.enqueueUniqueWork(any<String>(), any(), any<OneTimeWorkRequest>()) }
+    }
+}
@@ -73,6 +73,23 @@ class ApiClientUnitTest {
         assertEquals(card.buildJSONForGraphQL().toString(), graphQLBodySlot.captured)
     }
 
+    @Test
+    @Throws(BraintreeException::class, InvalidArgumentException::class, JSONException::class)
+    fun tokenizeGraphQL_withRequestContext_sendsRequestWithRequestContext() {
+        val braintreeClient = MockkBraintreeClientBuilder().build()
+        val requestContext = BraintreeRequestContext(
+            Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN),
+            graphQLEnabledConfig
+        )
+        every { braintreeClient.sendGraphQLPOST(any(), any(), any()) } returns Unit
+
+        val sut = ApiClient(braintreeClient)
+        sut.tokenizeGraphQL("payload", requestContext, tokenizeCallback)
+
+        verify { braintreeClient.sendGraphQLPOST("payload", requestContext, any()) }
+        verify(inverse = true) { braintreeClient.sendGraphQLPOST(any(), any<HttpResponseCallback>()) }
+    }
+
     @Test
     @Throws(BraintreeException::class, JSONException::class)
     fun tokenizeGraphQL_sendGraphQLAnalyticsEventWhenEnabled() {
@@ -133,3 +150,6 @@ class ApiClientUnitTest {
         assertEquals("/v1/test/path", ApiClient.versionedPath("test/path"))
     }
 }
+
+// the request body parsed into a tree, as tokenizeGraphQL(JSONObject, ...) takes it
+private fun Card.buildJSONForGraphQL() = JSONObject(buildGraphQLPayload())
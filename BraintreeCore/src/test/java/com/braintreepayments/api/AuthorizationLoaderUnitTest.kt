@@ -6,6 +6,7 @@ import io.mockk.slot
 import io.mockk.verify
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertNull
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.robolectric.RobolectricTestRunner
@@ -179,4 +180,151 @@ class AuthorizationLoaderUnitTest {
         sut.loadAuthorization(callback)
         assertEquals(clientToken, sut.authorizationFromCache?.toString())
     }
+
+    @Test
+    fun loadAuthorization_whenClientTokenFetchInFlight_coalescesProviderRequests() {
+        val clientTokenProvider = mockk<ClientTokenProvider>(relaxed = true)
+        val providerCallbackSlot = slot<ClientTokenCallback>()
+        every { clientTokenProvider.getClientToken(capture(providerCallbackSlot)) } returns Unit
+
+        val callback1 = mockk<AuthorizationCallback>(relaxed = true)
+        val callback2 = mockk<AuthorizationCallback>(relaxed = true)
+        sut = AuthorizationLoader(null, clientTokenProvider)
+        sut.loadAuthorization(callback1)
+        sut.loadAuthorization(callback2)
+
+        verify(exactly = 1) { clientTokenProvider.getClientToken(any()) }
+
+        providerCallbackSlot.captured.onSuccess(Fixtures.BASE64_CLIENT_TOKEN)
+        verify { callback1.onAuthorizationResult(ofType(ClientToken::class), null) }
+        verify { callback2.onAuthorizationResult(ofType(ClientToken::class), null) }
+    }
+
+    @Test
+    fun loadAuthorization_whenCoalescedClientTokenFetchFails_forwardsErrorToAllCallers() {
+        val clientTokenProvider = mockk<ClientTokenProvider>(relaxed = true)
+        val providerCallbackSlot = slot<ClientTokenCallback>()
+        every { clientTokenProvider.getClientToken(capture(providerCallbackSlot)) } returns Unit
+
+        val callback1 = mockk<AuthorizationCallback>(relaxed = true)
+        val callback2 = mockk<AuthorizationCallback>(relaxed = true)
+        sut = AuthorizationLoader(null, clientTokenProvider)
+        sut.loadAuthorization(callback1)
+        sut.loadAuthorization(callback2)
+
+        val error = Exception("error")
+        providerCallbackSlot.captured.onFailure(error)
+        verify { callback1.onAuthorizationResult(null, error) }
+        verify { callback2.onAuthorizationResult(null, error) }
+
+        sut.loadAuthorization(callback1)
+        verify(exactly = 2) { clientTokenProvider.getClientToken(any()) }
+    }
+
+    @Test
+    fun invalidateClientToken_whenPrefetchEnabled_fetchesClientTokenImmediately() {
+        val clientTokenProvider = MockkClientTokenProviderBuilder()
+            .clientToken(Fixtures.BASE64_CLIENT_TOKEN, Fixtures.BASE64_CLIENT_TOKEN2)
+            .build()
+        sut = AuthorizationLoader(null, clientTokenProvider, ClientTokenRefreshPolicy())
+        sut.loadAuthorization(mockk(relaxed = true))
+
+        sut.invalidateClientToken()
+
+        verify(exactly = 2) { clientTokenProvider.getClientToken(any()) }
+        assertEquals(Fixtures.BASE64_CLIENT_TOKEN2, sut.authorizationFromCache?.toString())
+    }
+
+    @Test
+    fun invalidateClientToken_whenPrefetchDisabled_waitsUntilAuthorizationIsNeeded() {
+        val clientTokenProvider = MockkClientTokenProviderBuilder()
+            .clientToken(Fixtures.BASE64_CLIENT_TOKEN)
+            .build()
+        sut = AuthorizationLoader(null, clientTokenProvider)
+        sut.loadAuthorization(mockk(relaxed = true))
+
+        sut.invalidateClientToken()
+
+        verify(exactly = 1) { clientTokenProvider.getClientToken(any()) }
+    }
+
+    @Test
+    fun invalidateClientToken_whileFetchInFlight_discardsTokenFromEarlierFetch() {
+        val clientTokenProvider = mockk<ClientTokenProvider>(relaxed = true)
+        val providerCallbacks = mutableListOf<ClientTokenCallback>()
+        every { clientTokenProvider.getClientToken(capture(providerCallbacks)) } returns Unit
+
+        val callback = mockk<AuthorizationCallback>(relaxed = true)
+        sut = AuthorizationLoader(null, clientTokenProvider, ClientTokenRefreshPolicy())
+        sut.loadAuthorization(callback)
+        sut.invalidateClientToken()
+
+        // the prefetch doesn't join the request that started before the invalidation
+        assertEquals(2, providerCallbacks.size)
+
+        providerCallbacks[0].onSuccess(Fixtures.BASE64_CLIENT_TOKEN)
+        assertNull(sut.authorizationFromCache)
+        verify(exactly = 0) { callback.onAuthorizationResult(any(), any()) }
+
+        providerCallbacks[1].onSuccess(Fixtures.BASE64_CLIENT_TOKEN2)
+        assertEquals(Fixtures.BASE64_CLIENT_TOKEN2, sut.authorizationFromCache?.toString())
+        verify(exactly = 1) {
+            callback.onAuthorizationResult(match { it.toString() == Fixtures.BASE64_CLIENT_TOKEN2 }, null)
+        }
+        verify(exactly = 2) { clientTokenProvider.getClientToken(any()) }
+    }
+
+    @Test
+    fun loadAuthorization_afterInvalidationWhileFetchInFlight_startsNewFetch() {
+        val clientTokenProvider = mockk<ClientTokenProvider>(relaxed = true)
+        val providerCallbacks = mutableListOf<ClientTokenCallback>()
+        every { clientTokenProvider.getClientToken(capture(providerCallbacks)) } returns Unit
+
+        val callback1 = mockk<AuthorizationCallback>(relaxed = true)
+        val callback2 = mockk<AuthorizationCallback>(relaxed = true)
+        sut = AuthorizationLoader(null, clientTokenProvider)
+        sut.loadAuthorization(callback1)
+        sut.invalidateClientToken()
+        sut.loadAuthorization(callback2)
+
+        assertEquals(2, providerCallbacks.size)
+
+        // the earlier request returns last; its token must not replace the newer one
+        providerCallbacks[1].onSuccess(Fixtures.BASE64_CLIENT_TOKEN2)
+        providerCallbacks[0].onSuccess(Fixtures.BASE64_CLIENT_TOKEN)
+
+        assertEquals(Fixtures.BASE64_CLIENT_TOKEN2, sut.authorizationFromCache?.toString())
+        verify {
+            callback1.onAuthorizationResult(match { it.toString() == Fixtures.BASE64_CLIENT_TOKEN2 }, null)
+        }
+        verify {
+            callback2.onAuthorizationResult(match { it.toString() == Fixtures.BASE64_CLIENT_TOKEN2 }, null)
+        }
+        verify(exactly = 2) { clientTokenProvider.getClientToken(any()) }
+    }
+
+    @Test
+    fun loadAuthorization_whenClientTokenOlderThanMaxAge_returnsCachedTokenAndRefreshesInBackground() {
+        val clientTokenProvider = MockkClientTokenProviderBuilder()
+            .clientToken(Fixtures.BASE64_CLIENT_TOKEN, Fixtures.BASE64_CLIENT_TOKEN2)
+            .build()
+        var now = 1000L
+        val refreshPolicy = ClientTokenRefreshPolicy(maxTokenAgeMillis = 500)
+        sut = AuthorizationLoader(null, clientTokenProvider, refreshPolicy) { now }
+        sut.loadAuthorization(mockk(relaxed = true))
+
+        now += 100
+        sut.loadAuthorization(mockk(relaxed = true))
+        verify(exactly = 1) { clientTokenProvider.getClientToken(any()) }
+
+        now += 500
+        val callback = mockk<AuthorizationCallback>()
+        val authSlot = slot<Authorization>()
+        every { callback.onAuthorizationResult(capture(authSlot), null) } returns Unit
+        sut.loadAuthorization(callback)
+
+        assertEquals(Fixtures.BASE64_CLIENT_TOKEN, authSlot.captured.toString())
+        verify(exactly = 2) { clientTokenProvider.getClientToken(any()) }
+        assertEquals(Fixtures.BASE64_CLIENT_TOKEN2, sut.authorizationFromCache?.toString())
+    }
 }
@@ -0,0 +1,108 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider
+import androidx.work.WorkManager
+import androidx.work.testing.WorkManagerTestInitHelper
+import io.mockk.mockkStatic
+import io.mockk.unmockkStatic
+import io.mockk.verify
+import org.junit.After
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import java.lang.management.ManagementFactory
+
+/**
+ * Constructing a [BraintreeClient] must not create its HTTP, GraphQL, analytics or browser switch
+ * clients, since apps construct it on the main thread.
+ */
+@RunWith(RobolectricTestRunner::class)
+class BraintreeClientStartupUnitTest {
+
+    private lateinit var context: Context
+
+    @Before
+    fun beforeEach() {
+        context = ApplicationProvider.getApplicationContext()
+        WorkManagerTestInitHelper.initializeTestWorkManager(context)
+        mockkStatic(WorkManager::class)
+    }
+
+    @After
+    fun afterEach() {
+        unmockkStatic(WorkManager::class)
+    }
+
+    @Test
+    fun constructor_doesNotCreateDependencies() {
+        val params = createParams()
+        BraintreeClient(params)
+
+        assertFalse(params.httpClient.isInitialized())
+        assertFalse(params.graphQLClient.isInitialized())
+        assertFalse(params.analyticsClient.isInitialized())
+        assertFalse(params.browserSwitchClient.isInitialized())
+        assertFalse(params.configurationLoader.isInitialized())
+        verify(exactly = 0) { WorkManager.getInstance(any()) }
+    }
+
+    @Test
+    fun constructor_allocatesLessThanCreatingDependenciesUpFront() {
+        val threadMXBean = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+        assumeTrue(
+            threadMXBean != null && threadMXBean.isThreadAllocatedMemorySupported &&
+                    threadMXBean.isThreadAllocatedMemoryEnabled
+        )
+
+        // load classes first so class loading isn't attributed to either variant
+        createClient(eager = true)
+        createClient(eager = false)
+
+        val eagerBytes = measureAllocatedBytes(threadMXBean!!) { createClient(eager = true) }
+        val lazyBytes = measureAllocatedBytes(threadMXBean) { createClient(eager = false) }
+
+        assertTrue("lazy: $lazyBytes bytes, eager: $eagerBytes bytes", lazyBytes < eagerBytes)
+    }
+
+    private fun createParams() = BraintreeClientParams(
+        context = context,
+        sessionId = "session-id",
+        authorizationLoader = AuthorizationLoader(Fixtures.TOKENIZATION_KEY, null),
+        returnUrlScheme = "sample-return-url-scheme",
+        // a runtime per client, so the eager variant creates every dependency rather than
+        // reusing those of an earlier client; nothing is scheduled, so no threads are started
+        runtime = BraintreeRuntime(context),
+        integrationType = IntegrationType.CUSTOM
+    )
+
+    private fun createClient(eager: Boolean): BraintreeClient {
+        val params = createParams()
+        if (eager) {
+            params.httpClient.value
+            params.graphQLClient.value
+            params.analyticsClient.value
+            params.browserSwitchClient.value
+            params.configurationLoader.value
+        }
+        return BraintreeClient(params)
+    }
+
+    private fun measureAllocatedBytes(
+        threadMXBean: com.sun.management.ThreadMXBean,
+        block: () -> Unit
+    ): Long {
+        val threadId = Thread.currentThread().id
+        val startBytes = threadMXBean.getThreadAllocatedBytes(threadId)
+        repeat(ITERATIONS) { block() }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - startBytes) / ITERATIONS
+    }
+
+    companion object {
+        private const val ITERATIONS = 5
+    }
+}
@@ -30,6 +30,7 @@ class BraintreeClientUnitTest {
     private lateinit var analyticsClient: AnalyticsClient
     private lateinit var manifestValidator: ManifestValidator
     private lateinit var browserSwitchClient: BrowserSwitchClient
+    private lateinit var crashReportStore: CrashReportStore
 
     @Before
     fun beforeEach() {
@@ -45,6 +46,7 @@ class BraintreeClientUnitTest {
         analyticsClient = mockk(relaxed = true)
         manifestValidator = mockk(relaxed = true)
         browserSwitchClient = mockk(relaxed = true)
+        crashReportStore = mockk(relaxed = true)
 
         every { context.applicationContext } returns applicationContext
         WorkManagerTestInitHelper.initializeTestWorkManager(context)
@@ -143,6 +145,127 @@ class BraintreeClientUnitTest {
         verify { authorizationLoader.invalidateClientToken() }
     }
 
+    @Test
+    fun getRequestContext_onAuthorizationAndConfigurationLoadSuccess_forwardsBoth() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val callback = mockk<BraintreeRequestContextCallback>(relaxed = true)
+        sut.getRequestContext(callback)
+
+        verify { callback.onResult(BraintreeRequestContext(authorization, configuration), null) }
+        verify(exactly = 1) { authorizationLoader.loadAuthorization(any()) }
+    }
+
+    @Test
+    fun getRequestContext_forwardsAuthorizationLoaderError() {
+        val authError = Exception("auth error")
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorizationError(authError)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val callback = mockk<BraintreeRequestContextCallback>(relaxed = true)
+        sut.getRequestContext(callback)
+
+        verify { callback.onResult(null, authError) }
+        verify(exactly = 0) { configurationLoader.loadConfiguration(any(), any()) }
+    }
+
+    @Test
+    fun sendGET_withRequestContext_forwardsRequestToHttpClientWithoutLoadingAgain() {
+        val configuration = mockk<Configuration>(relaxed = true)
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+
+        val requestContext = BraintreeRequestContext(authorization, configuration)
+        sut.sendGET("sample-url", requestContext, httpResponseCallback)
+
+        verify {
+            braintreeHttpClient.get("sample-url", configuration, authorization, httpResponseCallback)
+        }
+        verify(exactly = 0) { authorizationLoader.loadAuthorization(any()) }
+        verify(exactly = 0) { configurationLoader.loadConfiguration(any(), any()) }
+    }
+
+    @Test
+    fun sendPOST_withRequestContext_forwardsRequestToHttpClient() {
+        val configuration = mockk<Configuration>(relaxed = true)
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+
+        val requestContext = BraintreeRequestContext(authorization, configuration)
+        sut.sendPOST("sample-url", "{}", requestContext, httpResponseCallback)
+
+        verify {
+            braintreeHttpClient.post(
+                "sample-url", "{}", configuration, authorization, httpResponseCallback
+            )
+        }
+        verify(exactly = 0) { authorizationLoader.loadAuthorization(any()) }
+    }
+
+    @Test
+    fun sendGraphQLPOST_withRequestContext_forwardsRequestToGraphQLClient() {
+        val configuration = mockk<Configuration>(relaxed = true)
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+
+        val requestContext = BraintreeRequestContext(authorization, configuration)
+        sut.sendGraphQLPOST("{}", requestContext, httpResponseCallback)
+
+        verify {
+            braintreeGraphQLClient.post("{}", configuration, authorization, httpResponseCallback)
+        }
+        verify(exactly = 0) { authorizationLoader.loadAuthorization(any()) }
+    }
+
+    @Test
+    fun sendGraphQLPOSTAllowingPartialResults_forwardsRequestToGraphQLClient() {
+        val configuration = mockk<Configuration>(relaxed = true)
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+
+        val requestContext = BraintreeRequestContext(authorization, configuration)
+        sut.sendGraphQLPOSTAllowingPartialResults("{}", requestContext, httpResponseCallback)
+
+        verify {
+            braintreeGraphQLClient.postAllowingPartialResults(
+                "{}", configuration, authorization, httpResponseCallback
+            )
+        }
+    }
+
+    @Test
+    @Throws(JSONException::class)
+    fun sendAnalyticsEvent_withRequestContext_sendsEventWithoutLoadingAgain() {
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        sut.sendAnalyticsEvent("event.started", BraintreeRequestContext(authorization, configuration))
+
+        verify {
+            analyticsClient.sendEvent(
+                configuration, "event.started", "session-id", "custom", authorization
+            )
+        }
+        verify(exactly = 0) { authorizationLoader.loadAuthorization(any()) }
+    }
+
     @Test
     fun sendGET_onGetConfigurationSuccess_forwardsRequestToHttpClient() {
         val authorizationLoader = MockkAuthorizationLoaderBuilder()
@@ -355,6 +478,44 @@ class BraintreeClientUnitTest {
         }
     }
 
+    @Test
+    fun sendAnalyticsSpan_endsSpanAndSendsItToAnalyticsClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val span = AnalyticsSpan("card.tokenize")
+        sut.sendAnalyticsSpan(span)
+
+        assertTrue(span.durationMillis >= 0)
+        verify {
+            analyticsClient.sendSpan(configuration, span, "session-id", "custom", authorization)
+        }
+    }
+
+    @Test
+    fun sendAnalyticsSpan_whenAnalyticsNotEnabled_doesNothing() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITHOUT_ANALYTICS))
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        sut.sendAnalyticsSpan(AnalyticsSpan("card.tokenize"))
+
+        verify { analyticsClient wasNot Called }
+    }
+
     @Test
     fun sendAnalyticsEvent_whenAuthorizationLoadFails_doesNothing() {
         val authorizationLoader = MockkAuthorizationLoaderBuilder()
@@ -635,26 +796,27 @@ class BraintreeClientUnitTest {
     }
 
     @Test
-    @Throws(JSONException::class)
-    fun reportCrash_reportsCrashViaAnalyticsClient() {
-        every { authorizationLoader.authorizationFromCache } returns authorization
+    fun getAnalyticsMetrics_returnsMetricsFromAnalyticsClient() {
+        val metrics = mockk<AnalyticsMetrics>()
+        every { analyticsClient.getMetrics() } returns metrics
 
-        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
-        val configurationLoader = MockkConfigurationLoaderBuilder()
-            .configuration(configuration)
-            .build()
+        val configurationLoader = MockkConfigurationLoaderBuilder().build()
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        assertSame(metrics, sut.getAnalyticsMetrics())
+    }
+
+    @Test
+    fun reportCrash_appendsCrashToCrashReportStoreWithoutAnalyticsClient() {
+        val configurationLoader = MockkConfigurationLoaderBuilder().build()
         val params = createDefaultParams(configurationLoader, authorizationLoader)
         val sut = BraintreeClient(params)
         sut.reportCrash()
 
-        verify {
-            analyticsClient.reportCrash(
-                applicationContext,
-                "session-id",
-                IntegrationType.CUSTOM,
-                authorization
-            )
-        }
+        verify { crashReportStore.append(any()) }
+        verify { analyticsClient wasNot Called }
+        verify(exactly = 0) { authorizationLoader.loadAuthorization(any()) }
     }
 
     private fun createDefaultParams(
@@ -672,6 +834,7 @@ class BraintreeClientUnitTest {
             browserSwitchClient = browserSwitchClient,
             manifestValidator = manifestValidator,
             configurationLoader = configurationLoader,
+            crashReportStore = crashReportStore,
             integrationType = IntegrationType.CUSTOM
         )
 
@@ -3,8 +3,11 @@ package com.braintreepayments.api
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.slot
+import io.mockk.verify
 import org.json.JSONException
+import org.json.JSONObject
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -139,4 +142,212 @@ class BraintreeGraphQLClientUnitTest {
             assertEquals("token invalid", e.message)
         }
     }
+
+    @Test
+    fun post_withPersistedQueriesEnabled_registersQueryOnceThenSendsOnlyItsHash() {
+        val server = PersistedQueryServer()
+        every { httpClient.sendRequest(any(), any()) } answers {
+            server.handle(firstArg(), secondArg())
+        }
+        val responses = mutableListOf<String?>()
+        every { httpResponseCallback.onResult(any(), any()) } answers {
+            responses.add(firstArg())
+        }
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(TOKENIZE_PAYLOAD, persistedQueriesConfiguration, authorization, httpResponseCallback)
+        sut.post(TOKENIZE_PAYLOAD, persistedQueriesConfiguration, authorization, httpResponseCallback)
+
+        assertEquals(listOf(PersistedQueryServer.SUCCESS, PersistedQueryServer.SUCCESS), responses)
+
+        // hash only, rejected; full document, stored; hash only, accepted
+        assertEquals(3, server.requests.size)
+        assertFalse(server.requests[0].has("query"))
+        assertEquals(TOKENIZE_QUERY, server.requests[1].getString("query"))
+        assertFalse(server.requests[2].has("query"))
+        assertEquals(
+            GraphQLPersistedQuery.sha256(TOKENIZE_QUERY),
+            server.requests[2].getJSONObject("extensions")
+                .getJSONObject("persistedQuery").getString("sha256Hash")
+        )
+        assertEquals("variables", server.requests[2].getJSONObject("variables").getString("input"))
+    }
+
+    @Test
+    fun post_whenPersistedQueriesNotSupported_sendsFullDocumentFromThenOn() {
+        val server = PersistedQueryServer(isSupported = false)
+        every { httpClient.sendRequest(any(), any()) } answers {
+            server.handle(firstArg(), secondArg())
+        }
+        every { httpResponseCallback.onResult(any(), any()) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(TOKENIZE_PAYLOAD, persistedQueriesConfiguration, authorization, httpResponseCallback)
+        sut.post(TOKENIZE_PAYLOAD, persistedQueriesConfiguration, authorization, httpResponseCallback)
+
+        assertEquals(3, server.requests.size)
+        assertEquals(TOKENIZE_PAYLOAD, server.requestBodies[2])
+        verify(exactly = 2) { httpResponseCallback.onResult(PersistedQueryServer.SUCCESS, null) }
+    }
+
+    @Test
+    fun post_whenPersistedQueriesNotSupported_resendsOriginalPayload() {
+        val server = PersistedQueryServer(isSupported = false)
+        every { httpClient.sendRequest(any(), any()) } answers {
+            server.handle(firstArg(), secondArg())
+        }
+        every { httpResponseCallback.onResult(any(), any()) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(TOKENIZE_PAYLOAD, persistedQueriesConfiguration, authorization, httpResponseCallback)
+
+        // hash only, rejected; the original payload, without the persisted query extension
+        assertEquals(2, server.requests.size)
+        assertFalse(server.requests[0].has("query"))
+        assertEquals(TOKENIZE_PAYLOAD, server.requestBodies[1])
+        verify { httpResponseCallback.onResult(PersistedQueryServer.SUCCESS, null) }
+    }
+
+    @Test
+    fun post_withPersistedQueriesDisabled_sendsPayloadUnchanged() {
+        val server = PersistedQueryServer()
+        every { httpClient.sendRequest(any(), any()) } answers {
+            server.handle(firstArg(), secondArg())
+        }
+        every { httpResponseCallback.onResult(any(), any()) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.post(TOKENIZE_PAYLOAD, configuration, authorization, httpResponseCallback)
+
+        assertEquals(listOf(TOKENIZE_PAYLOAD), server.requestBodies)
+    }
+
+    @Test
+    fun post_whenOptedInAndBatchingEnabledInConfiguration_enqueuesOperationWithBatcher() {
+        val batcher = mockk<GraphQLOperationBatcher>(relaxed = true)
+        every { batcher.canBatch(any()) } returns true
+
+        val sut = BraintreeGraphQLClient(httpClient, batcher, isBatchingEnabled = { true })
+        sut.post(TOKENIZE_PAYLOAD, batchingConfiguration, authorization, httpResponseCallback)
+
+        verify {
+            batcher.enqueue(TOKENIZE_PAYLOAD, any(), httpResponseCallback, any())
+        }
+        verify(exactly = 0) { httpClient.sendRequest(any(), any<HttpResponseCallback>()) }
+    }
+
+    @Test
+    fun post_byDefault_sendsOperationImmediately() {
+        val batcher = mockk<GraphQLOperationBatcher>(relaxed = true)
+        every { batcher.canBatch(any()) } returns true
+        every { httpClient.sendRequest(any(), any<HttpResponseCallback>()) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, batcher)
+        sut.post(TOKENIZE_PAYLOAD, batchingConfiguration, authorization, httpResponseCallback)
+
+        verify { httpClient.sendRequest(any(), httpResponseCallback) }
+        verify(exactly = 0) { batcher.enqueue(any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun post_whenBatchingNotOptedIn_sendsOperationImmediately() {
+        val batcher = mockk<GraphQLOperationBatcher>(relaxed = true)
+        every { batcher.canBatch(any()) } returns true
+        every { httpClient.sendRequest(any(), any<HttpResponseCallback>()) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, batcher, isBatchingEnabled = { false })
+        sut.post(TOKENIZE_PAYLOAD, batchingConfiguration, authorization, httpResponseCallback)
+
+        verify { httpClient.sendRequest(any(), httpResponseCallback) }
+        verify(exactly = 0) { batcher.enqueue(any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun postAllowingPartialResults_sendsOperationWithPartialResultsClientWithoutBatching() {
+        val batcher = mockk<GraphQLOperationBatcher>(relaxed = true)
+        every { batcher.canBatch(any()) } returns true
+        val partialResultsHttpClient = mockk<HttpClient>(relaxed = true)
+
+        val sut = BraintreeGraphQLClient(
+            httpClient,
+            batcher,
+            isBatchingEnabled = { true },
+            partialResultsHttpClient = lazyOf(partialResultsHttpClient)
+        )
+        sut.postAllowingPartialResults(
+            TOKENIZE_PAYLOAD, batchingConfiguration, authorization, httpResponseCallback
+        )
+
+        verify { partialResultsHttpClient.sendRequest(any(), httpResponseCallback) }
+        verify(exactly = 0) { batcher.enqueue(any(), any(), any(), any()) }
+        verify(exactly = 0) { httpClient.sendRequest(any(), any<HttpResponseCallback>()) }
+    }
+
+    private val batchingConfiguration: Configuration
+        get() = Configuration.fromJson(
+            Fixtures.CONFIGURATION_WITH_GRAPHQL.replace(
+                "\"tokenize_credit_cards\"", "\"tokenize_credit_cards\", \"batch_operations\""
+            )
+        )
+
+    private val persistedQueriesConfiguration: Configuration
+        get() = Configuration.fromJson(
+            Fixtures.CONFIGURATION_WITH_GRAPHQL.replace(
+                "\"tokenize_credit_cards\"", "\"tokenize_credit_cards\", \"persisted_queries\""
+            )
+        )
+
+    /**
+     * Stands in for a GraphQL server with automatic persisted queries: requests carrying only a
+     * hash succeed once the full document has been sent with that hash. A server that doesn't
+     * support persisted queries rejects every request carrying a hash. Responses go through
+     * [BraintreeGraphQLResponseParser] like real ones.
+     */
+    private class PersistedQueryServer(private val isSupported: Boolean = true) {
+
+        val requestBodies = mutableListOf<String>()
+        val requests = mutableListOf<JSONObject>()
+        private val storedQueries = mutableMapOf<String, String>()
+
+        fun handle(request: HttpRequest, callback: HttpResponseCallback) {
+            val body = String(request.data, StandardCharsets.UTF_8)
+            requestBodies.add(body)
+            val json = JSONObject(body).also { requests.add(it) }
+
+            val hash = json.optJSONObject("extensions")
+                ?.optJSONObject("persistedQuery")?.optString("sha256Hash")
+            val query = json.optString("query")
+
+            val response = when {
+                hash == null -> SUCCESS
+                !isSupported -> Fixtures.ERRORS_GRAPHQL_PERSISTED_QUERY_NOT_SUPPORTED
+                query.isNotEmpty() -> {
+                    assertEquals(GraphQLPersistedQuery.sha256(query), hash)
+                    storedQueries[hash] = query
+                    SUCCESS
+                }
+                hash in storedQueries -> SUCCESS
+                else -> Fixtures.ERRORS_GRAPHQL_PERSISTED_QUERY_NOT_FOUND
+            }
+
+            val baseParser = mockk<BaseHttpResponseParser>()
+            every { baseParser.parse(any(), any()) } returns response
+            try {
+                callback.onResult(BraintreeGraphQLResponseParser(baseParser).parse(200, mockk()), null)
+            } catch (e: Exception) {
+                callback.onResult(null, e)
+            }
+        }
+
+        companion object {
+            const val SUCCESS = "{\"data\":{}}"
+        }
+    }
+
+    companion object {
+        private const val TOKENIZE_QUERY =
+            "mutation TokenizeCreditCard(\$input: TokenizeCreditCardInput!) { tokenizeCreditCard(input: \$input) { token } }"
+        private const val TOKENIZE_PAYLOAD =
+            "{\"query\":\"$TOKENIZE_QUERY\",\"variables\":{\"input\":\"variables\"}}"
+    }
 }
@@ -96,6 +96,58 @@ class BraintreeGraphQLResponseParserUnitTest {
         }
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun parse_whenSeveralFieldsFailDifferently_throwsFirstNonUserError() {
+        every {
+            baseParser.parse(123, urlConnection)
+        } returns Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD_BATCH_MIXED_ERRORS
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        try {
+            sut.parse(123, urlConnection)
+            fail("No exception was thrown")
+        } catch (e: UnexpectedException) {
+            assertEquals("Variable 'input2' has coerced Null value for NonNull type 'String!'", e.message)
+        }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_whenPartialResultsAllowed_returnsResponseForCallerToMapErrors() {
+        val response = Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD_BATCH_MIXED_ERRORS
+        every { baseParser.parse(123, urlConnection) } returns response
+
+        val sut = BraintreeGraphQLResponseParser(baseParser, allowsPartialResults = true)
+        assertEquals(response, sut.parse(123, urlConnection))
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_whenPartialResultsAllowed_withOneFailedField_returnsResponse() {
+        val response = Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD_BATCH_SINGLE_CARD_ERROR
+        every { baseParser.parse(123, urlConnection) } returns response
+
+        val sut = BraintreeGraphQLResponseParser(baseParser, allowsPartialResults = true)
+        assertEquals(response, sut.parse(123, urlConnection))
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_whenPartialResultsAllowed_onPersistedQueryNotFound_throwsPersistedQueryNotFoundException() {
+        every {
+            baseParser.parse(123, urlConnection)
+        } returns Fixtures.ERRORS_GRAPHQL_PERSISTED_QUERY_NOT_FOUND
+
+        val sut = BraintreeGraphQLResponseParser(baseParser, allowsPartialResults = true)
+        try {
+            sut.parse(123, urlConnection)
+            fail("No exception was thrown")
+        } catch (e: PersistedQueryNotFoundException) {
+            assertTrue(e.isSupported)
+        }
+    }
+
     @Test
     @Throws(Exception::class)
     fun parse_onUnknownError_throwsUnexpectedException() {
@@ -110,4 +162,37 @@ class BraintreeGraphQLResponseParserUnitTest {
             assertEquals("An Unexpected Exception Occurred", e.message)
         }
     }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_onPersistedQueryNotFound_throwsPersistedQueryNotFoundException() {
+        every {
+            baseParser.parse(123, urlConnection)
+        } returns Fixtures.ERRORS_GRAPHQL_PERSISTED_QUERY_NOT_FOUND
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        try {
+            sut.parse(123, urlConnection)
+            fail("No exception was thrown")
+        } catch (e: PersistedQueryNotFoundException) {
+            assertEquals("PersistedQueryNotFound", e.message)
+            assertTrue(e.isSupported)
+        }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_onPersistedQueryNotSupported_throwsUnsupportedPersistedQueryNotFoundException() {
+        every {
+            baseParser.parse(123, urlConnection)
+        } returns Fixtures.ERRORS_GRAPHQL_PERSISTED_QUERY_NOT_SUPPORTED
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        try {
+            sut.parse(123, urlConnection)
+            fail("No exception was thrown")
+        } catch (e: PersistedQueryNotFoundException) {
+            assertFalse(e.isSupported)
+        }
+    }
 }
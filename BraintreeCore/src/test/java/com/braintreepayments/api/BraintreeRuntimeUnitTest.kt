@@ -0,0 +1,68 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import androidx.test.core.app.ApplicationProvider
+import androidx.work.testing.WorkManagerTestInitHelper
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class BraintreeRuntimeUnitTest {
+
+    private lateinit var context: Context
+
+    @Before
+    fun beforeEach() {
+        context = ApplicationProvider.getApplicationContext()
+        WorkManagerTestInitHelper.initializeTestWorkManager(context)
+    }
+
+    @Test
+    fun getInstance_returnsProcessWideRuntime() {
+        assertSame(BraintreeRuntime.getInstance(context), BraintreeRuntime.getInstance(context))
+    }
+
+    @Test
+    fun dependencies_areCreatedOncePerRuntime() {
+        val sut = BraintreeRuntime(context)
+        assertSame(sut.analyticsClient, sut.analyticsClient)
+        assertSame(sut.httpClient, sut.httpClient)
+    }
+
+    @Test
+    fun braintreeClientParams_shareRuntimeDependenciesAcrossClients() {
+        val options = BraintreeOptions(context, initialAuthString = Fixtures.TOKENIZATION_KEY)
+        val params1 = BraintreeClientParams(options)
+        val params2 = BraintreeClientParams(options)
+
+        assertSame(params1.httpClient.value, params2.httpClient.value)
+        assertSame(params1.graphQLClient.value, params2.graphQLClient.value)
+        assertSame(params1.analyticsClient.value, params2.analyticsClient.value)
+        assertSame(params1.browserSwitchClient.value, params2.browserSwitchClient.value)
+        assertSame(params1.crashReportStore, params2.crashReportStore)
+    }
+
+    @Test
+    fun braintreeClientParams_doNotCreateDependenciesUntilFirstUse() {
+        val params = BraintreeClientParams(
+            context = context,
+            sessionId = "session-id",
+            authorizationLoader = AuthorizationLoader(Fixtures.TOKENIZATION_KEY, null),
+            returnUrlScheme = "sample-return-url-scheme",
+            runtime = BraintreeRuntime(context),
+            integrationType = IntegrationType.CUSTOM
+        )
+        // recording a crash must not create the analytics stack on the crashing thread
+        BraintreeClient(params).reportCrash()
+
+        assertFalse(params.httpClient.isInitialized())
+        assertFalse(params.graphQLClient.isInitialized())
+        assertFalse(params.analyticsClient.isInitialized())
+        assertFalse(params.browserSwitchClient.isInitialized())
+        assertFalse(params.configurationLoader.isInitialized())
+    }
+}
@@ -0,0 +1,129 @@
+package com.braintreepayments.api
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.nio.ByteBuffer
+
+@RunWith(RobolectricTestRunner::class)
+class ConfigurationBinaryFormatUnitTest {
+
+    @Test
+    fun read_returnsConfigurationEqualToWrittenConfiguration() {
+        listOf(
+            Fixtures.CONFIGURATION_WITH_ANALYTICS_SAMPLE_RATES,
+            Fixtures.CONFIGURATION_WITH_GOOGLE_PAY,
+            Fixtures.CONFIGURATION_WITH_GRAPHQL,
+            Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL,
+            Fixtures.CONFIGURATION_WITH_MULTIPLE_CHALLENGES,
+            Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO_ECD_ENABLED,
+            Fixtures.CONFIGURATION_WITH_SAMSUNGPAY,
+            Fixtures.CONFIGURATION_WITH_UNIONPAY,
+            Fixtures.CONFIGURATION_WITH_VISA_CHECKOUT,
+            Fixtures.CONFIGURATION_WITH_CARDINAL_AUTHENTICATION_JWT
+        ).forEach { json ->
+            val expected = Configuration.fromJson(json)
+            val actual = ConfigurationBinaryFormat.read(input(write(expected)))
+            assertConfigurationsEqual(expected, actual)
+        }
+    }
+
+    @Test
+    fun read_whenSchemaVersionDiffers_decodesConfigurationFromJson() {
+        val expected = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL)
+        val bytes = write(expected)
+        // the schema version follows the 4-byte magic number
+        ByteBuffer.wrap(bytes).putInt(4, ConfigurationBinaryFormat.SCHEMA_VERSION + 1)
+
+        assertConfigurationsEqual(expected, ConfigurationBinaryFormat.read(input(bytes)))
+    }
+
+    @Test
+    fun read_withJsonOnlyRecordFromEarlierVersion_decodesConfigurationFromJson() {
+        val expected = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY)
+        val jsonBytes = expected.toJson().toByteArray(Charsets.UTF_8)
+        val output = ByteArrayOutputStream()
+        DataOutputStream(output).use {
+            it.writeInt(0x42544346)
+            it.writeInt(2)
+            it.writeInt(jsonBytes.size)
+            it.write(jsonBytes)
+        }
+
+        assertConfigurationsEqual(expected, ConfigurationBinaryFormat.read(input(output.toByteArray())))
+    }
+
+    @Test
+    fun read_decodesFieldsWithoutParsingJson() {
+        val expected = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL)
+        val json = expected.toJson()
+        val bytes = write(expected)
+        // replace the stored JSON with a document of the same length that isn't valid JSON
+        val jsonOffset = 12
+        "#".repeat(json.length).toByteArray(Charsets.UTF_8).copyInto(bytes, jsonOffset)
+
+        val actual = ConfigurationBinaryFormat.read(input(bytes))
+
+        assertPropertiesEqual("Configuration", expected, actual)
+        assertEquals("#".repeat(json.length), actual.toJson())
+    }
+
+    @Test(expected = IOException::class)
+    fun read_whenMagicNumberDiffers_throwsIOException() {
+        val bytes = write(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL))
+        ByteBuffer.wrap(bytes).putInt(0, 0)
+
+        ConfigurationBinaryFormat.read(input(bytes))
+    }
+
+    @Test(expected = IOException::class)
+    fun read_whenRecordIsTruncated_throwsIOException() {
+        val bytes = write(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL))
+
+        ConfigurationBinaryFormat.read(input(bytes.copyOf(bytes.size - 1)))
+    }
+
+    private fun write(configuration: Configuration): ByteArray {
+        val output = ByteArrayOutputStream()
+        DataOutputStream(output).use { ConfigurationBinaryFormat.write(configuration, it) }
+        return output.toByteArray()
+    }
+
+    private fun input(bytes: ByteArray) = DataInputStream(ByteArrayInputStream(bytes))
+
+    /**
+     * Compares every property of [Configuration], including internal ones and the properties of
+     * its sub-configurations, so a property the record doesn't preserve fails the test.
+     */
+    private fun assertConfigurationsEqual(expected: Configuration, actual: Configuration) {
+        assertEquals(expected.toJson(), actual.toJson())
+        assertPropertiesEqual("Configuration", expected, actual)
+    }
+
+    private fun assertPropertiesEqual(path: String, expected: Any?, actual: Any?) {
+        if (expected == null || expected.javaClass.`package` != Configuration::class.java.`package`) {
+            assertEquals(path, expected, actual)
+            return
+        }
+        val getters = expected.javaClass.methods.filter { method ->
+            method.parameterTypes.isEmpty() &&
+                method.declaringClass == expected.javaClass &&
+                (method.name.startsWith("get") || method.name.startsWith("is"))
+        }
+        assertTrue(path, getters.isNotEmpty())
+        getters.forEach { getter ->
+            assertPropertiesEqual(
+                "$path.${getter.name}",
+                getter.invoke(expected),
+                getter.invoke(actual)
+            )
+        }
+    }
+}
@@ -4,57 +4,207 @@ import com.braintreepayments.api.Configuration.Companion.fromJson
 import org.robolectric.RobolectricTestRunner
 import io.mockk.*
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertNotNull
 import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
 import org.junit.Test
+import org.junit.rules.TemporaryFolder
 import org.junit.runner.RunWith
+import java.io.File
+import java.util.concurrent.Executor
 import java.util.concurrent.TimeUnit
 
 @RunWith(RobolectricTestRunner::class)
 class ConfigurationCacheUnitTest {
 
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
     private var braintreeSharedPreferences: BraintreeSharedPreferences = mockk(relaxed = true)
 
+    private lateinit var directory: File
+
+    // runs file operations immediately so tests can inspect the directory
+    private val fileExecutor = Executor { it.run() }
+
+    @Before
+    fun beforeEach() {
+        directory = File(temporaryFolder.root, "configuration")
+    }
+
     @Test
-    fun saveConfiguration_savesConfigurationInSharedPrefs() {
+    fun saveConfiguration_writesConfigurationFileAndTimestamp() {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
-        val sut = ConfigurationCache(braintreeSharedPreferences)
+        val sut = ConfigurationCache(braintreeSharedPreferences, directory, fileExecutor)
         sut.saveConfiguration(configuration, "cacheKey", 123L)
-        verify {
-            braintreeSharedPreferences.putStringAndLong(
-                "cacheKey",
-                configuration.toJson(),
-                "cacheKey_timestamp",
-                123L
-            )
-        }
+
+        assertTrue(File(directory, "cacheKey").exists())
+        verify { braintreeSharedPreferences.putLong("cacheKey_timestamp", 123L) }
     }
 
     @Test
-    fun getConfiguration_returnsConfigurationFromSharedPrefs() {
+    fun saveConfiguration_writesFileOnFileExecutor() {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
-        every { braintreeSharedPreferences.containsKey("cacheKey_timestamp") } returns true
-        every { braintreeSharedPreferences.getLong("cacheKey_timestamp") } returns 0L
-        every { braintreeSharedPreferences.getString("cacheKey", "") } returns configuration.toJson()
-
-        val sut = ConfigurationCache(braintreeSharedPreferences)
+        val pendingWrites = mutableListOf<Runnable>()
+        val sut = ConfigurationCache(
+            createInMemorySharedPreferences(), directory, Executor { pendingWrites.add(it) }
+        )
         sut.saveConfiguration(configuration, "cacheKey", 0)
 
-        assertEquals(
-            configuration.toJson(),
-            sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(5) - 1)
-        )
+        assertFalse(File(directory, "cacheKey").exists())
+        assertEquals(configuration.toJson(), sut.getConfiguration("cacheKey", 1)?.toJson())
+
+        pendingWrites.forEach { it.run() }
+        assertTrue(File(directory, "cacheKey").exists())
+    }
+
+    @Test
+    fun getConfiguration_readsConfigurationSavedByAnotherInstance() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        val sharedPreferences = createInMemorySharedPreferences()
+        ConfigurationCache(sharedPreferences, directory, fileExecutor)
+            .saveConfiguration(configuration, "cacheKey", 0)
+
+        val sut = ConfigurationCache(sharedPreferences, directory, fileExecutor)
+        val result = sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(5) - 1)
+
+        assertEquals(configuration.toJson(), result?.toJson())
+        assertEquals(configuration.merchantId, result?.merchantId)
     }
 
     @Test
     fun getConfiguration_whenCacheEntryExpires_returnsNull() {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
-        every { braintreeSharedPreferences.containsKey("cacheKey_timestamp") } returns true
-        every { braintreeSharedPreferences.getLong("cacheKey_timestamp") } returns TimeUnit.MINUTES.toMillis(5)
-        every { braintreeSharedPreferences.getString("cacheKey", "") } returns configuration.toJson()
 
-        val sut = ConfigurationCache(braintreeSharedPreferences)
+        val sut = ConfigurationCache(createInMemorySharedPreferences(), directory, fileExecutor)
         sut.saveConfiguration(configuration, "cacheKey", 0)
 
         assertNull(sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(20)))
     }
+
+    @Test
+    fun getConfiguration_whenFileIsCorrupt_returnsNull() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        val sharedPreferences = createInMemorySharedPreferences()
+        ConfigurationCache(sharedPreferences, directory, fileExecutor)
+            .saveConfiguration(configuration, "cacheKey", 0)
+        File(directory, "cacheKey").writeBytes(byteArrayOf(1, 2, 3))
+
+        val sut = ConfigurationCache(sharedPreferences, directory, fileExecutor)
+        assertNull(sut.getConfiguration("cacheKey", 1))
+    }
+
+    @Test
+    fun saveConfiguration_whenMaxEntriesExceeded_evictsLeastRecentlyUsedEntry() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        val sharedPreferences = createInMemorySharedPreferences()
+
+        val sut = ConfigurationCache(sharedPreferences, directory, fileExecutor, maxEntries = 2)
+        sut.saveConfiguration(configuration, "keyA", 0)
+        sut.saveConfiguration(configuration, "keyB", 1)
+        sut.getConfiguration("keyA", 2)
+        sut.saveConfiguration(configuration, "keyC", 3)
+
+        assertNotNull(sut.getConfiguration("keyA", 4))
+        assertNull(sut.getConfiguration("keyB", 4))
+        assertNotNull(sut.getConfiguration("keyC", 4))
+        assertFalse(File(directory, "keyB").exists())
+        assertFalse(sharedPreferences.containsKey("keyB_timestamp"))
+    }
+
+    @Test
+    fun saveConfiguration_evictsExpiredEntries() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        val sharedPreferences = createInMemorySharedPreferences()
+
+        val sut = ConfigurationCache(sharedPreferences, directory, fileExecutor)
+        sut.saveConfiguration(configuration, "keyA", 0)
+        sut.saveConfiguration(configuration, "keyB", TimeUnit.MINUTES.toMillis(6))
+
+        assertFalse(File(directory, "keyA").exists())
+        assertFalse(sharedPreferences.containsKey("keyA_timestamp"))
+        assertTrue(File(directory, "keyB").exists())
+    }
+
+    @Test
+    fun purgeOrphanedEntries_removesEntriesMissingFromIndex() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        val sharedPreferences = createInMemorySharedPreferences()
+        sharedPreferences.putLong("orphanKey_timestamp", 0)
+        directory.mkdirs()
+        File(directory, "orphanKey").writeText("{}")
+
+        val sut = ConfigurationCache(sharedPreferences, directory, fileExecutor)
+        sut.saveConfiguration(configuration, "keyA", 0)
+        sut.purgeOrphanedEntries()
+
+        assertFalse(File(directory, "orphanKey").exists())
+        assertFalse(sharedPreferences.containsKey("orphanKey_timestamp"))
+        assertTrue(File(directory, "keyA").exists())
+    }
+
+    @Test
+    fun schedulePurgeOfOrphanedEntries_purgesOnFileExecutor() {
+        val sharedPreferences = createInMemorySharedPreferences()
+        sharedPreferences.putLong("orphanKey_timestamp", 0)
+        directory.mkdirs()
+        File(directory, "orphanKey").writeText("{}")
+        val pendingTasks = mutableListOf<Runnable>()
+
+        val sut = ConfigurationCache(sharedPreferences, directory, Executor { pendingTasks.add(it) })
+        sut.schedulePurgeOfOrphanedEntries()
+
+        assertTrue(sharedPreferences.containsKey("orphanKey_timestamp"))
+        assertTrue(File(directory, "orphanKey").exists())
+
+        while (pendingTasks.isNotEmpty()) {
+            pendingTasks.removeAt(0).run()
+        }
+        assertFalse(sharedPreferences.containsKey("orphanKey_timestamp"))
+        assertFalse(File(directory, "orphanKey").exists())
+    }
+
+    @Test
+    fun purgeLegacyEntries_removesCachedConfigurationOnce() {
+        val sharedPreferences = createInMemorySharedPreferences()
+        sharedPreferences.putString("braintreeUUID", "uuid")
+        sharedPreferences.putString("legacyKey", "{}")
+        sharedPreferences.putLong("legacyKey_timestamp", 0)
+
+        ConfigurationCache.purgeLegacyEntries(sharedPreferences)
+        assertFalse(sharedPreferences.containsKey("legacyKey"))
+        assertFalse(sharedPreferences.containsKey("legacyKey_timestamp"))
+        assertEquals("uuid", sharedPreferences.getString("braintreeUUID", null))
+
+        sharedPreferences.putString("laterKey", "{}")
+        sharedPreferences.putLong("laterKey_timestamp", 0)
+        ConfigurationCache.purgeLegacyEntries(sharedPreferences)
+        assertTrue(sharedPreferences.containsKey("laterKey"))
+    }
+
+    @Test
+    fun createCacheKey_returnsFixedLengthKey() {
+        val shortAuthorization = mockk<Authorization>()
+        every { shortAuthorization.bearer } returns "bearer"
+        val longAuthorization = mockk<Authorization>()
+        every { longAuthorization.bearer } returns "bearer".repeat(100)
+
+        val shortKey = ConfigurationCache.createCacheKey(shortAuthorization, "https://example.com")
+        val longKey = ConfigurationCache.createCacheKey(longAuthorization, "https://example.com")
+
+        assertEquals(shortKey.length, longKey.length)
+        assertNotEquals(shortKey, longKey)
+    }
+
+    private fun createInMemorySharedPreferences(): BraintreeSharedPreferences {
+        val store = object : KeyValueStore {
+            override fun load(): Map<String, Any> = emptyMap()
+            override fun write(clear: Boolean, changes: Map<String, Any?>) {}
+        }
+        return BraintreeSharedPreferences(store) { it.run() }
+    }
 }
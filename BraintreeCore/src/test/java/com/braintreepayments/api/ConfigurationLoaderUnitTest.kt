@@ -1,10 +1,10 @@
 package com.braintreepayments.api
 
-import android.util.Base64
 import io.mockk.*
 import org.robolectric.RobolectricTestRunner
 import org.json.JSONException
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
 import org.junit.Test
 import org.junit.runner.RunWith
 import java.lang.Exception
@@ -64,9 +64,9 @@ class ConfigurationLoaderUnitTest {
 
         val httpResponseCallback = callbackSlot.captured
         httpResponseCallback.onResult(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN, null)
-        val cacheKey = Base64.encodeToString(
-            "https://example.com/config?configVersion=3bearer".toByteArray(),
-            0
+        val cacheKey = ConfigurationCache.createCacheKey(
+            authorization,
+            "https://example.com/config?configVersion=3"
         )
 
         verify {
@@ -74,6 +74,25 @@ class ConfigurationLoaderUnitTest {
         }
     }
 
+    @Test
+    fun loadConfiguration_onNetworkFetchSuccess_notifiesSpanListener() {
+        every { authorization.configUrl } returns "https://example.com/config"
+        val spanListener = mockk<(AnalyticsSpan) -> Unit>(relaxed = true)
+
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache)
+        sut.spanListener = spanListener
+        sut.loadConfiguration(authorization, callback)
+
+        val callbackSlot = slot<HttpResponseCallback>()
+        verify { braintreeHttpClient.get(any(), null, authorization, any(), capture(callbackSlot)) }
+        callbackSlot.captured.onResult(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN, null)
+
+        val spanSlot = slot<AnalyticsSpan>()
+        verify { spanListener.invoke(capture(spanSlot)) }
+        assertEquals("configuration.load", spanSlot.captured.name)
+        assertTrue(spanSlot.captured.durationMillis >= 0)
+    }
+
     @Test
     fun loadConfiguration_onJSONParsingError_forwardsExceptionToErrorResponseListener() {
         every { authorization.configUrl } returns "https://example.com/config"
@@ -146,13 +165,14 @@ class ConfigurationLoaderUnitTest {
 
     @Test
     fun loadConfiguration_whenCachedConfigurationAvailable_loadsConfigurationFromCache() {
-        val cacheKey = Base64.encodeToString(
-            "https://example.com/config?configVersion=3bearer".toByteArray(),
-            0
-        )
         every { authorization.configUrl } returns "https://example.com/config"
         every { authorization.bearer } returns "bearer"
-        every { configurationCache.getConfiguration(cacheKey) } returns Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN
+        val cacheKey = ConfigurationCache.createCacheKey(
+            authorization,
+            "https://example.com/config?configVersion=3"
+        )
+        every { configurationCache.getConfiguration(cacheKey) } returns
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN)
 
         val sut = ConfigurationLoader(braintreeHttpClient, configurationCache)
         sut.loadConfiguration(authorization, callback)
@@ -1,7 +1,9 @@
 package com.braintreepayments.api
 
 import android.text.TextUtils
+import org.json.JSONArray
 import org.json.JSONException
+import org.json.JSONObject
 import org.junit.Assert.*
 import org.junit.Ignore
 import org.junit.Test
@@ -471,4 +473,40 @@ class ConfigurationUnitTest {
         val sut = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL)
         assertEquals("https://example-graphql.com/graphql", sut.graphQLUrl)
     }
+
+    @Test
+    fun subConfigurations_areDecodedOnceAcrossThreads() {
+        val sut = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL)
+
+        val results = Collections.synchronizedList(mutableListOf<Any>())
+        val threads = List(8) {
+            Thread { results.add(sut.payPalConfiguration) }
+        }
+        threads.forEach { it.start() }
+        threads.forEach { it.join() }
+
+        results.forEach { assertSame(sut.payPalConfiguration, it) }
+    }
+
+    @Test
+    fun subConfigurations_whenJsonHasUnexpectedTypes_decodeToDefaults() {
+        val json = JSONObject()
+            .put("clientApiUrl", "client_api_url")
+            .put("environment", "test")
+            .put("merchantId", "merchant_id")
+            .put("paypal", "not an object")
+            .put("samsungPay", JSONObject()
+                .put("supportedCardBrands", JSONArray().put(JSONObject.NULL).put(1)))
+        val sut = Configuration.fromJson(json.toString())
+
+        assertNull(sut.payPalClientId)
+        assertTrue(sut.isPayPalTouchDisabled)
+        assertEquals(2, sut.samsungPaySupportedCardBrands.size)
+    }
+
+    @Test
+    fun toJson_returnsOriginalJson() {
+        val sut = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL)
+        assertEquals(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL, sut.toJson())
+    }
 }
@@ -0,0 +1,44 @@
+package com.braintreepayments.api
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import java.io.File
+
+@RunWith(RobolectricTestRunner::class)
+class CrashReportStoreUnitTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    @Test
+    fun drain_returnsAppendedTimestampsAndClearsStore() {
+        val file = File(temporaryFolder.root, "crash-reports")
+        val sut = CrashReportStore(file)
+        sut.append(123)
+        sut.append(456)
+
+        assertEquals(listOf(123L, 456L), sut.drain())
+        assertFalse(file.exists())
+        assertTrue(sut.drain().isEmpty())
+    }
+
+    @Test
+    fun drain_skipsMalformedRecords() {
+        val file = File(temporaryFolder.root, "crash-reports")
+        file.writeText("123\nnot-a-timestamp\n456")
+
+        assertEquals(listOf(123L, 456L), CrashReportStore(file).drain())
+    }
+
+    @Test
+    fun drain_whenNothingRecorded_returnsEmptyList() {
+        val sut = CrashReportStore(File(temporaryFolder.root, "crash-reports"))
+        assertTrue(sut.drain().isEmpty())
+    }
+}
@@ -103,4 +103,37 @@ class CrashReporterUnitTest {
         verify { braintreeClient.reportCrash() }
         verify { defaultExceptionHandler.uncaughtException(thread, exception) }
     }
+
+    @Test
+    fun uncaughtExceptionHandler_whenBraintreeInCauseStackTrace_reportsCrashToExceptionHandler() {
+        Thread.setDefaultUncaughtExceptionHandler(defaultExceptionHandler)
+        val thread = mockk<Thread>()
+        val cause = Exception()
+        cause.stackTrace = arrayOf(
+            StackTraceElement("com.braintreepayments.api.CrashReporting",
+                "test",
+                "test",
+                1)
+        )
+        val exception = RuntimeException(cause)
+        exception.stackTrace = arrayOf(StackTraceElement("test", "test", "test", 1))
+        val sut = CrashReporter(braintreeClient)
+        sut.start()
+        sut.uncaughtException(thread, exception)
+
+        verify { braintreeClient.reportCrash() }
+        verify { defaultExceptionHandler.uncaughtException(thread, exception) }
+    }
+
+    @Test
+    fun uncaughtExceptionHandler_whenCauseUnknown_doesNotReportCrash() {
+        Thread.setDefaultUncaughtExceptionHandler(defaultExceptionHandler)
+        val exception = Exception()
+        exception.stackTrace = arrayOf(StackTraceElement("test", "test", "test", 1))
+        val sut = CrashReporter(braintreeClient)
+        sut.start()
+        sut.uncaughtException(mockk(), exception)
+
+        verify(exactly = 0) { braintreeClient.reportCrash() }
+    }
 }
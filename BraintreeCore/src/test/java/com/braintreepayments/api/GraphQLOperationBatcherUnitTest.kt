@@ -0,0 +1,157 @@
+package com.braintreepayments.api
+
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import io.mockk.verify
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+class GraphQLOperationBatcherUnitTest {
+
+    private lateinit var timer: ScheduledExecutorService
+    private val scheduledFlushes = mutableListOf<Runnable>()
+
+    private val sentBodies = mutableListOf<String>()
+    private val sentCallbacks = mutableListOf<HttpResponseCallback>()
+    private val send: (String, HttpResponseCallback) -> Unit = { body, callback ->
+        sentBodies.add(body)
+        sentCallbacks.add(callback)
+    }
+
+    @Before
+    fun beforeEach() {
+        timer = mockk()
+        val runnableSlot = slot<Runnable>()
+        every { timer.schedule(capture(runnableSlot), any(), any()) } answers {
+            scheduledFlushes.add(runnableSlot.captured)
+            mockk()
+        }
+    }
+
+    @Test
+    fun enqueue_sendsOperationsFromTheSameWindowAsOneArray() {
+        val sut = GraphQLOperationBatcher(lazyOf(timer), windowMillis = 5)
+        sut.enqueue(OPERATION_1, "key", mockk(), send)
+        sut.enqueue(OPERATION_2, "key", mockk(), send)
+
+        assertTrue(sentBodies.isEmpty())
+        verify(exactly = 1) { timer.schedule(any<Runnable>(), 5, TimeUnit.MILLISECONDS) }
+
+        scheduledFlushes.single().run()
+        assertEquals("[$OPERATION_1,$OPERATION_2]", sentBodies.single())
+    }
+
+    @Test
+    fun enqueue_withSingleOperation_sendsItUnwrapped() {
+        val callback = mockk<HttpResponseCallback>()
+        val sut = GraphQLOperationBatcher(lazyOf(timer))
+        sut.enqueue(OPERATION_1, "key", callback, send)
+
+        scheduledFlushes.single().run()
+        assertEquals(OPERATION_1, sentBodies.single())
+        assertTrue(sentCallbacks.single() === callback)
+    }
+
+    @Test
+    fun enqueue_keepsOperationsWithDifferentKeysApart() {
+        val sut = GraphQLOperationBatcher(lazyOf(timer))
+        sut.enqueue(OPERATION_1, "key-1", mockk(), send)
+        sut.enqueue(OPERATION_2, "key-2", mockk(), send)
+
+        scheduledFlushes.forEach { it.run() }
+        assertEquals(listOf(OPERATION_1, OPERATION_2), sentBodies)
+    }
+
+    @Test
+    fun enqueue_whenBatchIsFull_sendsItWithoutWaitingForTheWindow() {
+        val sut = GraphQLOperationBatcher(lazyOf(timer), maxBatchSize = 2)
+        sut.enqueue(OPERATION_1, "key", mockk(), send)
+        sut.enqueue(OPERATION_2, "key", mockk(), send)
+
+        assertEquals("[$OPERATION_1,$OPERATION_2]", sentBodies.single())
+
+        // the window closing afterwards doesn't send the batch again
+        scheduledFlushes.single().run()
+        assertEquals(1, sentBodies.size)
+    }
+
+    @Test
+    fun canBatch_rejectsOperationsOverTheSizeCap() {
+        val sut = GraphQLOperationBatcher(lazyOf(timer), maxOperationLength = OPERATION_1.length)
+
+        assertTrue(sut.canBatch(OPERATION_1))
+        assertFalse(sut.canBatch("$OPERATION_1 "))
+    }
+
+    @Test
+    fun batchResponse_isDemultiplexedToEachCallbackWithItsOwnErrors() {
+        val callback1 = mockk<HttpResponseCallback>(relaxed = true)
+        val callback2 = mockk<HttpResponseCallback>(relaxed = true)
+        val sut = GraphQLOperationBatcher(lazyOf(timer))
+        sut.enqueue(OPERATION_1, "key", callback1, send)
+        sut.enqueue(OPERATION_2, "key", callback2, send)
+        scheduledFlushes.single().run()
+
+        val response = JSONArray()
+            .put(JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD))
+            .put(JSONObject(Fixtures.ERRORS_GRAPHQL_CREDIT_CARD_ERROR))
+        sentCallbacks.single().onResult(response.toString(), null)
+
+        val responseSlot = slot<String>()
+        verify { callback1.onResult(capture(responseSlot), null) }
+        assertEquals("3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1",
+            JSONObject(responseSlot.captured).getJSONObject("data")
+                .getJSONObject("tokenizeCreditCard").getString("token"))
+
+        val errorSlot = slot<Exception>()
+        verify { callback2.onResult(null, capture(errorSlot)) }
+        assertTrue(errorSlot.captured is ErrorWithResponse)
+    }
+
+    @Test
+    fun batchResponse_onRequestError_forwardsErrorToEveryCallback() {
+        val callback1 = mockk<HttpResponseCallback>(relaxed = true)
+        val callback2 = mockk<HttpResponseCallback>(relaxed = true)
+        val sut = GraphQLOperationBatcher(lazyOf(timer))
+        sut.enqueue(OPERATION_1, "key", callback1, send)
+        sut.enqueue(OPERATION_2, "key", callback2, send)
+        scheduledFlushes.single().run()
+
+        val error = ServerException("error")
+        sentCallbacks.single().onResult(null, error)
+
+        verify { callback1.onResult(null, error) }
+        verify { callback2.onResult(null, error) }
+    }
+
+    @Test
+    fun batchResponse_withWrongNumberOfResults_failsEveryCallback() {
+        val callback1 = mockk<HttpResponseCallback>(relaxed = true)
+        val callback2 = mockk<HttpResponseCallback>(relaxed = true)
+        val sut = GraphQLOperationBatcher(lazyOf(timer))
+        sut.enqueue(OPERATION_1, "key", callback1, send)
+        sut.enqueue(OPERATION_2, "key", callback2, send)
+        scheduledFlushes.single().run()
+
+        sentCallbacks.single().onResult("[{\"data\":{}}]", null)
+
+        val errorSlot = slot<Exception>()
+        verify { callback1.onResult(null, capture(errorSlot)) }
+        assertTrue(errorSlot.captured is UnexpectedException)
+        verify { callback2.onResult(null, any()) }
+        verify(exactly = 0) { callback2.onResult(any(), null) }
+    }
+
+    companion object {
+        private const val OPERATION_1 = "{\"query\":\"query One { one }\"}"
+        private const val OPERATION_2 = "{\"query\":\"query Two { two }\"}"
+    }
+}
@@ -0,0 +1,68 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import android.content.res.Resources
+import androidx.test.core.app.ApplicationProvider
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.spyk
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class GraphQLQueryHelperUnitTest {
+
+    private lateinit var context: Context
+
+    @Before
+    fun beforeEach() {
+        context = ApplicationProvider.getApplicationContext()
+        GraphQLQueryHelper.clearCache()
+    }
+
+    @Test
+    fun getQuery_preservesLineBreaks() {
+        val query = GraphQLQueryHelper.getQuery(context, R.raw.delete_payment_method_mutation)
+
+        assertEquals(
+            "mutation DeletePaymentMethodFromSingleUseToken(" +
+                "\$input: DeletePaymentMethodFromSingleUseTokenInput!) {\n" +
+                "  deletePaymentMethodFromSingleUseToken(input: \$input) {\n" +
+                "    clientMutationId\n" +
+                "  }\n" +
+                "}",
+            query.trimEnd()
+        )
+    }
+
+    @Test
+    fun getDocument_readsResourceOncePerProcess() {
+        val resources = spyk(context.resources)
+        val spyContext = mockk<Context>()
+        every { spyContext.resources } returns resources
+
+        val document1 = GraphQLQueryHelper.getDocument(spyContext, R.raw.delete_payment_method_mutation)
+        val document2 = GraphQLQueryHelper.getDocument(spyContext, R.raw.delete_payment_method_mutation)
+
+        assertSame(document1, document2)
+        verify(exactly = 1) { resources.openRawResource(R.raw.delete_payment_method_mutation) }
+    }
+
+    @Test
+    fun getDocument_includesHashOfQuery() {
+        val document = GraphQLQueryHelper.getDocument(context, R.raw.delete_payment_method_mutation)
+
+        assertEquals(GraphQLPersistedQuery.sha256(document.query), document.sha256Hash)
+        assertEquals(64, document.sha256Hash.length)
+    }
+
+    @Test(expected = Resources.NotFoundException::class)
+    fun getQuery_throwsResourcesNotFoundExceptionForInvalidResources() {
+        GraphQLQueryHelper.getQuery(context, -1)
+    }
+}
@@ -1,16 +1,37 @@
 package com.braintreepayments.api
 
+import android.content.Context
 import io.mockk.every
 import io.mockk.mockk
+import io.mockk.mockkStatic
+import io.mockk.unmockkStatic
 import io.mockk.verify
+import org.junit.After
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertNotNull
-
+import org.junit.Before
 import org.junit.Test
 import java.util.*
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 
 class UUIDHelperUnitTest {
     private var braintreeSharedPreferences: BraintreeSharedPreferences = mockk(relaxed = true)
+    private val context: Context = mockk(relaxed = true)
+
+    @Before
+    fun beforeEach() {
+        UUIDHelper.clearCachedIdentifiers()
+        mockkStatic(BraintreeSharedPreferences::class)
+        every { BraintreeSharedPreferences.getInstance(any()) } returns braintreeSharedPreferences
+    }
+
+    @After
+    fun afterEach() {
+        unmockkStatic(BraintreeSharedPreferences::class)
+        UUIDHelper.clearCachedIdentifiers()
+    }
 
     @Test
     fun getInstallationGUID_returnsNewGUIDWhenOneDoesNotExistAndPersistsIt() {
@@ -33,4 +54,52 @@ class UUIDHelperUnitTest {
         val sut = UUIDHelper()
         assertEquals(uuid, sut.getInstallationGUID(braintreeSharedPreferences))
     }
+
+    @Test
+    fun getInstallationGUID_withContext_readsSharedPreferencesOncePerProcess() {
+        every {
+            braintreeSharedPreferences.getString("InstallationGUID", null)
+        } returns "installation-guid"
+
+        assertEquals("installation-guid", UUIDHelper().getInstallationGUID(context))
+        assertEquals("installation-guid", UUIDHelper().getInstallationGUID(context))
+
+        verify(exactly = 1) { braintreeSharedPreferences.getString("InstallationGUID", null) }
+    }
+
+    @Test
+    fun getPersistentUUID_withContext_readsSharedPreferencesOncePerProcess() {
+        every { braintreeSharedPreferences.getString("braintreeUUID", null) } returns "uuid"
+
+        assertEquals("uuid", UUIDHelper().getPersistentUUID(context))
+        assertEquals("uuid", UUIDHelper().getPersistentUUID(context))
+
+        verify(exactly = 1) { braintreeSharedPreferences.getString("braintreeUUID", null) }
+    }
+
+    @Test
+    fun getPersistentUUID_withConcurrentFirstCalls_createsAndPersistsOneUUID() {
+        var storedUUID: String? = null
+        every { braintreeSharedPreferences.getString("braintreeUUID", null) } answers { storedUUID }
+        every { braintreeSharedPreferences.putString("braintreeUUID", any()) } answers {
+            storedUUID = secondArg()
+        }
+
+        val threadCount = 8
+        val executor = Executors.newFixedThreadPool(threadCount)
+        val start = CountDownLatch(1)
+        val results = Collections.synchronizedSet(mutableSetOf<String?>())
+        repeat(threadCount) {
+            executor.execute {
+                start.await()
+                results.add(UUIDHelper().getPersistentUUID(context))
+            }
+        }
+        start.countDown()
+        executor.shutdown()
+        executor.awaitTermination(5, TimeUnit.SECONDS)
+
+        assertEquals(setOf(storedUUID), results)
+        verify(exactly = 1) { braintreeSharedPreferences.putString("braintreeUUID", any()) }
+    }
 }
@@ -0,0 +1,108 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Card details inferred from the leading digits of a card number by {@link BinRangeIndex}, before
+ * the card is tokenized. Hints are meant for presentation, such as showing the card brand while
+ * the number is typed; the {@link CardNonce} returned from tokenization is authoritative.
+ */
+public class BinRangeHint {
+
+    static final int BRAND_UNKNOWN = 0;
+    static final int BRAND_VISA = 1;
+    static final int BRAND_MASTERCARD = 2;
+    static final int BRAND_AMEX = 3;
+    static final int BRAND_DISCOVER = 4;
+    static final int BRAND_JCB = 5;
+    static final int BRAND_DINERS_CLUB = 6;
+    static final int BRAND_MAESTRO = 7;
+    static final int BRAND_UNION_PAY = 8;
+
+    // indexed by brand code; names match CardNonce#getCardType()
+    private static final String[] BRAND_NAMES = {
+            null,
+            "Visa",
+            "MasterCard",
+            "American Express",
+            "Discover",
+            "JCB",
+            "Diners Club",
+            "Maestro",
+            "UnionPay"
+    };
+
+    private final int attributes;
+
+    BinRangeHint(int attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * @param cardType a card type as returned by {@link CardNonce#getCardType()}
+     * @return the brand code for the card type, or {@link #BRAND_UNKNOWN}
+     */
+    static int brandFromCardType(@Nullable String cardType) {
+        for (int brand = 1; brand < BRAND_NAMES.length; brand++) {
+            if (BRAND_NAMES[brand].equalsIgnoreCase(cardType)) {
+                return brand;
+            }
+        }
+        return BRAND_UNKNOWN;
+    }
+
+    /**
+     * @return The likely card brand, using the same names as {@link CardNonce#getCardType()}
+     * (e.g. Visa, MasterCard, American Express), or {@code null} if the brand is unknown.
+     */
+    @Nullable
+    public String getCardType() {
+        int brand = attributes & BinRangeTable.BRAND_MASK;
+        return (brand < BRAND_NAMES.length) ? BRAND_NAMES[brand] : null;
+    }
+
+    /**
+     * @return Whether the card is likely a debit card. Possible values: {@link BinData#YES},
+     * {@link BinData#NO}, {@link BinData#UNKNOWN}
+     */
+    @BinData.BinType
+    @NonNull
+    public String getDebit() {
+        return toBinType(attributes >> BinRangeTable.DEBIT_SHIFT);
+    }
+
+    /**
+     * @return Whether the card is likely a prepaid card. Possible values: {@link BinData#YES},
+     * {@link BinData#NO}, {@link BinData#UNKNOWN}
+     */
+    @BinData.BinType
+    @NonNull
+    public String getPrepaid() {
+        return toBinType(attributes >> BinRangeTable.PREPAID_SHIFT);
+    }
+
+    /**
+     * @return {@code true} if the card is likely a UnionPay card, including co-branded cards, and
+     * should have its UnionPay capabilities checked before tokenizing.
+     */
+    public boolean isUnionPayLikely() {
+        return (attributes & BinRangeTable.BRAND_MASK) == BRAND_UNION_PAY
+                || (attributes & BinRangeTable.UNION_PAY_LIKELY_FLAG) != 0;
+    }
+
+    int getAttributes() {
+        return attributes;
+    }
+
+    private static String toBinType(int triState) {
+        switch (triState & BinRangeTable.TRI_STATE_MASK) {
+            case BinRangeTable.TRI_STATE_YES:
+                return BinData.YES;
+            case BinRangeTable.TRI_STATE_NO:
+                return BinData.NO;
+            default:
+                return BinData.UNKNOWN;
+        }
+    }
+}
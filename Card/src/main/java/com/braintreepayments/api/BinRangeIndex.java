@@ -0,0 +1,301 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Offline index of BIN ranges used to infer the brand of a card, and whether it is likely debit,
+ * prepaid or UnionPay, from the first 6 to 8 digits of its number without a network request.
+ *
+ * The index starts with a built-in table of the public brand ranges. A more detailed table can be
+ * supplied with {@link #refreshInBackground(BinRangeTableSource)}; it is stored on disk and
+ * memory-mapped by later instances. Passing tokenization results to {@link #crossCheck(CardNonce)}
+ * corrects the index with the BIN data returned by the gateway.
+ *
+ * Lookups are synchronous and allocation-light, so they can run on every keystroke.
+ */
+public class BinRangeIndex {
+
+    private static final String TABLE_FILE_NAME = "com.braintreepayments.api.BIN_RANGES";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private static final int MIN_PREFIX_DIGITS = 6;
+    private static final int MAX_LEARNED_BINS = 256;
+
+    // low, high, attributes; sorted by low
+    private static final int[] BUILT_IN_RANGES = {
+            22210000, 27209999, BinRangeHint.BRAND_MASTERCARD,
+            30000000, 30599999, BinRangeHint.BRAND_DINERS_CLUB,
+            34000000, 34999999, BinRangeHint.BRAND_AMEX,
+            35280000, 35899999, BinRangeHint.BRAND_JCB,
+            36000000, 36999999, BinRangeHint.BRAND_DINERS_CLUB,
+            37000000, 37999999, BinRangeHint.BRAND_AMEX,
+            38000000, 39999999, BinRangeHint.BRAND_DINERS_CLUB,
+            40000000, 49999999, BinRangeHint.BRAND_VISA,
+            50000000, 50999999, BinRangeHint.BRAND_MAESTRO,
+            51000000, 55999999, BinRangeHint.BRAND_MASTERCARD,
+            56000000, 58999999, BinRangeHint.BRAND_MAESTRO,
+            60110000, 60119999, BinRangeHint.BRAND_DISCOVER,
+            62000000, 62999999, BinRangeHint.BRAND_UNION_PAY,
+            64400000, 65999999, BinRangeHint.BRAND_DISCOVER,
+            67000000, 67999999, BinRangeHint.BRAND_MAESTRO
+    };
+
+    private static volatile BinRangeIndex INSTANCE;
+    private static volatile Executor REFRESH_EXECUTOR;
+
+    /**
+     * @param context Android Context
+     * @return the process-wide index, backed by the most recently refreshed table if there is one
+     */
+    @NonNull
+    public static BinRangeIndex getInstance(@NonNull Context context) {
+        if (INSTANCE == null) {
+            synchronized (BinRangeIndex.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    File tableFile = new File(context.getApplicationContext().getFilesDir(),
+                            TABLE_FILE_NAME);
+                    INSTANCE = new BinRangeIndex(tableFile, getRefreshExecutor());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private static Executor getRefreshExecutor() {
+        if (REFRESH_EXECUTOR == null) {
+            synchronized (BinRangeIndex.class) {
+                if (REFRESH_EXECUTOR == null) {
+                    REFRESH_EXECUTOR =
+                            Executors.newSingleThreadExecutor(new ThreadFactory() {
+                                @Override
+                                public Thread newThread(Runnable runnable) {
+                                    Thread thread = new Thread(runnable, "braintree-bin-ranges");
+                                    thread.setDaemon(true);
+                                    return thread;
+                                }
+                            });
+                }
+            }
+        }
+        return REFRESH_EXECUTOR;
+    }
+
+    private final File tableFile;
+    private final Executor refreshExecutor;
+
+    private volatile BinRangeTable table;
+
+    // attributes reported by the gateway, keyed by 6 digit BIN; guarded by itself
+    private final Map<Integer, Integer> learnedBins =
+            new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                    return size() > MAX_LEARNED_BINS;
+                }
+            };
+
+    @VisibleForTesting
+    BinRangeIndex(File tableFile, Executor refreshExecutor) {
+        this.tableFile = tableFile;
+        this.refreshExecutor = refreshExecutor;
+        this.table = loadTable(tableFile);
+    }
+
+    private static BinRangeTable loadTable(File tableFile) {
+        if (tableFile.exists()) {
+            try {
+                return BinRangeTable.map(tableFile);
+            } catch (IOException ignored) {
+                // fall back to the built-in table until the next refresh replaces the file
+            }
+        }
+        return BinRangeTable.fromRanges(BUILT_IN_RANGES);
+    }
+
+    /**
+     * @param cardNumber the card number entered so far; spaces and dashes are ignored
+     * @return details inferred from the first 6 to 8 digits of the number, or {@code null} if
+     * fewer than 6 digits have been entered or the BIN is not in the index
+     */
+    @Nullable
+    public BinRangeHint lookup(@Nullable String cardNumber) {
+        int attributes = lookupAttributes(readPrefix(cardNumber));
+        return (attributes == BinRangeTable.NOT_FOUND) ? null : new BinRangeHint(attributes);
+    }
+
+    /**
+     * Compare the index with the brand and BIN data returned by tokenization, and use the
+     * response for later lookups of the same BIN.
+     *
+     * @param cardNonce a nonce returned from tokenizing a card
+     * @return {@code false} if the index disagreed with the tokenization response
+     */
+    public boolean crossCheck(@NonNull CardNonce cardNonce) {
+        int prefix = readPrefix(cardNonce.getBin());
+        if (prefix == BinRangeTable.NOT_FOUND) {
+            return true;
+        }
+
+        int indexed = lookupAttributes(prefix);
+        BinData binData = cardNonce.getBinData();
+        int brand = BinRangeHint.brandFromCardType(cardNonce.getCardType());
+        int debit = toTriState(binData.getDebit());
+        int prepaid = toTriState(binData.getPrepaid());
+
+        boolean isConsistent = true;
+        if (indexed != BinRangeTable.NOT_FOUND) {
+            isConsistent = agrees(indexed & BinRangeTable.BRAND_MASK, brand)
+                    && agrees(readTriState(indexed, BinRangeTable.DEBIT_SHIFT), debit)
+                    && agrees(readTriState(indexed, BinRangeTable.PREPAID_SHIFT), prepaid);
+        }
+
+        int learned = (brand == BinRangeHint.BRAND_UNKNOWN && indexed != BinRangeTable.NOT_FOUND)
+                ? indexed & BinRangeTable.BRAND_MASK : brand;
+        learned |= debit << BinRangeTable.DEBIT_SHIFT;
+        learned |= prepaid << BinRangeTable.PREPAID_SHIFT;
+        if (indexed != BinRangeTable.NOT_FOUND && new BinRangeHint(indexed).isUnionPayLikely()) {
+            // a UnionPay BIN reported under another brand is co-branded
+            learned |= BinRangeTable.UNION_PAY_LIKELY_FLAG;
+        }
+        synchronized (learnedBins) {
+            learnedBins.put(toBin(prefix), learned);
+        }
+        return isConsistent;
+    }
+
+    /**
+     * Replace the table with one read from {@code source} on a background thread. The new table is
+     * validated before it is used and persisted for later launches; if reading or validating it
+     * fails the current table is kept.
+     *
+     * @param source supplies the new table
+     */
+    public void refreshInBackground(@NonNull final BinRangeTableSource source) {
+        refreshExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                refresh(source);
+            }
+        });
+    }
+
+    @VisibleForTesting
+    boolean refresh(BinRangeTableSource source) {
+        File temporaryFile = new File(tableFile.getPath() + TEMPORARY_FILE_SUFFIX);
+        try {
+            InputStream inputStream = source.open();
+            try {
+                copy(inputStream, temporaryFile);
+            } finally {
+                inputStream.close();
+            }
+            // the mapping follows the file when it is renamed
+            BinRangeTable refreshedTable = BinRangeTable.map(temporaryFile);
+            if (!temporaryFile.renameTo(tableFile)) {
+                throw new IOException("Unable to replace BIN range table");
+            }
+            table = refreshedTable;
+            return true;
+        } catch (IOException e) {
+            temporaryFile.delete();
+            return false;
+        }
+    }
+
+    @VisibleForTesting
+    int getTableSize() {
+        return table.size();
+    }
+
+    private int lookupAttributes(int prefix) {
+        if (prefix == BinRangeTable.NOT_FOUND) {
+            return BinRangeTable.NOT_FOUND;
+        }
+        synchronized (learnedBins) {
+            Integer learned = learnedBins.get(toBin(prefix));
+            if (learned != null) {
+                return learned;
+            }
+        }
+        return table.lookup(prefix);
+    }
+
+    /**
+     * @return the first 8 digits of the card number, padded with zeros when only 6 or 7 digits are
+     * available, or {@link BinRangeTable#NOT_FOUND} if the number has fewer than 6 digits
+     */
+    private static int readPrefix(@Nullable String cardNumber) {
+        if (cardNumber == null) {
+            return BinRangeTable.NOT_FOUND;
+        }
+        int prefix = 0;
+        int digits = 0;
+        for (int i = 0; i < cardNumber.length() && digits < BinRangeTable.PREFIX_DIGITS; i++) {
+            char c = cardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                prefix = prefix * 10 + (c - '0');
+                digits++;
+            } else if (c != ' ' && c != '-') {
+                return BinRangeTable.NOT_FOUND;
+            }
+        }
+        if (digits < MIN_PREFIX_DIGITS) {
+            return BinRangeTable.NOT_FOUND;
+        }
+        for (; digits < BinRangeTable.PREFIX_DIGITS; digits++) {
+            prefix *= 10;
+        }
+        return prefix;
+    }
+
+    private static int toBin(int prefix) {
+        return prefix / 100;
+    }
+
+    private static int readTriState(int attributes, int shift) {
+        return (attributes >> shift) & BinRangeTable.TRI_STATE_MASK;
+    }
+
+    private static int toTriState(String binType) {
+        if (BinData.YES.equalsIgnoreCase(binType)) {
+            return BinRangeTable.TRI_STATE_YES;
+        } else if (BinData.NO.equalsIgnoreCase(binType)) {
+            return BinRangeTable.TRI_STATE_NO;
+        }
+        return BinRangeTable.TRI_STATE_UNKNOWN;
+    }
+
+    // unknown values on either side don't count as a disagreement
+    private static boolean agrees(int indexed, int reported) {
+        return indexed == 0 || reported == 0 || indexed == reported;
+    }
+
+    private static void copy(InputStream inputStream, File file) throws IOException {
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } finally {
+            outputStream.close();
+        }
+    }
+}
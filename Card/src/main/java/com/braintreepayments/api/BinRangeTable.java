@@ -0,0 +1,152 @@
+package com.braintreepayments.api;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Sorted, non-overlapping BIN ranges stored as primitive ints. Each range is three ints: the
+ * lowest and highest 8 digit BIN prefix it covers and its packed attributes. A table read from
+ * disk is memory-mapped, so loading it doesn't copy the ranges onto the heap.
+ *
+ * The file format is a big-endian header of {@link #MAGIC}, {@link #VERSION} and the range count,
+ * followed by the ranges.
+ */
+final class BinRangeTable {
+
+    static final int MAGIC = 0x42494E52;
+    static final int VERSION = 1;
+
+    static final int NOT_FOUND = -1;
+
+    static final int PREFIX_DIGITS = 8;
+    static final int MAX_PREFIX = 99999999;
+
+    // attributes: the brand in the low byte followed by two bit tri-states for debit and prepaid
+    static final int BRAND_MASK = 0xFF;
+    static final int DEBIT_SHIFT = 8;
+    static final int PREPAID_SHIFT = 10;
+    static final int UNION_PAY_LIKELY_FLAG = 1 << 12;
+
+    static final int TRI_STATE_MASK = 0x3;
+    static final int TRI_STATE_UNKNOWN = 0;
+    static final int TRI_STATE_YES = 1;
+    static final int TRI_STATE_NO = 2;
+
+    private static final int HEADER_INTS = 3;
+    private static final int INTS_PER_RANGE = 3;
+
+    private final IntBuffer ranges;
+    private final int rangeCount;
+
+    private BinRangeTable(IntBuffer ranges) {
+        this.ranges = ranges;
+        this.rangeCount = ranges.capacity() / INTS_PER_RANGE;
+    }
+
+    /**
+     * @param ranges low, high and attributes for each range, sorted by low
+     * @throws IllegalArgumentException if the ranges are unsorted, overlap, or out of bounds
+     */
+    static BinRangeTable fromRanges(int[] ranges) {
+        IntBuffer buffer = IntBuffer.wrap(ranges.clone());
+        validate(buffer);
+        return new BinRangeTable(buffer);
+    }
+
+    /**
+     * Map a table previously written with {@link #write(int[], OutputStream)}.
+     *
+     * @throws IOException if the file can't be read or isn't a valid table
+     */
+    static BinRangeTable map(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        IntBuffer buffer;
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+        } finally {
+            randomAccessFile.close();
+        }
+
+        if (buffer.capacity() < HEADER_INTS || buffer.get(0) != MAGIC) {
+            throw new IOException("Not a BIN range table");
+        }
+        if (buffer.get(1) != VERSION) {
+            throw new IOException("Unsupported BIN range table version " + buffer.get(1));
+        }
+        int count = buffer.get(2);
+        if (count < 0 || buffer.capacity() != HEADER_INTS + count * INTS_PER_RANGE) {
+            throw new IOException("Truncated BIN range table");
+        }
+
+        buffer.position(HEADER_INTS);
+        IntBuffer ranges = buffer.slice();
+        try {
+            validate(ranges);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+        return new BinRangeTable(ranges);
+    }
+
+    static void write(int[] ranges, OutputStream outputStream) throws IOException {
+        validate(IntBuffer.wrap(ranges));
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(ranges.length / INTS_PER_RANGE);
+        for (int value : ranges) {
+            out.writeInt(value);
+        }
+        out.flush();
+    }
+
+    /**
+     * @param prefix an 8 digit BIN prefix
+     * @return the attributes of the range containing the prefix, or {@link #NOT_FOUND}
+     */
+    int lookup(int prefix) {
+        int low = 0;
+        int high = rangeCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = middle * INTS_PER_RANGE;
+            if (prefix < ranges.get(offset)) {
+                high = middle - 1;
+            } else if (prefix > ranges.get(offset + 1)) {
+                low = middle + 1;
+            } else {
+                return ranges.get(offset + 2);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    int size() {
+        return rangeCount;
+    }
+
+    private static void validate(IntBuffer ranges) {
+        if (ranges.capacity() % INTS_PER_RANGE != 0) {
+            throw new IllegalArgumentException("Incomplete BIN range");
+        }
+        int previousHigh = -1;
+        for (int offset = 0; offset < ranges.capacity(); offset += INTS_PER_RANGE) {
+            int low = ranges.get(offset);
+            int high = ranges.get(offset + 1);
+            if (low < 0 || high > MAX_PREFIX || low > high) {
+                throw new IllegalArgumentException("Invalid BIN range " + low + "-" + high);
+            }
+            if (low <= previousHigh) {
+                throw new IllegalArgumentException("BIN ranges must be sorted and not overlap");
+            }
+            previousHigh = high;
+        }
+    }
+}
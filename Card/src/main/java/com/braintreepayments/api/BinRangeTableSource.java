@@ -0,0 +1,30 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Supplies an updated BIN range table to {@link BinRangeIndex#refreshInBackground(BinRangeTableSource)},
+ * e.g. by downloading it from your server.
+ *
+ * The table is a sequence of big-endian 32-bit ints: the magic number {@code 0x42494E52}, the
+ * format version {@code 1}, and the number of ranges, followed by three ints per range. Each range
+ * holds the lowest and highest 8 digit BIN prefix it covers and its attributes: the brand code in
+ * the low byte, then two bits each for debit and prepaid (0 unknown, 1 yes, 2 no), then a bit
+ * marking co-branded UnionPay cards. Brand codes are 1 Visa, 2 MasterCard, 3 American Express,
+ * 4 Discover, 5 JCB, 6 Diners Club, 7 Maestro and 8 UnionPay. Ranges must be sorted and must not
+ * overlap.
+ */
+public interface BinRangeTableSource {
+
+    /**
+     * Called on a background thread. The returned stream is closed by the SDK.
+     *
+     * @return a stream containing the table
+     * @throws IOException if the table can't be retrieved; the current table is kept
+     */
+    @NonNull
+    InputStream open() throws IOException;
+}
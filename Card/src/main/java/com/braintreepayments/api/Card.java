@@ -3,6 +3,7 @@ package com.braintreepayments.api;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
@@ -12,6 +13,9 @@ import com.braintreepayments.api.GraphQLConstants.Keys;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 /**
  * Use to construct a card tokenization request.
  */
@@ -23,60 +27,156 @@ public class Card extends BaseCard implements Parcelable {
     private static final String AUTHENTICATION_INSIGHT_REQUESTED_KEY = "authenticationInsight";
     private static final String AUTHENTICATION_INSIGHT_INPUT_KEY = "authenticationInsightInput";
 
+    // large enough for a typical payload, so the writer's buffer isn't grown while writing
+    private static final int GRAPHQL_PAYLOAD_INITIAL_CAPACITY = 2048;
+
     private String merchantAccountId;
     private boolean authenticationInsightRequested;
 
     private boolean shouldValidate;
 
-    JSONObject buildJSONForGraphQL() throws BraintreeException, JSONException {
-        JSONObject base = new JSONObject();
-        JSONObject input = new JSONObject();
-        JSONObject variables = new JSONObject();
+    // selection set returned for each tokenized card
+    static final String GRAPHQL_CREDIT_CARD_SELECTION = "" +
+            "    token" +
+            "    creditCard {" +
+            "      bin" +
+            "      brand" +
+            "      expirationMonth" +
+            "      expirationYear" +
+            "      cardholderName" +
+            "      last4" +
+            "      binData {" +
+            "        prepaid" +
+            "        healthcare" +
+            "        debit" +
+            "        durbinRegulated" +
+            "        commercial" +
+            "        payroll" +
+            "        issuingBank" +
+            "        countryOfIssuance" +
+            "        productId" +
+            "      }" +
+            "    }";
+
+    static final String GRAPHQL_AUTHENTICATION_INSIGHT_SELECTION = "" +
+            "      customerAuthenticationRegulationEnvironment";
+
+    static final String GRAPHQL_TOKENIZE_OPERATION_NAME = "TokenizeCreditCard";
+
+    // the two possible tokenization documents, built at compile time so they're shared constants
+    static final String GRAPHQL_TOKENIZE_MUTATION = "" +
+            "mutation TokenizeCreditCard($input: TokenizeCreditCardInput!) {" +
+            "  tokenizeCreditCard(input: $input) {" +
+            GRAPHQL_CREDIT_CARD_SELECTION +
+            "  }" +
+            "}";
+
+    static final String GRAPHQL_TOKENIZE_WITH_AUTHENTICATION_INSIGHT_MUTATION = "" +
+            "mutation TokenizeCreditCard($input: TokenizeCreditCardInput!, " +
+            "$authenticationInsightInput: AuthenticationInsightInput!) {" +
+            "  tokenizeCreditCard(input: $input) {" +
+            GRAPHQL_CREDIT_CARD_SELECTION +
+            "    authenticationInsight(input: $authenticationInsightInput) {" +
+            GRAPHQL_AUTHENTICATION_INSIGHT_SELECTION +
+            "    }" +
+            "  }" +
+            "}";
 
-        base.put(GRAPHQL_CLIENT_SDK_METADATA_KEY, buildMetadataJSON());
+    /**
+     * @return the GraphQL tokenization request body for this card, written directly to a string
+     * without building a {@link JSONObject} tree
+     */
+    String buildGraphQLPayload() throws BraintreeException, IOException {
+        validateAuthenticationInsight();
 
-        JSONObject optionsJson = new JSONObject();
-        optionsJson.put(VALIDATE_KEY, shouldValidate);
-        input.put(OPTIONS_KEY, optionsJson);
-        variables.put(Keys.INPUT, input);
+        StringWriter stringWriter = new StringWriter(GRAPHQL_PAYLOAD_INITIAL_CAPACITY);
+        JsonWriter writer = new JsonWriter(stringWriter);
+        writer.beginObject();
 
-        if (TextUtils.isEmpty(merchantAccountId) && authenticationInsightRequested) {
-            throw new BraintreeException("A merchant account ID is required when authenticationInsightRequested is true.");
-        }
+        writer.name(GRAPHQL_CLIENT_SDK_METADATA_KEY);
+        writeMetadataJSON(writer);
+
+        writer.name(Keys.QUERY).value(authenticationInsightRequested
+                ? GRAPHQL_TOKENIZE_WITH_AUTHENTICATION_INSIGHT_MUTATION
+                : GRAPHQL_TOKENIZE_MUTATION);
+        writer.name(OPERATION_NAME_KEY).value(GRAPHQL_TOKENIZE_OPERATION_NAME);
 
+        writer.name(Keys.VARIABLES).beginObject();
+        writer.name(Keys.INPUT);
+        writeGraphQLInput(writer);
         if (authenticationInsightRequested) {
-            variables.put(AUTHENTICATION_INSIGHT_INPUT_KEY, new JSONObject().put(MERCHANT_ACCOUNT_ID_KEY, merchantAccountId));
+            writer.name(AUTHENTICATION_INSIGHT_INPUT_KEY);
+            writeGraphQLAuthenticationInsightInput(writer);
         }
+        writer.endObject();
+
+        writer.endObject();
+        writer.close();
+        return stringWriter.toString();
+    }
+
+    /**
+     * Write the {@code TokenizeCreditCardInput} variable for this card. Unset fields are omitted.
+     */
+    void writeGraphQLInput(JsonWriter writer) throws IOException {
+        writer.beginObject();
+
+        writer.name(OPTIONS_KEY).beginObject();
+        writer.name(VALIDATE_KEY).value(shouldValidate);
+        writer.endObject();
+
+        writer.name(CREDIT_CARD_KEY).beginObject();
+        writeOptional(writer, NUMBER_KEY, getNumber());
+        writeOptional(writer, EXPIRATION_MONTH_KEY, getExpirationMonth());
+        writeOptional(writer, EXPIRATION_YEAR_KEY, getExpirationYear());
+        writeOptional(writer, CVV_KEY, getCvv());
+        writeOptional(writer, CARDHOLDER_NAME_KEY, getCardholderName());
+
+        if (hasBillingAddress()) {
+            writer.name(BILLING_ADDRESS_KEY).beginObject();
+            writeOptional(writer, FIRST_NAME_KEY, getFirstName());
+            writeOptional(writer, LAST_NAME_KEY, getLastName());
+            writeOptional(writer, COMPANY_KEY, getCompany());
+            writeOptional(writer, COUNTRY_CODE_KEY, getCountryCode());
+            writeOptional(writer, LOCALITY_KEY, getLocality());
+            writeOptional(writer, POSTAL_CODE_KEY, getPostalCode());
+            writeOptional(writer, REGION_KEY, getRegion());
+            writeOptional(writer, STREET_ADDRESS_KEY, getStreetAddress());
+            writeOptional(writer, EXTENDED_ADDRESS_KEY, getExtendedAddress());
+            writer.endObject();
+        }
+        writer.endObject();
+
+        writer.endObject();
+    }
+
+    /**
+     * Write the {@code AuthenticationInsightInput} variable for this card. Only valid after
+     * {@link #validateAuthenticationInsight()} when authentication insight is requested.
+     */
+    void writeGraphQLAuthenticationInsightInput(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name(MERCHANT_ACCOUNT_ID_KEY).value(merchantAccountId);
+        writer.endObject();
+    }
 
-        base.put(Keys.QUERY, getCardTokenizationGraphQLMutation());
-        base.put(OPERATION_NAME_KEY, "TokenizeCreditCard");
-
-        JSONObject creditCard = new JSONObject()
-                .put(NUMBER_KEY, getNumber())
-                .put(EXPIRATION_MONTH_KEY, getExpirationMonth())
-                .put(EXPIRATION_YEAR_KEY, getExpirationYear())
-                .put(CVV_KEY, getCvv())
-                .put(CARDHOLDER_NAME_KEY, getCardholderName());
-
-        JSONObject billingAddress = new JSONObject()
-                .put(FIRST_NAME_KEY, getFirstName())
-                .put(LAST_NAME_KEY, getLastName())
-                .put(COMPANY_KEY, getCompany())
-                .put(COUNTRY_CODE_KEY, getCountryCode())
-                .put(LOCALITY_KEY, getLocality())
-                .put(POSTAL_CODE_KEY, getPostalCode())
-                .put(REGION_KEY, getRegion())
-                .put(STREET_ADDRESS_KEY, getStreetAddress())
-                .put(EXTENDED_ADDRESS_KEY, getExtendedAddress());
-
-        if (billingAddress.length() > 0) {
-            creditCard.put(BILLING_ADDRESS_KEY, billingAddress);
+    void validateAuthenticationInsight() throws BraintreeException {
+        if (authenticationInsightRequested && TextUtils.isEmpty(merchantAccountId)) {
+            throw new BraintreeException("A merchant account ID is required when authenticationInsightRequested is true.");
         }
+    }
 
-        input.put(CREDIT_CARD_KEY, creditCard);
-        base.put(Keys.VARIABLES, variables);
+    private boolean hasBillingAddress() {
+        return getFirstName() != null || getLastName() != null || getCompany() != null
+                || getCountryCode() != null || getLocality() != null || getPostalCode() != null
+                || getRegion() != null || getStreetAddress() != null || getExtendedAddress() != null;
+    }
 
-        return base;
+    private static void writeOptional(JsonWriter writer, String name, @Nullable String value)
+            throws IOException {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
     }
 
     public Card() {
@@ -174,49 +274,4 @@ public class Card extends BaseCard implements Parcelable {
             return new Card[size];
         }
     };
-
-    private String getCardTokenizationGraphQLMutation() {
-        StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append("mutation TokenizeCreditCard($input: TokenizeCreditCardInput!");
-
-        if (authenticationInsightRequested) {
-            stringBuilder.append(", $authenticationInsightInput: AuthenticationInsightInput!");
-        }
-
-        stringBuilder.append(") {" +
-                "  tokenizeCreditCard(input: $input) {" +
-                "    token" +
-                "    creditCard {" +
-                "      bin" +
-                "      brand" +
-                "      expirationMonth" +
-                "      expirationYear" +
-                "      cardholderName" +
-                "      last4" +
-                "      binData {" +
-                "        prepaid" +
-                "        healthcare" +
-                "        debit" +
-                "        durbinRegulated" +
-                "        commercial" +
-                "        payroll" +
-                "        issuingBank" +
-                "        countryOfIssuance" +
-                "        productId" +
-                "      }" +
-                "    }");
-
-        if (authenticationInsightRequested) {
-            stringBuilder.append("" +
-                    "    authenticationInsight(input: $authenticationInsightInput) {" +
-                    "      customerAuthenticationRegulationEnvironment" +
-                    "    }");
-        }
-
-        stringBuilder.append("" +
-                "  }" +
-                "}");
-
-        return stringBuilder.toString();
-    }
 }
@@ -0,0 +1,173 @@
+package com.braintreepayments.api;
+
+import android.util.JsonWriter;
+
+import com.braintreepayments.api.GraphQLConstants.Keys;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a single GraphQL document that tokenizes several cards, with one aliased
+ * {@code tokenizeCreditCard} field per card, and maps the response back to each card.
+ */
+class CardBatchGraphQL {
+
+    private static final String OPERATION_NAME = "TokenizeCreditCards";
+    private static final String CLIENT_SDK_METADATA_KEY = "clientSdkMetadata";
+    private static final String TOKENIZE_CREDIT_CARD_KEY = "tokenizeCreditCard";
+
+    private static final String ALIAS_PREFIX = "card";
+    private static final String INPUT_VARIABLE_PREFIX = "input";
+    private static final String AUTHENTICATION_INSIGHT_VARIABLE_PREFIX = "authenticationInsightInput";
+
+    private CardBatchGraphQL() {
+    }
+
+    static String alias(int index) {
+        return ALIAS_PREFIX + index;
+    }
+
+    /**
+     * @param cards the cards to tokenize; must not be empty. Session metadata is read from the
+     *              first card.
+     * @return the request body, written directly to a string
+     */
+    static String buildPayload(List<Card> cards) throws BraintreeException, IOException {
+        StringBuilder variableDefinitions = new StringBuilder();
+        StringBuilder selections = new StringBuilder();
+
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            card.validateAuthenticationInsight();
+
+            if (i > 0) {
+                variableDefinitions.append(", ");
+            }
+            variableDefinitions.append('$').append(INPUT_VARIABLE_PREFIX).append(i)
+                    .append(": TokenizeCreditCardInput!");
+
+            selections.append("  ").append(alias(i))
+                    .append(": tokenizeCreditCard(input: $").append(INPUT_VARIABLE_PREFIX).append(i)
+                    .append(") {")
+                    .append(Card.GRAPHQL_CREDIT_CARD_SELECTION);
+
+            if (card.isAuthenticationInsightRequested()) {
+                variableDefinitions.append(", $").append(AUTHENTICATION_INSIGHT_VARIABLE_PREFIX)
+                        .append(i).append(": AuthenticationInsightInput!");
+
+                selections.append("    authenticationInsight(input: $")
+                        .append(AUTHENTICATION_INSIGHT_VARIABLE_PREFIX).append(i).append(") {")
+                        .append(Card.GRAPHQL_AUTHENTICATION_INSIGHT_SELECTION)
+                        .append("    }");
+            }
+            selections.append("  }");
+        }
+
+        StringWriter stringWriter = new StringWriter();
+        JsonWriter writer = new JsonWriter(stringWriter);
+        writer.beginObject();
+
+        writer.name(CLIENT_SDK_METADATA_KEY);
+        cards.get(0).writeMetadataJSON(writer);
+
+        writer.name(Keys.QUERY).value("mutation " + OPERATION_NAME + "(" + variableDefinitions
+                + ") {" + selections + "}");
+        writer.name(Keys.OPERATION_NAME).value(OPERATION_NAME);
+
+        writer.name(Keys.VARIABLES).beginObject();
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            writer.name(INPUT_VARIABLE_PREFIX + i);
+            card.writeGraphQLInput(writer);
+            if (card.isAuthenticationInsightRequested()) {
+                writer.name(AUTHENTICATION_INSIGHT_VARIABLE_PREFIX + i);
+                card.writeGraphQLAuthenticationInsightInput(writer);
+            }
+        }
+        writer.endObject();
+
+        writer.endObject();
+        writer.close();
+        return stringWriter.toString();
+    }
+
+    /**
+     * @param responseBody the GraphQL response, which may contain data for some aliases and
+     *                     errors for others
+     * @param cardCount    the number of cards in the request
+     * @return a result for each card, in request order
+     */
+    static List<CardTokenizeBatchResult> parseResponse(String responseBody, int cardCount)
+            throws JSONException {
+        JSONObject response = new JSONObject(responseBody);
+        JSONObject data = response.optJSONObject(Keys.DATA);
+        JSONArray errors = response.optJSONArray(Keys.ERRORS);
+
+        List<CardTokenizeBatchResult> results = new ArrayList<>(cardCount);
+        for (int i = 0; i < cardCount; i++) {
+            String alias = alias(i);
+            JSONObject cardData = (data == null) ? null : data.optJSONObject(alias);
+            if (cardData != null) {
+                results.add(parseCardNonce(cardData));
+            } else {
+                results.add(new CardTokenizeBatchResult(null, errorFor(alias, errors)));
+            }
+        }
+        return results;
+    }
+
+    private static CardTokenizeBatchResult parseCardNonce(JSONObject cardData) {
+        try {
+            // reshape the aliased field into a single-card response
+            JSONObject singleCardResponse = new JSONObject().put(Keys.DATA,
+                    new JSONObject().put(TOKENIZE_CREDIT_CARD_KEY, cardData));
+            return new CardTokenizeBatchResult(CardNonce.fromJSON(singleCardResponse), null);
+        } catch (JSONException e) {
+            return new CardTokenizeBatchResult(null, e);
+        }
+    }
+
+    private static Exception errorFor(String alias, JSONArray errors) throws JSONException {
+        JSONArray cardErrors = new JSONArray();
+        if (errors != null) {
+            for (int i = 0; i < errors.length(); i++) {
+                JSONObject error = errors.optJSONObject(i);
+                JSONArray path = (error == null) ? null : error.optJSONArray(Keys.PATH);
+                if (path != null && alias.equals(path.optString(0))) {
+                    cardErrors.put(error);
+                }
+            }
+        }
+
+        if (cardErrors.length() == 0) {
+            return new BraintreeException("No tokenization result was returned for this card.");
+        }
+
+        // classify the card's errors the way a single-card response would be
+        for (int i = 0; i < cardErrors.length(); i++) {
+            JSONObject error = cardErrors.getJSONObject(i);
+            String message = Json.optString(error, Keys.MESSAGE,
+                    "An Unexpected Exception Occurred");
+            JSONObject extensions = error.optJSONObject(Keys.EXTENSIONS);
+            if (extensions == null) {
+                return new UnexpectedException(message);
+            }
+            String legacyCode = Json.optString(extensions, Keys.LEGACY_CODE, "");
+            String errorType = Json.optString(extensions, Keys.ERROR_TYPE, "");
+            if (GraphQLConstants.LegacyErrorCodes.VALIDATION_NOT_ALLOWED.equals(legacyCode)) {
+                return new AuthorizationException(message);
+            } else if (!GraphQLConstants.ErrorTypes.USER.equals(errorType)) {
+                return new UnexpectedException(message);
+            }
+        }
+        String cardErrorResponse = new JSONObject().put(Keys.ERRORS, cardErrors).toString();
+        return ErrorWithResponse.fromGraphQLJson(cardErrorResponse);
+    }
+}
@@ -2,11 +2,19 @@ package com.braintreepayments.api;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Used to tokenize credit or debit cards using a {@link Card}. For more information see the
  * <a href="https://developer.paypal.com/braintree/docs/guides/credit-cards/overview">documentation</a>
@@ -54,35 +62,186 @@ public class CardClient {
                     callback.onResult(null, error);
                     return;
                 }
+                tokenize(card, configuration, null, callback);
+            }
+        });
+    }
 
-                boolean shouldTokenizeViaGraphQL =
-                    configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.TOKENIZE_CREDIT_CARDS);
+    /**
+     * Create a {@link CardNonce} with an already resolved {@link BraintreeRequestContext}, so flows
+     * that continue with more requests after tokenizing resolve authorization and configuration
+     * once.
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void tokenize(@NonNull Card card, @NonNull BraintreeRequestContext requestContext,
+                         @NonNull CardTokenizeCallback callback) {
+        tokenize(card, requestContext.getConfiguration(), requestContext, callback);
+    }
 
-                if (shouldTokenizeViaGraphQL) {
+    private void tokenize(final Card card, Configuration configuration,
+                          @Nullable BraintreeRequestContext requestContext,
+                          final CardTokenizeCallback callback) {
+        boolean shouldTokenizeViaGraphQL =
+            configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.TOKENIZE_CREDIT_CARDS);
+
+        TokenizeCallback tokenizeCallback = new TokenizeCallback() {
+            @Override
+            public void onResult(JSONObject tokenizationResponse, Exception exception) {
+                handleTokenizeResponse(tokenizationResponse, exception, callback);
+            }
+        };
+
+        if (shouldTokenizeViaGraphQL) {
+            card.setSessionId(braintreeClient.getSessionId());
+            String tokenizePayload;
+            try {
+                tokenizePayload = card.buildGraphQLPayload();
+            } catch (BraintreeException | IOException e) {
+                callback.onResult(null, e);
+                return;
+            }
+            if (requestContext != null) {
+                apiClient.tokenizeGraphQL(tokenizePayload, requestContext, tokenizeCallback);
+            } else {
+                apiClient.tokenizeGraphQL(tokenizePayload, tokenizeCallback);
+            }
+        } else if (requestContext != null) {
+            apiClient.tokenizeREST(card, requestContext, tokenizeCallback);
+        } else {
+            apiClient.tokenizeREST(card, tokenizeCallback);
+        }
+    }
+
+    /**
+     * Create a {@link CardNonce} for each {@link Card} in {@code cards}.
+     * <p>
+     * When GraphQL tokenization is enabled, all cards are tokenized in a single GraphQL request.
+     * Otherwise a REST request is sent for each card without waiting for the previous one to
+     * complete.
+     *
+     * <p>
+     * The {@link CardTokenizeBatchCallback#onResult(List, Exception)} method will be invoked with
+     * a {@link CardTokenizeBatchResult} for each card, in the order of {@code cards}. A card that
+     * fails validation has a result with an {@link ErrorWithResponse} error, and a card that fails
+     * for another reason has a result with the exception describing it, without failing the
+     * other cards.
+     *
+     * <p>
+     * If the request can't be made at all (configuration error, network issue, etc.), the
+     * {@link CardTokenizeBatchCallback#onResult(List, Exception)} method will be invoked with
+     * an {@link Exception} describing the error.
+     * @param cards the {@link Card}s to tokenize
+     * @param callback {@link CardTokenizeBatchCallback}
+     */
+    public void tokenizeBatch(@NonNull final List<Card> cards,
+                              @NonNull final CardTokenizeBatchCallback callback) {
+        if (cards.isEmpty()) {
+            callback.onResult(Collections.<CardTokenizeBatchResult>emptyList(), null);
+            return;
+        }
+
+        braintreeClient.getRequestContext(new BraintreeRequestContextCallback() {
+            @Override
+            public void onResult(@Nullable BraintreeRequestContext requestContext, @Nullable Exception error) {
+                if (requestContext == null) {
+                    callback.onResult(null, error);
+                    return;
+                }
+
+                for (Card card : cards) {
                     card.setSessionId(braintreeClient.getSessionId());
-                    try {
-                        JSONObject tokenizePayload = card.buildJSONForGraphQL();
-                        apiClient.tokenizeGraphQL(tokenizePayload, new TokenizeCallback() {
-                            @Override
-                            public void onResult(JSONObject tokenizationResponse, Exception exception) {
-                                handleTokenizeResponse(tokenizationResponse, exception, callback);
-                            }
-                        });
-                    } catch (BraintreeException | JSONException e) {
-                        callback.onResult(null, e);
-                    }
+                }
+
+                boolean shouldTokenizeViaGraphQL = requestContext.getConfiguration()
+                        .isGraphQLFeatureEnabled(GraphQLConstants.Features.TOKENIZE_CREDIT_CARDS);
+
+                if (shouldTokenizeViaGraphQL) {
+                    tokenizeBatchGraphQL(cards, requestContext, callback);
                 } else {
-                    apiClient.tokenizeREST(card, new TokenizeCallback() {
-                        @Override
-                        public void onResult(JSONObject tokenizationResponse, Exception exception) {
-                            handleTokenizeResponse(tokenizationResponse, exception, callback);
-                        }
-                    });
+                    tokenizeBatchREST(cards, requestContext, callback);
                 }
             }
         });
     }
 
+    private void tokenizeBatchGraphQL(final List<Card> cards,
+                                      final BraintreeRequestContext requestContext,
+                                      final CardTokenizeBatchCallback callback) {
+        String payload;
+        try {
+            payload = CardBatchGraphQL.buildPayload(cards);
+        } catch (BraintreeException | IOException e) {
+            callback.onResult(null, e);
+            return;
+        }
+
+        braintreeClient.sendAnalyticsEvent("card.graphql.batch-tokenization.started", requestContext);
+        // each card's errors are mapped to it by CardBatchGraphQL, so one failing card doesn't
+        // fail the others
+        braintreeClient.sendGraphQLPOSTAllowingPartialResults(payload, requestContext, new HttpResponseCallback() {
+            @Override
+            public void onResult(@Nullable String responseBody, @Nullable Exception httpError) {
+                if (responseBody == null) {
+                    callback.onResult(null, httpError);
+                    return;
+                }
+
+                List<CardTokenizeBatchResult> results;
+                try {
+                    results = CardBatchGraphQL.parseResponse(responseBody, cards.size());
+                } catch (JSONException e) {
+                    callback.onResult(null, e);
+                    return;
+                }
+                callback.onResult(results, null);
+                for (CardTokenizeBatchResult result : results) {
+                    sendNonceAnalyticsEvent(result, requestContext);
+                }
+            }
+        });
+    }
+
+    private void tokenizeBatchREST(final List<Card> cards,
+                                   final BraintreeRequestContext requestContext,
+                                   final CardTokenizeBatchCallback callback) {
+        final CardTokenizeBatchResult[] results = new CardTokenizeBatchResult[cards.size()];
+        final AtomicInteger remaining = new AtomicInteger(cards.size());
+
+        for (int i = 0; i < cards.size(); i++) {
+            final int index = i;
+            apiClient.tokenizeREST(cards.get(i), requestContext, new TokenizeCallback() {
+                @Override
+                public void onResult(JSONObject tokenizationResponse, Exception exception) {
+                    CardTokenizeBatchResult result;
+                    if (tokenizationResponse != null) {
+                        try {
+                            result = new CardTokenizeBatchResult(
+                                    CardNonce.fromJSON(tokenizationResponse), null);
+                        } catch (JSONException e) {
+                            result = new CardTokenizeBatchResult(null, e);
+                        }
+                    } else {
+                        result = new CardTokenizeBatchResult(null, exception);
+                    }
+                    results[index] = result;
+                    sendNonceAnalyticsEvent(result, requestContext);
+
+                    if (remaining.decrementAndGet() == 0) {
+                        callback.onResult(new ArrayList<>(Arrays.asList(results)), null);
+                    }
+                }
+            });
+        }
+    }
+
+    private void sendNonceAnalyticsEvent(CardTokenizeBatchResult result,
+                                         BraintreeRequestContext requestContext) {
+        String eventName = (result.getCardNonce() != null) ? "card.nonce-received" : "card.nonce-failed";
+        braintreeClient.sendAnalyticsEvent(eventName, requestContext);
+    }
+
     private void handleTokenizeResponse(JSONObject tokenizationResponse, Exception exception, CardTokenizeCallback callback) {
         if (tokenizationResponse != null) {
             try {
@@ -41,10 +41,11 @@ public class CardNonce extends PaymentMethodNonce {
     private final String cardType;
     private final String lastTwo;
     private final String lastFour;
-    private final ThreeDSecureInfo threeDSecureInfo;
     private final String bin;
-    private final BinData binData;
-    private final AuthenticationInsight authenticationInsight;
+    // sub-objects are decoded on first access; most integrations only read the nonce and last four
+    private final LazyJSONValue<ThreeDSecureInfo> threeDSecureInfo;
+    private final LazyJSONValue<BinData> binData;
+    private final LazyJSONValue<AuthenticationInsight> authenticationInsight;
     private final String expirationMonth;
     private final String expirationYear;
     private final String cardholderName;
@@ -101,15 +102,15 @@ public class CardNonce extends PaymentMethodNonce {
         String lastTwo = details.getString(LAST_TWO_KEY);
         String lastFour = details.getString(LAST_FOUR_KEY);
         String cardType = details.getString(CARD_TYPE_KEY);
-        ThreeDSecureInfo threeDSecureInfo = ThreeDSecureInfo.fromJson(inputJson.optJSONObject(THREE_D_SECURE_INFO_KEY));
+        JSONObject threeDSecureInfo = inputJson.optJSONObject(THREE_D_SECURE_INFO_KEY);
         String bin = Json.optString(details, BIN_KEY, "");
-        BinData binData = BinData.fromJson(inputJson.optJSONObject(BIN_DATA_KEY));
-        AuthenticationInsight authenticationInsight = AuthenticationInsight.fromJson(inputJson.optJSONObject(AUTHENTICATION_INSIGHT_KEY));
+        JSONObject binData = inputJson.optJSONObject(BIN_DATA_KEY);
+        JSONObject authenticationInsight = inputJson.optJSONObject(AUTHENTICATION_INSIGHT_KEY);
         String expirationMonth = Json.optString(details, EXPIRATION_MONTH_KEY, "");
         String expirationYear = Json.optString(details, EXPIRATION_YEAR_KEY, "");
         String cardholderName = Json.optString(details, CARDHOLDER_NAME_KEY, "");
 
-        return new CardNonce(cardType, lastTwo, lastFour, threeDSecureInfo, bin, binData, authenticationInsight, expirationMonth, expirationYear, cardholderName, nonce, isDefault);
+        return new CardNonce(cardType, lastTwo, lastFour, lazyThreeDSecureInfo(threeDSecureInfo), bin, lazyBinData(binData), lazyAuthenticationInsight(authenticationInsight), expirationMonth, expirationYear, cardholderName, nonce, isDefault);
     }
 
     /**
@@ -129,23 +130,52 @@ public class CardNonce extends PaymentMethodNonce {
             String lastFour = Json.optString(creditCard, GRAPHQL_LAST_FOUR_KEY, "");
             String lastTwo = lastFour.length() < 4 ? "" : lastFour.substring(2);
             String cardType = Json.optString(creditCard, GRAPHQL_BRAND_KEY, "Unknown");
-            ThreeDSecureInfo threeDSecureInfo = ThreeDSecureInfo.fromJson(null);
             String bin = Json.optString(creditCard, "bin", "");
-            BinData binData = BinData.fromJson(creditCard.optJSONObject(BIN_DATA_KEY));
+            JSONObject binData = creditCard.optJSONObject(BIN_DATA_KEY);
             String nonce = payload.getString(TOKEN_KEY);
-            AuthenticationInsight authenticationInsight = AuthenticationInsight.fromJson(payload.optJSONObject(AUTHENTICATION_INSIGHT_KEY));
+            JSONObject authenticationInsight = payload.optJSONObject(AUTHENTICATION_INSIGHT_KEY);
             String expirationMonth = Json.optString(creditCard, EXPIRATION_MONTH_KEY, "");
             String expirationYear = Json.optString(creditCard, EXPIRATION_YEAR_KEY, "");
             String cardholderName = Json.optString(creditCard, CARDHOLDER_NAME_KEY, "");
 
-            return new CardNonce(cardType, lastTwo, lastFour, threeDSecureInfo, bin, binData, authenticationInsight, expirationMonth, expirationYear, cardholderName, nonce, false);
+            return new CardNonce(cardType, lastTwo, lastFour, lazyThreeDSecureInfo(null), bin, lazyBinData(binData), lazyAuthenticationInsight(authenticationInsight), expirationMonth, expirationYear, cardholderName, nonce, false);
 
         } else {
             throw new JSONException("Failed to parse GraphQL response JSON");
         }
     }
 
-    private CardNonce(String cardType, String lastTwo, String lastFour, ThreeDSecureInfo threeDSecureInfo, String bin, BinData binData, AuthenticationInsight authenticationInsight, String expirationMonth, String expirationYear, String cardholderName, String nonce, boolean isDefault) {
+    /**
+     * @param source a {@link JSONObject} or its serialized form, or null
+     */
+    private static LazyJSONValue<ThreeDSecureInfo> lazyThreeDSecureInfo(@Nullable Object source) {
+        return new LazyJSONValue<ThreeDSecureInfo>(source) {
+            @Override
+            ThreeDSecureInfo decode(JSONObject json) {
+                return ThreeDSecureInfo.fromJson(json);
+            }
+        };
+    }
+
+    private static LazyJSONValue<BinData> lazyBinData(@Nullable Object source) {
+        return new LazyJSONValue<BinData>(source) {
+            @Override
+            BinData decode(JSONObject json) {
+                return BinData.fromJson(json);
+            }
+        };
+    }
+
+    private static LazyJSONValue<AuthenticationInsight> lazyAuthenticationInsight(@Nullable Object source) {
+        return new LazyJSONValue<AuthenticationInsight>(source) {
+            @Override
+            AuthenticationInsight decode(JSONObject json) {
+                return AuthenticationInsight.fromJson(json);
+            }
+        };
+    }
+
+    private CardNonce(String cardType, String lastTwo, String lastFour, LazyJSONValue<ThreeDSecureInfo> threeDSecureInfo, String bin, LazyJSONValue<BinData> binData, LazyJSONValue<AuthenticationInsight> authenticationInsight, String expirationMonth, String expirationYear, String cardholderName, String nonce, boolean isDefault) {
         super(nonce, isDefault);
         this.cardType = cardType;
         this.lastTwo = lastTwo;
@@ -213,7 +243,7 @@ public class CardNonce extends PaymentMethodNonce {
      */
     @NonNull
     public ThreeDSecureInfo getThreeDSecureInfo() {
-        return threeDSecureInfo;
+        return threeDSecureInfo.get();
     }
 
     /**
@@ -229,7 +259,7 @@ public class CardNonce extends PaymentMethodNonce {
      */
     @NonNull
     public BinData getBinData() {
-        return binData;
+        return binData.get();
     }
 
     /**
@@ -240,7 +270,7 @@ public class CardNonce extends PaymentMethodNonce {
      */
     @Nullable
     public AuthenticationInsight getAuthenticationInsight() {
-        return authenticationInsight;
+        return authenticationInsight.get();
     }
 
     @Override
@@ -250,9 +280,10 @@ public class CardNonce extends PaymentMethodNonce {
         dest.writeString(lastTwo);
         dest.writeString(lastFour);
         dest.writeString(bin);
-        dest.writeParcelable(binData, flags);
-        dest.writeParcelable(threeDSecureInfo, flags);
-        dest.writeParcelable(authenticationInsight, flags);
+        // write the retained JSON rather than the decoded objects so neither side has to decode them
+        dest.writeString(binData.serialize());
+        dest.writeString(threeDSecureInfo.serialize());
+        dest.writeString(authenticationInsight.serialize());
         dest.writeString(expirationMonth);
         dest.writeString(expirationYear);
         dest.writeString(cardholderName);
@@ -264,9 +295,9 @@ public class CardNonce extends PaymentMethodNonce {
         lastTwo = in.readString();
         lastFour = in.readString();
         bin = in.readString();
-        binData = in.readParcelable(BinData.class.getClassLoader());
-        threeDSecureInfo = in.readParcelable(ThreeDSecureInfo.class.getClassLoader());
-        authenticationInsight = in.readParcelable(AuthenticationInsight.class.getClassLoader());
+        binData = lazyBinData(in.readString());
+        threeDSecureInfo = lazyThreeDSecureInfo(in.readString());
+        authenticationInsight = lazyAuthenticationInsight(in.readString());
         expirationMonth = in.readString();
         expirationYear = in.readString();
         cardholderName = in.readString();
@@ -0,0 +1,18 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Callback for receiving result of {@link CardClient#tokenizeBatch(List, CardTokenizeBatchCallback)}.
+ */
+public interface CardTokenizeBatchCallback {
+
+    /**
+     * @param results a {@link CardTokenizeBatchResult} for each card, in the order the cards were
+     *                passed in
+     * @param error   an exception that prevented every card from being tokenized
+     */
+    void onResult(@Nullable List<CardTokenizeBatchResult> results, @Nullable Exception error);
+}
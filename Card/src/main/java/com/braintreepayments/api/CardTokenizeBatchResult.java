@@ -0,0 +1,36 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+/**
+ * The result of tokenizing one {@link Card} with
+ * {@link CardClient#tokenizeBatch(java.util.List, CardTokenizeBatchCallback)}. Exactly one of
+ * {@link #getCardNonce()} and {@link #getError()} is non-null.
+ */
+public class CardTokenizeBatchResult {
+
+    private final CardNonce cardNonce;
+    private final Exception error;
+
+    CardTokenizeBatchResult(@Nullable CardNonce cardNonce, @Nullable Exception error) {
+        this.cardNonce = cardNonce;
+        this.error = error;
+    }
+
+    /**
+     * @return the {@link CardNonce} for the card, or null if it could not be tokenized
+     */
+    @Nullable
+    public CardNonce getCardNonce() {
+        return cardNonce;
+    }
+
+    /**
+     * @return an {@link ErrorWithResponse} if the card failed validation, another
+     * {@link Exception} if it could not be tokenized for a different reason, or null on success
+     */
+    @Nullable
+    public Exception getError() {
+        return error;
+    }
+}
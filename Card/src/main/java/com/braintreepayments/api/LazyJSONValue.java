@@ -0,0 +1,70 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A value decoded from a retained JSON fragment the first time it is requested. The fragment is
+ * kept in its serialized form when read from a {@link android.os.Parcel}, so passing an object
+ * between components doesn't decode it either.
+ *
+ * @param <T> the decoded type
+ */
+abstract class LazyJSONValue<T> {
+
+    // either a JSONObject, a String, or null when the fragment is absent
+    private final Object source;
+
+    private volatile boolean isDecoded;
+    private T value;
+
+    /**
+     * @param source a {@link JSONObject}, its serialized form, or null if the fragment is absent
+     */
+    LazyJSONValue(@Nullable Object source) {
+        this.source = source;
+    }
+
+    /**
+     * @param json the retained fragment, or null if the response didn't include it
+     * @return the decoded value
+     */
+    abstract T decode(@Nullable JSONObject json);
+
+    T get() {
+        if (!isDecoded) {
+            synchronized (this) {
+                if (!isDecoded) {
+                    value = decode(getJSON());
+                    isDecoded = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return the fragment serialized as a string, for writing to a {@link android.os.Parcel}
+     */
+    @Nullable
+    String serialize() {
+        return (source == null) ? null : source.toString();
+    }
+
+    @Nullable
+    private JSONObject getJSON() {
+        if (source instanceof JSONObject) {
+            return (JSONObject) source;
+        }
+        if (source instanceof String) {
+            try {
+                return new JSONObject((String) source);
+            } catch (JSONException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,234 @@
+package com.braintreepayments.api;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+
+@RunWith(RobolectricTestRunner.class)
+public class BinRangeIndexUnitTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File tableFile;
+    private Executor refreshExecutor;
+
+    @Before
+    public void beforeEach() {
+        tableFile = new File(temporaryFolder.getRoot(), "bin-ranges");
+        refreshExecutor = mock(Executor.class);
+    }
+
+    @Test
+    public void lookup_withBuiltInTable_returnsBrand() {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+
+        assertEquals("Visa", sut.lookup("411111").getCardType());
+        assertEquals("MasterCard", sut.lookup("5555 5555").getCardType());
+        assertEquals("MasterCard", sut.lookup("2221-0000").getCardType());
+        assertEquals("American Express", sut.lookup("378282").getCardType());
+        assertEquals("Discover", sut.lookup("6011111").getCardType());
+        assertEquals("JCB", sut.lookup("353011").getCardType());
+        assertEquals("Diners Club", sut.lookup("305693").getCardType());
+        assertEquals(BinData.UNKNOWN, sut.lookup("411111").getDebit());
+        assertEquals(BinData.UNKNOWN, sut.lookup("411111").getPrepaid());
+        assertFalse(sut.lookup("411111").isUnionPayLikely());
+    }
+
+    @Test
+    public void lookup_withUnionPayBin_returnsUnionPayLikely() {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+
+        BinRangeHint hint = sut.lookup("62123456");
+        assertEquals("UnionPay", hint.getCardType());
+        assertTrue(hint.isUnionPayLikely());
+    }
+
+    @Test
+    public void lookup_withFewerThanSixDigits_returnsNull() {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+
+        assertNull(sut.lookup(null));
+        assertNull(sut.lookup(""));
+        assertNull(sut.lookup("41111"));
+        assertNull(sut.lookup("4111 1"));
+    }
+
+    @Test
+    public void lookup_withNonDigitCharacters_returnsNull() {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+
+        assertNull(sut.lookup("4111a11"));
+    }
+
+    @Test
+    public void lookup_withBinOutsideOfAnyRange_returnsNull() {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+
+        assertNull(sut.lookup("999999"));
+    }
+
+    @Test
+    public void crossCheck_whenResponseAgrees_returnsTrueAndLearnsBinData() throws JSONException {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+
+        assertTrue(sut.crossCheck(createCardNonce("Visa", "411111", "Yes", "No")));
+
+        BinRangeHint hint = sut.lookup("4111 1111");
+        assertEquals("Visa", hint.getCardType());
+        assertEquals(BinData.YES, hint.getDebit());
+        assertEquals(BinData.NO, hint.getPrepaid());
+        // other BINs in the range are unaffected
+        assertEquals(BinData.UNKNOWN, sut.lookup("422222").getDebit());
+    }
+
+    @Test
+    public void crossCheck_whenBrandDisagrees_returnsFalseAndKeepsUnionPayLikely() throws JSONException {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+
+        assertFalse(sut.crossCheck(createCardNonce("Discover", "622126", "No", "No")));
+
+        BinRangeHint hint = sut.lookup("62212612");
+        assertEquals("Discover", hint.getCardType());
+        assertTrue(hint.isUnionPayLikely());
+    }
+
+    @Test
+    public void crossCheck_whenBinDataDisagreesWithLearnedBin_returnsFalse() throws JSONException {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+        sut.crossCheck(createCardNonce("Visa", "411111", "Yes", "Unknown"));
+
+        assertFalse(sut.crossCheck(createCardNonce("Visa", "411111", "No", "Unknown")));
+        assertEquals(BinData.NO, sut.lookup("411111").getDebit());
+    }
+
+    @Test
+    public void crossCheck_withoutBin_returnsTrue() throws JSONException {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+
+        assertTrue(sut.crossCheck(createCardNonce("Visa", "", "Yes", "No")));
+    }
+
+    @Test
+    public void refreshInBackground_runsOnRefreshExecutor() {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+        BinRangeTableSource source = mock(BinRangeTableSource.class);
+
+        sut.refreshInBackground(source);
+
+        verify(refreshExecutor).execute(any(Runnable.class));
+        verifyNoInteractions(source);
+    }
+
+    @Test
+    public void refresh_replacesTableAndPersistsItForLaterInstances() throws IOException {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+        final byte[] table = writeTable(new int[] {
+                41111100, 41111199, BinRangeHint.BRAND_VISA
+                        | (BinRangeTable.TRI_STATE_YES << BinRangeTable.DEBIT_SHIFT)
+        });
+
+        assertTrue(sut.refresh(new BinRangeTableSource() {
+            @NonNull
+            @Override
+            public InputStream open() {
+                return new ByteArrayInputStream(table);
+            }
+        }));
+
+        assertEquals(1, sut.getTableSize());
+        assertEquals(BinData.YES, sut.lookup("41111123").getDebit());
+        assertNull(sut.lookup("555555"));
+
+        BinRangeIndex reloaded = new BinRangeIndex(tableFile, refreshExecutor);
+        assertEquals(1, reloaded.getTableSize());
+        assertEquals(BinData.YES, reloaded.lookup("41111123").getDebit());
+    }
+
+    @Test
+    public void refresh_withInvalidTable_keepsCurrentTable() {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+        int builtInSize = sut.getTableSize();
+
+        assertFalse(sut.refresh(new BinRangeTableSource() {
+            @NonNull
+            @Override
+            public InputStream open() {
+                return new ByteArrayInputStream(new byte[] { 1, 2, 3, 4 });
+            }
+        }));
+
+        assertEquals(builtInSize, sut.getTableSize());
+        assertEquals("Visa", sut.lookup("411111").getCardType());
+        assertFalse(tableFile.exists());
+    }
+
+    @Test
+    public void refresh_whenSourceFails_keepsCurrentTable() {
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+
+        assertFalse(sut.refresh(new BinRangeTableSource() {
+            @NonNull
+            @Override
+            public InputStream open() throws IOException {
+                throw new IOException("offline");
+            }
+        }));
+
+        assertEquals("Visa", sut.lookup("411111").getCardType());
+    }
+
+    @Test
+    public void constructor_withCorruptTableFile_usesBuiltInTable() throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(tableFile);
+        outputStream.write(new byte[] { 0, 0, 0, 1 });
+        outputStream.close();
+
+        BinRangeIndex sut = new BinRangeIndex(tableFile, refreshExecutor);
+
+        assertEquals("Visa", sut.lookup("411111").getCardType());
+    }
+
+    private static byte[] writeTable(int[] ranges) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BinRangeTable.write(ranges, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static CardNonce createCardNonce(String cardType, String bin, String debit,
+            String prepaid) throws JSONException {
+        JSONObject json = new JSONObject(Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD);
+        JSONObject creditCard = json.getJSONArray("creditCards").getJSONObject(0);
+        creditCard.getJSONObject("details")
+                .put("cardType", cardType)
+                .put("bin", bin);
+        creditCard.getJSONObject("binData")
+                .put("debit", debit)
+                .put("prepaid", prepaid);
+        return CardNonce.fromJSON(json);
+    }
+}
@@ -1,8 +1,12 @@
 package com.braintreepayments.api;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -15,6 +19,10 @@ import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
@@ -58,7 +66,7 @@ public class CardClientUnitTest {
 
         InOrder inOrder = Mockito.inOrder(card, apiClient);
         inOrder.verify(card).setSessionId("session-id");
-        inOrder.verify(apiClient).tokenizeGraphQL(any(JSONObject.class), any(TokenizeCallback.class));
+        inOrder.verify(apiClient).tokenizeGraphQL(anyString(), any(TokenizeCallback.class));
     }
 
     @Test
@@ -82,6 +90,47 @@ public class CardClientUnitTest {
         assertEquals("3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1", cardNonce.getString());
     }
 
+    @Test
+    public void tokenize_withRequestContext_whenGraphQLEnabled_tokenizesWithoutResolvingConfiguration() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeRequestContext requestContext = new BraintreeRequestContext(
+                Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN), graphQLEnabledConfig);
+
+        apiClient = new MockApiClientBuilder()
+                .tokenizeGraphQLSuccess(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD))
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenize(card, requestContext, cardTokenizeCallback);
+
+        verify(braintreeClient, Mockito.never()).getConfiguration(any(ConfigurationCallback.class));
+        verify(apiClient).tokenizeGraphQL(anyString(), same(requestContext), any(TokenizeCallback.class));
+
+        ArgumentCaptor<CardNonce> captor = ArgumentCaptor.forClass(CardNonce.class);
+        verify(cardTokenizeCallback).onResult(captor.capture(), isNull());
+        assertEquals("3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1", captor.getValue().getString());
+    }
+
+    @Test
+    public void tokenize_withRequestContext_whenGraphQLDisabled_tokenizesWithRESTUsingRequestContext() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        BraintreeRequestContext requestContext = new BraintreeRequestContext(
+                Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN), graphQLDisabledConfig);
+
+        apiClient = new MockApiClientBuilder()
+                .tokenizeRESTSuccess(new JSONObject(Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD))
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenize(card, requestContext, cardTokenizeCallback);
+
+        verify(apiClient).tokenizeREST(same(card), same(requestContext), any(TokenizeCallback.class));
+
+        ArgumentCaptor<CardNonce> captor = ArgumentCaptor.forClass(CardNonce.class);
+        verify(cardTokenizeCallback).onResult(captor.capture(), (Exception) isNull());
+        assertEquals("123456-12345-12345-a-adfa", captor.getValue().getString());
+    }
+
     @Test
     public void tokenize_whenGraphQLDisabled_tokenizesWithREST() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -215,4 +264,171 @@ public class CardClientUnitTest {
 
         verify(cardTokenizeCallback).onResult(null, configError);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void tokenizeBatch_whenGraphQLEnabled_tokenizesAllCardsInOneRequest() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(mock(Authorization.class))
+                .configuration(graphQLEnabledConfig)
+                .sessionId("session-id")
+                .sendGraphQLPOSTSuccessfulResponse(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD_BATCH)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeBatchCallback callback = mock(CardTokenizeBatchCallback.class);
+        sut.tokenizeBatch(Arrays.asList(new Card(), new Card()), callback);
+
+        ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        verify(braintreeClient).sendGraphQLPOSTAllowingPartialResults(payloadCaptor.capture(),
+                any(BraintreeRequestContext.class), any(HttpResponseCallback.class));
+        JSONObject payload = new JSONObject(payloadCaptor.getValue());
+        String query = payload.getString("query");
+        assertTrue(query.contains("card0: tokenizeCreditCard(input: $input0)"));
+        assertTrue(query.contains("card1: tokenizeCreditCard(input: $input1)"));
+        assertEquals("session-id", payload.getJSONObject("clientSdkMetadata").getString("sessionId"));
+
+        ArgumentCaptor<List<CardTokenizeBatchResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        List<CardTokenizeBatchResult> results = captor.getValue();
+        assertEquals(2, results.size());
+        assertEquals("3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1", results.get(0).getCardNonce().getString());
+        assertEquals("tokencc_3bbd22_fpjshh_bqbvh5_mkf3nf_smz", results.get(1).getCardNonce().getString());
+        assertEquals("4444", results.get(1).getCardNonce().getLastFour());
+        verify(apiClient, Mockito.never()).tokenizeGraphQL(anyString(), any(TokenizeCallback.class));
+    }
+
+    @Test
+    public void tokenizeBatch_whenGraphQLEnabled_mapsErrorsToTheirCards() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(mock(Authorization.class))
+                .configuration(graphQLEnabledConfig)
+                .sendGraphQLPOSTSuccessfulResponse(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD_BATCH_PARTIAL_ERROR)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeBatchCallback callback = mock(CardTokenizeBatchCallback.class);
+        sut.tokenizeBatch(Arrays.asList(new Card(), new Card()), callback);
+
+        ArgumentCaptor<List<CardTokenizeBatchResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        List<CardTokenizeBatchResult> results = captor.getValue();
+        assertEquals("3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1", results.get(0).getCardNonce().getString());
+        assertNull(results.get(0).getError());
+
+        assertNull(results.get(1).getCardNonce());
+        ErrorWithResponse cardError = (ErrorWithResponse) results.get(1).getError();
+        assertEquals("Expiration year is invalid", cardError.errorFor("creditCard")
+                .errorFor("expirationYear").getMessage());
+
+        verify(braintreeClient).sendAnalyticsEvent(Mockito.eq("card.nonce-received"), any(BraintreeRequestContext.class));
+        verify(braintreeClient).sendAnalyticsEvent(Mockito.eq("card.nonce-failed"), any(BraintreeRequestContext.class));
+    }
+
+    @Test
+    public void tokenizeBatch_whenGraphQLEnabled_withUserAndUnexpectedErrors_failsOnlyTheirCards() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(mock(Authorization.class))
+                .configuration(graphQLEnabledConfig)
+                .sendGraphQLPOSTSuccessfulResponse(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD_BATCH_MIXED_ERRORS)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeBatchCallback callback = mock(CardTokenizeBatchCallback.class);
+        sut.tokenizeBatch(Arrays.asList(new Card(), new Card(), new Card()), callback);
+
+        ArgumentCaptor<List<CardTokenizeBatchResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        List<CardTokenizeBatchResult> results = captor.getValue();
+        assertEquals("3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1", results.get(0).getCardNonce().getString());
+
+        ErrorWithResponse userError = (ErrorWithResponse) results.get(1).getError();
+        assertEquals("Expiration year is invalid", userError.errorFor("creditCard")
+                .errorFor("expirationYear").getMessage());
+
+        assertNull(results.get(2).getCardNonce());
+        assertTrue(results.get(2).getError() instanceof UnexpectedException);
+        assertEquals("Variable 'input2' has coerced Null value for NonNull type 'String!'",
+                results.get(2).getError().getMessage());
+    }
+
+    @Test
+    public void tokenizeBatch_whenGraphQLEnabled_withOneCard_returnsItsErrorAsItsResult() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(mock(Authorization.class))
+                .configuration(graphQLEnabledConfig)
+                .sendGraphQLPOSTSuccessfulResponse(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD_BATCH_SINGLE_CARD_ERROR)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeBatchCallback callback = mock(CardTokenizeBatchCallback.class);
+        sut.tokenizeBatch(Collections.singletonList(new Card()), callback);
+
+        ArgumentCaptor<List<CardTokenizeBatchResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        List<CardTokenizeBatchResult> results = captor.getValue();
+        assertEquals(1, results.size());
+        assertNull(results.get(0).getCardNonce());
+        assertTrue(results.get(0).getError() instanceof AuthorizationException);
+        assertEquals("Validation is not supported for requests authorized with a tokenization key.",
+                results.get(0).getError().getMessage());
+    }
+
+    @Test
+    public void tokenizeBatch_whenGraphQLDisabled_tokenizesEachCardWithREST() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(mock(Authorization.class))
+                .configuration(graphQLDisabledConfig)
+                .build();
+
+        apiClient = new MockApiClientBuilder()
+                .tokenizeRESTSuccess(new JSONObject(Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD))
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeBatchCallback callback = mock(CardTokenizeBatchCallback.class);
+        sut.tokenizeBatch(Arrays.asList(new Card(), new Card(), new Card()), callback);
+
+        verify(apiClient, Mockito.times(3)).tokenizeREST(any(PaymentMethod.class),
+                any(BraintreeRequestContext.class), any(TokenizeCallback.class));
+
+        ArgumentCaptor<List<CardTokenizeBatchResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        List<CardTokenizeBatchResult> results = captor.getValue();
+        assertEquals(3, results.size());
+        for (CardTokenizeBatchResult result : results) {
+            assertEquals("123456-12345-12345-a-adfa", result.getCardNonce().getString());
+        }
+    }
+
+    @Test
+    public void tokenizeBatch_withNoCards_returnsEmptyResults() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeBatchCallback callback = mock(CardTokenizeBatchCallback.class);
+        sut.tokenizeBatch(Collections.<Card>emptyList(), callback);
+
+        verify(callback).onResult(Collections.<CardTokenizeBatchResult>emptyList(), null);
+        verify(braintreeClient, Mockito.never()).getRequestContext(any(BraintreeRequestContextCallback.class));
+    }
+
+    @Test
+    public void tokenizeBatch_propagatesConfigurationFetchError() {
+        Exception configError = new Exception("Configuration error.");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(mock(Authorization.class))
+                .configurationError(configError)
+                .build();
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        CardTokenizeBatchCallback callback = mock(CardTokenizeBatchCallback.class);
+        sut.tokenizeBatch(Collections.singletonList(card), callback);
+
+        verify(callback).onResult(null, configError);
+    }
+}
@@ -154,4 +154,36 @@ public class CardNonceUnitTest {
         assertEquals(cardNonce.getAuthenticationInsight().getRegulationEnvironment(),
                 parceled.getAuthenticationInsight().getRegulationEnvironment());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parcelsCorrectly_whenSubObjectsAlreadyDecoded() throws JSONException {
+        CardNonce cardNonce = CardNonce.fromJSON(new JSONObject(Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD));
+        cardNonce.getThreeDSecureInfo();
+        cardNonce.getBinData();
+
+        Parcel parcel = Parcel.obtain();
+        cardNonce.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+
+        CardNonce parceled = CardNonce.CREATOR.createFromParcel(parcel);
+
+        assertBinDataEqual(cardNonce.getBinData(), parceled.getBinData());
+        assertEquals(cardNonce.getThreeDSecureInfo().isLiabilityShiftPossible(),
+                parceled.getThreeDSecureInfo().isLiabilityShiftPossible());
+    }
+
+    @Test
+    public void parcelsCorrectly_withoutAuthenticationInsight() throws JSONException {
+        CardNonce cardNonce = CardNonce.fromJSON(new JSONObject(Fixtures.PAYMENT_METHOD_CARD));
+
+        Parcel parcel = Parcel.obtain();
+        cardNonce.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+
+        CardNonce parceled = CardNonce.CREATOR.createFromParcel(parcel);
+
+        assertNull(parceled.getAuthenticationInsight());
+        assertNotNull(parceled.getThreeDSecureInfo());
+        assertNotNull(parceled.getBinData());
+    }
+}
@@ -0,0 +1,111 @@
+package com.braintreepayments.api
+
+import com.braintreepayments.api.CardNumber.VISA
+import org.json.JSONObject
+import org.junit.Assert.assertTrue
+import org.junit.Assume.assumeTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import java.lang.management.ManagementFactory
+
+/**
+ * Compares the bytes allocated building a GraphQL card tokenization request body with the
+ * streaming [Card.buildGraphQLPayload] against building a [JSONObject] tree and serializing it, as
+ * card tokenization did before. Skipped when the JVM can't count per-thread allocations.
+ */
+@RunWith(RobolectricTestRunner::class)
+class CardTokenizePayloadAllocationUnitTest {
+
+    @Test
+    fun buildGraphQLPayload_allocatesLessThanJSONObjectTree() {
+        val threadMXBean = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+        assumeTrue(
+            threadMXBean != null && threadMXBean.isThreadAllocatedMemorySupported &&
+                    threadMXBean.isThreadAllocatedMemoryEnabled
+        )
+        val card = createCard()
+
+        // warm up class loading and JIT so it isn't attributed to either variant
+        repeat(WARM_UP_ITERATIONS) {
+            buildJSONObjectPayload(card)
+            card.buildGraphQLPayload()
+        }
+
+        val treeBytes = measureAllocatedBytes(threadMXBean!!) { buildJSONObjectPayload(card) }
+        val streamingBytes = measureAllocatedBytes(threadMXBean) { card.buildGraphQLPayload() }
+
+        assertTrue(
+            "streaming: $streamingBytes bytes, JSONObject tree: $treeBytes bytes",
+            streamingBytes < treeBytes
+        )
+    }
+
+    private fun createCard() = Card().apply {
+        number = VISA
+        expirationMonth = "01"
+        expirationYear = "2030"
+        cvv = "123"
+        cardholderName = "Joe Smith"
+        firstName = "Joe"
+        lastName = "Smith"
+        streetAddress = "1 Main St"
+        locality = "Some Town"
+        postalCode = "12345"
+        countryCode = "USA"
+        setSessionId("session-id")
+    }
+
+    // the request body as it was built before streaming, kept here as the baseline
+    private fun buildJSONObjectPayload(card: Card): String {
+        val creditCard = JSONObject()
+            .put("number", card.number)
+            .put("expirationMonth", card.expirationMonth)
+            .put("expirationYear", card.expirationYear)
+            .put("cvv", card.cvv)
+            .put("cardholderName", card.cardholderName)
+        val billingAddress = JSONObject()
+            .put("firstName", card.firstName)
+            .put("lastName", card.lastName)
+            .put("company", card.company)
+            .put("countryCode", card.countryCode)
+            .put("locality", card.locality)
+            .put("postalCode", card.postalCode)
+            .put("region", card.region)
+            .put("streetAddress", card.streetAddress)
+            .put("extendedAddress", card.extendedAddress)
+        if (billingAddress.length() > 0) {
+            creditCard.put("billingAddress", billingAddress)
+        }
+        val input = JSONObject()
+            .put("options", JSONObject().put("validate", card.shouldValidate))
+            .put("creditCard", creditCard)
+        val query = StringBuilder()
+            .append("mutation TokenizeCreditCard(\$input: TokenizeCreditCardInput!")
+            .append(") {  tokenizeCreditCard(input: \$input) {")
+            .append(Card.GRAPHQL_CREDIT_CARD_SELECTION)
+            .append("  }}")
+            .toString()
+        return JSONObject()
+            .put("clientSdkMetadata", card.buildMetadataJSON())
+            .put("query", query)
+            .put("operationName", "TokenizeCreditCard")
+            .put("variables", JSONObject().put("input", input))
+            .toString()
+    }
+
+    private fun measureAllocatedBytes(
+        threadMXBean: com.sun.management.ThreadMXBean,
+        block: () -> Unit
+    ): Long {
+        val threadId = Thread.currentThread().id
+        val startBytes = threadMXBean.getThreadAllocatedBytes(threadId)
+        repeat(ITERATIONS) { block() }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - startBytes) / ITERATIONS
+    }
+
+    companion object {
+        private const val WARM_UP_ITERATIONS = 100
+        private const val ITERATIONS = 1000
+    }
+}
@@ -7,6 +7,7 @@ import junit.framework.TestCase.assertFalse
 import junit.framework.TestCase.assertNull
 import junit.framework.TestCase.assertTrue
 import org.json.JSONException
+import org.json.JSONObject
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.robolectric.RobolectricTestRunner
@@ -382,6 +383,18 @@ class CardUnitTest {
         assertEquals("form", metadata.getString("source"))
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun buildJSONForGraphQL_writesSameMetadataAsMetadataBuilder() {
+        val card = Card()
+        card.setSessionId("test-session-id")
+
+        val json = card.buildJSONForGraphQL()
+
+        assertEquals(card.buildMetadataJSON().toString(),
+            json.getJSONObject("clientSdkMetadata").toString())
+    }
+
     @Test
     @Throws(Exception::class)
     fun buildJSONForGraphQL_usesDefaultCardSource() {
@@ -622,3 +635,6 @@ class CardUnitTest {
         assertEquals("USA", actual.countryCode)
     }
 }
+
+// the request body parsed into a tree, so tests can inspect individual fields
+private fun Card.buildJSONForGraphQL() = JSONObject(buildGraphQLPayload())
@@ -0,0 +1,84 @@
+package com.braintreepayments.api;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class LazyJSONValueUnitTest {
+
+    private static class CountingValue extends LazyJSONValue<String> {
+
+        final AtomicInteger decodeCount = new AtomicInteger();
+
+        CountingValue(Object source) {
+            super(source);
+        }
+
+        @Override
+        String decode(JSONObject json) {
+            decodeCount.incrementAndGet();
+            return (json == null) ? null : json.optString("key");
+        }
+    }
+
+    @Test
+    public void get_decodesOnFirstAccessOnly() throws JSONException {
+        CountingValue sut = new CountingValue(new JSONObject().put("key", "value"));
+        assertEquals(0, sut.decodeCount.get());
+
+        assertEquals("value", sut.get());
+        assertSame(sut.get(), sut.get());
+        assertEquals(1, sut.decodeCount.get());
+    }
+
+    @Test
+    public void get_decodesOnceAcrossThreads() throws InterruptedException, JSONException {
+        final CountingValue sut = new CountingValue(new JSONObject().put("key", "value"));
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                    sut.get();
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, sut.decodeCount.get());
+    }
+
+    @Test
+    public void serialize_roundTripsThroughSerializedSource() throws JSONException {
+        CountingValue original = new CountingValue(new JSONObject().put("key", "value"));
+        CountingValue restored = new CountingValue(original.serialize());
+
+        assertEquals("value", restored.get());
+    }
+
+    @Test
+    public void get_withAbsentOrInvalidFragment_decodesNull() {
+        assertNull(new CountingValue(null).get());
+        assertNull(new CountingValue("not json").get());
+        assertNull(new CountingValue(null).serialize());
+    }
+}
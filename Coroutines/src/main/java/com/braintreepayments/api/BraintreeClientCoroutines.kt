@@ -0,0 +1,11 @@
+package com.braintreepayments.api
+
+/**
+ * Suspending variant of [BraintreeClient.getConfiguration].
+ *
+ * @return the [Configuration] for the client's authorization
+ * @throws Exception when authorization or configuration can't be loaded
+ */
+suspend fun BraintreeClient.awaitConfiguration(): Configuration = awaitResult { onResult ->
+    getConfiguration { configuration, error -> onResult(configuration, error) }
+}
@@ -0,0 +1,12 @@
+package com.braintreepayments.api
+
+/**
+ * Suspending variant of [CardClient.tokenize].
+ *
+ * @param card a [Card] to tokenize
+ * @return the tokenized [CardNonce]
+ * @throws Exception when tokenization fails
+ */
+suspend fun CardClient.awaitTokenize(card: Card): CardNonce = awaitResult { onResult ->
+    tokenize(card) { cardNonce, error -> onResult(cardNonce, error) }
+}
@@ -0,0 +1,59 @@
+package com.braintreepayments.api
+
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Suspend until a result callback is invoked. A callback that arrives after the calling coroutine
+ * has been cancelled, or a second invocation of the same callback, is ignored.
+ *
+ * [register] runs in a new [HttpRequestScope], so the HTTP requests it sends, and those sent from
+ * their callbacks, are disconnected when the calling coroutine is cancelled. Requests shared with
+ * other callers run outside of the scope and complete for them.
+ */
+internal suspend fun <T : Any> awaitResult(
+    register: (onResult: (T?, Exception?) -> Unit) -> Unit
+): T = suspendCancellableCoroutine { continuation ->
+    val scope = HttpRequestScope()
+    continuation.invokeOnCancellation { scope.cancel() }
+    HttpRequestScope.runIn(scope) {
+        register { result, error ->
+            if (continuation.isActive) {
+                if (result != null) {
+                    continuation.resume(result)
+                } else {
+                    continuation.resumeWithException(error ?: BraintreeException(MISSING_RESULT_MESSAGE))
+                }
+            }
+        }
+    }
+}
+
+/**
+ * Suspend until a completion callback is invoked, throwing the error it was invoked with.
+ */
+internal suspend fun awaitCompletion(register: (onComplete: (Exception?) -> Unit) -> Unit) =
+    awaitResult<Unit> { onResult ->
+        register { error -> onResult(if (error == null) Unit else null, error) }
+    }
+
+/**
+ * A cold [Flow] of the results delivered to a payment client's listener. [register] installs the
+ * listener when collection starts and [unregister] removes it when collection stops.
+ */
+internal fun <T : Any> listenerResults(
+    unregister: () -> Unit,
+    register: (onSuccess: (T) -> Unit, onFailure: (Exception) -> Unit) -> Unit
+): Flow<Result<T>> = callbackFlow {
+    register(
+        { result -> trySend(Result.success(result)) },
+        { error -> trySend(Result.failure(error)) }
+    )
+    awaitClose { unregister() }
+}
+
+private const val MISSING_RESULT_MESSAGE = "The request completed without a result or an error."
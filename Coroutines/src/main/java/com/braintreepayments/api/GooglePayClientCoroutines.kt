@@ -0,0 +1,53 @@
+package com.braintreepayments.api
+
+import androidx.fragment.app.FragmentActivity
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Suspending variant of [GooglePayClient.isReadyToPay].
+ *
+ * @param activity Android FragmentActivity
+ * @param request [ReadyForGooglePayRequest]
+ * @return `true` if Google Pay is enabled for the merchant and available on the device
+ * @throws Exception when configuration can't be loaded
+ */
+suspend fun GooglePayClient.awaitIsReadyToPay(
+    activity: FragmentActivity,
+    request: ReadyForGooglePayRequest? = null
+): Boolean = awaitResult { onResult ->
+    isReadyToPay(activity, request) { isReadyToPay, error ->
+        onResult(if (error == null) isReadyToPay else null, error)
+    }
+}
+
+/**
+ * Suspending variant of [GooglePayClient.requestPayment] that returns once the Google Pay
+ * payment sheet has been launched. Collect [googlePayResults] to receive the resulting
+ * [PaymentMethodNonce].
+ *
+ * @param activity Android FragmentActivity
+ * @param request the [GooglePayRequest] containing options for the transaction
+ * @throws Exception when the payment sheet can't be launched
+ */
+@Suppress("DEPRECATION")
+suspend fun GooglePayClient.awaitRequestPayment(
+    activity: FragmentActivity,
+    request: GooglePayRequest
+) = awaitCompletion { onComplete ->
+    requestPayment(activity, request) { error -> onComplete(error) }
+}
+
+/**
+ * The results of Google Pay flows, delivered to a [GooglePayListener] that is set on this client
+ * when collection starts and removed when collection stops. The listener replaces any listener set
+ * previously.
+ */
+fun GooglePayClient.googlePayResults(): Flow<Result<PaymentMethodNonce>> =
+    listenerResults(unregister = { setListener(null) }) { onSuccess, onFailure ->
+        setListener(object : GooglePayListener {
+            override fun onGooglePaySuccess(paymentMethodNonce: PaymentMethodNonce) =
+                onSuccess(paymentMethodNonce)
+
+            override fun onGooglePayFailure(error: Exception) = onFailure(error)
+        })
+    }
@@ -0,0 +1,35 @@
+package com.braintreepayments.api
+
+import androidx.fragment.app.FragmentActivity
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Suspending variant of [PayPalClient.tokenizePayPalAccount] that returns once the PayPal flow
+ * has been launched. Collect [payPalResults] to receive the resulting [PayPalAccountNonce].
+ *
+ * @param activity Android FragmentActivity
+ * @param payPalRequest a [PayPalRequest] used to customize the request
+ * @throws Exception when the PayPal flow can't be started
+ */
+@Suppress("DEPRECATION")
+suspend fun PayPalClient.awaitTokenizePayPalAccount(
+    activity: FragmentActivity,
+    payPalRequest: PayPalRequest
+) = awaitCompletion { onComplete ->
+    tokenizePayPalAccount(activity, payPalRequest) { error -> onComplete(error) }
+}
+
+/**
+ * The results of PayPal flows, delivered to a [PayPalListener] that is set on this client when
+ * collection starts and removed when collection stops. The listener replaces any listener set
+ * previously.
+ */
+fun PayPalClient.payPalResults(): Flow<Result<PayPalAccountNonce>> =
+    listenerResults(unregister = { setListener(null) }) { onSuccess, onFailure ->
+        setListener(object : PayPalListener {
+            override fun onPayPalSuccess(payPalAccountNonce: PayPalAccountNonce) =
+                onSuccess(payPalAccountNonce)
+
+            override fun onPayPalFailure(error: Exception) = onFailure(error)
+        })
+    }
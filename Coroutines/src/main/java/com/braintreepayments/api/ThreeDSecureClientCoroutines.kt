@@ -0,0 +1,35 @@
+package com.braintreepayments.api
+
+import androidx.fragment.app.FragmentActivity
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Suspending variant of [ThreeDSecureClient.performVerification]. Pass the result to
+ * [ThreeDSecureClient.continuePerformVerification] to present a challenge when one is required.
+ *
+ * @param activity an Android FragmentActivity
+ * @param request the [ThreeDSecureRequest] with information used for authentication
+ * @return the [ThreeDSecureResult] of the lookup
+ * @throws Exception when the lookup fails
+ */
+suspend fun ThreeDSecureClient.awaitPerformVerification(
+    activity: FragmentActivity,
+    request: ThreeDSecureRequest
+): ThreeDSecureResult = awaitResult { onResult ->
+    performVerification(activity, request) { result, error -> onResult(result, error) }
+}
+
+/**
+ * The results of 3DS challenges, delivered to a [ThreeDSecureListener] that is set on this
+ * client when collection starts and removed when collection stops. The listener replaces any
+ * listener set previously.
+ */
+fun ThreeDSecureClient.threeDSecureResults(): Flow<Result<ThreeDSecureResult>> =
+    listenerResults(unregister = { setListener(null) }) { onSuccess, onFailure ->
+        setListener(object : ThreeDSecureListener {
+            override fun onThreeDSecureSuccess(threeDSecureResult: ThreeDSecureResult) =
+                onSuccess(threeDSecureResult)
+
+            override fun onThreeDSecureFailure(error: Exception) = onFailure(error)
+        })
+    }
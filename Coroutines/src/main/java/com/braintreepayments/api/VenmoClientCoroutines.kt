@@ -0,0 +1,49 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import androidx.fragment.app.FragmentActivity
+import kotlinx.coroutines.flow.Flow
+
+/**
+ * Suspending variant of [VenmoClient.isReadyToPay].
+ *
+ * @param context Android Context
+ * @return `true` if Venmo is enabled for the merchant and the Venmo app is installed
+ * @throws Exception when configuration can't be loaded
+ */
+suspend fun VenmoClient.awaitIsReadyToPay(context: Context): Boolean = awaitResult { onResult ->
+    isReadyToPay(context) { isReadyToPay, error ->
+        onResult(if (error == null) isReadyToPay else null, error)
+    }
+}
+
+/**
+ * Suspending variant of [VenmoClient.tokenizeVenmoAccount] that returns once the Venmo app has
+ * been launched. Collect [venmoResults] to receive the resulting [VenmoAccountNonce].
+ *
+ * @param activity Android FragmentActivity
+ * @param request [VenmoRequest]
+ * @throws Exception when the Venmo app switch can't be started
+ */
+@Suppress("DEPRECATION")
+suspend fun VenmoClient.awaitTokenizeVenmoAccount(
+    activity: FragmentActivity,
+    request: VenmoRequest
+) = awaitCompletion { onComplete ->
+    tokenizeVenmoAccount(activity, request) { error -> onComplete(error) }
+}
+
+/**
+ * The results of Venmo flows, delivered to a [VenmoListener] that is set on this client when
+ * collection starts and removed when collection stops. The listener replaces any listener set
+ * previously.
+ */
+fun VenmoClient.venmoResults(): Flow<Result<VenmoAccountNonce>> =
+    listenerResults(unregister = { setListener(null) }) { onSuccess, onFailure ->
+        setListener(object : VenmoListener {
+            override fun onVenmoSuccess(venmoAccountNonce: VenmoAccountNonce) =
+                onSuccess(venmoAccountNonce)
+
+            override fun onVenmoFailure(error: Exception) = onFailure(error)
+        })
+    }
@@ -0,0 +1,37 @@
+package com.braintreepayments.api
+
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertSame
+import org.junit.Assert.fail
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class BraintreeClientCoroutinesUnitTest {
+
+    @Test
+    fun awaitConfiguration_returnsConfiguration() = runBlocking {
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ANALYTICS)
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(configuration)
+            .build()
+
+        assertSame(configuration, braintreeClient.awaitConfiguration())
+    }
+
+    @Test
+    fun awaitConfiguration_throwsConfigurationError() = runBlocking {
+        val error = Exception("configuration error")
+        val braintreeClient = MockBraintreeClientBuilder()
+            .configurationError(error)
+            .build()
+
+        try {
+            braintreeClient.awaitConfiguration()
+            fail("expected an exception")
+        } catch (e: Exception) {
+            assertSame(error, e)
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.braintreepayments.api
+
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertSame
+import org.junit.Assert.fail
+import org.junit.Test
+
+class CardClientCoroutinesUnitTest {
+
+    private val card = Card()
+
+    @Test
+    fun awaitTokenize_returnsCardNonce() = runBlocking {
+        val cardNonce = mockk<CardNonce>()
+        val sut = mockk<CardClient>()
+        every { sut.tokenize(card, any()) } answers {
+            secondArg<CardTokenizeCallback>().onResult(cardNonce, null)
+        }
+
+        assertSame(cardNonce, sut.awaitTokenize(card))
+    }
+
+    @Test
+    fun awaitTokenize_throwsTokenizationError() = runBlocking {
+        val error = Exception("tokenization error")
+        val sut = mockk<CardClient>()
+        every { sut.tokenize(card, any()) } answers {
+            secondArg<CardTokenizeCallback>().onResult(null, error)
+        }
+
+        try {
+            sut.awaitTokenize(card)
+            fail("expected an exception")
+        } catch (e: Exception) {
+            assertSame(error, e)
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.braintreepayments.api
+
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.async
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.yield
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+
+class CoroutineCallbacksUnitTest {
+
+    @Test
+    fun awaitResult_returnsResult() = runBlocking {
+        val result = awaitResult<String> { onResult -> onResult("result", null) }
+        assertEquals("result", result)
+    }
+
+    @Test
+    fun awaitResult_throwsError() = runBlocking {
+        val error = Exception("error")
+        try {
+            awaitResult<String> { onResult -> onResult(null, error) }
+            fail("expected an exception")
+        } catch (e: Exception) {
+            assertSame(error, e)
+        }
+    }
+
+    @Test
+    fun awaitResult_withoutResultOrError_throwsBraintreeException() = runBlocking {
+        try {
+            awaitResult<String> { onResult -> onResult(null, null) }
+            fail("expected an exception")
+        } catch (e: BraintreeException) {
+            assertEquals("The request completed without a result or an error.", e.message)
+        }
+    }
+
+    @Test
+    fun awaitResult_ignoresSecondCallback() = runBlocking {
+        val result = awaitResult<String> { onResult ->
+            onResult("first", null)
+            onResult("second", null)
+        }
+        assertEquals("first", result)
+    }
+
+    @Test
+    fun awaitResult_whenCancelled_ignoresLateCallback() = runBlocking {
+        var pendingCallback: ((String?, Exception?) -> Unit)? = null
+        val deferred = async(start = CoroutineStart.UNDISPATCHED) {
+            awaitResult<String> { onResult -> pendingCallback = onResult }
+        }
+
+        deferred.cancel()
+        pendingCallback?.invoke("late", null)
+
+        assertTrue(deferred.isCancelled)
+    }
+
+    @Test
+    fun awaitResult_registersInAnHttpRequestScope() = runBlocking {
+        var scope: HttpRequestScope? = null
+        awaitResult<String> { onResult ->
+            scope = HttpRequestScope.current()
+            onResult("result", null)
+        }
+
+        assertNotNull(scope)
+        assertFalse(scope!!.isCanceled)
+        assertNull(HttpRequestScope.current())
+    }
+
+    @Test
+    fun awaitResult_whenCancelled_cancelsHttpRequestScope() = runBlocking {
+        var scope: HttpRequestScope? = null
+        val deferred = async(start = CoroutineStart.UNDISPATCHED) {
+            awaitResult<String> { scope = HttpRequestScope.current() }
+        }
+
+        deferred.cancel()
+
+        assertTrue(scope!!.isCanceled)
+    }
+
+    @Test
+    fun awaitCompletion_throwsError() = runBlocking {
+        val error = Exception("error")
+        try {
+            awaitCompletion { onComplete -> onComplete(error) }
+            fail("expected an exception")
+        } catch (e: Exception) {
+            assertSame(error, e)
+        }
+    }
+
+    @Test
+    fun listenerResults_emitsSuccessesAndFailures() = runBlocking {
+        val error = Exception("error")
+        var onSuccess: ((String) -> Unit)? = null
+        var onFailure: ((Exception) -> Unit)? = null
+        val results = async {
+            listenerResults<String>(unregister = {}) { success, failure ->
+                onSuccess = success
+                onFailure = failure
+            }.take(2).toList()
+        }
+
+        launch {
+            while (onSuccess == null) yield()
+            onSuccess?.invoke("nonce")
+            onFailure?.invoke(error)
+        }
+
+        assertEquals(listOf(Result.success("nonce"), Result.failure<String>(error)), results.await())
+    }
+
+    @Test
+    fun listenerResults_whenCollectionStops_unregistersListener() = runBlocking {
+        var onSuccess: ((String) -> Unit)? = null
+        var unregistered = false
+        val results = async {
+            listenerResults<String>(unregister = { unregistered = true }) { success, _ ->
+                onSuccess = success
+            }.take(1).toList()
+        }
+
+        launch {
+            while (onSuccess == null) yield()
+            onSuccess?.invoke("nonce")
+        }
+
+        assertEquals(listOf(Result.success("nonce")), results.await())
+        assertTrue(unregistered)
+    }
+}
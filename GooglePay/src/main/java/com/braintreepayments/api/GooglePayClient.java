@@ -229,7 +229,9 @@ public class GooglePayClient {
             @Override
             public void onResult(@Nullable Exception error) {
                 if (error != null) {
-                    listener.onGooglePayFailure(error);
+                    if (listener != null) {
+                        listener.onGooglePayFailure(error);
+                    }
                 }
             }
         });
@@ -268,44 +270,35 @@ public class GooglePayClient {
             return;
         }
 
-        braintreeClient.getAuthorization(new AuthorizationCallback() {
+        braintreeClient.getRequestContext(new BraintreeRequestContextCallback() {
             @Override
-            public void onAuthorizationResult(@Nullable final Authorization authorization, @Nullable Exception authError) {
-                if (authorization != null) {
-                    braintreeClient.getConfiguration(new ConfigurationCallback() {
-                        @Override
-                        public void onResult(@Nullable Configuration configuration, @Nullable Exception configError) {
-                            if (configuration == null) {
-                                callback.onResult(configError);
-                                return;
-                            }
-
-                            if (!configuration.isGooglePayEnabled()) {
-                                callback.onResult(new BraintreeException("Google Pay is not enabled for your Braintree account," +
-                                        " or Google Play Services are not configured correctly."));
-                                return;
-                            }
-
-                            setGooglePayRequestDefaults(configuration, authorization, request);
-                            braintreeClient.sendAnalyticsEvent("google-payment.started");
+            public void onResult(@Nullable BraintreeRequestContext requestContext, @Nullable Exception error) {
+                if (requestContext == null) {
+                    callback.onResult(error);
+                    return;
+                }
 
-                            PaymentDataRequest paymentDataRequest = PaymentDataRequest.fromJson(request.toJson());
+                Configuration configuration = requestContext.getConfiguration();
+                if (!configuration.isGooglePayEnabled()) {
+                    callback.onResult(new BraintreeException("Google Pay is not enabled for your Braintree account," +
+                            " or Google Play Services are not configured correctly."));
+                    return;
+                }
 
-                            if (observer != null) {
-                                GooglePayIntentData intent = new GooglePayIntentData(getGooglePayEnvironment(configuration), paymentDataRequest);
-                                observer.launch(intent);
-                            } else {
-                                Intent intent = new Intent(activity, GooglePayActivity.class)
-                                        .putExtra(EXTRA_ENVIRONMENT, getGooglePayEnvironment(configuration))
-                                        .putExtra(EXTRA_PAYMENT_DATA_REQUEST, paymentDataRequest);
+                setGooglePayRequestDefaults(configuration, requestContext.getAuthorization(), request);
+                braintreeClient.sendAnalyticsEvent("google-payment.started", requestContext);
 
-                                activity.startActivityForResult(intent, BraintreeRequestCodes.GOOGLE_PAY);
-                            }
-                        }
-                    });
+                PaymentDataRequest paymentDataRequest = PaymentDataRequest.fromJson(request.toJson());
 
+                if (observer != null) {
+                    GooglePayIntentData intent = new GooglePayIntentData(getGooglePayEnvironment(configuration), paymentDataRequest);
+                    observer.launch(intent);
                 } else {
-                    callback.onResult(authError);
+                    Intent intent = new Intent(activity, GooglePayActivity.class)
+                            .putExtra(EXTRA_ENVIRONMENT, getGooglePayEnvironment(configuration))
+                            .putExtra(EXTRA_PAYMENT_DATA_REQUEST, paymentDataRequest);
+
+                    activity.startActivityForResult(intent, BraintreeRequestCodes.GOOGLE_PAY);
                 }
             }
         });
@@ -347,9 +340,13 @@ public class GooglePayClient {
                 @Override
                 public void onResult(@Nullable PaymentMethodNonce paymentMethodNonce, @Nullable Exception error) {
                     if (paymentMethodNonce != null) {
-                        listener.onGooglePaySuccess(paymentMethodNonce);
+                        if (listener != null) {
+                            listener.onGooglePaySuccess(paymentMethodNonce);
+                        }
                     } else if (error != null) {
-                        listener.onGooglePayFailure(error);
+                        if (listener != null) {
+                            listener.onGooglePayFailure(error);
+                        }
                     }
                 }
             });
@@ -359,7 +356,9 @@ public class GooglePayClient {
            } else {
                braintreeClient.sendAnalyticsEvent("google-payment.failed");
            }
-            listener.onGooglePayFailure(googlePayResult.getError());
+            if (listener != null) {
+                listener.onGooglePayFailure(googlePayResult.getError());
+            }
         }
     }
 
@@ -18,6 +18,7 @@ import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -243,111 +244,12 @@ public class GooglePayRequest implements Parcelable {
      * @return String
      */
     public String toJson() {
-        JSONObject transactionInfoJson = new JSONObject();
-        TransactionInfo transactionInfo = getTransactionInfo();
-        JSONArray allowedPaymentMethods = new JSONArray();
-        JSONObject shippingAddressParameters = new JSONObject();
-        ArrayList<String> allowedCountryCodeList;
-
-        if (isShippingAddressRequired()) {
-            allowedCountryCodeList = shippingAddressRequirements.getAllowedCountryCodes();
-
-            if (allowedCountryCodeList != null && allowedCountryCodeList.size() > 0) {
-                try {
-                    shippingAddressParameters.put("allowedCountryCodes", new JSONArray(allowedCountryCodeList));
-                } catch (JSONException ignored) {
-                }
-            }
-            try {
-                shippingAddressParameters.put("phoneNumberRequired", isPhoneNumberRequired());
-            } catch (JSONException ignored) {
-            }
-        }
-
-        try {
-            String totalPriceStatus = totalPriceStatusToString();
-            transactionInfoJson
-                    .put("totalPriceStatus", totalPriceStatus)
-                    .put("totalPrice", transactionInfo.getTotalPrice())
-                    .put("currencyCode", transactionInfo.getCurrencyCode());
-
-            if (countryCode != null) {
-                transactionInfoJson.put("countryCode", countryCode);
-            }
-
-            if (totalPriceLabel != null) {
-                transactionInfoJson.put("totalPriceLabel", totalPriceLabel);
-            }
-
-        } catch (JSONException ignored) {
-        }
-
-        for (Map.Entry<String, JSONObject> pm : this.allowedPaymentMethods.entrySet()) {
-            try {
-                JSONObject paymentMethod = new JSONObject()
-                        .put("type", pm.getKey())
-                        .put("parameters", pm.getValue())
-                        .put("tokenizationSpecification", tokenizationSpecifications.get(pm.getKey()));
-
-                if ("CARD".equals(pm.getKey())) {
-                    JSONObject paymentMethodParams = paymentMethod.getJSONObject("parameters");
-                    paymentMethodParams
-                            .put("billingAddressRequired", isBillingAddressRequired())
-                            .put("allowPrepaidCards", getAllowPrepaidCards())
-                            .put("allowCreditCards", isCreditCardsAllowed());
-                    try {
-                        JSONObject billingAddressParameters = (JSONObject) pm.getValue().get(
-                                "billingAddressParameters");
-                        paymentMethodParams
-                                .put("billingAddressParameters", billingAddressParameters);
-                    } catch (JSONException ignored) {
-                        if (isBillingAddressRequired()) {
-                            paymentMethodParams
-                                    .put("billingAddressParameters", new JSONObject()
-                                            .put("format", billingAddressFormatToString())
-                                            .put("phoneNumberRequired", isPhoneNumberRequired()));
-                        }
-                    }
-                }
-
-                allowedPaymentMethods.put(paymentMethod);
-            } catch (JSONException ignored) {
-            }
-        }
-
-        JSONObject merchantInfo = new JSONObject();
-
-        try {
-            if (!TextUtils.isEmpty(getGoogleMerchantId())) {
-                merchantInfo.put("merchantId", getGoogleMerchantId());
-            }
-
-            if (!TextUtils.isEmpty(getGoogleMerchantName())) {
-                merchantInfo.put("merchantName", getGoogleMerchantName());
-            }
-        } catch (JSONException ignored) {
-        }
-
-        JSONObject json = new JSONObject();
-
         try {
-            json
-                    .put("apiVersion", 2)
-                    .put("apiVersionMinor", 0)
-                    .put("allowedPaymentMethods", allowedPaymentMethods)
-                    .put("emailRequired", isEmailRequired())
-                    .put("shippingAddressRequired", isShippingAddressRequired())
-                    .put("environment", environment)
-                    .put("merchantInfo", merchantInfo)
-                    .put("transactionInfo", transactionInfoJson);
-
-            if (isShippingAddressRequired()) {
-                json.put("shippingAddressParameters", shippingAddressParameters);
-            }
+            return GooglePayRequest_RequestBodyJsonSerializer.toJson(new RequestBody(this));
         } catch (JSONException ignored) {
         }
 
-        return json.toString();
+        return new JSONObject().toString();
     }
 
     private String totalPriceStatusToString() {
@@ -567,4 +469,211 @@ public class GooglePayRequest implements Parcelable {
             return new GooglePayRequest[size];
         }
     };
+
+    /**
+     * The PaymentDataRequest JSON for the Google Pay API.
+     */
+    @JsonSerializable
+    static class RequestBody {
+
+        private final GooglePayRequest request;
+
+        RequestBody(GooglePayRequest request) {
+            this.request = request;
+        }
+
+        @JsonProperty("apiVersion")
+        int getApiVersion() {
+            return 2;
+        }
+
+        @JsonProperty("apiVersionMinor")
+        int getApiVersionMinor() {
+            return 0;
+        }
+
+        @JsonProperty("allowedPaymentMethods")
+        List<AllowedPaymentMethod> getAllowedPaymentMethods() {
+            List<AllowedPaymentMethod> allowedPaymentMethods = new ArrayList<>();
+            for (Map.Entry<String, JSONObject> pm : request.allowedPaymentMethods.entrySet()) {
+                JSONObject parameters = pm.getValue();
+                if ("CARD".equals(pm.getKey())) {
+                    if (parameters == null) {
+                        // card parameters are required; the method is left out without them
+                        continue;
+                    }
+                    addCardParameters(parameters);
+                }
+
+                allowedPaymentMethods.add(new AllowedPaymentMethod(pm.getKey(), parameters,
+                        request.tokenizationSpecifications.get(pm.getKey())));
+            }
+            return allowedPaymentMethods;
+        }
+
+        /**
+         * Adds the card options of the request to the merchant's CARD parameters.
+         */
+        private void addCardParameters(JSONObject parameters) {
+            try {
+                parameters
+                        .put("billingAddressRequired", request.isBillingAddressRequired())
+                        .put("allowPrepaidCards", request.getAllowPrepaidCards())
+                        .put("allowCreditCards", request.isCreditCardsAllowed());
+                if (!parameters.has("billingAddressParameters") && request.isBillingAddressRequired()) {
+                    parameters.put("billingAddressParameters", new JSONObject()
+                            .put("format", request.billingAddressFormatToString())
+                            .put("phoneNumberRequired", request.isPhoneNumberRequired()));
+                }
+            } catch (JSONException ignored) {
+            }
+        }
+
+        @JsonProperty("emailRequired")
+        boolean isEmailRequired() {
+            return request.isEmailRequired();
+        }
+
+        @JsonProperty("shippingAddressRequired")
+        boolean isShippingAddressRequired() {
+            return request.isShippingAddressRequired();
+        }
+
+        @JsonProperty("environment")
+        String getEnvironment() {
+            return request.getEnvironment();
+        }
+
+        @JsonProperty("merchantInfo")
+        MerchantInfo getMerchantInfo() {
+            return new MerchantInfo(request);
+        }
+
+        @JsonProperty("transactionInfo")
+        TransactionInfoFields getTransactionInfo() {
+            return new TransactionInfoFields(request);
+        }
+
+        @JsonProperty("shippingAddressParameters")
+        ShippingAddressParameters getShippingAddressParameters() {
+            return request.isShippingAddressRequired() ? new ShippingAddressParameters(request) : null;
+        }
+    }
+
+    /**
+     * An entry of allowedPaymentMethods.
+     */
+    @JsonSerializable
+    static class AllowedPaymentMethod {
+
+        private final String type;
+        private final JSONObject parameters;
+        private final JSONObject tokenizationSpecification;
+
+        AllowedPaymentMethod(String type, JSONObject parameters, JSONObject tokenizationSpecification) {
+            this.type = type;
+            this.parameters = parameters;
+            this.tokenizationSpecification = tokenizationSpecification;
+        }
+
+        @JsonProperty("type")
+        String getType() {
+            return type;
+        }
+
+        @JsonProperty("parameters")
+        JSONObject getParameters() {
+            return parameters;
+        }
+
+        @JsonProperty("tokenizationSpecification")
+        JSONObject getTokenizationSpecification() {
+            return tokenizationSpecification;
+        }
+    }
+
+    /**
+     * The merchantInfo object, always written.
+     */
+    @JsonSerializable
+    static class MerchantInfo {
+
+        private final GooglePayRequest request;
+
+        MerchantInfo(GooglePayRequest request) {
+            this.request = request;
+        }
+
+        @JsonProperty("merchantId")
+        String getMerchantId() {
+            return TextUtils.isEmpty(request.getGoogleMerchantId()) ? null : request.getGoogleMerchantId();
+        }
+
+        @JsonProperty("merchantName")
+        String getMerchantName() {
+            return TextUtils.isEmpty(request.getGoogleMerchantName()) ? null : request.getGoogleMerchantName();
+        }
+    }
+
+    /**
+     * The transactionInfo object, built from the merchant's {@link TransactionInfo}.
+     */
+    @JsonSerializable
+    static class TransactionInfoFields {
+
+        private final GooglePayRequest request;
+
+        TransactionInfoFields(GooglePayRequest request) {
+            this.request = request;
+        }
+
+        @JsonProperty("totalPriceStatus")
+        String getTotalPriceStatus() {
+            return request.totalPriceStatusToString();
+        }
+
+        @JsonProperty("totalPrice")
+        String getTotalPrice() {
+            return request.getTransactionInfo().getTotalPrice();
+        }
+
+        @JsonProperty("currencyCode")
+        String getCurrencyCode() {
+            return request.getTransactionInfo().getCurrencyCode();
+        }
+
+        @JsonProperty("countryCode")
+        String getCountryCode() {
+            return request.getCountryCode();
+        }
+
+        @JsonProperty("totalPriceLabel")
+        String getTotalPriceLabel() {
+            return request.getTotalPriceLabel();
+        }
+    }
+
+    /**
+     * The shippingAddressParameters object, written when a shipping address is required.
+     */
+    @JsonSerializable
+    static class ShippingAddressParameters {
+
+        private final GooglePayRequest request;
+
+        ShippingAddressParameters(GooglePayRequest request) {
+            this.request = request;
+        }
+
+        @JsonProperty("allowedCountryCodes")
+        List<String> getAllowedCountryCodes() {
+            List<String> allowedCountryCodes = request.getShippingAddressRequirements().getAllowedCountryCodes();
+            return allowedCountryCodes == null || allowedCountryCodes.isEmpty() ? null : allowedCountryCodes;
+        }
+
+        @JsonProperty("phoneNumberRequired")
+        boolean isPhoneNumberRequired() {
+            return request.isPhoneNumberRequired();
+        }
+    }
 }
@@ -643,7 +643,37 @@ public class GooglePayClientUnitTest {
 
         InOrder order = inOrder(braintreeClient);
         order.verify(braintreeClient).sendAnalyticsEvent(eq("google-payment.selected"));
-        order.verify(braintreeClient).sendAnalyticsEvent(eq("google-payment.started"));
+        order.verify(braintreeClient).sendAnalyticsEvent(eq("google-payment.started"), any(BraintreeRequestContext.class));
+    }
+
+    @Test
+    public void requestPayment_resolvesAuthorizationAndConfigurationOnce() {
+        Configuration configuration = new TestConfigurationBuilder()
+                .googlePay(new TestConfigurationBuilder.TestGooglePayConfigurationBuilder()
+                        .environment("sandbox")
+                        .googleAuthorizationFingerprint("google-auth-fingerprint")
+                        .supportedNetworks(new String[]{"visa", "mastercard", "amex", "discover"})
+                        .enabled(true))
+                .withAnalytics()
+                .buildConfiguration();
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(Authorization.fromString("sandbox_tokenization_string"))
+                .activityInfo(activityInfo)
+                .build();
+
+        GooglePayInternalClient internalGooglePayClient = new MockGooglePayInternalClientBuilder().build();
+
+        GooglePayClient sut = new GooglePayClient(activity, lifecycle, braintreeClient, internalGooglePayClient);
+        sut.observer = mock(GooglePayLifecycleObserver.class);
+        sut.setListener(listener);
+        sut.requestPayment(activity, baseRequest);
+
+        verify(braintreeClient).getRequestContext(any(BraintreeRequestContextCallback.class));
+        verify(braintreeClient, never()).getAuthorization(any(AuthorizationCallback.class));
+        verify(braintreeClient, never()).getConfiguration(any(ConfigurationCallback.class));
+        verify(sut.observer).launch(any(GooglePayIntentData.class));
     }
 
     @Test
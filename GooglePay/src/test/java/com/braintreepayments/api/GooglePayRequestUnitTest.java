@@ -14,8 +14,11 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNull;
@@ -325,4 +328,135 @@ public class GooglePayRequestUnitTest {
 
         JSONAssert.assertEquals(expected, actual, false);
     }
+
+    @Test
+    public void toJson_matchesJSONObjectOutputByteForByte() throws JSONException {
+        Map<String, JSONObject> allowedPaymentMethods = new HashMap<>();
+        allowedPaymentMethods.put("CARD", new JSONObject()
+                .put("allowedAuthMethods", new JSONArray().put("PAN_ONLY"))
+                .put("allowedCardNetworks", new JSONArray().put("VISA")));
+        allowedPaymentMethods.put("PAYPAL", new JSONObject()
+                .put("purchase_context", "{\"purchase_units\":[{\"payee\":{\"client_id\":\"id\"}}]}"));
+
+        GooglePayRequest request = createRequest(allowedPaymentMethods);
+        GooglePayRequest legacyRequest = createRequest(allowedPaymentMethods);
+
+        assertEquals(toJsonWithJSONObject(legacyRequest, new ArrayList<>(allowedPaymentMethods.keySet())),
+                request.toJson());
+    }
+
+    @Test
+    public void toJson_withNoFieldsSet_matchesJSONObjectOutputByteForByte() throws JSONException {
+        GooglePayRequest request = new GooglePayRequest();
+        request.setTransactionInfo(TransactionInfo.newBuilder()
+                .setCurrencyCode("USD")
+                .setTotalPriceStatus(WalletConstants.TOTAL_PRICE_STATUS_ESTIMATED)
+                .build());
+
+        assertEquals(toJsonWithJSONObject(request, new ArrayList<String>()), request.toJson());
+    }
+
+    private static GooglePayRequest createRequest(Map<String, JSONObject> allowedPaymentMethods)
+            throws JSONException {
+        GooglePayRequest request = new GooglePayRequest();
+        request.setTransactionInfo(TransactionInfo.newBuilder()
+                .setCurrencyCode("USD")
+                .setTotalPrice("12.24")
+                .setTotalPriceStatus(WalletConstants.TOTAL_PRICE_STATUS_FINAL)
+                .build());
+        request.setCountryCode("US");
+        request.setTotalPriceLabel("Total/Label");
+        request.setShippingAddressRequired(true);
+        request.setShippingAddressRequirements(ShippingAddressRequirements.newBuilder()
+                .addAllowedCountryCodes(Arrays.asList("US", "CA"))
+                .build());
+        request.setBillingAddressRequired(true);
+        request.setBillingAddressFormat(WalletConstants.BILLING_ADDRESS_FORMAT_FULL);
+        request.setEnvironment("production");
+        request.setGoogleMerchantName("Caf\u00e9");
+
+        for (Map.Entry<String, JSONObject> allowedPaymentMethod : allowedPaymentMethods.entrySet()) {
+            // each request mutates its own copy of the CARD parameters
+            request.setAllowedPaymentMethod(allowedPaymentMethod.getKey(),
+                    new JSONObject(allowedPaymentMethod.getValue().toString()));
+            request.setTokenizationSpecificationForType(allowedPaymentMethod.getKey(),
+                    new JSONObject().put("type", "PAYMENT_GATEWAY"));
+        }
+        return request;
+    }
+
+    // the JSONObject tree GooglePayRequest#toJson() used to build, with paymentMethodTypes in the
+    // iteration order of the request's allowed payment methods
+    private static String toJsonWithJSONObject(GooglePayRequest request, List<String> paymentMethodTypes)
+            throws JSONException {
+        TransactionInfo transactionInfo = request.getTransactionInfo();
+        JSONObject transactionInfoJson = new JSONObject()
+                .put("totalPriceStatus", totalPriceStatusToString(transactionInfo.getTotalPriceStatus()))
+                .put("totalPrice", transactionInfo.getTotalPrice())
+                .put("currencyCode", transactionInfo.getCurrencyCode())
+                .putOpt("countryCode", request.getCountryCode())
+                .putOpt("totalPriceLabel", request.getTotalPriceLabel());
+
+        JSONArray allowedPaymentMethods = new JSONArray();
+        for (String type : paymentMethodTypes) {
+            JSONObject paymentMethod = new JSONObject()
+                    .put("type", type)
+                    .put("parameters", request.getAllowedPaymentMethod(type))
+                    .put("tokenizationSpecification", request.getTokenizationSpecificationForType(type));
+
+            if ("CARD".equals(type)) {
+                JSONObject paymentMethodParams = paymentMethod.getJSONObject("parameters");
+                paymentMethodParams
+                        .put("billingAddressRequired", request.isBillingAddressRequired())
+                        .put("allowPrepaidCards", request.getAllowPrepaidCards())
+                        .put("allowCreditCards", request.isCreditCardsAllowed());
+                if (!paymentMethodParams.has("billingAddressParameters") && request.isBillingAddressRequired()) {
+                    paymentMethodParams.put("billingAddressParameters", new JSONObject()
+                            .put("format", request.billingAddressFormatToString())
+                            .put("phoneNumberRequired", request.isPhoneNumberRequired()));
+                }
+            }
+            allowedPaymentMethods.put(paymentMethod);
+        }
+
+        JSONObject merchantInfo = new JSONObject()
+                .putOpt("merchantId", emptyToNull(request.getGoogleMerchantId()))
+                .putOpt("merchantName", emptyToNull(request.getGoogleMerchantName()));
+
+        JSONObject json = new JSONObject()
+                .put("apiVersion", 2)
+                .put("apiVersionMinor", 0)
+                .put("allowedPaymentMethods", allowedPaymentMethods)
+                .put("emailRequired", request.isEmailRequired())
+                .put("shippingAddressRequired", request.isShippingAddressRequired())
+                .put("environment", request.getEnvironment())
+                .put("merchantInfo", merchantInfo)
+                .put("transactionInfo", transactionInfoJson);
+
+        if (request.isShippingAddressRequired()) {
+            JSONObject shippingAddressParameters = new JSONObject();
+            List<String> allowedCountryCodes = request.getShippingAddressRequirements().getAllowedCountryCodes();
+            if (allowedCountryCodes != null && allowedCountryCodes.size() > 0) {
+                shippingAddressParameters.put("allowedCountryCodes", new JSONArray(allowedCountryCodes));
+            }
+            shippingAddressParameters.put("phoneNumberRequired", request.isPhoneNumberRequired());
+            json.put("shippingAddressParameters", shippingAddressParameters);
+        }
+        return json.toString();
+    }
+
+    private static String totalPriceStatusToString(int totalPriceStatus) {
+        switch (totalPriceStatus) {
+            case WalletConstants.TOTAL_PRICE_STATUS_NOT_CURRENTLY_KNOWN:
+                return "NOT_CURRENTLY_KNOWN";
+            case WalletConstants.TOTAL_PRICE_STATUS_ESTIMATED:
+                return "ESTIMATED";
+            default:
+                return "FINAL";
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
 }
@@ -0,0 +1,31 @@
+package com.braintreepayments.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a field or a no-arg method of a {@link JsonSerializable} class as a JSON property.
+ * <p>
+ * Fields are read through their getter ({@code getName()} or {@code isName()}) when one exists.
+ * Supported values are primitives and their boxed types, {@code String}, {@code org.json.JSONObject},
+ * {@code org.json.JSONArray}, other {@link JsonSerializable} classes of the same module, and
+ * {@code Iterable}s of those. Null values are skipped.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface JsonProperty {
+
+    /**
+     * @return the JSON key
+     */
+    String value();
+
+    /**
+     * @return the key of a nested object to write this property into. Properties sharing a parent
+     * are written together at the position of the first of them, and the parent is omitted when
+     * all of its properties are null.
+     */
+    String parent() default "";
+}
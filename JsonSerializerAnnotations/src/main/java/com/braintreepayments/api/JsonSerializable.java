@@ -0,0 +1,21 @@
+package com.braintreepayments.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@code <Class>JsonSerializer} in the package of the annotated class. Nested classes
+ * get a serializer named after their enclosing classes, e.g. {@code Outer_InnerJsonSerializer}.
+ * <p>
+ * The serializer writes the {@link JsonProperty} and {@link JsonUnwrapped} members of the class in
+ * declaration order. {@code write()} streams them to an {@code org.json.JSONStringer} and
+ * {@code toJsonObject()} puts them into a {@code org.json.JSONObject}. Both produce the output of a
+ * hand-written chain of {@code JSONObject#putOpt()} calls: null values are skipped and keys keep
+ * their declaration order.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface JsonSerializable {
+}
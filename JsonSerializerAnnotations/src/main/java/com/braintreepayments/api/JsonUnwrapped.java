@@ -0,0 +1,21 @@
+package com.braintreepayments.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Writes the properties of a {@link JsonSerializable} value into the enclosing object instead of
+ * nesting them under a key. Nothing is written when the value is null.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface JsonUnwrapped {
+
+    /**
+     * @return the name of a no-arg method of the annotated class that supplies the value, when it
+     * is not the field's getter or the annotated method itself
+     */
+    String accessor() default "";
+}
@@ -0,0 +1,400 @@
+package com.braintreepayments.api;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a streaming and a tree-based JSON serializer for each {@link JsonSerializable} class.
+ * See {@link JsonSerializable} for the generated API.
+ */
+public class JsonSerializerProcessor extends AbstractProcessor {
+
+    private static final String SERIALIZER_SUFFIX = "JsonSerializer";
+
+    private static final Set<String> VALUE_TYPES = new HashSet<>();
+
+    static {
+        Collections.addAll(VALUE_TYPES,
+                "java.lang.String",
+                "java.lang.Boolean",
+                "java.lang.Byte",
+                "java.lang.Short",
+                "java.lang.Integer",
+                "java.lang.Long",
+                "java.lang.Float",
+                "java.lang.Double",
+                "org.json.JSONObject",
+                "org.json.JSONArray");
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(JsonSerializable.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(JsonSerializable.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@JsonSerializable only applies to classes");
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            if (!isAccessible(type)) {
+                continue;
+            }
+
+            List<SerializedProperty> properties = readProperties(type);
+            if (properties != null) {
+                writeSerializer(type, properties);
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            error(type, "@JsonSerializable classes must not be private");
+            return false;
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            error(type, "Nested @JsonSerializable classes must be static");
+            return false;
+        }
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            error(type, "@JsonSerializable classes must be top-level or nested classes");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the properties of {@code type} in declaration order, or null when an error was reported
+     */
+    private List<SerializedProperty> readProperties(TypeElement type) {
+        List<SerializedProperty> properties = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        Set<String> parents = new HashSet<>();
+        Set<String> groupedKeys = new HashSet<>();
+        boolean valid = true;
+
+        for (Element member : type.getEnclosedElements()) {
+            JsonProperty property = member.getAnnotation(JsonProperty.class);
+            JsonUnwrapped unwrapped = member.getAnnotation(JsonUnwrapped.class);
+            if (property == null && unwrapped == null) {
+                continue;
+            }
+            if (property != null && unwrapped != null) {
+                error(member, "A member can't be both @JsonProperty and @JsonUnwrapped");
+                valid = false;
+                continue;
+            }
+
+            String accessorName = unwrapped == null ? "" : unwrapped.accessor();
+            Accessor accessor = findAccessor(type, member, accessorName);
+            if (accessor == null) {
+                valid = false;
+                continue;
+            }
+
+            SerializedProperty serializedProperty;
+            if (unwrapped != null) {
+                serializedProperty = unwrappedProperty(type, member, accessor);
+            } else {
+                serializedProperty = keyedProperty(type, member, property, accessor);
+                if (serializedProperty != null && !claimKey(member, serializedProperty, keys, parents, groupedKeys)) {
+                    valid = false;
+                }
+            }
+
+            if (serializedProperty == null) {
+                valid = false;
+            } else {
+                properties.add(serializedProperty);
+            }
+        }
+
+        return valid ? properties : null;
+    }
+
+    /**
+     * Records the key of {@code property}, reporting keys used twice in the same object.
+     *
+     * @param keys the keys, and parent keys, written directly into the serialized object
+     * @param parents the parent keys
+     * @param groupedKeys the keys written into parents, qualified by their parent
+     */
+    private boolean claimKey(Element member, SerializedProperty property, Set<String> keys,
+                             Set<String> parents, Set<String> groupedKeys) {
+        String parent = property.getParent();
+        if (parent.isEmpty()) {
+            if (!keys.add(property.getKey())) {
+                error(member, "Duplicate key \"" + property.getKey() + "\"");
+                return false;
+            }
+            return true;
+        }
+
+        if (!groupedKeys.add(parent + '\u0000' + property.getKey())) {
+            error(member, "Duplicate key \"" + property.getKey() + "\" in \"" + parent + "\"");
+            return false;
+        }
+        if (keys.add(parent)) {
+            parents.add(parent);
+        } else if (!parents.contains(parent)) {
+            error(member, "Duplicate key \"" + parent + "\"");
+            return false;
+        }
+        return true;
+    }
+
+    private SerializedProperty keyedProperty(TypeElement owner, Element member, JsonProperty property,
+                                             Accessor accessor) {
+        if (property.value().isEmpty()) {
+            error(member, "@JsonProperty keys must not be empty");
+            return null;
+        }
+
+        TypeMirror valueType = accessor.type;
+        String type = valueType.toString();
+        if (valueType.getKind().isPrimitive()) {
+            if (valueType.getKind() == TypeKind.CHAR) {
+                error(member, "char properties are not supported");
+                return null;
+            }
+            return new SerializedProperty(SerializedProperty.Kind.PRIMITIVE, property.value(),
+                    property.parent(), type, accessor.expression, null, null);
+        }
+
+        if (isValueType(valueType)) {
+            return new SerializedProperty(SerializedProperty.Kind.VALUE, property.value(),
+                    property.parent(), type, accessor.expression, null, null);
+        }
+
+        String serializer = serializerFor(owner, member, valueType);
+        if (serializer != null) {
+            return new SerializedProperty(SerializedProperty.Kind.SERIALIZABLE, property.value(),
+                    property.parent(), type, accessor.expression, serializer, null);
+        }
+
+        TypeMirror elementType = iterableElementType(valueType);
+        if (elementType != null) {
+            if (isValueType(elementType)) {
+                return new SerializedProperty(SerializedProperty.Kind.ITERABLE, property.value(),
+                        property.parent(), type, accessor.expression, null, elementType.toString());
+            }
+            String elementSerializer = serializerFor(owner, member, elementType);
+            if (elementSerializer != null) {
+                return new SerializedProperty(SerializedProperty.Kind.ITERABLE, property.value(),
+                        property.parent(), type, accessor.expression, elementSerializer,
+                        elementType.toString());
+            }
+        }
+
+        error(member, "Unsupported property type " + type);
+        return null;
+    }
+
+    private SerializedProperty unwrappedProperty(TypeElement owner, Element member, Accessor accessor) {
+        String serializer = serializerFor(owner, member, accessor.type);
+        if (serializer == null) {
+            error(member, "@JsonUnwrapped values must be @JsonSerializable, found " + accessor.type);
+            return null;
+        }
+        return new SerializedProperty(SerializedProperty.Kind.UNWRAPPED, null, "",
+                accessor.type.toString(), accessor.expression, serializer, null);
+    }
+
+    private Accessor findAccessor(TypeElement owner, Element member, String accessorName) {
+        if (member.getModifiers().contains(Modifier.STATIC)) {
+            error(member, "Static members can't be serialized");
+            return null;
+        }
+
+        if (!accessorName.isEmpty()) {
+            ExecutableElement method = findMethod(owner, accessorName);
+            if (method == null) {
+                error(member, "No accessible no-arg method \"" + accessorName + "\" in " + owner);
+                return null;
+            }
+            return new Accessor(method.getSimpleName() + "()", method.getReturnType());
+        }
+
+        if (member.getKind() == ElementKind.METHOD) {
+            ExecutableElement method = (ExecutableElement) member;
+            if (!isAccessor(method)) {
+                error(member, "Serialized methods must be non-private, take no arguments and return a value");
+                return null;
+            }
+            return new Accessor(method.getSimpleName() + "()", method.getReturnType());
+        }
+
+        String name = member.getSimpleName().toString();
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String getterName : new String[] {"get" + capitalized, "is" + capitalized}) {
+            ExecutableElement getter = findMethod(owner, getterName);
+            if (getter != null && processingEnv.getTypeUtils().isSameType(getter.getReturnType(), member.asType())) {
+                return new Accessor(getterName + "()", getter.getReturnType());
+            }
+        }
+
+        if (member.getModifiers().contains(Modifier.PRIVATE)) {
+            error(member, "Private fields need a getter named get" + capitalized + "() or is" + capitalized + "()");
+            return null;
+        }
+        return new Accessor(name, member.asType());
+    }
+
+    private ExecutableElement findMethod(TypeElement owner, String name) {
+        List<? extends Element> members = processingEnv.getElementUtils().getAllMembers(owner);
+        for (ExecutableElement method : ElementFilter.methodsIn(members)) {
+            if (method.getSimpleName().contentEquals(name) && isAccessor(method)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAccessor(ExecutableElement method) {
+        return method.getParameters().isEmpty()
+                && method.getReturnType().getKind() != TypeKind.VOID
+                && !method.getModifiers().contains(Modifier.PRIVATE)
+                && !method.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private static boolean isValueType(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && VALUE_TYPES.contains(erasedName(type));
+    }
+
+    /**
+     * @return the serializer class name for {@code type} if it is {@link JsonSerializable}, null otherwise
+     */
+    private String serializerFor(TypeElement owner, Element member, TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getAnnotation(JsonSerializable.class) == null) {
+            return null;
+        }
+
+        PackageElement ownerPackage = processingEnv.getElementUtils().getPackageOf(owner);
+        PackageElement valuePackage = processingEnv.getElementUtils().getPackageOf(element);
+        if (!ownerPackage.equals(valuePackage)) {
+            error(member, element + " must be in package " + ownerPackage.getQualifiedName());
+            return null;
+        }
+        return serializerName(element);
+    }
+
+    private TypeMirror iterableElementType(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        if ("java.lang.Iterable".equals(erasedName(type))) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+            if (arguments.size() != 1) {
+                return null;
+            }
+            TypeMirror argument = arguments.get(0);
+            if (argument.getKind() == TypeKind.WILDCARD) {
+                argument = ((WildcardType) argument).getExtendsBound();
+            }
+            return argument;
+        }
+        for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+            TypeMirror elementType = iterableElementType(supertype);
+            if (elementType != null) {
+                return elementType;
+            }
+        }
+        return null;
+    }
+
+    private static String erasedName(TypeMirror type) {
+        return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+    }
+
+    /**
+     * @return the simple name of the serializer generated for {@code type}, e.g.
+     * {@code Outer_InnerJsonSerializer} for a nested class
+     */
+    static String serializerName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append(SERIALIZER_SUFFIX).toString();
+    }
+
+    private void writeSerializer(TypeElement type, List<SerializedProperty> properties) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.getQualifiedName().toString();
+        String serializerName = serializerName(type);
+        String qualifiedName = packageName.isEmpty() ? serializerName : packageName + "." + serializerName;
+
+        String typeName = type.getQualifiedName().toString();
+        if (!packageName.isEmpty()) {
+            typeName = typeName.substring(packageName.length() + 1);
+        }
+
+        String source = new JsonSerializerWriter(packageName, serializerName, typeName, properties).write();
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            Writer writer = file.openWriter();
+            try {
+                writer.write(source);
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            error(type, "Unable to write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static class Accessor {
+
+        private final String expression;
+        private final TypeMirror type;
+
+        Accessor(String expression, TypeMirror type) {
+            this.expression = expression;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.braintreepayments.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the source of the serializer for one {@link JsonSerializable} class.
+ */
+class JsonSerializerWriter {
+
+    private static final String INDENT = "    ";
+
+    private final String packageName;
+    private final String serializerName;
+    private final String typeName;
+    private final List<List<SerializedProperty>> entries;
+
+    private final StringBuilder source = new StringBuilder();
+    private int indent;
+    private int locals;
+
+    /**
+     * @param typeName the name of the serialized class, relative to {@code packageName}
+     * @param properties the properties of the class in declaration order
+     */
+    JsonSerializerWriter(String packageName, String serializerName, String typeName,
+                         List<SerializedProperty> properties) {
+        this.packageName = packageName;
+        this.serializerName = serializerName;
+        this.typeName = typeName;
+        this.entries = groupByParent(properties);
+    }
+
+    /**
+     * Properties sharing a parent are written at the position of the first of them.
+     *
+     * @return the properties in writing order, each entry holding either a single property without
+     * a parent or all properties of one parent
+     */
+    private static List<List<SerializedProperty>> groupByParent(List<SerializedProperty> properties) {
+        List<List<SerializedProperty>> entries = new ArrayList<>();
+        Map<String, List<SerializedProperty>> parents = new LinkedHashMap<>();
+        for (SerializedProperty property : properties) {
+            String parent = property.getParent();
+            if (parent.isEmpty()) {
+                List<SerializedProperty> entry = new ArrayList<>();
+                entry.add(property);
+                entries.add(entry);
+            } else if (parents.containsKey(parent)) {
+                parents.get(parent).add(property);
+            } else {
+                List<SerializedProperty> entry = new ArrayList<>();
+                entry.add(property);
+                parents.put(parent, entry);
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    String write() {
+        if (!packageName.isEmpty()) {
+            line("package " + packageName + ";");
+            line("");
+        }
+        line("import org.json.JSONArray;");
+        line("import org.json.JSONException;");
+        line("import org.json.JSONObject;");
+        line("import org.json.JSONStringer;");
+        line("");
+        line("/**");
+        line(" * Serializes {@link " + typeName + "}. Generated by JsonSerializerProcessor, do not edit.");
+        line(" */");
+        line("@SuppressWarnings(\"unused\")");
+        open("final class " + serializerName + " {");
+        line("");
+        line("private " + serializerName + "() {");
+        line("}");
+        line("");
+
+        open("static String toJson(" + typeName + " object) throws JSONException {");
+        line("JSONStringer stringer = new JSONStringer();");
+        line("write(object, stringer);");
+        line("return stringer.toString();");
+        close("}");
+        line("");
+
+        open("static void write(" + typeName + " object, JSONStringer stringer) throws JSONException {");
+        line("stringer.object();");
+        line("writeFields(object, stringer);");
+        line("stringer.endObject();");
+        close("}");
+        line("");
+
+        open("static void writeFields(" + typeName + " object, JSONStringer stringer) throws JSONException {");
+        locals = 0;
+        for (List<SerializedProperty> entry : entries) {
+            if (entry.get(0).getParent().isEmpty()) {
+                writeProperty(entry.get(0), readProperty(entry.get(0)));
+            } else {
+                writeParent(entry);
+            }
+        }
+        close("}");
+        line("");
+
+        open("static JSONObject toJsonObject(" + typeName + " object) throws JSONException {");
+        line("JSONObject json = new JSONObject();");
+        line("putFields(object, json);");
+        line("return json;");
+        close("}");
+        line("");
+
+        open("static void putFields(" + typeName + " object, JSONObject json) throws JSONException {");
+        locals = 0;
+        for (List<SerializedProperty> entry : entries) {
+            if (entry.get(0).getParent().isEmpty()) {
+                putProperty(entry.get(0), readProperty(entry.get(0)), "json");
+            } else {
+                putParent(entry);
+            }
+        }
+        close("}");
+        close("}");
+        return source.toString();
+    }
+
+    /**
+     * Reads every property of a parent first, so the parent is only opened when one of them is set.
+     */
+    private void writeParent(List<SerializedProperty> properties) {
+        List<String> values = new ArrayList<>();
+        StringBuilder condition = new StringBuilder();
+        for (SerializedProperty property : properties) {
+            String value = readProperty(property);
+            values.add(value);
+            if (condition == null) {
+                continue;
+            }
+            if (!property.isNullable()) {
+                condition = null;
+                continue;
+            }
+            if (condition.length() > 0) {
+                condition.append(" || ");
+            }
+            condition.append(value).append(" != null");
+        }
+
+        if (condition != null) {
+            open("if (" + condition + ") {");
+        }
+        line("stringer.key(" + literal(properties.get(0).getParent()) + ").object();");
+        for (int i = 0; i < properties.size(); i++) {
+            writeProperty(properties.get(i), values.get(i));
+        }
+        line("stringer.endObject();");
+        if (condition != null) {
+            close("}");
+        }
+    }
+
+    private void putParent(List<SerializedProperty> properties) {
+        String parent = nextLocal("parent");
+        line("JSONObject " + parent + " = new JSONObject();");
+        for (SerializedProperty property : properties) {
+            putProperty(property, readProperty(property), parent);
+        }
+        open("if (" + parent + ".length() != 0) {");
+        line("json.put(" + literal(properties.get(0).getParent()) + ", " + parent + ");");
+        close("}");
+    }
+
+    /**
+     * @return the local holding the value of {@code property}
+     */
+    private String readProperty(SerializedProperty property) {
+        String value = nextLocal("value");
+        line(property.getType() + " " + value + " = object." + property.getAccessor() + ";");
+        return value;
+    }
+
+    private void writeProperty(SerializedProperty property, String value) {
+        if (property.isNullable()) {
+            open("if (" + value + " != null) {");
+        }
+
+        switch (property.getKind()) {
+            case PRIMITIVE:
+            case VALUE:
+                line("stringer.key(" + literal(property.getKey()) + ").value(" + value + ");");
+                break;
+            case SERIALIZABLE:
+                line("stringer.key(" + literal(property.getKey()) + ");");
+                line(property.getSerializer() + ".write(" + value + ", stringer);");
+                break;
+            case UNWRAPPED:
+                line(property.getSerializer() + ".writeFields(" + value + ", stringer);");
+                break;
+            case ITERABLE:
+                String element = nextLocal("element");
+                line("stringer.key(" + literal(property.getKey()) + ").array();");
+                open("for (" + property.getElementType() + " " + element + " : " + value + ") {");
+                if (property.getSerializer() == null) {
+                    line("stringer.value(" + element + ");");
+                } else {
+                    open("if (" + element + " == null) {");
+                    line("stringer.value(null);");
+                    close("} else {");
+                    indent++;
+                    line(property.getSerializer() + ".write(" + element + ", stringer);");
+                    close("}");
+                }
+                close("}");
+                line("stringer.endArray();");
+                break;
+        }
+
+        if (property.isNullable()) {
+            close("}");
+        }
+    }
+
+    private void putProperty(SerializedProperty property, String value, String json) {
+        if (property.isNullable()) {
+            open("if (" + value + " != null) {");
+        }
+
+        switch (property.getKind()) {
+            case PRIMITIVE:
+            case VALUE:
+                line(json + ".put(" + literal(property.getKey()) + ", " + value + ");");
+                break;
+            case SERIALIZABLE:
+                line(json + ".put(" + literal(property.getKey()) + ", "
+                        + property.getSerializer() + ".toJsonObject(" + value + "));");
+                break;
+            case UNWRAPPED:
+                line(property.getSerializer() + ".putFields(" + value + ", " + json + ");");
+                break;
+            case ITERABLE:
+                String array = nextLocal("array");
+                String element = nextLocal("element");
+                line("JSONArray " + array + " = new JSONArray();");
+                open("for (" + property.getElementType() + " " + element + " : " + value + ") {");
+                if (property.getSerializer() == null) {
+                    line(array + ".put(" + element + ");");
+                } else {
+                    line(array + ".put(" + element + " == null ? null : "
+                            + property.getSerializer() + ".toJsonObject(" + element + "));");
+                }
+                close("}");
+                line(json + ".put(" + literal(property.getKey()) + ", " + array + ");");
+                break;
+        }
+
+        if (property.isNullable()) {
+            close("}");
+        }
+    }
+
+    private String nextLocal(String prefix) {
+        return prefix + locals++;
+    }
+
+    private void open(String text) {
+        line(text);
+        indent++;
+    }
+
+    private void close(String text) {
+        indent--;
+        line(text);
+    }
+
+    private void line(String text) {
+        if (!text.isEmpty()) {
+            for (int i = 0; i < indent; i++) {
+                source.append(INDENT);
+            }
+            source.append(text);
+        }
+        source.append('\n');
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
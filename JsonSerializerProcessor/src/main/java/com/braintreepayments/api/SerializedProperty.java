@@ -0,0 +1,107 @@
+package com.braintreepayments.api;
+
+/**
+ * A member of a {@link JsonSerializable} class, as the generated serializer reads and writes it.
+ */
+class SerializedProperty {
+
+    enum Kind {
+        /**
+         * A primitive, written even when it holds its default value.
+         */
+        PRIMITIVE,
+
+        /**
+         * A String, boxed primitive, JSONObject or JSONArray, written as a single value.
+         */
+        VALUE,
+
+        /**
+         * A {@link JsonSerializable} class, written as a nested object.
+         */
+        SERIALIZABLE,
+
+        /**
+         * An {@link Iterable}, written as an array of values or nested objects.
+         */
+        ITERABLE,
+
+        /**
+         * A {@link JsonSerializable} class whose properties are written into the enclosing object.
+         */
+        UNWRAPPED
+    }
+
+    private final Kind kind;
+    private final String key;
+    private final String parent;
+    private final String type;
+    private final String accessor;
+    private final String serializer;
+    private final String elementType;
+
+    SerializedProperty(Kind kind, String key, String parent, String type, String accessor,
+                       String serializer, String elementType) {
+        this.kind = kind;
+        this.key = key;
+        this.parent = parent;
+        this.type = type;
+        this.accessor = accessor;
+        this.serializer = serializer;
+        this.elementType = elementType;
+    }
+
+    /**
+     * @return how the value is written
+     */
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the JSON key, or null for {@link Kind#UNWRAPPED} properties
+     */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the key of the nested object the property is written into, or an empty String
+     */
+    String getParent() {
+        return parent;
+    }
+
+    /**
+     * @return the source representation of the value's type
+     */
+    String getType() {
+        return type;
+    }
+
+    /**
+     * @return the expression, relative to the serialized object, that reads the value
+     */
+    String getAccessor() {
+        return accessor;
+    }
+
+    /**
+     * @return the serializer of the value, or of the elements of an {@link Kind#ITERABLE}, when
+     * they are {@link JsonSerializable}; null otherwise
+     */
+    String getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * @return the source representation of the element type of an {@link Kind#ITERABLE}
+     */
+    String getElementType() {
+        return elementType;
+    }
+
+    boolean isNullable() {
+        return kind != Kind.PRIMITIVE;
+    }
+}
@@ -0,0 +1,288 @@
+package com.braintreepayments.api;
+
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JsonSerializerProcessorTest {
+
+    private static final String ORDER_SOURCE = ""
+            + "package com.braintreepayments.api;\n"
+            + "\n"
+            + "import java.util.List;\n"
+            + "import org.json.JSONObject;\n"
+            + "\n"
+            + "@JsonSerializable\n"
+            + "class Order {\n"
+            + "    @JsonProperty(\"id\") private String id;\n"
+            + "    @JsonProperty(\"count\") private int count;\n"
+            + "    @JsonProperty(\"gift\") private Boolean gift;\n"
+            + "    @JsonProperty(value = \"line1\", parent = \"address\") private String line1;\n"
+            + "    @JsonProperty(value = \"city\", parent = \"address\") private String city;\n"
+            + "    @JsonProperty(\"note\") String note;\n"
+            + "    @JsonUnwrapped(accessor = \"getCustomerFields\") private String customerName;\n"
+            + "    @JsonProperty(\"items\") private List<Item> items;\n"
+            + "    @JsonProperty(\"tags\") private List<String> tags;\n"
+            + "    @JsonProperty(\"metadata\") private JSONObject metadata;\n"
+            + "\n"
+            + "    Order(String id, int count, String city, String customerName, List<Item> items,\n"
+            + "          List<String> tags, JSONObject metadata) {\n"
+            + "        this.id = id;\n"
+            + "        this.count = count;\n"
+            + "        this.city = city;\n"
+            + "        this.customerName = customerName;\n"
+            + "        this.items = items;\n"
+            + "        this.tags = tags;\n"
+            + "        this.metadata = metadata;\n"
+            + "    }\n"
+            + "\n"
+            + "    String getId() { return id; }\n"
+            + "    int getCount() { return count; }\n"
+            + "    Boolean getGift() { return gift; }\n"
+            + "    String getLine1() { return line1; }\n"
+            + "    String getCity() { return city; }\n"
+            + "    List<Item> getItems() { return items; }\n"
+            + "    List<String> getTags() { return tags; }\n"
+            + "    JSONObject getMetadata() { return metadata; }\n"
+            + "\n"
+            + "    Customer getCustomerFields() {\n"
+            + "        return customerName == null ? null : new Customer(customerName);\n"
+            + "    }\n"
+            + "\n"
+            + "    @JsonProperty(\"total\")\n"
+            + "    String getTotal() { return \"1.00\"; }\n"
+            + "\n"
+            + "    @JsonSerializable\n"
+            + "    static class Customer {\n"
+            + "        @JsonProperty(\"customer_name\") final String name;\n"
+            + "        Customer(String name) { this.name = name; }\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            + "@JsonSerializable\n"
+            + "class Item {\n"
+            + "    @JsonProperty(\"name\") private final String name;\n"
+            + "    Item(String name) { this.name = name; }\n"
+            + "    String getName() { return name; }\n"
+            + "}\n";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void toJson_writesPropertiesInDeclarationOrderAndSkipsNulls() throws Exception {
+        Compilation compilation = compile("Order", ORDER_SOURCE);
+        assertTrue(compilation.diagnostics.toString(), compilation.success);
+
+        Object order = compilation.newOrder("order-id", 2, "Chicago", "Ada",
+                Arrays.asList("pen", null), Arrays.asList("a", null), new JSONObject().put("k", "v"));
+
+        assertEquals("{\"id\":\"order-id\",\"count\":2,\"address\":{\"city\":\"Chicago\"},"
+                        + "\"customer_name\":\"Ada\",\"items\":[{\"name\":\"pen\"},null],"
+                        + "\"tags\":[\"a\",null],\"metadata\":{\"k\":\"v\"},\"total\":\"1.00\"}",
+                compilation.toJson(order));
+    }
+
+    @Test
+    public void toJson_omitsParentWhenAllOfItsPropertiesAreNull() throws Exception {
+        Compilation compilation = compile("Order", ORDER_SOURCE);
+        assertTrue(compilation.diagnostics.toString(), compilation.success);
+
+        Object order = compilation.newOrder(null, 0, null, null, null, null, null);
+
+        assertEquals("{\"count\":0,\"total\":\"1.00\"}", compilation.toJson(order));
+    }
+
+    @Test
+    public void toJsonObject_matchesToJson() throws Exception {
+        Compilation compilation = compile("Order", ORDER_SOURCE);
+        assertTrue(compilation.diagnostics.toString(), compilation.success);
+
+        Object order = compilation.newOrder("order-id", 2, "Chicago", "Ada",
+                Arrays.asList("pen", null), Arrays.asList("a", null), new JSONObject().put("k", "v"));
+        Object emptyOrder = compilation.newOrder(null, 0, null, null, null, null, null);
+
+        assertTrue(new JSONObject(compilation.toJson(order)).similar(compilation.toJsonObject(order)));
+        assertTrue(new JSONObject(compilation.toJson(emptyOrder)).similar(compilation.toJsonObject(emptyOrder)));
+    }
+
+    @Test
+    public void process_namesSerializersOfNestedClassesAfterTheirEnclosingClass() throws Exception {
+        Compilation compilation = compile("Order", ORDER_SOURCE);
+        assertTrue(compilation.diagnostics.toString(), compilation.success);
+
+        compilation.classLoader.loadClass("com.braintreepayments.api.Order_CustomerJsonSerializer");
+    }
+
+    @Test
+    public void process_reportsUnsupportedTypes() throws Exception {
+        Compilation compilation = compile("Event", ""
+                + "package com.braintreepayments.api;\n"
+                + "@JsonSerializable\n"
+                + "class Event {\n"
+                + "    @JsonProperty(\"date\") java.util.Date date;\n"
+                + "}\n");
+
+        assertFalse(compilation.success);
+        assertTrue(compilation.hasError("Unsupported property type java.util.Date"));
+    }
+
+    @Test
+    public void process_reportsPrivateFieldsWithoutGetter() throws Exception {
+        Compilation compilation = compile("Event", ""
+                + "package com.braintreepayments.api;\n"
+                + "@JsonSerializable\n"
+                + "class Event {\n"
+                + "    @JsonProperty(\"name\") private String name;\n"
+                + "}\n");
+
+        assertFalse(compilation.success);
+        assertTrue(compilation.hasError("Private fields need a getter named getName() or isName()"));
+    }
+
+    @Test
+    public void process_reportsDuplicateKeys() throws Exception {
+        Compilation compilation = compile("Event", ""
+                + "package com.braintreepayments.api;\n"
+                + "@JsonSerializable\n"
+                + "class Event {\n"
+                + "    @JsonProperty(\"name\") String name;\n"
+                + "    @JsonProperty(\"name\") String otherName;\n"
+                + "    @JsonProperty(value = \"city\", parent = \"name\") String city;\n"
+                + "}\n");
+
+        assertFalse(compilation.success);
+        assertEquals(2, compilation.errorCount("Duplicate key \"name\""));
+    }
+
+    @Test
+    public void process_reportsInnerClasses() throws Exception {
+        Compilation compilation = compile("Event", ""
+                + "package com.braintreepayments.api;\n"
+                + "class Event {\n"
+                + "    @JsonSerializable\n"
+                + "    class Details {\n"
+                + "        @JsonProperty(\"name\") String name;\n"
+                + "    }\n"
+                + "}\n");
+
+        assertFalse(compilation.success);
+        assertTrue(compilation.hasError("Nested @JsonSerializable classes must be static"));
+    }
+
+    private Compilation compile(String className, final String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        File output = temporaryFolder.newFolder();
+
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(output));
+        fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singleton(output));
+
+        JavaFileObject file = new SimpleJavaFileObject(
+                URI.create("string:///com/braintreepayments/api/" + className + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                Arrays.asList("-classpath", System.getProperty("java.class.path")),
+                null, Collections.singleton(file));
+        task.setProcessors(Collections.singleton(new JsonSerializerProcessor()));
+        boolean success = task.call();
+        fileManager.close();
+
+        ClassLoader classLoader = new URLClassLoader(new URL[] {output.toURI().toURL()}, getClass().getClassLoader());
+        return new Compilation(success, diagnostics.getDiagnostics(), classLoader);
+    }
+
+    private static class Compilation {
+
+        private final boolean success;
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+        private final ClassLoader classLoader;
+
+        Compilation(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, ClassLoader classLoader) {
+            this.success = success;
+            this.diagnostics = diagnostics;
+            this.classLoader = classLoader;
+        }
+
+        Object newOrder(String id, int count, String city, String customerName, List<String> itemNames,
+                        List<String> tags, JSONObject metadata) throws Exception {
+            Class<?> itemClass = classLoader.loadClass("com.braintreepayments.api.Item");
+            List<Object> items = null;
+            if (itemNames != null) {
+                items = new ArrayList<>();
+                for (String itemName : itemNames) {
+                    items.add(itemName == null ? null : newInstance(itemClass, itemName));
+                }
+            }
+            Class<?> orderClass = classLoader.loadClass("com.braintreepayments.api.Order");
+            return newInstance(orderClass, id, count, city, customerName, items, tags, metadata);
+        }
+
+        String toJson(Object value) throws Exception {
+            return (String) serializerMethod(value, "toJson").invoke(null, value);
+        }
+
+        JSONObject toJsonObject(Object value) throws Exception {
+            return (JSONObject) serializerMethod(value, "toJsonObject").invoke(null, value);
+        }
+
+        boolean hasError(String message) {
+            return errorCount(message) > 0;
+        }
+
+        int errorCount(String message) {
+            int count = 0;
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR
+                        && diagnostic.getMessage(null).equals(message)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private Method serializerMethod(Object value, String name) throws Exception {
+            Class<?> serializer = classLoader.loadClass(value.getClass().getName() + "JsonSerializer");
+            Method method = serializer.getDeclaredMethod(name, value.getClass());
+            method.setAccessible(true);
+            return method;
+        }
+
+        private static Object newInstance(Class<?> type, Object... arguments) throws Exception {
+            java.lang.reflect.Constructor<?> constructor = type.getDeclaredConstructors()[0];
+            constructor.setAccessible(true);
+            return constructor.newInstance(arguments);
+        }
+    }
+}
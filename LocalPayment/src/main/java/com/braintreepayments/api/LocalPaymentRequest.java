@@ -208,38 +208,151 @@ public class LocalPaymentRequest {
 
     public String build(String returnUrl, String cancelUrl) {
         try {
-            JSONObject payload = new JSONObject()
-                    .put(INTENT_KEY, "sale")
-                    .put(RETURN_URL_KEY, returnUrl)
-                    .put(CANCEL_URL_KEY, cancelUrl)
-                    .put(FUNDING_SOURCE_KEY, paymentType)
-                    .put(AMOUNT_KEY, amount)
-                    .put(CURRENCY_CODE_KEY, currencyCode)
-                    .put(GIVEN_NAME_KEY, givenName)
-                    .put(SURNAME_KEY, surname)
-                    .put(EMAIL_KEY, email)
-                    .put(PHONE_KEY, phone)
-                    .put(MERCHANT_ACCOUNT_ID_KEY, merchantAccountId)
-                    .putOpt(PAYMENT_TYPE_COUNTRY_CODE_KEY, paymentTypeCountryCode)
-                    .putOpt(BIC_KEY, bankIdentificationCode);
-
-            if (address != null) {
-                payload.put(STREET_ADDRESS_KEY, address.getStreetAddress())
-                        .put(EXTENDED_ADDRESS_KEY, address.getExtendedAddress())
-                        .put(LOCALITY_KEY, address.getLocality())
-                        .put(REGION_KEY, address.getRegion())
-                        .put(POSTAL_CODE_KEY, address.getPostalCode())
-                        .put(COUNTRY_CODE_KEY, address.getCountryCodeAlpha2());
-            }
-
-            JSONObject experienceProfile = new JSONObject();
-            experienceProfile.put(NO_SHIPPING_KEY, !shippingAddressRequired);
-            experienceProfile.put(DISPLAY_NAME_KEY, displayName);
-            payload.put(EXPERIENCE_PROFILE_KEY, experienceProfile);
-
-            return payload.toString();
+            return LocalPaymentRequest_RequestBodyJsonSerializer.toJson(
+                    new RequestBody(this, returnUrl, cancelUrl));
         } catch (JSONException ignored) {}
 
         return new JSONObject().toString();
     }
+
+    /**
+     * The body of the create payment resource request.
+     */
+    @JsonSerializable
+    static class RequestBody {
+
+        private final LocalPaymentRequest request;
+        private final String returnUrl;
+        private final String cancelUrl;
+
+        RequestBody(LocalPaymentRequest request, String returnUrl, String cancelUrl) {
+            this.request = request;
+            this.returnUrl = returnUrl;
+            this.cancelUrl = cancelUrl;
+        }
+
+        @JsonProperty(INTENT_KEY)
+        String getIntent() {
+            return "sale";
+        }
+
+        @JsonProperty(RETURN_URL_KEY)
+        String getReturnUrl() {
+            return returnUrl;
+        }
+
+        @JsonProperty(CANCEL_URL_KEY)
+        String getCancelUrl() {
+            return cancelUrl;
+        }
+
+        @JsonProperty(FUNDING_SOURCE_KEY)
+        String getPaymentType() {
+            return request.getPaymentType();
+        }
+
+        @JsonProperty(AMOUNT_KEY)
+        String getAmount() {
+            return request.getAmount();
+        }
+
+        @JsonProperty(CURRENCY_CODE_KEY)
+        String getCurrencyCode() {
+            return request.getCurrencyCode();
+        }
+
+        @JsonProperty(GIVEN_NAME_KEY)
+        String getGivenName() {
+            return request.getGivenName();
+        }
+
+        @JsonProperty(SURNAME_KEY)
+        String getSurname() {
+            return request.getSurname();
+        }
+
+        @JsonProperty(EMAIL_KEY)
+        String getEmail() {
+            return request.getEmail();
+        }
+
+        @JsonProperty(PHONE_KEY)
+        String getPhone() {
+            return request.getPhone();
+        }
+
+        @JsonProperty(MERCHANT_ACCOUNT_ID_KEY)
+        String getMerchantAccountId() {
+            return request.getMerchantAccountId();
+        }
+
+        @JsonProperty(PAYMENT_TYPE_COUNTRY_CODE_KEY)
+        String getPaymentTypeCountryCode() {
+            return request.getPaymentTypeCountryCode();
+        }
+
+        @JsonProperty(BIC_KEY)
+        String getBic() {
+            return request.getBic();
+        }
+
+        @JsonUnwrapped
+        AddressFields getAddress() {
+            PostalAddress address = request.getAddress();
+            return address == null ? null : new AddressFields(address);
+        }
+
+        @JsonProperty(value = NO_SHIPPING_KEY, parent = EXPERIENCE_PROFILE_KEY)
+        boolean isNoShipping() {
+            return !request.isShippingAddressRequired();
+        }
+
+        @JsonProperty(value = DISPLAY_NAME_KEY, parent = EXPERIENCE_PROFILE_KEY)
+        String getDisplayName() {
+            return request.getDisplayName();
+        }
+    }
+
+    /**
+     * The customer's address, written into the request body.
+     */
+    @JsonSerializable
+    static class AddressFields {
+
+        private final PostalAddress address;
+
+        AddressFields(PostalAddress address) {
+            this.address = address;
+        }
+
+        @JsonProperty(STREET_ADDRESS_KEY)
+        String getStreetAddress() {
+            return address.getStreetAddress();
+        }
+
+        @JsonProperty(EXTENDED_ADDRESS_KEY)
+        String getExtendedAddress() {
+            return address.getExtendedAddress();
+        }
+
+        @JsonProperty(LOCALITY_KEY)
+        String getLocality() {
+            return address.getLocality();
+        }
+
+        @JsonProperty(REGION_KEY)
+        String getRegion() {
+            return address.getRegion();
+        }
+
+        @JsonProperty(POSTAL_CODE_KEY)
+        String getPostalCode() {
+            return address.getPostalCode();
+        }
+
+        @JsonProperty(COUNTRY_CODE_KEY)
+        String getCountryCodeAlpha2() {
+            return address.getCountryCodeAlpha2();
+        }
+    }
 }
@@ -67,5 +67,64 @@ public class LocalPaymentRequestUnitTest {
         assertEquals(expectedCancelUrl, json.getString("cancelUrl"));
         assertEquals(expectedReturnUrl, json.getString("returnUrl"));
     }
-}
 
+    @Test
+    public void build_matchesJSONObjectOutputByteForByte() throws JSONException {
+        PostalAddress address = new PostalAddress();
+        address.setStreetAddress("1/2 \"Main\" St");
+        address.setCountryCodeAlpha2("NL");
+
+        LocalPaymentRequest request = new LocalPaymentRequest();
+        request.setAddress(address);
+        request.setAmount("1.10");
+        request.setGivenName("Jos\u00e9");
+        request.setPaymentType("ideal");
+        request.setShippingAddressRequired(true);
+        request.setDisplayName("display/name");
+
+        assertEquals(buildWithJSONObject(request, "http://success-url.com", "http://cancel-url.com"),
+                request.build("http://success-url.com", "http://cancel-url.com"));
+    }
+
+    @Test
+    public void build_withNoFieldsSet_matchesJSONObjectOutputByteForByte() throws JSONException {
+        LocalPaymentRequest request = new LocalPaymentRequest();
+
+        assertEquals(buildWithJSONObject(request, null, null), request.build(null, null));
+    }
+
+    // the JSONObject tree LocalPaymentRequest#build() used to serialize
+    private static String buildWithJSONObject(LocalPaymentRequest request, String returnUrl, String cancelUrl)
+            throws JSONException {
+        JSONObject payload = new JSONObject()
+                .put("intent", "sale")
+                .put("returnUrl", returnUrl)
+                .put("cancelUrl", cancelUrl)
+                .put("fundingSource", request.getPaymentType())
+                .put("amount", request.getAmount())
+                .put("currencyIsoCode", request.getCurrencyCode())
+                .put("firstName", request.getGivenName())
+                .put("lastName", request.getSurname())
+                .put("payerEmail", request.getEmail())
+                .put("phone", request.getPhone())
+                .put("merchantAccountId", request.getMerchantAccountId())
+                .putOpt("paymentTypeCountryCode", request.getPaymentTypeCountryCode())
+                .putOpt("bic", request.getBic());
+
+        PostalAddress address = request.getAddress();
+        if (address != null) {
+            payload.put("line1", address.getStreetAddress())
+                    .put("line2", address.getExtendedAddress())
+                    .put("city", address.getLocality())
+                    .put("state", address.getRegion())
+                    .put("postalCode", address.getPostalCode())
+                    .put("countryCode", address.getCountryCodeAlpha2());
+        }
+
+        JSONObject experienceProfile = new JSONObject();
+        experienceProfile.put("noShipping", !request.isShippingAddressRequired());
+        experienceProfile.put("brandName", request.getDisplayName());
+        payload.put("experienceProfile", experienceProfile);
+        return payload.toString();
+    }
+}
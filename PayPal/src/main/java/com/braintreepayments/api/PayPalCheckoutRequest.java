@@ -8,12 +8,11 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
-import org.json.JSONArray;
 import org.json.JSONException;
-import org.json.JSONObject;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.List;
 
 /**
  * Represents the parameters that are needed to start the PayPal Checkout flow
@@ -160,88 +159,8 @@ public class PayPalCheckoutRequest extends PayPalRequest implements Parcelable {
     }
 
     String createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws JSONException {
-        JSONObject parameters = new JSONObject()
-                .put(RETURN_URL_KEY, successUrl)
-                .put(CANCEL_URL_KEY, cancelUrl)
-                .put(OFFER_PAY_LATER_KEY, shouldOfferPayLater);
-
-        if (authorization instanceof ClientToken) {
-            parameters.put(AUTHORIZATION_FINGERPRINT_KEY, authorization.getBearer());
-        } else {
-            parameters.put(TOKENIZATION_KEY, authorization.getBearer());
-        }
-
-        if (shouldRequestBillingAgreement) {
-            parameters.put(REQUEST_BILLING_AGREEMENT_KEY, true);
-        }
-
-        String billingAgreementDescription = getBillingAgreementDescription();
-        if (shouldRequestBillingAgreement && !TextUtils.isEmpty(billingAgreementDescription)) {
-            JSONObject details = new JSONObject()
-                    .put(DESCRIPTION_KEY, billingAgreementDescription);
-            parameters.put(BILLING_AGREEMENT_DETAILS_KEY, details);
-        }
-
-        String currencyCode = getCurrencyCode();
-        if (currencyCode == null) {
-            currencyCode = configuration.getPayPalCurrencyIsoCode();
-        }
-
-        parameters
-                .put(AMOUNT_KEY, amount)
-                .put(CURRENCY_ISO_CODE_KEY, currencyCode)
-                .put(INTENT_KEY, intent);
-
-        if (!getLineItems().isEmpty()) {
-            JSONArray lineItems = new JSONArray();
-            for (PayPalLineItem lineItem : getLineItems()) {
-                lineItems.put(lineItem.toJson());
-            }
-            parameters.put(LINE_ITEMS_KEY, lineItems);
-        }
-
-        JSONObject experienceProfile = new JSONObject();
-        experienceProfile.put(NO_SHIPPING_KEY, !isShippingAddressRequired());
-        experienceProfile.put(LANDING_PAGE_TYPE_KEY, getLandingPageType());
-        String displayName = getDisplayName();
-        if (TextUtils.isEmpty(displayName)) {
-            displayName = configuration.getPayPalDisplayName();
-        }
-        experienceProfile.put(DISPLAY_NAME_KEY, displayName);
-
-        if (getLocaleCode() != null) {
-            experienceProfile.put(LOCALE_CODE_KEY, getLocaleCode());
-        }
-
-        if (getUserAction() != USER_ACTION_DEFAULT) {
-            experienceProfile.put(USER_ACTION_KEY, getUserAction());
-        }
-
-        if (getShippingAddressOverride() != null) {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, !isShippingAddressEditable());
-
-            PostalAddress shippingAddress = getShippingAddressOverride();
-            parameters.put(PostalAddressParser.LINE_1_KEY, shippingAddress.getStreetAddress());
-            parameters.put(PostalAddressParser.LINE_2_KEY, shippingAddress.getExtendedAddress());
-            parameters.put(PostalAddressParser.LOCALITY_KEY, shippingAddress.getLocality());
-            parameters.put(PostalAddressParser.REGION_KEY, shippingAddress.getRegion());
-            parameters.put(PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY, shippingAddress.getPostalCode());
-            parameters.put(PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY, shippingAddress.getCountryCodeAlpha2());
-            parameters.put(PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY, shippingAddress.getRecipientName());
-        } else {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, false);
-        }
-
-        if (getMerchantAccountId() != null) {
-            parameters.put(MERCHANT_ACCOUNT_ID, getMerchantAccountId());
-        }
-
-        if (getRiskCorrelationId() != null) {
-            parameters.put(CORRELATION_ID_KEY, getRiskCorrelationId());
-        }
-
-        parameters.put(EXPERIENCE_PROFILE_KEY, experienceProfile);
-        return parameters.toString();
+        return PayPalCheckoutRequest_RequestBodyJsonSerializer.toJson(
+                new RequestBody(this, configuration, authorization, successUrl, cancelUrl));
     }
 
     PayPalCheckoutRequest(Parcel in) {
@@ -281,4 +200,111 @@ public class PayPalCheckoutRequest extends PayPalRequest implements Parcelable {
             return new PayPalCheckoutRequest[size];
         }
     };
+
+    /**
+     * The body of the create payment resource request.
+     */
+    @JsonSerializable
+    static class RequestBody {
+
+        private final PayPalCheckoutRequest request;
+        private final Configuration configuration;
+        private final Authorization authorization;
+        private final String successUrl;
+        private final String cancelUrl;
+
+        RequestBody(PayPalCheckoutRequest request, Configuration configuration,
+                    Authorization authorization, String successUrl, String cancelUrl) {
+            this.request = request;
+            this.configuration = configuration;
+            this.authorization = authorization;
+            this.successUrl = successUrl;
+            this.cancelUrl = cancelUrl;
+        }
+
+        @JsonProperty(RETURN_URL_KEY)
+        String getReturnUrl() {
+            return successUrl;
+        }
+
+        @JsonProperty(CANCEL_URL_KEY)
+        String getCancelUrl() {
+            return cancelUrl;
+        }
+
+        @JsonProperty(OFFER_PAY_LATER_KEY)
+        boolean getShouldOfferPayLater() {
+            return request.getShouldOfferPayLater();
+        }
+
+        @JsonProperty(AUTHORIZATION_FINGERPRINT_KEY)
+        String getAuthorizationFingerprint() {
+            return authorization instanceof ClientToken ? authorization.getBearer() : null;
+        }
+
+        @JsonProperty(TOKENIZATION_KEY)
+        String getTokenizationKey() {
+            return authorization instanceof ClientToken ? null : authorization.getBearer();
+        }
+
+        @JsonProperty(REQUEST_BILLING_AGREEMENT_KEY)
+        Boolean getRequestBillingAgreement() {
+            return request.getShouldRequestBillingAgreement() ? Boolean.TRUE : null;
+        }
+
+        @JsonProperty(value = DESCRIPTION_KEY, parent = BILLING_AGREEMENT_DETAILS_KEY)
+        String getBillingAgreementDescription() {
+            String description = request.getBillingAgreementDescription();
+            if (request.getShouldRequestBillingAgreement() && !TextUtils.isEmpty(description)) {
+                return description;
+            }
+            return null;
+        }
+
+        @JsonProperty(AMOUNT_KEY)
+        String getAmount() {
+            return request.getAmount();
+        }
+
+        @JsonProperty(CURRENCY_ISO_CODE_KEY)
+        String getCurrencyCode() {
+            String currencyCode = request.getCurrencyCode();
+            if (currencyCode == null) {
+                currencyCode = configuration.getPayPalCurrencyIsoCode();
+            }
+            return currencyCode;
+        }
+
+        @JsonProperty(INTENT_KEY)
+        String getIntent() {
+            return request.getIntent();
+        }
+
+        @JsonProperty(LINE_ITEMS_KEY)
+        List<PayPalLineItem> getLineItems() {
+            return request.getLineItems().isEmpty() ? null : request.getLineItems();
+        }
+
+        @JsonUnwrapped
+        ShippingAddressFields getShippingAddress() {
+            PostalAddress shippingAddress = request.getShippingAddressOverride();
+            return shippingAddress == null ? null : new ShippingAddressFields(shippingAddress);
+        }
+
+        @JsonProperty(MERCHANT_ACCOUNT_ID)
+        String getMerchantAccountId() {
+            return request.getMerchantAccountId();
+        }
+
+        @JsonProperty(CORRELATION_ID_KEY)
+        String getRiskCorrelationId() {
+            return request.getRiskCorrelationId();
+        }
+
+        @JsonProperty(EXPERIENCE_PROFILE_KEY)
+        ExperienceProfile getExperienceProfile() {
+            String userAction = request.getUserAction() != USER_ACTION_DEFAULT ? request.getUserAction() : null;
+            return new ExperienceProfile(request, configuration, userAction);
+        }
+    }
 }
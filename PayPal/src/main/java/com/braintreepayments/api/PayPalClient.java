@@ -21,6 +21,10 @@ import org.json.JSONObject;
  */
 public class PayPalClient {
 
+    private static final String BROWSER_SWITCH_SPAN = "paypal.browser-switch";
+    private static final String SPAN_START_TIMESTAMP_KEY = "span-start-timestamp";
+    private static final String SPAN_START_ELAPSED_REALTIME_KEY = "span-start-elapsed-realtime";
+
     private final BraintreeClient braintreeClient;
     private final PayPalInternalClient internalPayPalClient;
 
@@ -79,7 +83,7 @@ public class PayPalClient {
      */
     public void setListener(PayPalListener listener) {
         this.listener = listener;
-        if (pendingBrowserSwitchResult != null) {
+        if (listener != null && pendingBrowserSwitchResult != null) {
             deliverBrowserSwitchResultToListener(pendingBrowserSwitchResult);
         }
     }
@@ -294,6 +298,11 @@ public class PayPalClient {
         metadata.put("source", "paypal-browser");
         metadata.put("intent", payPalResponse.getIntent());
 
+        // persist the span start so the span survives process death during the browser switch
+        AnalyticsSpan span = new AnalyticsSpan(BROWSER_SWITCH_SPAN);
+        metadata.put(SPAN_START_TIMESTAMP_KEY, span.getStartTimestamp());
+        metadata.put(SPAN_START_ELAPSED_REALTIME_KEY, span.getStartElapsedRealtime());
+
         BrowserSwitchOptions browserSwitchOptions = new BrowserSwitchOptions()
                 .requestCode(BraintreeRequestCodes.PAYPAL)
                 .url(Uri.parse(payPalResponse.getApprovalUrl()))
@@ -377,6 +386,7 @@ public class PayPalClient {
             case BrowserSwitchStatus.CANCELED:
                 callback.onResult(null, new UserCanceledException("User canceled PayPal."));
                 braintreeClient.sendAnalyticsEvent(String.format("%s.browser-switch.canceled", analyticsPrefix));
+                sendBrowserSwitchSpan(metadata, paymentType, "canceled");
                 break;
             case BrowserSwitchStatus.SUCCESS:
                 try {
@@ -409,20 +419,35 @@ public class PayPalClient {
                         });
 
                         braintreeClient.sendAnalyticsEvent(String.format("%s.browser-switch.succeeded", analyticsPrefix));
+                        sendBrowserSwitchSpan(metadata, paymentType, "succeeded");
                     } else {
                         callback.onResult(null, new BraintreeException("Unknown error"));
                     }
                 } catch (UserCanceledException e) {
                     callback.onResult(null, e);
                     braintreeClient.sendAnalyticsEvent(String.format("%s.browser-switch.canceled", analyticsPrefix));
+                    sendBrowserSwitchSpan(metadata, paymentType, "canceled");
                 } catch (JSONException | PayPalBrowserSwitchException e) {
                     callback.onResult(null, e);
                     braintreeClient.sendAnalyticsEvent(String.format("%s.browser-switch.failed", analyticsPrefix));
+                    sendBrowserSwitchSpan(metadata, paymentType, "failed");
                 }
                 break;
         }
     }
 
+    private void sendBrowserSwitchSpan(JSONObject metadata, String paymentType, String outcome) {
+        if (metadata == null || !metadata.has(SPAN_START_ELAPSED_REALTIME_KEY)) {
+            return;
+        }
+        AnalyticsSpan span = new AnalyticsSpan(BROWSER_SWITCH_SPAN,
+                metadata.optLong(SPAN_START_TIMESTAMP_KEY),
+                metadata.optLong(SPAN_START_ELAPSED_REALTIME_KEY));
+        span.setAttribute("payment_type", paymentType);
+        span.setAttribute("outcome", outcome);
+        braintreeClient.sendAnalyticsSpan(span);
+    }
+
     private JSONObject parseUrlResponseData(Uri uri, String successUrl, String approvalUrl, String tokenKey) throws JSONException, UserCanceledException, PayPalBrowserSwitchException {
         String status = uri.getLastPathSegment();
 
@@ -2,6 +2,7 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -287,4 +288,106 @@ public abstract class PayPalRequest implements Parcelable {
         parcel.writeString(riskCorrelationId);
         parcel.writeTypedList(lineItems);
     }
+
+    /**
+     * The experience_profile object of a PayPal request body.
+     */
+    @JsonSerializable
+    static class ExperienceProfile {
+
+        private final PayPalRequest request;
+        private final Configuration configuration;
+        private final String userAction;
+
+        /**
+         * @param userAction the user action to send, or null to omit it
+         */
+        ExperienceProfile(PayPalRequest request, Configuration configuration, String userAction) {
+            this.request = request;
+            this.configuration = configuration;
+            this.userAction = userAction;
+        }
+
+        @JsonProperty(NO_SHIPPING_KEY)
+        boolean isNoShipping() {
+            return !request.isShippingAddressRequired();
+        }
+
+        @JsonProperty(LANDING_PAGE_TYPE_KEY)
+        String getLandingPageType() {
+            return request.getLandingPageType();
+        }
+
+        @JsonProperty(DISPLAY_NAME_KEY)
+        String getDisplayName() {
+            String displayName = request.getDisplayName();
+            if (TextUtils.isEmpty(displayName)) {
+                displayName = configuration.getPayPalDisplayName();
+            }
+            return displayName;
+        }
+
+        @JsonProperty(LOCALE_CODE_KEY)
+        String getLocaleCode() {
+            return request.getLocaleCode();
+        }
+
+        @JsonProperty(USER_ACTION_KEY)
+        String getUserAction() {
+            return userAction;
+        }
+
+        @JsonProperty(ADDRESS_OVERRIDE_KEY)
+        boolean isAddressOverride() {
+            return request.getShippingAddressOverride() != null && !request.isShippingAddressEditable();
+        }
+    }
+
+    /**
+     * The shipping address override of a PayPal request body.
+     */
+    @JsonSerializable
+    static class ShippingAddressFields {
+
+        private final PostalAddress address;
+
+        ShippingAddressFields(PostalAddress address) {
+            this.address = address;
+        }
+
+        @JsonProperty(PostalAddressParser.LINE_1_KEY)
+        String getStreetAddress() {
+            return address.getStreetAddress();
+        }
+
+        @JsonProperty(PostalAddressParser.LINE_2_KEY)
+        String getExtendedAddress() {
+            return address.getExtendedAddress();
+        }
+
+        @JsonProperty(PostalAddressParser.LOCALITY_KEY)
+        String getLocality() {
+            return address.getLocality();
+        }
+
+        @JsonProperty(PostalAddressParser.REGION_KEY)
+        String getRegion() {
+            return address.getRegion();
+        }
+
+        @JsonProperty(PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY)
+        String getPostalCode() {
+            return address.getPostalCode();
+        }
+
+        @JsonProperty(PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY)
+        String getCountryCodeAlpha2() {
+            return address.getCountryCodeAlpha2();
+        }
+
+        @JsonProperty(PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY)
+        String getRecipientName() {
+            return address.getRecipientName();
+        }
+    }
 }
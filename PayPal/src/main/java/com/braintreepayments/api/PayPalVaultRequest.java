@@ -5,7 +5,6 @@ import android.os.Parcelable;
 import android.text.TextUtils;
 
 import org.json.JSONException;
-import org.json.JSONObject;
 
 /**
  * Represents the parameters that are needed to start the PayPal Vault flow
@@ -31,63 +30,8 @@ public class PayPalVaultRequest extends PayPalRequest implements Parcelable {
     }
 
     String createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws JSONException {
-        JSONObject parameters = new JSONObject()
-                .put(RETURN_URL_KEY, successUrl)
-                .put(CANCEL_URL_KEY, cancelUrl)
-                .put(OFFER_CREDIT_KEY, shouldOfferCredit);
-
-        if (authorization instanceof ClientToken) {
-            parameters.put(AUTHORIZATION_FINGERPRINT_KEY, authorization.getBearer());
-        } else {
-            parameters.put(TOKENIZATION_KEY, authorization.getBearer());
-        }
-
-        String billingAgreementDescription = getBillingAgreementDescription();
-        if (!TextUtils.isEmpty(billingAgreementDescription)) {
-            parameters.put(DESCRIPTION_KEY, billingAgreementDescription);
-        }
-
-        JSONObject experienceProfile = new JSONObject();
-        experienceProfile.put(NO_SHIPPING_KEY, !isShippingAddressRequired());
-        experienceProfile.put(LANDING_PAGE_TYPE_KEY, getLandingPageType());
-        String displayName = getDisplayName();
-        if (TextUtils.isEmpty(displayName)) {
-            displayName = configuration.getPayPalDisplayName();
-        }
-        experienceProfile.put(DISPLAY_NAME_KEY, displayName);
-
-        if (getLocaleCode() != null) {
-            experienceProfile.put(LOCALE_CODE_KEY, getLocaleCode());
-        }
-
-        if (getShippingAddressOverride() != null) {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, !isShippingAddressEditable());
-
-            JSONObject shippingAddressJson = new JSONObject();
-            parameters.put(SHIPPING_ADDRESS_KEY, shippingAddressJson);
-
-            PostalAddress shippingAddress = getShippingAddressOverride();
-            shippingAddressJson.put(PostalAddressParser.LINE_1_KEY, shippingAddress.getStreetAddress());
-            shippingAddressJson.put(PostalAddressParser.LINE_2_KEY, shippingAddress.getExtendedAddress());
-            shippingAddressJson.put(PostalAddressParser.LOCALITY_KEY, shippingAddress.getLocality());
-            shippingAddressJson.put(PostalAddressParser.REGION_KEY, shippingAddress.getRegion());
-            shippingAddressJson.put(PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY, shippingAddress.getPostalCode());
-            shippingAddressJson.put(PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY, shippingAddress.getCountryCodeAlpha2());
-            shippingAddressJson.put(PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY, shippingAddress.getRecipientName());
-        } else {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, false);
-        }
-
-        if (getMerchantAccountId() != null) {
-            parameters.put(MERCHANT_ACCOUNT_ID, getMerchantAccountId());
-        }
-
-        if (getRiskCorrelationId() != null) {
-            parameters.put(CORRELATION_ID_KEY, getRiskCorrelationId());
-        }
-
-        parameters.put(EXPERIENCE_PROFILE_KEY, experienceProfile);
-        return parameters.toString();
+        return PayPalVaultRequest_RequestBodyJsonSerializer.toJson(
+                new RequestBody(this, configuration, authorization, successUrl, cancelUrl));
     }
 
     PayPalVaultRequest(Parcel in) {
@@ -117,4 +61,78 @@ public class PayPalVaultRequest extends PayPalRequest implements Parcelable {
             return new PayPalVaultRequest[size];
         }
     };
+
+    /**
+     * The body of the setup billing agreement request.
+     */
+    @JsonSerializable
+    static class RequestBody {
+
+        private final PayPalVaultRequest request;
+        private final Configuration configuration;
+        private final Authorization authorization;
+        private final String successUrl;
+        private final String cancelUrl;
+
+        RequestBody(PayPalVaultRequest request, Configuration configuration,
+                    Authorization authorization, String successUrl, String cancelUrl) {
+            this.request = request;
+            this.configuration = configuration;
+            this.authorization = authorization;
+            this.successUrl = successUrl;
+            this.cancelUrl = cancelUrl;
+        }
+
+        @JsonProperty(RETURN_URL_KEY)
+        String getReturnUrl() {
+            return successUrl;
+        }
+
+        @JsonProperty(CANCEL_URL_KEY)
+        String getCancelUrl() {
+            return cancelUrl;
+        }
+
+        @JsonProperty(OFFER_CREDIT_KEY)
+        boolean getShouldOfferCredit() {
+            return request.getShouldOfferCredit();
+        }
+
+        @JsonProperty(AUTHORIZATION_FINGERPRINT_KEY)
+        String getAuthorizationFingerprint() {
+            return authorization instanceof ClientToken ? authorization.getBearer() : null;
+        }
+
+        @JsonProperty(TOKENIZATION_KEY)
+        String getTokenizationKey() {
+            return authorization instanceof ClientToken ? null : authorization.getBearer();
+        }
+
+        @JsonProperty(DESCRIPTION_KEY)
+        String getBillingAgreementDescription() {
+            String description = request.getBillingAgreementDescription();
+            return TextUtils.isEmpty(description) ? null : description;
+        }
+
+        @JsonProperty(SHIPPING_ADDRESS_KEY)
+        ShippingAddressFields getShippingAddress() {
+            PostalAddress shippingAddress = request.getShippingAddressOverride();
+            return shippingAddress == null ? null : new ShippingAddressFields(shippingAddress);
+        }
+
+        @JsonProperty(MERCHANT_ACCOUNT_ID)
+        String getMerchantAccountId() {
+            return request.getMerchantAccountId();
+        }
+
+        @JsonProperty(CORRELATION_ID_KEY)
+        String getRiskCorrelationId() {
+            return request.getRiskCorrelationId();
+        }
+
+        @JsonProperty(EXPERIENCE_PROFILE_KEY)
+        ExperienceProfile getExperienceProfile() {
+            return new ExperienceProfile(request, configuration, null);
+        }
+    }
 }
@@ -1,6 +1,11 @@
 package com.braintreepayments.api;
 
 import android.os.Parcel;
+import android.text.TextUtils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -113,4 +118,130 @@ public class PayPalCheckoutRequestUnitTest {
         assertEquals(1, result.getLineItems().size());
         assertEquals("An Item", result.getLineItems().get(0).getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void createRequestBody_matchesJSONObjectOutputByteForByte() throws JSONException {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL);
+        Authorization clientToken = Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN);
+
+        PostalAddress shippingAddress = new PostalAddress();
+        shippingAddress.setRecipientName("Jos\u00e9");
+        shippingAddress.setStreetAddress("1/2 \"Main\" St");
+        shippingAddress.setCountryCodeAlpha2("US");
+
+        ArrayList<PayPalLineItem> lineItems = new ArrayList<>();
+        lineItems.add(new PayPalLineItem(PayPalLineItem.KIND_DEBIT, "An Item", "1", "1.00"));
+
+        PayPalCheckoutRequest request = new PayPalCheckoutRequest("1.00");
+        request.setShouldRequestBillingAgreement(true);
+        request.setBillingAgreementDescription("billing/agreement");
+        request.setLineItems(lineItems);
+        request.setShippingAddressOverride(shippingAddress);
+        request.setUserAction(PayPalCheckoutRequest.USER_ACTION_COMMIT);
+        request.setLocaleCode("en_US");
+        request.setMerchantAccountId("merchant-account-id");
+
+        assertEquals(
+                createRequestBodyWithJSONObject(request, configuration, clientToken, "success/url", "cancel/url"),
+                request.createRequestBody(configuration, clientToken, "success/url", "cancel/url"));
+    }
+
+    @Test
+    public void createRequestBody_withDefaults_matchesJSONObjectOutputByteForByte() throws JSONException {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL);
+        Authorization tokenizationKey = Authorization.fromString(Fixtures.TOKENIZATION_KEY);
+
+        PayPalCheckoutRequest request = new PayPalCheckoutRequest("1.00");
+
+        assertEquals(
+                createRequestBodyWithJSONObject(request, configuration, tokenizationKey, "success", "cancel"),
+                request.createRequestBody(configuration, tokenizationKey, "success", "cancel"));
+    }
+
+    // the JSONObject tree PayPalCheckoutRequest#createRequestBody() used to build
+    private static String createRequestBodyWithJSONObject(PayPalCheckoutRequest request,
+            Configuration configuration, Authorization authorization, String successUrl, String cancelUrl)
+            throws JSONException {
+        JSONObject parameters = new JSONObject()
+                .put("return_url", successUrl)
+                .put("cancel_url", cancelUrl)
+                .put("offer_pay_later", request.getShouldOfferPayLater());
+
+        if (authorization instanceof ClientToken) {
+            parameters.put("authorization_fingerprint", authorization.getBearer());
+        } else {
+            parameters.put("client_key", authorization.getBearer());
+        }
+
+        if (request.getShouldRequestBillingAgreement()) {
+            parameters.put("request_billing_agreement", true);
+        }
+
+        String billingAgreementDescription = request.getBillingAgreementDescription();
+        if (request.getShouldRequestBillingAgreement() && !TextUtils.isEmpty(billingAgreementDescription)) {
+            parameters.put("billing_agreement_details",
+                    new JSONObject().put("description", billingAgreementDescription));
+        }
+
+        String currencyCode = request.getCurrencyCode();
+        if (currencyCode == null) {
+            currencyCode = configuration.getPayPalCurrencyIsoCode();
+        }
+
+        parameters
+                .put("amount", request.getAmount())
+                .put("currency_iso_code", currencyCode)
+                .put("intent", request.getIntent());
+
+        if (!request.getLineItems().isEmpty()) {
+            JSONArray lineItems = new JSONArray();
+            for (PayPalLineItem lineItem : request.getLineItems()) {
+                lineItems.put(lineItem.toJson());
+            }
+            parameters.put("line_items", lineItems);
+        }
+
+        JSONObject experienceProfile = new JSONObject();
+        experienceProfile.put("no_shipping", !request.isShippingAddressRequired());
+        experienceProfile.put("landing_page_type", request.getLandingPageType());
+        String displayName = request.getDisplayName();
+        if (TextUtils.isEmpty(displayName)) {
+            displayName = configuration.getPayPalDisplayName();
+        }
+        experienceProfile.put("brand_name", displayName);
+
+        if (request.getLocaleCode() != null) {
+            experienceProfile.put("locale_code", request.getLocaleCode());
+        }
+
+        if (request.getUserAction() != PayPalCheckoutRequest.USER_ACTION_DEFAULT) {
+            experienceProfile.put("user_action", request.getUserAction());
+        }
+
+        PostalAddress shippingAddress = request.getShippingAddressOverride();
+        if (shippingAddress != null) {
+            experienceProfile.put("address_override", !request.isShippingAddressEditable());
+
+            parameters.put("line1", shippingAddress.getStreetAddress());
+            parameters.put("line2", shippingAddress.getExtendedAddress());
+            parameters.put("city", shippingAddress.getLocality());
+            parameters.put("state", shippingAddress.getRegion());
+            parameters.put("postal_code", shippingAddress.getPostalCode());
+            parameters.put("country_code", shippingAddress.getCountryCodeAlpha2());
+            parameters.put("recipient_name", shippingAddress.getRecipientName());
+        } else {
+            experienceProfile.put("address_override", false);
+        }
+
+        if (request.getMerchantAccountId() != null) {
+            parameters.put("merchant_account_id", request.getMerchantAccountId());
+        }
+
+        if (request.getRiskCorrelationId() != null) {
+            parameters.put("correlation_id", request.getRiskCorrelationId());
+        }
+
+        parameters.put("experience_profile", experienceProfile);
+        return parameters.toString();
+    }
+}
@@ -30,5 +30,28 @@ public class PayPalLineItemUnitTest {
         assertEquals("1.50", json.getString("unit_tax_amount"));
         assertEquals("http://example.com", json.getString("url"));
     }
-}
 
+    @Test
+    public void toJson_matchesJSONObjectOutputByteForByte() throws JSONException {
+        PayPalLineItem item = new PayPalLineItem(PayPalLineItem.KIND_DEBIT, "An \"Item\"", "1", "2");
+        item.setDescription("Caf\u00e9\tlatte");
+        item.setUrl("http://example.com/item");
+
+        assertEquals(toJsonWithJSONObject(item), item.toJson().toString());
+        assertEquals(toJsonWithJSONObject(item), PayPalLineItemJsonSerializer.toJson(item));
+    }
+
+    // the JSONObject tree PayPalLineItem#toJson() used to build
+    private static String toJsonWithJSONObject(PayPalLineItem item) throws JSONException {
+        return new JSONObject()
+                .putOpt("description", item.getDescription())
+                .putOpt("kind", item.getKind())
+                .putOpt("name", item.getName())
+                .putOpt("product_code", item.getProductCode())
+                .putOpt("quantity", item.getQuantity())
+                .putOpt("unit_amount", item.getUnitAmount())
+                .putOpt("unit_tax_amount", item.getUnitTaxAmount())
+                .putOpt("url", item.getUrl())
+                .toString();
+    }
+}
@@ -1,6 +1,10 @@
 package com.braintreepayments.api;
 
 import android.os.Parcel;
+import android.text.TextUtils;
+
+import org.json.JSONException;
+import org.json.JSONObject;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -93,4 +97,100 @@ public class PayPalVaultRequestUnitTest {
         assertEquals(1, result.getLineItems().size());
         assertEquals("An Item", result.getLineItems().get(0).getName());
     }
+
+    @Test
+    public void createRequestBody_matchesJSONObjectOutputByteForByte() throws JSONException {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL);
+        Authorization clientToken = Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN);
+
+        PostalAddress shippingAddress = new PostalAddress();
+        shippingAddress.setRecipientName("Jos\u00e9");
+        shippingAddress.setStreetAddress("1/2 \"Main\" St");
+        shippingAddress.setCountryCodeAlpha2("US");
+
+        PayPalVaultRequest request = new PayPalVaultRequest();
+        request.setShouldOfferCredit(true);
+        request.setBillingAgreementDescription("billing/agreement");
+        request.setShippingAddressOverride(shippingAddress);
+        request.setShippingAddressEditable(true);
+        request.setDisplayName("display-name");
+        request.setRiskCorrelationId("correlation-id");
+
+        assertEquals(
+                createRequestBodyWithJSONObject(request, configuration, clientToken, "success/url", "cancel/url"),
+                request.createRequestBody(configuration, clientToken, "success/url", "cancel/url"));
+    }
+
+    @Test
+    public void createRequestBody_withDefaults_matchesJSONObjectOutputByteForByte() throws JSONException {
+        Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL);
+        Authorization tokenizationKey = Authorization.fromString(Fixtures.TOKENIZATION_KEY);
+
+        PayPalVaultRequest request = new PayPalVaultRequest();
+
+        assertEquals(
+                createRequestBodyWithJSONObject(request, configuration, tokenizationKey, "success", "cancel"),
+                request.createRequestBody(configuration, tokenizationKey, "success", "cancel"));
+    }
+
+    // the JSONObject tree PayPalVaultRequest#createRequestBody() used to build
+    private static String createRequestBodyWithJSONObject(PayPalVaultRequest request,
+            Configuration configuration, Authorization authorization, String successUrl, String cancelUrl)
+            throws JSONException {
+        JSONObject parameters = new JSONObject()
+                .put("return_url", successUrl)
+                .put("cancel_url", cancelUrl)
+                .put("offer_paypal_credit", request.getShouldOfferCredit());
+
+        if (authorization instanceof ClientToken) {
+            parameters.put("authorization_fingerprint", authorization.getBearer());
+        } else {
+            parameters.put("client_key", authorization.getBearer());
+        }
+
+        String billingAgreementDescription = request.getBillingAgreementDescription();
+        if (!TextUtils.isEmpty(billingAgreementDescription)) {
+            parameters.put("description", billingAgreementDescription);
+        }
+
+        JSONObject experienceProfile = new JSONObject();
+        experienceProfile.put("no_shipping", !request.isShippingAddressRequired());
+        experienceProfile.put("landing_page_type", request.getLandingPageType());
+        String displayName = request.getDisplayName();
+        if (TextUtils.isEmpty(displayName)) {
+            displayName = configuration.getPayPalDisplayName();
+        }
+        experienceProfile.put("brand_name", displayName);
+
+        if (request.getLocaleCode() != null) {
+            experienceProfile.put("locale_code", request.getLocaleCode());
+        }
+
+        PostalAddress shippingAddress = request.getShippingAddressOverride();
+        if (shippingAddress != null) {
+            experienceProfile.put("address_override", !request.isShippingAddressEditable());
+
+            parameters.put("shipping_address", new JSONObject()
+                    .put("line1", shippingAddress.getStreetAddress())
+                    .put("line2", shippingAddress.getExtendedAddress())
+                    .put("city", shippingAddress.getLocality())
+                    .put("state", shippingAddress.getRegion())
+                    .put("postal_code", shippingAddress.getPostalCode())
+                    .put("country_code", shippingAddress.getCountryCodeAlpha2())
+                    .put("recipient_name", shippingAddress.getRecipientName()));
+        } else {
+            experienceProfile.put("address_override", false);
+        }
+
+        if (request.getMerchantAccountId() != null) {
+            parameters.put("merchant_account_id", request.getMerchantAccountId());
+        }
+
+        if (request.getRiskCorrelationId() != null) {
+            parameters.put("correlation_id", request.getRiskCorrelationId());
+        }
+
+        parameters.put("experience_profile", experienceProfile);
+        return parameters.toString();
+    }
 }
@@ -11,9 +11,10 @@ class SEPADirectDebitApi {
 
     void createMandate(SEPADirectDebitRequest sepaDirectDebitRequest, String returnUrlScheme, final CreateMandateCallback callback) {
         try {
-            JSONObject jsonObject = buildCreateMandateRequest(sepaDirectDebitRequest, returnUrlScheme);
+            String requestBody = SEPADirectDebitApi_CreateMandateRequestJsonSerializer.toJson(
+                    new CreateMandateRequest(sepaDirectDebitRequest, returnUrlScheme));
             String url = "v1/sepa_debit";
-            braintreeClient.sendPOST(url, jsonObject.toString(), new HttpResponseCallback() {
+            braintreeClient.sendPOST(url, requestBody, new HttpResponseCallback() {
 
                 @Override
                 public void onResult(String responseBody, Exception httpError) {
@@ -88,41 +89,125 @@ class SEPADirectDebitApi {
         return new CreateMandateResult(approvalUrl, ibanLastFour, customerId, bankReferenceToken, mandateType);
     }
 
-    private JSONObject buildCreateMandateRequest(SEPADirectDebitRequest sepaDirectDebitRequest, String returnUrlScheme) throws JSONException {
-        JSONObject sepaDebitData = new JSONObject()
-            .putOpt("account_holder_name", sepaDirectDebitRequest.getAccountHolderName())
-            .putOpt("merchant_or_partner_customer_id", sepaDirectDebitRequest.getCustomerId())
-            .putOpt("iban", sepaDirectDebitRequest.getIban())
-            .putOpt("mandate_type", sepaDirectDebitRequest.getMandateType().toString());
+    /**
+     * The body of the create mandate request.
+     */
+    @JsonSerializable
+    static class CreateMandateRequest {
 
-        if (sepaDirectDebitRequest.getBillingAddress() != null) {
-            JSONObject billingAddress = new JSONObject()
-                    .putOpt("address_line_1", sepaDirectDebitRequest.getBillingAddress().getStreetAddress())
-                    .putOpt("address_line_2", sepaDirectDebitRequest.getBillingAddress().getExtendedAddress())
-                    .putOpt("admin_area_1", sepaDirectDebitRequest.getBillingAddress().getLocality())
-                    .putOpt("admin_area_2", sepaDirectDebitRequest.getBillingAddress().getRegion())
-                    .putOpt("postal_code", sepaDirectDebitRequest.getBillingAddress().getPostalCode())
-                    .putOpt("country_code", sepaDirectDebitRequest.getBillingAddress().getCountryCodeAlpha2());
+        private final SEPADirectDebitRequest request;
+        private final String returnUrlScheme;
 
-            sepaDebitData.put("billing_address", billingAddress);
+        CreateMandateRequest(SEPADirectDebitRequest request, String returnUrlScheme) {
+            this.request = request;
+            this.returnUrlScheme = returnUrlScheme;
         }
 
-        String cancelUrl = String.format("%s://sepa/cancel", returnUrlScheme);
-        String successUrl = String.format("%s://sepa/success", returnUrlScheme);
+        @JsonProperty("sepa_debit")
+        SEPADebit getSEPADebit() {
+            return new SEPADebit(request);
+        }
 
-        JSONObject requestData = new JSONObject()
-                .put("sepa_debit", sepaDebitData)
-                .put("cancel_url", cancelUrl)
-                .put("return_url", successUrl);
+        @JsonProperty("cancel_url")
+        String getCancelUrl() {
+            return String.format("%s://sepa/cancel", returnUrlScheme);
+        }
 
-        if (sepaDirectDebitRequest.getMerchantAccountId() != null) {
-            requestData.putOpt("merchant_account_id", sepaDirectDebitRequest.getMerchantAccountId());
+        @JsonProperty("return_url")
+        String getReturnUrl() {
+            return String.format("%s://sepa/success", returnUrlScheme);
         }
 
-        if (sepaDirectDebitRequest.getLocale() != null) {
-            requestData.putOpt("locale", sepaDirectDebitRequest.getLocale());
+        @JsonProperty("merchant_account_id")
+        String getMerchantAccountId() {
+            return request.getMerchantAccountId();
         }
 
-        return requestData;
+        @JsonProperty("locale")
+        String getLocale() {
+            return request.getLocale();
+        }
+    }
+
+    /**
+     * The sepa_debit object of the create mandate request.
+     */
+    @JsonSerializable
+    static class SEPADebit {
+
+        private final SEPADirectDebitRequest request;
+
+        SEPADebit(SEPADirectDebitRequest request) {
+            this.request = request;
+        }
+
+        @JsonProperty("account_holder_name")
+        String getAccountHolderName() {
+            return request.getAccountHolderName();
+        }
+
+        @JsonProperty("merchant_or_partner_customer_id")
+        String getCustomerId() {
+            return request.getCustomerId();
+        }
+
+        @JsonProperty("iban")
+        String getIban() {
+            return request.getIban();
+        }
+
+        @JsonProperty("mandate_type")
+        String getMandateType() {
+            return request.getMandateType().toString();
+        }
+
+        @JsonProperty("billing_address")
+        BillingAddress getBillingAddress() {
+            PostalAddress billingAddress = request.getBillingAddress();
+            return billingAddress == null ? null : new BillingAddress(billingAddress);
+        }
+    }
+
+    /**
+     * The billing_address object of the create mandate request.
+     */
+    @JsonSerializable
+    static class BillingAddress {
+
+        private final PostalAddress address;
+
+        BillingAddress(PostalAddress address) {
+            this.address = address;
+        }
+
+        @JsonProperty("address_line_1")
+        String getStreetAddress() {
+            return address.getStreetAddress();
+        }
+
+        @JsonProperty("address_line_2")
+        String getExtendedAddress() {
+            return address.getExtendedAddress();
+        }
+
+        @JsonProperty("admin_area_1")
+        String getLocality() {
+            return address.getLocality();
+        }
+
+        @JsonProperty("admin_area_2")
+        String getRegion() {
+            return address.getRegion();
+        }
+
+        @JsonProperty("postal_code")
+        String getPostalCode() {
+            return address.getPostalCode();
+        }
+
+        @JsonProperty("country_code")
+        String getCountryCodeAlpha2() {
+            return address.getCountryCodeAlpha2();
+        }
     }
 }
@@ -194,4 +194,64 @@ public class SEPADirectDebitApiUnitTest {
         assertEquals("09456", billingAddressJson.getString("postal_code"));
         assertEquals("FR", billingAddressJson.getString("country_code"));
     }
+
+    @Test
+    public void createMandate_matchesJSONObjectPOSTBodyByteForByte() throws JSONException {
+        BraintreeClient mockBraintreeClient = new MockBraintreeClientBuilder()
+                .returnUrlScheme("com.example")
+                .build();
+
+        SEPADirectDebitApi sut = new SEPADirectDebitApi(mockBraintreeClient);
+        sut.createMandate(request, returnUrl, createMandateCallback);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(mockBraintreeClient).sendPOST(eq("v1/sepa_debit"), captor.capture(), any(HttpResponseCallback.class));
+        assertEquals(buildCreateMandateRequestWithJSONObject(request, returnUrl), captor.getValue());
+    }
+
+    @Test
+    public void createMandate_withEmptyBillingAddress_matchesJSONObjectPOSTBodyByteForByte() throws JSONException {
+        BraintreeClient mockBraintreeClient = new MockBraintreeClientBuilder()
+                .returnUrlScheme("com.example")
+                .build();
+
+        SEPADirectDebitRequest request = new SEPADirectDebitRequest();
+        request.setBillingAddress(new PostalAddress());
+
+        SEPADirectDebitApi sut = new SEPADirectDebitApi(mockBraintreeClient);
+        sut.createMandate(request, returnUrl, createMandateCallback);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(mockBraintreeClient).sendPOST(eq("v1/sepa_debit"), captor.capture(), any(HttpResponseCallback.class));
+        assertEquals(buildCreateMandateRequestWithJSONObject(request, returnUrl), captor.getValue());
+    }
+
+    // the JSONObject tree SEPADirectDebitApi#createMandate() used to send
+    private static String buildCreateMandateRequestWithJSONObject(SEPADirectDebitRequest request,
+            String returnUrlScheme) throws JSONException {
+        JSONObject sepaDebitData = new JSONObject()
+                .putOpt("account_holder_name", request.getAccountHolderName())
+                .putOpt("merchant_or_partner_customer_id", request.getCustomerId())
+                .putOpt("iban", request.getIban())
+                .putOpt("mandate_type", request.getMandateType().toString());
+
+        PostalAddress billingAddress = request.getBillingAddress();
+        if (billingAddress != null) {
+            sepaDebitData.put("billing_address", new JSONObject()
+                    .putOpt("address_line_1", billingAddress.getStreetAddress())
+                    .putOpt("address_line_2", billingAddress.getExtendedAddress())
+                    .putOpt("admin_area_1", billingAddress.getLocality())
+                    .putOpt("admin_area_2", billingAddress.getRegion())
+                    .putOpt("postal_code", billingAddress.getPostalCode())
+                    .putOpt("country_code", billingAddress.getCountryCodeAlpha2()));
+        }
+
+        return new JSONObject()
+                .put("sepa_debit", sepaDebitData)
+                .put("cancel_url", String.format("%s://sepa/cancel", returnUrlScheme))
+                .put("return_url", String.format("%s://sepa/success", returnUrlScheme))
+                .putOpt("merchant_account_id", request.getMerchantAccountId())
+                .putOpt("locale", request.getLocale())
+                .toString();
+    }
 }
@@ -74,15 +74,6 @@ public class BraintreeSharedPreferencesTest {
         assertFalse(sut.containsKey("booleanKey"));
     }
 
-    @Test
-    public void putStringAndLong_storesStringInSharedPreferences() {
-        BraintreeSharedPreferences sut = new BraintreeSharedPreferences(workingSharedPreferences);
-        sut.putStringAndLong("stringKey", "stringValue", "longKey", 123L);
-
-        assertEquals("stringValue", sut.getString("stringKey", null));
-        assertEquals(123L, sut.getLong("longKey"));
-    }
-
     @Test
     public void getLong_returnsZeroByDefault() {
         BraintreeSharedPreferences sut = new BraintreeSharedPreferences(workingSharedPreferences);
@@ -95,7 +86,8 @@ public class BraintreeSharedPreferencesTest {
 
         sut.putString("stringKey", "stringValue");
         sut.putBoolean("booleanKey", true);
-        sut.putStringAndLong("stringKey2", "stringValue2", "longKey", 123L);
+        sut.putString("stringKey2", "stringValue2");
+        sut.putLong("longKey", 123L);
         sut.clearSharedPreferences();
 
         assertFalse(sut.containsKey("stringKey"));
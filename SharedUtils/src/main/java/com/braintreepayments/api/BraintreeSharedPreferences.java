@@ -5,11 +5,30 @@ import android.content.SharedPreferences;
 
 import androidx.annotation.VisibleForTesting;
 
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Key-value storage for the SDK. Values are read from memory after the store is first loaded, and
+ * writes made in quick succession are coalesced into a single write to the underlying
+ * {@link KeyValueStore} on a background thread.
+ */
 class BraintreeSharedPreferences {
 
     private static final String PREFERENCES_FILE_KEY =
         "com.braintreepayments.api.SHARED_PREFERENCES";
+    private static final String MAPPED_FILE_NAME =
+        "com.braintreepayments.api.SHARED_PREFERENCES.log";
+
     private static volatile BraintreeSharedPreferences INSTANCE;
+    private static volatile BraintreeSharedPreferences MAPPED_FILE_INSTANCE;
+    private static volatile Executor WRITE_EXECUTOR;
 
     static BraintreeSharedPreferences getInstance(Context context) {
         if (INSTANCE == null) {
@@ -24,50 +43,188 @@ class BraintreeSharedPreferences {
         return INSTANCE;
     }
 
+    /**
+     * @return an instance backed by a memory-mapped append log instead of
+     * {@link SharedPreferences}. Suited to keys that are rewritten often, since each write only
+     * appends the changed values instead of rewriting the whole file.
+     */
+    static BraintreeSharedPreferences getMappedFileInstance(Context context) {
+        if (MAPPED_FILE_INSTANCE == null) {
+            synchronized (BraintreeSharedPreferences.class) {
+                // double check that instance was not created in another thread
+                if (MAPPED_FILE_INSTANCE == null) {
+                    File file = new File(context.getApplicationContext().getFilesDir(),
+                            MAPPED_FILE_NAME);
+                    MAPPED_FILE_INSTANCE = new BraintreeSharedPreferences(
+                            new MappedFileKeyValueStore(file), getWriteExecutor());
+                }
+            }
+        }
+        return MAPPED_FILE_INSTANCE;
+    }
+
     private static SharedPreferences createSharedPreferencesInstance(Context context) {
         return context.getSharedPreferences(PREFERENCES_FILE_KEY, Context.MODE_PRIVATE);
     }
 
-    private final SharedPreferences sharedPreferences;
+    static Executor getWriteExecutor() {
+        if (WRITE_EXECUTOR == null) {
+            synchronized (BraintreeSharedPreferences.class) {
+                if (WRITE_EXECUTOR == null) {
+                    WRITE_EXECUTOR =
+                            Executors.newSingleThreadExecutor(new ThreadFactory() {
+                                @Override
+                                public Thread newThread(Runnable runnable) {
+                                    Thread thread =
+                                            new Thread(runnable, "braintree-shared-preferences");
+                                    thread.setDaemon(true);
+                                    return thread;
+                                }
+                            });
+                }
+            }
+        }
+        return WRITE_EXECUTOR;
+    }
+
+    private final KeyValueStore store;
+    private final Executor writeExecutor;
+
+    private final Object lock = new Object();
+
+    // guarded by lock
+    private Map<String, Object> values;
+    private Map<String, Object> pendingChanges = new HashMap<>();
+    private boolean pendingClear;
+    private boolean isFlushScheduled;
 
     @VisibleForTesting
     BraintreeSharedPreferences(SharedPreferences sharedPreferences) {
-        this.sharedPreferences = sharedPreferences;
+        this(new SharedPreferencesKeyValueStore(sharedPreferences), getWriteExecutor());
+    }
+
+    @VisibleForTesting
+    BraintreeSharedPreferences(KeyValueStore store, Executor writeExecutor) {
+        this.store = store;
+        this.writeExecutor = writeExecutor;
     }
 
     String getString(String key, String fallback) {
-        return sharedPreferences.getString(key, fallback);
+        Object value = get(key);
+        return (value instanceof String) ? (String) value : fallback;
     }
 
     void putString(String key, String value) {
-        sharedPreferences.edit().putString(key, value).apply();
+        Map<String, Object> changes = new HashMap<>();
+        changes.put(key, value);
+        put(changes);
     }
 
     boolean getBoolean(String key) {
-        return sharedPreferences.getBoolean(key, false);
+        Object value = get(key);
+        return (value instanceof Boolean) && (Boolean) value;
     }
 
     void putBoolean(String key, boolean value) {
-        sharedPreferences.edit().putBoolean(key, value).apply();
+        Map<String, Object> changes = new HashMap<>();
+        changes.put(key, value);
+        put(changes);
     }
 
     boolean containsKey(String key) {
-        return sharedPreferences.contains(key);
+        synchronized (lock) {
+            return getValues().containsKey(key);
+        }
     }
 
     long getLong(String key) {
-        return sharedPreferences.getLong(key, 0);
+        Object value = get(key);
+        return (value instanceof Long) ? (Long) value : 0;
+    }
+
+    void putLong(String key, long value) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put(key, value);
+        put(changes);
     }
 
-    void putStringAndLong(String stringKey, String stringValue, String longKey, long longValue) {
-        sharedPreferences
-                .edit()
-                .putString(stringKey, stringValue)
-                .putLong(longKey, longValue)
-                .apply();
+    void remove(String key) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put(key, null);
+        put(changes);
+    }
+
+    /**
+     * @return a snapshot of every key currently stored
+     */
+    Set<String> getKeys() {
+        synchronized (lock) {
+            return new HashSet<>(getValues().keySet());
+        }
     }
 
     void clearSharedPreferences() {
-        sharedPreferences.edit().clear().apply();
+        synchronized (lock) {
+            getValues().clear();
+            pendingChanges.clear();
+            pendingClear = true;
+            scheduleFlush();
+        }
+    }
+
+    private Object get(String key) {
+        synchronized (lock) {
+            return getValues().get(key);
+        }
+    }
+
+    private void put(Map<String, Object> changes) {
+        synchronized (lock) {
+            Map<String, Object> values = getValues();
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                if (change.getValue() == null) {
+                    values.remove(change.getKey());
+                } else {
+                    values.put(change.getKey(), change.getValue());
+                }
+            }
+            pendingChanges.putAll(changes);
+            scheduleFlush();
+        }
+    }
+
+    // must be called while holding lock
+    private Map<String, Object> getValues() {
+        if (values == null) {
+            values = new HashMap<>(store.load());
+        }
+        return values;
+    }
+
+    // must be called while holding lock
+    private void scheduleFlush() {
+        if (!isFlushScheduled) {
+            isFlushScheduled = true;
+            writeExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            });
+        }
+    }
+
+    private void flush() {
+        boolean clear;
+        Map<String, Object> changes;
+        synchronized (lock) {
+            // writes made before this runs are folded into this flush
+            clear = pendingClear;
+            changes = pendingChanges;
+            pendingClear = false;
+            pendingChanges = new HashMap<>();
+            isFlushScheduled = false;
+        }
+        store.write(clear, changes);
     }
 }
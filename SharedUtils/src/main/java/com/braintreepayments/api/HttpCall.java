@@ -0,0 +1,66 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.net.HttpURLConnection;
+
+/**
+ * A single attempt of a request made by {@link SynchronousHttpClient}, which
+ * {@link HttpRequestScope#cancel()} can abort from another thread.
+ */
+class HttpCall {
+
+    static final String CANCELED_MESSAGE = "The request was canceled.";
+
+    private static final ThreadLocal<HttpCall> CURRENT = new ThreadLocal<>();
+
+    private HttpURLConnection connection;
+    private boolean canceled;
+
+    /**
+     * @return the call {@link #execute(SynchronousHttpClient, HttpRequest)} is running on the
+     * calling thread, or null
+     */
+    @Nullable
+    static HttpCall current() {
+        return CURRENT.get();
+    }
+
+    String execute(SynchronousHttpClient syncHttpClient, HttpRequest request) throws Exception {
+        CURRENT.set(this);
+        try {
+            return syncHttpClient.request(request);
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Registers the connection of this call, so {@link #cancel()} can disconnect it.
+     *
+     * @throws HttpClientException if the call has already been canceled
+     */
+    synchronized void attach(HttpURLConnection connection) throws HttpClientException {
+        if (canceled) {
+            connection.disconnect();
+            throw new HttpClientException(CANCELED_MESSAGE);
+        }
+        this.connection = connection;
+    }
+
+    void cancel() {
+        HttpURLConnection connection;
+        synchronized (this) {
+            canceled = true;
+            connection = this.connection;
+            this.connection = null;
+        }
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    synchronized boolean isCanceled() {
+        return canceled;
+    }
+}
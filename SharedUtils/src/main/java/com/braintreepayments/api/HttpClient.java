@@ -1,6 +1,7 @@
 package com.braintreepayments.api;
 
 import androidx.annotation.IntDef;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import java.lang.annotation.Retention;
@@ -8,8 +9,9 @@ import java.lang.annotation.RetentionPolicy;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.SSLSocketFactory;
 
@@ -25,20 +27,40 @@ class HttpClient {
 
     static final int MAX_RETRY_ATTEMPTS = 3;
 
+    // process-wide count of asynchronous requests that have been scheduled but not yet completed
+    private static final AtomicInteger ACTIVE_REQUEST_COUNT = new AtomicInteger(0);
+
+    /**
+     * @return the number of asynchronous requests currently in flight across all
+     * {@link HttpClient} instances. Synchronous requests are not counted.
+     */
+    static int getActiveRequestCount() {
+        return ACTIVE_REQUEST_COUNT.get();
+    }
+
     private final Scheduler scheduler;
     private final SynchronousHttpClient syncHttpClient;
 
     private final Map<URL, Integer> retryCountMap;
 
     protected HttpClient(SSLSocketFactory socketFactory, HttpResponseParser httpResponseParser) {
-        this(new SynchronousHttpClient(socketFactory, httpResponseParser), new ThreadScheduler());
+        this(socketFactory, httpResponseParser, new ThreadScheduler());
+    }
+
+    /**
+     * Create an {@link HttpClient} that runs requests on a {@link Scheduler} shared with other
+     * clients. Clients that also share an {@link SSLSocketFactory} can reuse pooled connections.
+     */
+    HttpClient(SSLSocketFactory socketFactory, HttpResponseParser httpResponseParser, Scheduler scheduler) {
+        this(new SynchronousHttpClient(socketFactory, httpResponseParser), scheduler);
     }
 
     @VisibleForTesting
     HttpClient(SynchronousHttpClient syncHttpClient, Scheduler scheduler) {
         this.syncHttpClient = syncHttpClient;
         this.scheduler = scheduler;
-        this.retryCountMap = new HashMap<>();
+        // instances may be shared by several BraintreeClients, and retries run on background threads
+        this.retryCountMap = new ConcurrentHashMap<>();
     }
 
     String sendRequest(HttpRequest request) throws Exception {
@@ -49,34 +71,61 @@ class HttpClient {
         sendRequest(request, HttpClient.NO_RETRY, callback);
     }
 
+    /**
+     * Send a request asynchronously. A request sent while an {@link HttpRequestScope} is current
+     * joins that scope, and the scope is current again while {@code callback} is notified.
+     */
     void sendRequest(HttpRequest request, @RetryStrategy int retryStrategy, HttpResponseCallback callback) {
-        scheduleRequest(request, retryStrategy, callback);
+        scheduleRequest(request, retryStrategy, callback, HttpRequestScope.current());
     }
 
-    private void scheduleRequest(final HttpRequest request, @RetryStrategy final int retryStrategy, final HttpResponseCallback callback) {
+    private void scheduleRequest(final HttpRequest request, @RetryStrategy final int retryStrategy,
+                                 final HttpResponseCallback callback, @Nullable final HttpRequestScope scope) {
         resetRetryCount(request);
 
+        if (scope != null && scope.isCanceled()) {
+            // fail rather than drop the callback, callers may be waiting on a shared result
+            notifyErrorOnMainThread(callback, new HttpClientException(HttpCall.CANCELED_MESSAGE), scope);
+            return;
+        }
+
+        final HttpCall call = new HttpCall();
+        ACTIVE_REQUEST_COUNT.incrementAndGet();
         scheduler.runOnBackground(new Runnable() {
             @Override
             public void run() {
+                if (scope != null) {
+                    scope.add(call);
+                }
                 try {
-                    String responseBody = syncHttpClient.request(request);
-                    notifySuccessOnMainThread(callback, responseBody);
+                    String responseBody = call.execute(syncHttpClient, request);
+                    notifySuccessOnMainThread(callback, responseBody, scope);
                 } catch (Exception e) {
+                    if (call.isCanceled()) {
+                        HttpClientException canceledException = new HttpClientException(HttpCall.CANCELED_MESSAGE);
+                        notifyErrorOnMainThread(callback, canceledException, scope);
+                        return;
+                    }
                     switch (retryStrategy) {
                         case HttpClient.NO_RETRY:
-                            notifyErrorOnMainThread(callback, e);
+                            notifyErrorOnMainThread(callback, e, scope);
                             break;
                         case HttpClient.RETRY_MAX_3_TIMES:
-                            retryGet(request, retryStrategy, callback);
+                            retryGet(request, retryStrategy, callback, scope);
                             break;
                     }
+                } finally {
+                    if (scope != null) {
+                        scope.remove(call);
+                    }
+                    ACTIVE_REQUEST_COUNT.decrementAndGet();
                 }
             }
         });
     }
 
-    private void retryGet(final HttpRequest request, @RetryStrategy final int retryStrategy, final HttpResponseCallback callback) {
+    private void retryGet(final HttpRequest request, @RetryStrategy final int retryStrategy,
+                          final HttpResponseCallback callback, @Nullable final HttpRequestScope scope) {
         URL url = null;
         try {
             url = request.getURL();
@@ -86,12 +135,12 @@ class HttpClient {
             int retryCount = getNumRetriesSoFar(url);
             boolean shouldRetry = ((retryCount + 1) < MAX_RETRY_ATTEMPTS);
             if (shouldRetry) {
-                scheduleRequest(request, retryStrategy, callback);
+                scheduleRequest(request, retryStrategy, callback, scope);
                 retryCountMap.put(url, retryCount + 1);
             } else {
                 String message = "Retry limit has been exceeded. Try again later.";
                 HttpClientException retryLimitException = new HttpClientException(message);
-                notifyErrorOnMainThread(callback, retryLimitException);
+                notifyErrorOnMainThread(callback, retryLimitException, scope);
             }
         }
     }
@@ -115,23 +164,35 @@ class HttpClient {
         }
     }
 
-    private void notifySuccessOnMainThread(final HttpResponseCallback callback, final String responseBody) {
+    private void notifySuccessOnMainThread(final HttpResponseCallback callback, final String responseBody,
+                                           @Nullable final HttpRequestScope scope) {
         if (callback != null) {
             scheduler.runOnMain(new Runnable() {
                 @Override
                 public void run() {
-                    callback.onResult(responseBody, null);
+                    HttpRequestScope.runIn(scope, new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.onResult(responseBody, null);
+                        }
+                    });
                 }
             });
         }
     }
 
-    private void notifyErrorOnMainThread(final HttpResponseCallback callback, final Exception e) {
+    private void notifyErrorOnMainThread(final HttpResponseCallback callback, final Exception e,
+                                         @Nullable final HttpRequestScope scope) {
         if (callback != null) {
             scheduler.runOnMain(new Runnable() {
                 @Override
                 public void run() {
-                    callback.onResult(null, e);
+                    HttpRequestScope.runIn(scope, new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.onResult(null, e);
+                        }
+                    });
                 }
             });
         }
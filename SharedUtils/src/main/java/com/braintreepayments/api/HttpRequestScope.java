@@ -0,0 +1,85 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Groups the asynchronous requests of one flow so they can be canceled together.
+ *
+ * {@link HttpClient} joins requests sent while a scope is current on the calling thread, and makes
+ * the scope current again while it notifies their callbacks, so follow-up requests join it too.
+ */
+class HttpRequestScope {
+
+    private static final ThreadLocal<HttpRequestScope> CURRENT = new ThreadLocal<>();
+
+    private final Set<HttpCall> calls = new LinkedHashSet<>();
+    private boolean canceled;
+
+    /**
+     * @return the scope current on the calling thread, or null
+     */
+    @Nullable
+    static HttpRequestScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs {@code runnable} with {@code scope} current on the calling thread. A null scope runs it
+     * outside of any scope, e.g. for requests shared by several callers.
+     */
+    static void runIn(@Nullable HttpRequestScope scope, Runnable runnable) {
+        HttpRequestScope previous = CURRENT.get();
+        CURRENT.set(scope);
+        try {
+            runnable.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Disconnects the requests in flight and fails every request sent in this scope afterwards.
+     * Calling it more than once has no effect.
+     */
+    void cancel() {
+        List<HttpCall> inFlight;
+        synchronized (this) {
+            if (canceled) {
+                return;
+            }
+            canceled = true;
+            inFlight = new ArrayList<>(calls);
+            calls.clear();
+        }
+        for (HttpCall call : inFlight) {
+            call.cancel();
+        }
+    }
+
+    synchronized boolean isCanceled() {
+        return canceled;
+    }
+
+    /**
+     * @return false if the scope is already canceled, in which case {@code call} is canceled too
+     */
+    boolean add(HttpCall call) {
+        synchronized (this) {
+            if (!canceled) {
+                calls.add(call);
+                return true;
+            }
+        }
+        call.cancel();
+        return false;
+    }
+
+    synchronized void remove(HttpCall call) {
+        calls.remove(call);
+    }
+}
@@ -0,0 +1,23 @@
+package com.braintreepayments.api;
+
+import java.util.Map;
+
+/**
+ * Persistent storage behind {@link BraintreeSharedPreferences}. Values are {@link String},
+ * {@link Boolean} or {@link Long}.
+ */
+interface KeyValueStore {
+
+    /**
+     * @return every value in the store. Called once, before the first read or write.
+     */
+    Map<String, Object> load();
+
+    /**
+     * Persist a batch of changes. Called from a single background thread.
+     *
+     * @param clear   true if every existing value should be removed before applying changes
+     * @param changes the values to write, where a null value removes the key
+     */
+    void write(boolean clear, Map<String, Object> changes);
+}
@@ -0,0 +1,247 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link KeyValueStore} that appends each change to a memory-mapped log file. Appending a
+ * record only copies bytes into the mapping, so frequently written keys don't pay for rewriting
+ * the whole store. When the log fills up it is compacted into a new file holding only the
+ * current values, sized so the free space left after compaction is a multiple of the live data.
+ */
+class MappedFileKeyValueStore implements KeyValueStore {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // one page; a smaller mapping still occupies a full page
+    @VisibleForTesting
+    static final int MIN_SIZE_BYTES = 4 * 1024;
+
+    // free space left after compaction, as a multiple of the live data. A store whose values are
+    // all rewritten on every write still gets this many writes between compactions.
+    @VisibleForTesting
+    static final int FREE_SPACE_RATIO = 2;
+
+    // a zero type byte marks the end of the log
+    private static final byte TYPE_END = 0;
+    private static final byte TYPE_REMOVE = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte TYPE_BOOLEAN = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_CLEAR = 5;
+
+    private final File file;
+    private final Map<String, Object> values = new HashMap<>();
+
+    private MappedByteBuffer buffer;
+
+    MappedFileKeyValueStore(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized Map<String, Object> load() {
+        values.clear();
+        if (file.length() == 0) {
+            // the first write compacts, which sizes the log from the data being written
+            buffer = null;
+            return new HashMap<>();
+        }
+        try {
+            buffer = map(file, file.length());
+            readLog();
+        } catch (IOException e) {
+            // start empty; the next write rewrites the file
+            buffer = null;
+        }
+        return new HashMap<>(values);
+    }
+
+    @Override
+    public synchronized void write(boolean clear, Map<String, Object> changes) {
+        if (clear) {
+            values.clear();
+        }
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+                values.remove(change.getKey());
+            } else {
+                values.put(change.getKey(), change.getValue());
+            }
+        }
+
+        try {
+            boolean appended = buffer != null && (!clear || append(TYPE_CLEAR, "", null));
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                if (!appended) {
+                    break;
+                }
+                appended = append(typeOf(change.getValue()), change.getKey(), change.getValue());
+            }
+            if (!appended) {
+                compact();
+            }
+        } catch (IOException ignored) {
+            // values stay in memory and are written by the next successful compaction
+            buffer = null;
+        }
+    }
+
+    private void readLog() {
+        try {
+            while (buffer.remaining() > 0) {
+                int recordStart = buffer.position();
+                byte type = buffer.get();
+                if (type == TYPE_END) {
+                    buffer.position(recordStart);
+                    return;
+                }
+                String key = readString();
+                switch (type) {
+                    case TYPE_CLEAR:
+                        values.clear();
+                        break;
+                    case TYPE_REMOVE:
+                        values.remove(key);
+                        break;
+                    case TYPE_STRING:
+                        values.put(key, readString());
+                        break;
+                    case TYPE_BOOLEAN:
+                        values.put(key, buffer.get() != 0);
+                        break;
+                    case TYPE_LONG:
+                        values.put(key, buffer.getLong());
+                        break;
+                    default:
+                        // unknown record; treat the rest of the log as unwritten
+                        buffer.position(recordStart);
+                        return;
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            // a truncated record ends the log
+            buffer.position(buffer.limit());
+        }
+    }
+
+    private String readString() {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * @return false if the record doesn't fit in the remaining space
+     */
+    private boolean append(byte type, String key, Object value) {
+        byte[] record = encode(type, key, value);
+        // leave room for the end marker
+        if (record.length + 1 > buffer.remaining()) {
+            return false;
+        }
+        int recordStart = buffer.position();
+        // write the type byte last so a partially written record reads as the end of the log
+        buffer.position(recordStart + 1);
+        buffer.put(record, 1, record.length - 1);
+        buffer.put(recordStart, type);
+        return true;
+    }
+
+    private void compact() throws IOException {
+        ByteBuffer snapshot = ByteBuffer.allocate(encodedSize());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            snapshot.put(encode(typeOf(entry.getValue()), entry.getKey(), entry.getValue()));
+        }
+
+        // leave room for the end marker
+        int size = Math.max(MIN_SIZE_BYTES, snapshot.capacity() * (1 + FREE_SPACE_RATIO) + 1);
+
+        File compacted = new File(file.getPath() + ".tmp");
+        if (compacted.exists() && !compacted.delete()) {
+            throw new IOException("Unable to replace " + compacted);
+        }
+        MappedByteBuffer compactedBuffer = map(compacted, size);
+        compactedBuffer.put(snapshot.array());
+        compactedBuffer.force();
+        if (!compacted.renameTo(file)) {
+            throw new IOException("Unable to replace " + file);
+        }
+        buffer = compactedBuffer;
+    }
+
+    private int encodedSize() {
+        int size = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            size += encode(typeOf(entry.getValue()), entry.getKey(), entry.getValue()).length;
+        }
+        return size;
+    }
+
+    private static byte typeOf(Object value) {
+        if (value instanceof String) {
+            return TYPE_STRING;
+        } else if (value instanceof Boolean) {
+            return TYPE_BOOLEAN;
+        } else if (value instanceof Long) {
+            return TYPE_LONG;
+        }
+        return TYPE_REMOVE;
+    }
+
+    private static byte[] encode(byte type, String key, Object value) {
+        byte[] keyBytes = key.getBytes(UTF_8);
+        byte[] stringBytes = type == TYPE_STRING ? ((String) value).getBytes(UTF_8) : null;
+
+        int valueSize;
+        switch (type) {
+            case TYPE_STRING:
+                valueSize = 4 + stringBytes.length;
+                break;
+            case TYPE_BOOLEAN:
+                valueSize = 1;
+                break;
+            case TYPE_LONG:
+                valueSize = 8;
+                break;
+            default:
+                valueSize = 0;
+                break;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(1 + 4 + keyBytes.length + valueSize);
+        record.put(type).putInt(keyBytes.length).put(keyBytes);
+        if (type == TYPE_STRING) {
+            record.putInt(stringBytes.length).put(stringBytes);
+        } else if (type == TYPE_BOOLEAN) {
+            record.put((byte) (((Boolean) value) ? 1 : 0));
+        } else if (type == TYPE_LONG) {
+            record.putLong((Long) value);
+        }
+        return record.array();
+    }
+
+    private static MappedByteBuffer map(File file, long size) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            // the mapping stays valid after the channel is closed
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.braintreepayments.api;
+
+import android.content.SharedPreferences;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link KeyValueStore} backed by Android {@link SharedPreferences}.
+ */
+class SharedPreferencesKeyValueStore implements KeyValueStore {
+
+    private final SharedPreferences sharedPreferences;
+
+    SharedPreferencesKeyValueStore(SharedPreferences sharedPreferences) {
+        this.sharedPreferences = sharedPreferences;
+    }
+
+    @Override
+    public Map<String, Object> load() {
+        return new HashMap<String, Object>(sharedPreferences.getAll());
+    }
+
+    @Override
+    public void write(boolean clear, Map<String, Object> changes) {
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        if (clear) {
+            editor.clear();
+        }
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String key = change.getKey();
+            Object value = change.getValue();
+            if (value instanceof String) {
+                editor.putString(key, (String) value);
+            } else if (value instanceof Boolean) {
+                editor.putBoolean(key, (Boolean) value);
+            } else if (value instanceof Long) {
+                editor.putLong(key, (Long) value);
+            } else {
+                editor.remove(key);
+            }
+        }
+        // writes already run on a background thread, so commit synchronously instead of queueing
+        // an apply() that Android waits on when the activity stops
+        editor.commit();
+    }
+}
@@ -42,6 +42,11 @@ class SynchronousHttpClient {
         URL url = httpRequest.getURL();
 
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        HttpCall call = HttpCall.current();
+        if (call != null) {
+            // lets HttpRequestScope#cancel() disconnect the request from another thread
+            call.attach(connection);
+        }
         if (connection instanceof HttpsURLConnection) {
             if (socketFactory == null) {
                 throw new SSLException("SSLSocketFactory was not set or failed to initialize");
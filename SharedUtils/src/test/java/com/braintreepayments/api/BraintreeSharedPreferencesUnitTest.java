@@ -0,0 +1,164 @@
+package com.braintreepayments.api;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BraintreeSharedPreferencesUnitTest {
+
+    private FakeKeyValueStore store;
+    private QueuedExecutor executor;
+
+    @Before
+    public void beforeEach() {
+        store = new FakeKeyValueStore();
+        executor = new QueuedExecutor();
+    }
+
+    @Test
+    public void getString_loadsStoreOnceAndReadsFromMemory() {
+        store.persisted.put("stringKey", "stringValue");
+
+        BraintreeSharedPreferences sut = new BraintreeSharedPreferences(store, executor);
+        assertEquals("stringValue", sut.getString("stringKey", null));
+        assertEquals("stringValue", sut.getString("stringKey", null));
+        assertTrue(sut.containsKey("stringKey"));
+
+        assertEquals(1, store.loadCount);
+    }
+
+    @Test
+    public void putString_isVisibleBeforeWriteIsFlushed() {
+        BraintreeSharedPreferences sut = new BraintreeSharedPreferences(store, executor);
+        sut.putString("stringKey", "stringValue");
+
+        assertEquals("stringValue", sut.getString("stringKey", null));
+        assertEquals(0, store.writeCount);
+    }
+
+    @Test
+    public void writes_madeBeforeFlush_areCoalescedIntoOneStoreWrite() {
+        BraintreeSharedPreferences sut = new BraintreeSharedPreferences(store, executor);
+        sut.putString("stringKey", "first");
+        sut.putString("stringKey", "second");
+        sut.putBoolean("booleanKey", true);
+        sut.putString("otherKey", "otherValue");
+        sut.putLong("longKey", 123L);
+
+        assertEquals(1, executor.runnables.size());
+        executor.runAll();
+
+        assertEquals(1, store.writeCount);
+        assertEquals("second", store.persisted.get("stringKey"));
+        assertEquals(true, store.persisted.get("booleanKey"));
+        assertEquals("otherValue", store.persisted.get("otherKey"));
+        assertEquals(123L, store.persisted.get("longKey"));
+    }
+
+    @Test
+    public void writes_madeAfterFlush_scheduleAnotherFlush() {
+        BraintreeSharedPreferences sut = new BraintreeSharedPreferences(store, executor);
+        sut.putString("stringKey", "first");
+        executor.runAll();
+        sut.putString("stringKey", "second");
+        executor.runAll();
+
+        assertEquals(2, store.writeCount);
+        assertEquals("second", store.persisted.get("stringKey"));
+    }
+
+    @Test
+    public void clearSharedPreferences_dropsPendingWritesAndClearsStore() {
+        store.persisted.put("existingKey", "existingValue");
+
+        BraintreeSharedPreferences sut = new BraintreeSharedPreferences(store, executor);
+        sut.putString("stringKey", "stringValue");
+        sut.clearSharedPreferences();
+
+        assertFalse(sut.containsKey("existingKey"));
+        assertFalse(sut.containsKey("stringKey"));
+
+        executor.runAll();
+        assertEquals(1, store.writeCount);
+        assertTrue(store.persisted.isEmpty());
+    }
+
+    @Test
+    public void remove_removesKeyFromMemoryAndStore() {
+        store.persisted.put("stringKey", "stringValue");
+        store.persisted.put("otherKey", "otherValue");
+
+        BraintreeSharedPreferences sut = new BraintreeSharedPreferences(store, executor);
+        sut.remove("stringKey");
+
+        assertEquals(Collections.singleton("otherKey"), sut.getKeys());
+        executor.runAll();
+        assertFalse(store.persisted.containsKey("stringKey"));
+        assertTrue(store.persisted.containsKey("otherKey"));
+    }
+
+    @Test
+    public void getters_returnDefaultsForMissingKeys() {
+        BraintreeSharedPreferences sut = new BraintreeSharedPreferences(store, executor);
+
+        assertEquals("fallback", sut.getString("stringKey", "fallback"));
+        assertFalse(sut.getBoolean("booleanKey"));
+        assertEquals(0L, sut.getLong("longKey"));
+    }
+
+    private static class FakeKeyValueStore implements KeyValueStore {
+
+        final Map<String, Object> persisted = new HashMap<>();
+        int loadCount;
+        int writeCount;
+
+        @Override
+        public Map<String, Object> load() {
+            loadCount++;
+            return new HashMap<>(persisted);
+        }
+
+        @Override
+        public void write(boolean clear, Map<String, Object> changes) {
+            writeCount++;
+            if (clear) {
+                persisted.clear();
+            }
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                if (change.getValue() == null) {
+                    persisted.remove(change.getKey());
+                } else {
+                    persisted.put(change.getKey(), change.getValue());
+                }
+            }
+        }
+    }
+
+    private static class QueuedExecutor implements Executor {
+
+        final List<Runnable> runnables = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable runnable) {
+            runnables.add(runnable);
+        }
+
+        void runAll() {
+            List<Runnable> queued = new ArrayList<>(runnables);
+            runnables.clear();
+            for (Runnable runnable : queued) {
+                runnable.run();
+            }
+        }
+    }
+}
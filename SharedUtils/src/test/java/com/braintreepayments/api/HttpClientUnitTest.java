@@ -1,6 +1,8 @@
 package com.braintreepayments.api;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
@@ -15,6 +17,10 @@ import static org.mockito.Mockito.when;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
 
 public class HttpClientUnitTest {
 
@@ -171,4 +177,82 @@ public class HttpClientUnitTest {
         String result = sut.sendRequest(httpRequest);
         assertEquals("response body", result);
     }
+
+    @Test
+    public void sendRequest_whenScopeIsCanceled_notifiesCanceledErrorWithoutSendingRequest() throws Exception {
+        final HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+        final HttpResponseCallback callback = mock(HttpResponseCallback.class);
+
+        HttpRequestScope scope = new HttpRequestScope();
+        scope.cancel();
+        HttpRequestScope.runIn(scope, new Runnable() {
+            @Override
+            public void run() {
+                sut.sendRequest(httpRequest, callback);
+            }
+        });
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+        verifyNoInteractions(syncHttpClient);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(callback).onResult((String) isNull(), captor.capture());
+        assertEquals(HttpCall.CANCELED_MESSAGE, captor.getValue().getMessage());
+    }
+
+    @Test
+    public void sendRequest_whenScopeIsCanceledDuringRequest_notifiesCanceledErrorWithoutRetrying() throws Exception {
+        final HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+        final HttpResponseCallback callback = mock(HttpResponseCallback.class);
+        final HttpRequestScope scope = new HttpRequestScope();
+
+        when(syncHttpClient.request(httpRequest)).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                scope.cancel();
+                throw new IOException("Socket closed");
+            }
+        });
+        HttpRequestScope.runIn(scope, new Runnable() {
+            @Override
+            public void run() {
+                sut.sendRequest(httpRequest, HttpClient.RETRY_MAX_3_TIMES, callback);
+            }
+        });
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+        verify(syncHttpClient, times(1)).request(httpRequest);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(callback).onResult((String) isNull(), captor.capture());
+        assertEquals(HttpCall.CANCELED_MESSAGE, captor.getValue().getMessage());
+    }
+
+    @Test
+    public void sendRequest_notifiesCallbackInTheScopeTheRequestWasSentIn() throws Exception {
+        final HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+        final HttpRequestScope scope = new HttpRequestScope();
+        final HttpRequestScope[] callbackScope = new HttpRequestScope[1];
+
+        when(syncHttpClient.request(httpRequest)).thenReturn("response body");
+        HttpRequestScope.runIn(scope, new Runnable() {
+            @Override
+            public void run() {
+                sut.sendRequest(httpRequest, new HttpResponseCallback() {
+                    @Override
+                    public void onResult(String responseBody, Exception httpError) {
+                        callbackScope[0] = HttpRequestScope.current();
+                    }
+                });
+            }
+        });
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+
+        assertSame(scope, callbackScope[0]);
+        assertNull(HttpRequestScope.current());
+    }
 }
@@ -0,0 +1,92 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.net.HttpURLConnection;
+
+public class HttpRequestScopeUnitTest {
+
+    @Test
+    public void runIn_makesScopeCurrentAndRestoresThePreviousScope() {
+        final HttpRequestScope outer = new HttpRequestScope();
+        final HttpRequestScope inner = new HttpRequestScope();
+        final HttpRequestScope[] current = new HttpRequestScope[2];
+
+        HttpRequestScope.runIn(outer, new Runnable() {
+            @Override
+            public void run() {
+                HttpRequestScope.runIn(inner, new Runnable() {
+                    @Override
+                    public void run() {
+                        current[0] = HttpRequestScope.current();
+                    }
+                });
+                current[1] = HttpRequestScope.current();
+            }
+        });
+
+        assertSame(inner, current[0]);
+        assertSame(outer, current[1]);
+        assertNull(HttpRequestScope.current());
+    }
+
+    @Test
+    public void cancel_disconnectsAttachedConnectionsOnce() throws Exception {
+        HttpRequestScope sut = new HttpRequestScope();
+        HttpCall call = new HttpCall();
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+
+        assertTrue(sut.add(call));
+        call.attach(connection);
+        sut.cancel();
+        sut.cancel();
+
+        assertTrue(sut.isCanceled());
+        assertTrue(call.isCanceled());
+        verify(connection, times(1)).disconnect();
+    }
+
+    @Test
+    public void cancel_doesNotCancelRemovedCalls() throws Exception {
+        HttpRequestScope sut = new HttpRequestScope();
+        HttpCall call = new HttpCall();
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+
+        sut.add(call);
+        call.attach(connection);
+        sut.remove(call);
+        sut.cancel();
+
+        assertFalse(call.isCanceled());
+        verify(connection, never()).disconnect();
+    }
+
+    @Test
+    public void add_whenCanceled_cancelsCallSoItsConnectionCannotBeAttached() {
+        HttpRequestScope sut = new HttpRequestScope();
+        final HttpCall call = new HttpCall();
+        final HttpURLConnection connection = mock(HttpURLConnection.class);
+
+        sut.cancel();
+
+        assertFalse(sut.add(call));
+        assertThrows(HttpClientException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                call.attach(connection);
+            }
+        });
+        verify(connection).disconnect();
+    }
+}
@@ -0,0 +1,119 @@
+package com.braintreepayments.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MappedFileKeyValueStoreUnitTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void beforeEach() throws IOException {
+        file = new File(temporaryFolder.getRoot(), "store.log");
+    }
+
+    @Test
+    public void load_whenFileDoesNotExist_returnsEmptyMap() {
+        MappedFileKeyValueStore sut = new MappedFileKeyValueStore(file);
+        assertTrue(sut.load().isEmpty());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void write_persistsValuesAcrossInstances() {
+        MappedFileKeyValueStore sut = new MappedFileKeyValueStore(file);
+        sut.load();
+
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("stringKey", "stringValue");
+        changes.put("booleanKey", true);
+        changes.put("longKey", 123L);
+        sut.write(false, changes);
+
+        Map<String, Object> loaded = new MappedFileKeyValueStore(file).load();
+        assertEquals("stringValue", loaded.get("stringKey"));
+        assertEquals(true, loaded.get("booleanKey"));
+        assertEquals(123L, loaded.get("longKey"));
+    }
+
+    @Test
+    public void write_withNullValue_removesKey() {
+        MappedFileKeyValueStore sut = new MappedFileKeyValueStore(file);
+        sut.load();
+        sut.write(false, Collections.<String, Object>singletonMap("key", "value"));
+        sut.write(false, Collections.<String, Object>singletonMap("key", null));
+
+        assertTrue(new MappedFileKeyValueStore(file).load().isEmpty());
+    }
+
+    @Test
+    public void write_withClear_removesExistingValues() {
+        MappedFileKeyValueStore sut = new MappedFileKeyValueStore(file);
+        sut.load();
+        sut.write(false, Collections.<String, Object>singletonMap("oldKey", "oldValue"));
+        sut.write(true, Collections.<String, Object>singletonMap("newKey", "newValue"));
+
+        Map<String, Object> loaded = new MappedFileKeyValueStore(file).load();
+        assertEquals(1, loaded.size());
+        assertEquals("newValue", loaded.get("newKey"));
+    }
+
+    @Test
+    public void write_whenLogIsFull_compactsToLatestValues() {
+        MappedFileKeyValueStore sut = new MappedFileKeyValueStore(file);
+        sut.load();
+
+        StringBuilder largeValue = new StringBuilder();
+        for (int i = 0; i < 1024; i++) {
+            largeValue.append("x");
+        }
+        for (int i = 0; i < 100; i++) {
+            sut.write(false, Collections.<String, Object>singletonMap("key", largeValue + "-" + i));
+        }
+
+        Map<String, Object> loaded = new MappedFileKeyValueStore(file).load();
+        assertEquals(largeValue + "-99", loaded.get("key"));
+        assertEquals(MappedFileKeyValueStore.MIN_SIZE_BYTES, file.length());
+    }
+
+    @Test
+    public void write_withSmallValues_sizesFileToMinimum() {
+        MappedFileKeyValueStore sut = new MappedFileKeyValueStore(file);
+        sut.load();
+        sut.write(false, Collections.<String, Object>singletonMap("key", "value"));
+
+        assertEquals(MappedFileKeyValueStore.MIN_SIZE_BYTES, file.length());
+    }
+
+    @Test
+    public void write_whenValueIsLargerThanMinimumSize_sizesFileFromLiveData() {
+        MappedFileKeyValueStore sut = new MappedFileKeyValueStore(file);
+        sut.load();
+
+        int valueLength = MappedFileKeyValueStore.MIN_SIZE_BYTES * 4;
+        StringBuilder largeValue = new StringBuilder();
+        for (int i = 0; i < valueLength; i++) {
+            largeValue.append("x");
+        }
+        sut.write(false, Collections.<String, Object>singletonMap("key", largeValue.toString()));
+
+        assertEquals(largeValue.toString(), new MappedFileKeyValueStore(file).load().get("key"));
+        assertTrue(file.length() > valueLength * (1 + MappedFileKeyValueStore.FREE_SPACE_RATIO));
+        assertTrue(file.length() < valueLength * (2 + MappedFileKeyValueStore.FREE_SPACE_RATIO));
+    }
+}
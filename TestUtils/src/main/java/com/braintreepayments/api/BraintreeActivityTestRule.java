@@ -27,6 +27,7 @@ public class BraintreeActivityTestRule<T extends AppCompatActivity> extends Acti
         Context context = ApplicationProvider.getApplicationContext();
         getSharedPreferences(context).edit().clear().commit();
         BraintreeSharedPreferences.getInstance(context).clearSharedPreferences();
+        BraintreeSharedPreferences.getMappedFileInstance(context).clearSharedPreferences();
 
         keyguardLock = ((KeyguardManager) ApplicationProvider.getApplicationContext().getSystemService(Context.KEYGUARD_SERVICE))
                 .newKeyguardLock("BraintreeActivityTestRule");
@@ -42,6 +43,7 @@ public class BraintreeActivityTestRule<T extends AppCompatActivity> extends Acti
         Context context = ApplicationProvider.getApplicationContext();
         getSharedPreferences(context).edit().clear().commit();
         BraintreeSharedPreferences.getInstance(context).clearSharedPreferences();
+        BraintreeSharedPreferences.getMappedFileInstance(context).clearSharedPreferences();
 
         keyguardLock.reenableKeyguard();
     }
@@ -511,6 +511,23 @@ object Fixtures {
         }
     """
 
+    // language=JSON
+    const val CONFIGURATION_WITH_ANALYTICS_SAMPLE_RATES = """
+        {
+            "clientApiUrl": "client_api_url",
+            "environment": "test",
+            "merchantId": "integration_merchant_id",
+            "merchantAccountId": "integration_merchant_account_id",
+            "analytics": {
+                "url": "analytics_url",
+                "sampleRates": {
+                    "card.nonce-received": 0.0,
+                    "union-pay.capabilities-received": 0.25
+                }
+            }
+        }
+    """
+
     // language=JSON
     const val CONFIGURATION_WITH_GOOGLE_PAY = """
         {
@@ -1365,6 +1382,34 @@ object Fixtures {
         }
     """
 
+    // language=JSON
+    const val ERRORS_GRAPHQL_PERSISTED_QUERY_NOT_FOUND = """
+        {
+          "errors": [
+            {
+              "message": "PersistedQueryNotFound",
+              "extensions": {
+                "code": "PERSISTED_QUERY_NOT_FOUND"
+              }
+            }
+          ]
+        }
+    """
+
+    // language=JSON
+    const val ERRORS_GRAPHQL_PERSISTED_QUERY_NOT_SUPPORTED = """
+        {
+          "errors": [
+            {
+              "message": "PersistedQueryNotSupported",
+              "extensions": {
+                "code": "PERSISTED_QUERY_NOT_SUPPORTED"
+              }
+            }
+          ]
+        }
+    """
+
     // language=JSON
     const val ERRORS_GRAPHQL_UNKNOWN_ERROR = """
         {
@@ -1476,6 +1521,126 @@ object Fixtures {
         }
     """
 
+    // language=JSON
+    const val GRAPHQL_RESPONSE_CREDIT_CARD_BATCH = """
+        {
+          "data": {
+            "card0": {
+              "token": "3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1",
+              "creditCard": {
+                "brand": "Visa",
+                "expirationMonth": "01",
+                "expirationYear": "2020",
+                "cardholderName": "Joe Smith",
+                "last4": "1111"
+              }
+            },
+            "card1": {
+              "token": "tokencc_3bbd22_fpjshh_bqbvh5_mkf3nf_smz",
+              "creditCard": {
+                "brand": "MasterCard",
+                "expirationMonth": "02",
+                "expirationYear": "2030",
+                "last4": "4444"
+              }
+            }
+          },
+          "extensions" : {
+            "requestId" : "fef505c8-5930-4e30-b74a-c41fc7807fb8"
+          }
+        }
+    """
+
+    // language=JSON
+    const val GRAPHQL_RESPONSE_CREDIT_CARD_BATCH_PARTIAL_ERROR = """
+        {
+          "data": {
+            "card0": {
+              "token": "3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1",
+              "creditCard": {
+                "brand": "Visa",
+                "last4": "1111"
+              }
+            },
+            "card1": null
+          },
+          "errors": [
+            {
+              "message": "Expiration year is invalid",
+              "path": ["card1"],
+              "extensions": {
+                "errorType": "user_error",
+                "legacyCode": "81713",
+                "inputPath": ["input", "creditCard", "expirationYear"]
+              }
+            }
+          ],
+          "extensions" : {
+            "requestId" : "fef505c8-5930-4e30-b74a-c41fc7807fb8"
+          }
+        }
+    """
+
+    // language=JSON
+    const val GRAPHQL_RESPONSE_CREDIT_CARD_BATCH_MIXED_ERRORS = """
+        {
+          "data": {
+            "card0": {
+              "token": "3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1",
+              "creditCard": {
+                "brand": "Visa",
+                "last4": "1111"
+              }
+            },
+            "card1": null,
+            "card2": null
+          },
+          "errors": [
+            {
+              "message": "Expiration year is invalid",
+              "path": ["card1"],
+              "extensions": {
+                "errorType": "user_error",
+                "legacyCode": "81713",
+                "inputPath": ["input", "creditCard", "expirationYear"]
+              }
+            },
+            {
+              "message": "Variable 'input2' has coerced Null value for NonNull type 'String!'",
+              "path": ["card2"],
+              "extensions": {
+                "errorType": "developer_error"
+              }
+            }
+          ],
+          "extensions" : {
+            "requestId" : "fef505c8-5930-4e30-b74a-c41fc7807fb8"
+          }
+        }
+    """
+
+    // language=JSON
+    const val GRAPHQL_RESPONSE_CREDIT_CARD_BATCH_SINGLE_CARD_ERROR = """
+        {
+          "data": {
+            "card0": null
+          },
+          "errors": [
+            {
+              "message": "Validation is not supported for requests authorized with a tokenization key.",
+              "path": ["card0"],
+              "extensions": {
+                "errorType": "developer_error",
+                "legacyCode": "50000"
+              }
+            }
+          ],
+          "extensions" : {
+            "requestId" : "fef505c8-5930-4e30-b74a-c41fc7807fb8"
+          }
+        }
+    """
+
     // language=JSON
     const val GRAPHQL_RESPONSE_CREDIT_CARD_MISSING_VALUES = """
         {
@@ -170,6 +170,23 @@ public class MockBraintreeClientBuilder {
             }
         }).when(braintreeClient).getConfiguration(any(ConfigurationCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                BraintreeRequestContextCallback callback = (BraintreeRequestContextCallback) invocation.getArguments()[0];
+                if (authorization != null) {
+                    if (configuration != null) {
+                        callback.onResult(new BraintreeRequestContext(authorization, configuration), null);
+                    } else if (configurationError != null) {
+                        callback.onResult(null, configurationError);
+                    }
+                } else if (authorizationError != null) {
+                    callback.onResult(null, authorizationError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).getRequestContext(any(BraintreeRequestContextCallback.class));
+
         doAnswer(new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) {
@@ -209,6 +226,58 @@ public class MockBraintreeClientBuilder {
             }
         }).when(braintreeClient).sendGraphQLPOST(anyString(), any(HttpResponseCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[2];
+                if (sendGETSuccess != null) {
+                    callback.onResult(sendGETSuccess, null);
+                } else if (sendGETError != null) {
+                    callback.onResult(null, sendGETError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendGET(anyString(), any(BraintreeRequestContext.class), any(HttpResponseCallback.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[3];
+                if (sendPOSTSuccess != null) {
+                    callback.onResult(sendPOSTSuccess, null);
+                } else if (sendPOSTError != null) {
+                    callback.onResult(null, sendPOSTError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendPOST(anyString(), anyString(), any(BraintreeRequestContext.class), any(HttpResponseCallback.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[2];
+                if (sendGraphQLPOSTSuccess != null) {
+                    callback.onResult(sendGraphQLPOSTSuccess, null);
+                } else if (sendGraphQLPOSTError != null) {
+                    callback.onResult(null, sendGraphQLPOSTError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendGraphQLPOST(anyString(), any(BraintreeRequestContext.class), any(HttpResponseCallback.class));
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[2];
+                if (sendGraphQLPOSTSuccess != null) {
+                    callback.onResult(sendGraphQLPOSTSuccess, null);
+                } else if (sendGraphQLPOSTError != null) {
+                    callback.onResult(null, sendGraphQLPOSTError);
+                }
+                return null;
+            }
+        }).when(braintreeClient).sendGraphQLPOSTAllowingPartialResults(anyString(), any(BraintreeRequestContext.class), any(HttpResponseCallback.class));
+
         return braintreeClient;
     }
 }
@@ -40,7 +40,17 @@ class MockkApiClientBuilder {
             listener.onResult(tokenizeRESTSuccess, tokenizeRESTError)
         }
 
-        every { apiClient.tokenizeGraphQL(any(), any()) } answers {
+        every { apiClient.tokenizeGraphQL(any<JSONObject>(), any()) } answers {
+            val listener = lastArg() as TokenizeCallback
+            listener.onResult(tokenizeGraphQLSuccess, tokenizeGraphQLError)
+        }
+
+        every { apiClient.tokenizeGraphQL(any<String>(), any()) } answers {
+            val listener = lastArg() as TokenizeCallback
+            listener.onResult(tokenizeGraphQLSuccess, tokenizeGraphQLError)
+        }
+
+        every { apiClient.tokenizeGraphQL(any<String>(), any(), any()) } answers {
             val listener = lastArg() as TokenizeCallback
             listener.onResult(tokenizeGraphQLSuccess, tokenizeGraphQLError)
         }
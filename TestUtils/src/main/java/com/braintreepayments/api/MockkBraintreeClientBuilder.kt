@@ -42,6 +42,21 @@ class MockkBraintreeClientBuilder {
             authorizationSuccess?.let { callback.onAuthorizationResult(it, null) }
         }
 
+        every { braintreeClient.getRequestContext(any()) } answers { call ->
+            val callback = call.invocation.args[0] as BraintreeRequestContextCallback
+            val authorization = authorizationSuccess
+            val configuration = configurationSuccess
+            if (authorization != null && configuration != null) {
+                callback.onResult(BraintreeRequestContext(authorization, configuration), null)
+            }
+        }
+
+        every { braintreeClient.sendGraphQLPOST(any(), any(), any()) } answers { call ->
+            val callback = call.invocation.args[2] as HttpResponseCallback
+            sendGraphQLPostSuccess?.let { callback.onResult(it, null) }
+                ?: sendGraphQLPOSTError?.let { callback.onResult(null, it) }
+        }
+
         every { braintreeClient.sendGraphQLPOST(any(), any()) } answers { call ->
             val callback = call.invocation.args[1] as HttpResponseCallback
             sendGraphQLPostSuccess?.let { callback.onResult(it, null) }
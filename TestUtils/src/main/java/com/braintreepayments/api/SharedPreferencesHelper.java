@@ -3,7 +3,6 @@ package com.braintreepayments.api;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.net.Uri;
-import android.util.Base64;
 
 public class SharedPreferencesHelper {
 
@@ -22,14 +21,12 @@ public class SharedPreferencesHelper {
                 .build()
                 .toString();
 
-        String cacheKey = Base64.encodeToString(String.format("%s%s", configUrl, authorization.getBearer()).getBytes(), 0);
-        String timestampKey = String.format("%s_timestamp", cacheKey);
-        BraintreeSharedPreferences
-                .getInstance(context)
-                .putStringAndLong(cacheKey, configuration.toJson(), timestampKey, System.currentTimeMillis());
+        ConfigurationCache configurationCache = ConfigurationCache.Companion.getInstance(context);
+        configurationCache.saveConfiguration(configuration,
+                ConfigurationCache.Companion.createCacheKey(authorization, configUrl));
     }
 
     public static void clearConfigurationCacheOverride(Context context) {
-        BraintreeSharedPreferences.getInstance(context).clearSharedPreferences();
+        BraintreeSharedPreferences.getMappedFileInstance(context).clearSharedPreferences();
     }
 }
@@ -1,10 +1,14 @@
 package com.braintreepayments.api;
 
+import androidx.annotation.Nullable;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
 class ThreeDSecureAPI {
 
+    private static final String LOOKUP_SPAN = "three-d-secure.lookup";
+
     private final BraintreeClient braintreeClient;
 
     ThreeDSecureAPI(BraintreeClient braintreeClient) {
@@ -12,13 +16,20 @@ class ThreeDSecureAPI {
     }
 
     void performLookup(final ThreeDSecureRequest request, String cardinalConsumerSessionId, final ThreeDSecureResultCallback callback) {
+        performLookup(request, cardinalConsumerSessionId, null, callback);
+    }
+
+    void performLookup(final ThreeDSecureRequest request, String cardinalConsumerSessionId, @Nullable BraintreeRequestContext requestContext, final ThreeDSecureResultCallback callback) {
         String url = ApiClient.versionedPath(ApiClient.PAYMENT_METHOD_ENDPOINT + "/" + request.getNonce() + "/three_d_secure/lookup");
         String data = request.build(cardinalConsumerSessionId);
+        final AnalyticsSpan span = new AnalyticsSpan(LOOKUP_SPAN);
 
-        braintreeClient.sendPOST(url, data, new HttpResponseCallback() {
+        HttpResponseCallback responseCallback = new HttpResponseCallback() {
 
             @Override
             public void onResult(String responseBody, Exception httpError) {
+                span.setAttribute("outcome", responseBody != null ? "success" : "failure");
+                braintreeClient.sendAnalyticsSpan(span);
                 if (responseBody != null) {
                     try {
                         ThreeDSecureResult result = ThreeDSecureResult.fromJson(responseBody);
@@ -30,7 +41,13 @@ class ThreeDSecureAPI {
                     callback.onResult(null, httpError);
                 }
             }
-        });
+        };
+
+        if (requestContext != null) {
+            braintreeClient.sendPOST(url, data, requestContext, responseCallback);
+        } else {
+            braintreeClient.sendPOST(url, data, responseCallback);
+        }
     }
 
     void authenticateCardinalJWT(ThreeDSecureResult threeDSecureResult, String cardinalJWT, final ThreeDSecureResultCallback callback) {
@@ -11,47 +11,88 @@ import org.json.JSONObject;
 /**
  * A class containing additional information for ThreeDSecure 2.0 Requests
  */
+@JsonSerializable
 public class ThreeDSecureAdditionalInformation implements Parcelable {
 
+    @JsonUnwrapped(accessor = "getShippingFields")
     private ThreeDSecurePostalAddress shippingAddress;
+    @JsonProperty("shipping_method_indicator")
     private String shippingMethodIndicator;
+    @JsonProperty("product_code")
     private String productCode;
+    @JsonProperty("delivery_timeframe")
     private String deliveryTimeframe;
+    @JsonProperty("delivery_email")
     private String deliveryEmail;
+    @JsonProperty("reorder_indicator")
     private String reorderIndicator;
+    @JsonProperty("preorder_indicator")
     private String preorderIndicator;
+    @JsonProperty("preorder_date")
     private String preorderDate;
+    @JsonProperty("gift_card_amount")
     private String giftCardAmount;
+    @JsonProperty("gift_card_currency_code")
     private String giftCardCurrencyCode;
+    @JsonProperty("gift_card_count")
     private String giftCardCount;
+    @JsonProperty("account_age_indicator")
     private String accountAgeIndicator;
+    @JsonProperty("account_create_date")
     private String accountCreateDate;
+    @JsonProperty("account_change_indicator")
     private String accountChangeIndicator;
+    @JsonProperty("account_change_date")
     private String accountChangeDate;
+    @JsonProperty("account_pwd_change_indicator")
     private String accountPwdChangeIndicator;
+    @JsonProperty("account_pwd_change_date")
     private String accountPwdChangeDate;
+    @JsonProperty("shipping_address_usage_indicator")
     private String shippingAddressUsageIndicator;
+    @JsonProperty("shipping_address_usage_date")
     private String shippingAddressUsageDate;
+    @JsonProperty("transaction_count_day")
     private String transactionCountDay;
+    @JsonProperty("transaction_count_year")
     private String transactionCountYear;
+    @JsonProperty("add_card_attempts")
     private String addCardAttempts;
+    @JsonProperty("account_purchases")
     private String accountPurchases;
+    @JsonProperty("fraud_activity")
     private String fraudActivity;
+    @JsonProperty("shipping_name_indicator")
     private String shippingNameIndicator;
+    @JsonProperty("payment_account_indicator")
     private String paymentAccountIndicator;
+    @JsonProperty("payment_account_age")
     private String paymentAccountAge;
+    @JsonProperty("address_match")
     private String addressMatch;
+    @JsonProperty("account_id")
     private String accountId;
+    @JsonProperty("ip_address")
     private String ipAddress;
+    @JsonProperty("order_description")
     private String orderDescription;
+    @JsonProperty("tax_amount")
     private String taxAmount;
+    @JsonProperty("user_agent")
     private String userAgent;
+    @JsonProperty("authentication_indicator")
     private String authenticationIndicator;
+    @JsonProperty("installment")
     private String installment;
+    @JsonProperty("purchase_date")
     private String purchaseDate;
+    @JsonProperty("recurring_end")
     private String recurringEnd;
+    @JsonProperty("recurring_frequency")
     private String recurringFrequency;
+    @JsonProperty("sdk_max_timeout")
     private String sdkMaxTimeout;
+    @JsonProperty("work_phone_number")
     private String workPhoneNumber;
 
     public ThreeDSecureAdditionalInformation() {}
@@ -849,64 +890,78 @@ public class ThreeDSecureAdditionalInformation implements Parcelable {
      * @return JSONObject representation of {@link ThreeDSecureAdditionalInformation}.
      */
     public JSONObject toJson() {
-        JSONObject additionalInformation = new JSONObject();
         try {
-            if (shippingAddress != null) {
-                additionalInformation.putOpt("shipping_given_name", shippingAddress.getGivenName());
-                additionalInformation.putOpt("shipping_surname", shippingAddress.getSurname());
-                additionalInformation.putOpt("shipping_phone", shippingAddress.getPhoneNumber());
-
-                additionalInformation.putOpt("shipping_line1", shippingAddress.getStreetAddress());
-                additionalInformation.putOpt("shipping_line2", shippingAddress.getExtendedAddress());
-                additionalInformation.putOpt("shipping_line3", shippingAddress.getLine3());
-                additionalInformation.putOpt("shipping_city", shippingAddress.getLocality());
-                additionalInformation.putOpt("shipping_state", shippingAddress.getRegion());
-                additionalInformation.putOpt("shipping_postal_code", shippingAddress.getPostalCode());
-                additionalInformation.putOpt("shipping_country_code", shippingAddress.getCountryCodeAlpha2());
-            }
-
-            additionalInformation.putOpt("shipping_method_indicator", shippingMethodIndicator);
-            additionalInformation.putOpt("product_code", productCode);
-            additionalInformation.putOpt("delivery_timeframe", deliveryTimeframe);
-            additionalInformation.putOpt("delivery_email", deliveryEmail);
-            additionalInformation.putOpt("reorder_indicator", reorderIndicator);
-            additionalInformation.putOpt("preorder_indicator", preorderIndicator);
-            additionalInformation.putOpt("preorder_date", preorderDate);
-            additionalInformation.putOpt("gift_card_amount", giftCardAmount);
-            additionalInformation.putOpt("gift_card_currency_code", giftCardCurrencyCode);
-            additionalInformation.putOpt("gift_card_count", giftCardCount);
-            additionalInformation.putOpt("account_age_indicator", accountAgeIndicator);
-            additionalInformation.putOpt("account_create_date", accountCreateDate);
-            additionalInformation.putOpt("account_change_indicator", accountChangeIndicator);
-            additionalInformation.putOpt("account_change_date", accountChangeDate);
-            additionalInformation.putOpt("account_pwd_change_indicator", accountPwdChangeIndicator);
-            additionalInformation.putOpt("account_pwd_change_date", accountPwdChangeDate);
-            additionalInformation.putOpt("shipping_address_usage_indicator", shippingAddressUsageIndicator);
-            additionalInformation.putOpt("shipping_address_usage_date", shippingAddressUsageDate);
-            additionalInformation.putOpt("transaction_count_day", transactionCountDay);
-            additionalInformation.putOpt("transaction_count_year", transactionCountYear);
-            additionalInformation.putOpt("add_card_attempts", addCardAttempts);
-            additionalInformation.putOpt("account_purchases", accountPurchases);
-            additionalInformation.putOpt("fraud_activity", fraudActivity);
-            additionalInformation.putOpt("shipping_name_indicator", shippingNameIndicator);
-            additionalInformation.putOpt("payment_account_indicator", paymentAccountIndicator);
-            additionalInformation.putOpt("payment_account_age", paymentAccountAge);
-            additionalInformation.putOpt("address_match", addressMatch);
-            additionalInformation.putOpt("account_id", accountId);
-            additionalInformation.putOpt("ip_address", ipAddress);
-            additionalInformation.putOpt("order_description", orderDescription);
-            additionalInformation.putOpt("tax_amount", taxAmount);
-            additionalInformation.putOpt("user_agent", userAgent);
-            additionalInformation.putOpt("authentication_indicator", authenticationIndicator);
-            additionalInformation.putOpt("installment", installment);
-            additionalInformation.putOpt("purchase_date", purchaseDate);
-            additionalInformation.putOpt("recurring_end", recurringEnd);
-            additionalInformation.putOpt("recurring_frequency", recurringFrequency);
-            additionalInformation.putOpt("sdk_max_timeout", sdkMaxTimeout);
-            additionalInformation.putOpt("work_phone_number", workPhoneNumber);
-        } catch (JSONException ignored) {}
-
-        return additionalInformation;
+            return ThreeDSecureAdditionalInformationJsonSerializer.toJsonObject(this);
+        } catch (JSONException ignored) {
+        }
+
+        return new JSONObject();
+    }
+
+    ShippingFields getShippingFields() {
+        return shippingAddress == null ? null : new ShippingFields(shippingAddress);
     }
 
+    /**
+     * The shipping address, written into the additional information with shipping_ keys.
+     */
+    @JsonSerializable
+    static class ShippingFields {
+
+        private final ThreeDSecurePostalAddress address;
+
+        ShippingFields(ThreeDSecurePostalAddress address) {
+            this.address = address;
+        }
+
+        @JsonProperty("shipping_given_name")
+        String getGivenName() {
+            return address.getGivenName();
+        }
+
+        @JsonProperty("shipping_surname")
+        String getSurname() {
+            return address.getSurname();
+        }
+
+        @JsonProperty("shipping_phone")
+        String getPhoneNumber() {
+            return address.getPhoneNumber();
+        }
+
+        @JsonProperty("shipping_line1")
+        String getStreetAddress() {
+            return address.getStreetAddress();
+        }
+
+        @JsonProperty("shipping_line2")
+        String getExtendedAddress() {
+            return address.getExtendedAddress();
+        }
+
+        @JsonProperty("shipping_line3")
+        String getLine3() {
+            return address.getLine3();
+        }
+
+        @JsonProperty("shipping_city")
+        String getLocality() {
+            return address.getLocality();
+        }
+
+        @JsonProperty("shipping_state")
+        String getRegion() {
+            return address.getRegion();
+        }
+
+        @JsonProperty("shipping_postal_code")
+        String getPostalCode() {
+            return address.getPostalCode();
+        }
+
+        @JsonProperty("shipping_country_code")
+        String getCountryCodeAlpha2() {
+            return address.getCountryCodeAlpha2();
+        }
+    }
 }
@@ -21,6 +21,9 @@ import com.cardinalcommerce.cardinalmobilesdk.models.ValidateResponse;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * 3D Secure is a protocol that enables cardholders and issuers to add a layer of security
  * to e-commerce transactions via password entry at checkout.
@@ -32,10 +35,13 @@ import org.json.JSONObject;
  */
 public class ThreeDSecureClient {
 
+    private static final String CHALLENGE_SPAN = "three-d-secure.challenge";
+
     private final CardinalClient cardinalClient;
     private final BraintreeClient braintreeClient;
     private final ThreeDSecureAPI api;
     private ThreeDSecureListener listener;
+    private AnalyticsSpan challengeSpan;
 
     @VisibleForTesting
     BrowserSwitchResult pendingBrowserSwitchResult;
@@ -101,7 +107,7 @@ public class ThreeDSecureClient {
      */
     public void setListener(ThreeDSecureListener listener) {
         this.listener = listener;
-        if (pendingBrowserSwitchResult != null) {
+        if (listener != null && pendingBrowserSwitchResult != null) {
             deliverBrowserSwitchResultToListener(pendingBrowserSwitchResult);
         }
     }
@@ -137,52 +143,150 @@ public class ThreeDSecureClient {
                     return;
                 }
 
-                if (!configuration.isThreeDSecureEnabled()) {
-                    callback.onResult(null, new BraintreeException("Three D Secure is not enabled for this account. " +
-                            "Please contact Braintree Support for assistance."));
+                BraintreeException configurationError = validateConfiguration(configuration, request);
+                if (configurationError != null) {
+                    callback.onResult(null, configurationError);
                     return;
                 }
 
-                if (ThreeDSecureRequest.VERSION_1.equals(request.getVersionRequested())) {
-                    String threeDSecureV1UnsupportedMessage =
-                            "3D Secure v1 is deprecated and no longer supported. See https://developer.paypal.com/braintree/docs/guides/3d-secure/client-side/android/v4 for more information.";
-                    BraintreeException threeDSecureV1UnsupportedError =
-                            new BraintreeException(threeDSecureV1UnsupportedMessage);
-                    callback.onResult(null, threeDSecureV1UnsupportedError);
-
-                } else {
-                    // VERSION_2
-                    if (configuration.getCardinalAuthenticationJwt() == null) {
-                        callback.onResult(null, new BraintreeException("Merchant is not configured for 3DS 2.0. " +
-                                "Please contact Braintree Support for assistance."));
-                        return;
+                // VERSION_2
+                braintreeClient.sendAnalyticsEvent("three-d-secure.initialized");
+
+                CardinalInitializeCallback cardinalInitializeCallback = new CardinalInitializeCallback() {
+                    @Override
+                    public void onResult(String consumerSessionId, Exception error) {
+                        if (consumerSessionId != null) {
+                            api.performLookup(request, cardinalClient.getConsumerSessionId(), callback);
+                            braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-completed");
+                        } else {
+                            api.performLookup(request, cardinalClient.getConsumerSessionId(), callback);
+                            braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-failed");
+                        }
                     }
-                    braintreeClient.sendAnalyticsEvent("three-d-secure.initialized");
+                };
 
-                    CardinalInitializeCallback cardinalInitializeCallback = new CardinalInitializeCallback() {
-                        @Override
-                        public void onResult(String consumerSessionId, Exception error) {
-                            if (consumerSessionId != null) {
-                                api.performLookup(request, cardinalClient.getConsumerSessionId(), callback);
-                                braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-completed");
-                            } else {
-                                api.performLookup(request, cardinalClient.getConsumerSessionId(), callback);
-                                braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-failed");
-                            }
+                try {
+                    cardinalClient.initialize(activity, configuration, request, cardinalInitializeCallback);
+                } catch (BraintreeException initializeException) {
+                    braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.failed");
+                    callback.onResult(null, initializeException);
+                }
+            }
+        });
+    }
+
+    /**
+     * Tokenize a {@link Card} and perform a 3D Secure lookup for the resulting nonce in one step.
+     * <p>
+     * Equivalent to calling {@link CardClient#tokenize(Card, CardTokenizeCallback)} and passing the
+     * nonce to {@link ThreeDSecureClient#performVerification(FragmentActivity, ThreeDSecureRequest, ThreeDSecureResultCallback)},
+     * but the Cardinal SDK session is set up while the card is being tokenized, and the lookup is
+     * sent as soon as both have completed, without resolving configuration again.
+     * <p>
+     * The nonce of the tokenized card is set on {@code request}. Continue the flow by passing the
+     * {@link ThreeDSecureResult} to {@link ThreeDSecureClient#continuePerformVerification(FragmentActivity, ThreeDSecureRequest, ThreeDSecureResult)}.
+     *
+     * @param activity   Android FragmentActivity
+     * @param cardClient the {@link CardClient} used to tokenize the card
+     * @param card       the {@link Card} to tokenize
+     * @param request    the {@link ThreeDSecureRequest} with information used for authentication;
+     *                   its nonce is set once the card is tokenized
+     * @param callback   {@link ThreeDSecureResultCallback}
+     */
+    public void tokenizeAndVerify(@NonNull final FragmentActivity activity, @NonNull final CardClient cardClient, @NonNull final Card card, @NonNull final ThreeDSecureRequest request, @NonNull final ThreeDSecureResultCallback callback) {
+        if (request.getAmount() == null) {
+            callback.onResult(null, new InvalidArgumentException("The ThreeDSecureRequest amount cannot be null"));
+            return;
+        }
+
+        braintreeClient.getRequestContext(new BraintreeRequestContextCallback() {
+            @Override
+            public void onResult(@Nullable final BraintreeRequestContext requestContext, @Nullable Exception error) {
+                if (requestContext == null) {
+                    callback.onResult(null, error);
+                    return;
+                }
+
+                Configuration configuration = requestContext.getConfiguration();
+                BraintreeException configurationError = validateConfiguration(configuration, request);
+                if (configurationError != null) {
+                    callback.onResult(null, configurationError);
+                    return;
+                }
+
+                braintreeClient.sendAnalyticsEvent("three-d-secure.initialized", requestContext);
+
+                // the lookup needs both the nonce and the Cardinal session, so it is sent by
+                // whichever of the two completes last
+                final AtomicInteger pendingSteps = new AtomicInteger(2);
+                final AtomicBoolean hasSetUpCardinal = new AtomicBoolean(false);
+                final Runnable completeStep = new Runnable() {
+                    @Override
+                    public void run() {
+                        if (pendingSteps.decrementAndGet() == 0) {
+                            api.performLookup(request, cardinalClient.getConsumerSessionId(), requestContext, callback);
                         }
-                    };
+                    }
+                };
 
-                    try {
-                        cardinalClient.initialize(activity, configuration, request, cardinalInitializeCallback);
-                    } catch (BraintreeException initializeException) {
-                        braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.failed");
-                        callback.onResult(null, initializeException);
+                CardinalInitializeCallback cardinalInitializeCallback = new CardinalInitializeCallback() {
+                    @Override
+                    public void onResult(String consumerSessionId, Exception error) {
+                        if (!hasSetUpCardinal.compareAndSet(false, true)) {
+                            return;
+                        }
+                        if (consumerSessionId != null) {
+                            braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-completed", requestContext);
+                        } else {
+                            braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.setup-failed", requestContext);
+                        }
+                        completeStep.run();
                     }
+                };
+
+                try {
+                    cardinalClient.initialize(activity, configuration, request, cardinalInitializeCallback);
+                } catch (BraintreeException initializeException) {
+                    braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.failed", requestContext);
+                    callback.onResult(null, initializeException);
+                    return;
                 }
+
+                cardClient.tokenize(card, requestContext, new CardTokenizeCallback() {
+                    @Override
+                    public void onResult(@Nullable CardNonce cardNonce, @Nullable Exception error) {
+                        if (cardNonce != null) {
+                            request.setNonce(cardNonce.getString());
+                            completeStep.run();
+                        } else {
+                            callback.onResult(null, error);
+                        }
+                    }
+                });
             }
         });
     }
 
+    @Nullable
+    private static BraintreeException validateConfiguration(Configuration configuration, ThreeDSecureRequest request) {
+        if (!configuration.isThreeDSecureEnabled()) {
+            return new BraintreeException("Three D Secure is not enabled for this account. " +
+                    "Please contact Braintree Support for assistance.");
+        }
+
+        if (ThreeDSecureRequest.VERSION_1.equals(request.getVersionRequested())) {
+            String threeDSecureV1UnsupportedMessage =
+                    "3D Secure v1 is deprecated and no longer supported. See https://developer.paypal.com/braintree/docs/guides/3d-secure/client-side/android/v4 for more information.";
+            return new BraintreeException(threeDSecureV1UnsupportedMessage);
+        }
+
+        if (configuration.getCardinalAuthenticationJwt() == null) {
+            return new BraintreeException("Merchant is not configured for 3DS 2.0. " +
+                    "Please contact Braintree Support for assistance.");
+        }
+        return null;
+    }
+
     /**
      * Creates a stringified JSON object containing the information necessary to perform a lookup
      *
@@ -191,60 +295,52 @@ public class ThreeDSecureClient {
      * @param callback {@link ThreeDSecurePrepareLookupCallback}
      */
     public void prepareLookup(@NonNull final Context context, @NonNull final ThreeDSecureRequest request, @NonNull final ThreeDSecurePrepareLookupCallback callback) {
-        braintreeClient.getAuthorization(new AuthorizationCallback() {
+        braintreeClient.getRequestContext(new BraintreeRequestContextCallback() {
             @Override
-            public void onAuthorizationResult(@Nullable Authorization authorization, @Nullable Exception authError) {
-                if (authorization != null) {
-
-                    final JSONObject lookupJSON = new JSONObject();
-                    try {
-                        lookupJSON
-                                .put("authorizationFingerprint", authorization.getBearer())
-                                .put("braintreeLibraryVersion", "Android-" + BuildConfig.VERSION_NAME)
-                                .put("nonce", request.getNonce())
-                                .put("clientMetadata", new JSONObject()
-                                        .put("requestedThreeDSecureVersion", "2")
-                                        .put("sdkVersion", "Android/" + BuildConfig.VERSION_NAME));
-                    } catch (JSONException ignored) {
-                    }
+            public void onResult(@Nullable final BraintreeRequestContext requestContext, @Nullable Exception error) {
+                if (requestContext == null) {
+                    callback.onResult(null, null, error);
+                    return;
+                }
 
-                    braintreeClient.getConfiguration(new ConfigurationCallback() {
-                        @Override
-                        public void onResult(@Nullable Configuration configuration, @Nullable Exception configError) {
-                            if (configuration == null) {
-                                callback.onResult(null, null, configError);
-                                return;
-                            }
-                            if (configuration.getCardinalAuthenticationJwt() == null) {
-                                Exception authError = new BraintreeException("Merchant is not configured for 3DS 2.0. " +
-                                        "Please contact Braintree Support for assistance.");
-                                callback.onResult(null, null, authError);
-                                return;
-                            }
+                Configuration configuration = requestContext.getConfiguration();
+                if (configuration.getCardinalAuthenticationJwt() == null) {
+                    Exception authError = new BraintreeException("Merchant is not configured for 3DS 2.0. " +
+                            "Please contact Braintree Support for assistance.");
+                    callback.onResult(null, null, authError);
+                    return;
+                }
 
-                            CardinalInitializeCallback cardinalInitializeCallback = new CardinalInitializeCallback() {
-                                @Override
-                                public void onResult(String consumerSessionId, Exception error) {
-                                    if (consumerSessionId != null) {
-                                        try {
-                                            lookupJSON.put("dfReferenceId", consumerSessionId);
-                                        } catch (JSONException ignored) {
-                                        }
-                                    }
-                                    callback.onResult(request, lookupJSON.toString(), null);
-                                }
-                            };
+                final JSONObject lookupJSON = new JSONObject();
+                try {
+                    lookupJSON
+                            .put("authorizationFingerprint", requestContext.getAuthorization().getBearer())
+                            .put("braintreeLibraryVersion", "Android-" + BuildConfig.VERSION_NAME)
+                            .put("nonce", request.getNonce())
+                            .put("clientMetadata", new JSONObject()
+                                    .put("requestedThreeDSecureVersion", "2")
+                                    .put("sdkVersion", "Android/" + BuildConfig.VERSION_NAME));
+                } catch (JSONException ignored) {
+                }
 
+                CardinalInitializeCallback cardinalInitializeCallback = new CardinalInitializeCallback() {
+                    @Override
+                    public void onResult(String consumerSessionId, Exception error) {
+                        if (consumerSessionId != null) {
                             try {
-                                cardinalClient.initialize(context, configuration, request, cardinalInitializeCallback);
-                            } catch (BraintreeException initializeException) {
-                                braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.failed");
-                                callback.onResult(null, null, initializeException);
+                                lookupJSON.put("dfReferenceId", consumerSessionId);
+                            } catch (JSONException ignored) {
                             }
                         }
-                    });
-                } else {
-                    callback.onResult(null, null, authError);
+                        callback.onResult(request, lookupJSON.toString(), null);
+                    }
+                };
+
+                try {
+                    cardinalClient.initialize(context, configuration, request, cardinalInitializeCallback);
+                } catch (BraintreeException initializeException) {
+                    braintreeClient.sendAnalyticsEvent("three-d-secure.cardinal-sdk.init.failed", requestContext);
+                    callback.onResult(null, null, initializeException);
                 }
             }
         });
@@ -415,6 +511,8 @@ public class ThreeDSecureClient {
 
         // perform cardinal authentication
         braintreeClient.sendAnalyticsEvent("three-d-secure.verification-flow.started");
+        challengeSpan = new AnalyticsSpan(CHALLENGE_SPAN);
+        result.setChallengeSpanStart(challengeSpan);
 
         try {
             if (observer != null) {
@@ -495,6 +593,7 @@ public class ThreeDSecureClient {
     public void onActivityResult(int resultCode, @Nullable Intent data, @NonNull final ThreeDSecureResultCallback callback) {
         // V2 flow
         if (resultCode != RESULT_OK) {
+            endChallengeSpan(null, "canceled");
             callback.onResult(null, new UserCanceledException("User canceled 3DS."));
             return;
         }
@@ -504,6 +603,7 @@ public class ThreeDSecureClient {
         String jwt = data.getStringExtra(ThreeDSecureActivity.EXTRA_JWT);
 
         braintreeClient.sendAnalyticsEvent(String.format("three-d-secure.verification-flow.cardinal-sdk.action-code.%s", validateResponse.getActionCode().name().toLowerCase()));
+        endChallengeSpan(threeDSecureResult, validateResponse.getActionCode().name().toLowerCase());
 
         switch (validateResponse.getActionCode()) {
             case FAILURE:
@@ -577,6 +677,7 @@ public class ThreeDSecureClient {
             String jwt = cardinalResult.getJWT();
 
             braintreeClient.sendAnalyticsEvent(String.format("three-d-secure.verification-flow.cardinal-sdk.action-code.%s", validateResponse.getActionCode().name().toLowerCase()));
+            endChallengeSpan(threeDSecureResult, validateResponse.getActionCode().name().toLowerCase());
 
             switch (validateResponse.getActionCode()) {
                 case FAILURE:
@@ -615,6 +716,24 @@ public class ThreeDSecureClient {
         }
     }
 
+    /**
+     * @param threeDSecureResult the result returned by {@link ThreeDSecureActivity}, which carries
+     *                           the challenge start when this client was recreated during the
+     *                           challenge. A canceled challenge returns no result, so its span is
+     *                           only reported by the client that started it.
+     */
+    private void endChallengeSpan(@Nullable ThreeDSecureResult threeDSecureResult, String actionCode) {
+        AnalyticsSpan span = challengeSpan;
+        if (span == null && threeDSecureResult != null) {
+            span = threeDSecureResult.resumeChallengeSpan(CHALLENGE_SPAN);
+        }
+        challengeSpan = null;
+        if (span != null) {
+            span.setAttribute("action_code", actionCode);
+            braintreeClient.sendAnalyticsSpan(span);
+        }
+    }
+
     private void sendLiabilityShiftedAnalytics(ThreeDSecureResult threeDSecureResult) {
         ThreeDSecureInfo info = threeDSecureResult.getTokenizedCard().getThreeDSecureInfo();
 
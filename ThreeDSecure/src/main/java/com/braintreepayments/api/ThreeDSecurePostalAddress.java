@@ -11,6 +11,7 @@ import org.json.JSONObject;
 /**
  * A class containing 3DS information about a postal address
  */
+@JsonSerializable
 public class ThreeDSecurePostalAddress implements Parcelable {
 
     protected static final String FIRST_NAME_KEY = "firstName";
@@ -25,16 +26,26 @@ public class ThreeDSecurePostalAddress implements Parcelable {
     protected static final String PHONE_NUMBER_KEY = "phoneNumber";
     protected static final String BILLING_ADDRESS_KEY = "billingAddress";
 
+    @JsonProperty(FIRST_NAME_KEY)
     private String givenName;
+    @JsonProperty(LAST_NAME_KEY)
     private String surname;
+    @JsonProperty(PHONE_NUMBER_KEY)
+    private String phoneNumber;
+    @JsonProperty(value = STREET_ADDRESS_KEY, parent = BILLING_ADDRESS_KEY)
     private String streetAddress;
+    @JsonProperty(value = EXTENDED_ADDRESS_KEY, parent = BILLING_ADDRESS_KEY)
     private String extendedAddress;
+    @JsonProperty(value = LINE_3_KEY, parent = BILLING_ADDRESS_KEY)
     private String line3;
+    @JsonProperty(value = LOCALITY_KEY, parent = BILLING_ADDRESS_KEY)
     private String locality;
+    @JsonProperty(value = REGION_KEY, parent = BILLING_ADDRESS_KEY)
     private String region;
+    @JsonProperty(value = POSTAL_CODE_KEY, parent = BILLING_ADDRESS_KEY)
     private String postalCode;
+    @JsonProperty(value = COUNTRY_CODE_ALPHA_2_KEY, parent = BILLING_ADDRESS_KEY)
     private String countryCodeAlpha2;
-    private String phoneNumber;
 
     public ThreeDSecurePostalAddress() {}
 
@@ -257,27 +268,11 @@ public class ThreeDSecurePostalAddress implements Parcelable {
      * @return JSONObject representation of {@link ThreeDSecurePostalAddress}.
      */
     public JSONObject toJson() {
-        JSONObject base = new JSONObject();
-        JSONObject billingAddress = new JSONObject();
-
         try {
-            base.putOpt(ThreeDSecurePostalAddress.FIRST_NAME_KEY, givenName);
-            base.putOpt(ThreeDSecurePostalAddress.LAST_NAME_KEY, surname);
-            base.putOpt(ThreeDSecurePostalAddress.PHONE_NUMBER_KEY, phoneNumber);
-
-            billingAddress.putOpt(ThreeDSecurePostalAddress.STREET_ADDRESS_KEY, streetAddress);
-            billingAddress.putOpt(ThreeDSecurePostalAddress.EXTENDED_ADDRESS_KEY, extendedAddress);
-            billingAddress.putOpt(ThreeDSecurePostalAddress.LINE_3_KEY, line3);
-            billingAddress.putOpt(ThreeDSecurePostalAddress.LOCALITY_KEY, locality);
-            billingAddress.putOpt(ThreeDSecurePostalAddress.REGION_KEY, region);
-            billingAddress.putOpt(ThreeDSecurePostalAddress.POSTAL_CODE_KEY, postalCode);
-            billingAddress.putOpt(ThreeDSecurePostalAddress.COUNTRY_CODE_ALPHA_2_KEY, countryCodeAlpha2);
-
-            if (billingAddress.length() != 0) {
-                base.putOpt(ThreeDSecurePostalAddress.BILLING_ADDRESS_KEY, billingAddress);
-            }
-        } catch (JSONException ignored) {}
-
-        return base;
+            return ThreeDSecurePostalAddressJsonSerializer.toJsonObject(this);
+        } catch (JSONException ignored) {
+        }
+
+        return new JSONObject();
     }
 }
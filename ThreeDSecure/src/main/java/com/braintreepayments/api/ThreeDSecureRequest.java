@@ -464,54 +464,12 @@ public class ThreeDSecureRequest implements Parcelable {
      * @return String representation of {@link ThreeDSecureRequest} for API use.
      */
     public String build(String dfReferenceId) {
-        JSONObject additionalInfo;
-        JSONObject base = new JSONObject();
-        ThreeDSecurePostalAddress billing = getBillingAddress();
-
-        if (getAdditionalInformation() == null) {
-            additionalInfo = new JSONObject();
-        } else {
-            additionalInfo = getAdditionalInformation().toJson();
-        }
-
         try {
-            base.put("amount", amount);
-            base.put("additional_info", additionalInfo);
-            base.putOpt("account_type", accountType);
-
-            if (cardAddChallengeRequested != null) {
-               base.put("card_add", cardAddChallengeRequested);
-            }
-
-            additionalInfo.putOpt("mobile_phone_number", getMobilePhoneNumber());
-            additionalInfo.putOpt("shipping_method", getShippingMethodAsString());
-            additionalInfo.putOpt("email", getEmail());
-
-            if (billing != null) {
-                additionalInfo.putOpt("billing_given_name", billing.getGivenName());
-                additionalInfo.putOpt("billing_surname", billing.getSurname());
-                additionalInfo.putOpt("billing_line1", billing.getStreetAddress());
-                additionalInfo.putOpt("billing_line2", billing.getExtendedAddress());
-                additionalInfo.putOpt("billing_line3", billing.getLine3());
-                additionalInfo.putOpt("billing_city", billing.getLocality());
-                additionalInfo.putOpt("billing_state", billing.getRegion());
-                additionalInfo.putOpt("billing_postal_code", billing.getPostalCode());
-                additionalInfo.putOpt("billing_country_code", billing.getCountryCodeAlpha2());
-                additionalInfo.putOpt("billing_phone_number", billing.getPhoneNumber());
-            }
-
-            if (VERSION_2.equals(getVersionRequested())) {
-                base.putOpt("df_reference_id", dfReferenceId);
-            }
-
-            base.put("challenge_requested", challengeRequested);
-            base.put("data_only_requested", dataOnlyRequested);
-            base.put("exemption_requested", exemptionRequested);
-            base.put("requested_exemption_type", requestedExemptionType);
+            return ThreeDSecureRequest_LookupBodyJsonSerializer.toJson(new LookupBody(this, dfReferenceId));
         } catch (JSONException ignored) {
         }
 
-        return base.toString();
+        return new JSONObject().toString();
     }
 
     private String getShippingMethodAsString() {
@@ -532,4 +490,166 @@ public class ThreeDSecureRequest implements Parcelable {
                 return null;
         }
     }
+
+    /**
+     * The body of the 3DS lookup request.
+     */
+    @JsonSerializable
+    static class LookupBody {
+
+        private final ThreeDSecureRequest request;
+        private final String dfReferenceId;
+
+        LookupBody(ThreeDSecureRequest request, String dfReferenceId) {
+            this.request = request;
+            this.dfReferenceId = dfReferenceId;
+        }
+
+        @JsonProperty("amount")
+        String getAmount() {
+            return request.getAmount();
+        }
+
+        @JsonProperty("additional_info")
+        AdditionalInfo getAdditionalInfo() {
+            return new AdditionalInfo(request);
+        }
+
+        @JsonProperty("account_type")
+        String getAccountType() {
+            return request.getAccountType();
+        }
+
+        @JsonProperty("card_add")
+        Boolean isCardAddChallengeRequested() {
+            return request.isCardAddChallengeRequested();
+        }
+
+        @JsonProperty("df_reference_id")
+        String getDfReferenceId() {
+            return VERSION_2.equals(request.getVersionRequested()) ? dfReferenceId : null;
+        }
+
+        @JsonProperty("challenge_requested")
+        boolean isChallengeRequested() {
+            return request.isChallengeRequested();
+        }
+
+        @JsonProperty("data_only_requested")
+        boolean isDataOnlyRequested() {
+            return request.isDataOnlyRequested();
+        }
+
+        @JsonProperty("exemption_requested")
+        boolean isExemptionRequested() {
+            return request.isExemptionRequested();
+        }
+
+        @JsonProperty("requested_exemption_type")
+        String getRequestedExemptionType() {
+            return request.getRequestedExemptionType();
+        }
+    }
+
+    /**
+     * The additional_info object of the lookup request, always written.
+     */
+    @JsonSerializable
+    static class AdditionalInfo {
+
+        private final ThreeDSecureRequest request;
+
+        AdditionalInfo(ThreeDSecureRequest request) {
+            this.request = request;
+        }
+
+        @JsonUnwrapped
+        ThreeDSecureAdditionalInformation getAdditionalInformation() {
+            return request.getAdditionalInformation();
+        }
+
+        @JsonProperty("mobile_phone_number")
+        String getMobilePhoneNumber() {
+            return request.getMobilePhoneNumber();
+        }
+
+        @JsonProperty("shipping_method")
+        String getShippingMethod() {
+            return request.getShippingMethodAsString();
+        }
+
+        @JsonProperty("email")
+        String getEmail() {
+            return request.getEmail();
+        }
+
+        @JsonUnwrapped
+        BillingFields getBillingFields() {
+            ThreeDSecurePostalAddress billingAddress = request.getBillingAddress();
+            return billingAddress == null ? null : new BillingFields(billingAddress);
+        }
+    }
+
+    /**
+     * The billing address, written into additional_info with billing_ keys.
+     */
+    @JsonSerializable
+    static class BillingFields {
+
+        private final ThreeDSecurePostalAddress address;
+
+        BillingFields(ThreeDSecurePostalAddress address) {
+            this.address = address;
+        }
+
+        @JsonProperty("billing_given_name")
+        String getGivenName() {
+            return address.getGivenName();
+        }
+
+        @JsonProperty("billing_surname")
+        String getSurname() {
+            return address.getSurname();
+        }
+
+        @JsonProperty("billing_line1")
+        String getStreetAddress() {
+            return address.getStreetAddress();
+        }
+
+        @JsonProperty("billing_line2")
+        String getExtendedAddress() {
+            return address.getExtendedAddress();
+        }
+
+        @JsonProperty("billing_line3")
+        String getLine3() {
+            return address.getLine3();
+        }
+
+        @JsonProperty("billing_city")
+        String getLocality() {
+            return address.getLocality();
+        }
+
+        @JsonProperty("billing_state")
+        String getRegion() {
+            return address.getRegion();
+        }
+
+        @JsonProperty("billing_postal_code")
+        String getPostalCode() {
+            return address.getPostalCode();
+        }
+
+        @JsonProperty("billing_country_code")
+        String getCountryCodeAlpha2() {
+            return address.getCountryCodeAlpha2();
+        }
+
+        @JsonProperty("billing_phone_number")
+        String getPhoneNumber() {
+            return address.getPhoneNumber();
+        }
+    }
 }
@@ -24,6 +24,11 @@ public class ThreeDSecureResult implements Parcelable {
 
     private ThreeDSecureLookup lookup;
 
+    // start of the challenge span, parceled with the result passed to ThreeDSecureActivity so
+    // the span survives process death while the challenge is shown
+    private long challengeStartTimestamp;
+    private long challengeStartElapsedRealtime;
+
     /**
      * Used to parse a response from the Braintree Gateway to be used for 3D Secure.
      *
@@ -88,6 +93,22 @@ public class ThreeDSecureResult implements Parcelable {
         return lookup;
     }
 
+    void setChallengeSpanStart(AnalyticsSpan span) {
+        challengeStartTimestamp = span.getStartTimestamp();
+        challengeStartElapsedRealtime = span.getStartElapsedRealtime();
+    }
+
+    /**
+     * @return a span resumed from the challenge start, or null if no challenge was started
+     */
+    @Nullable
+    AnalyticsSpan resumeChallengeSpan(String spanName) {
+        if (challengeStartTimestamp == 0) {
+            return null;
+        }
+        return new AnalyticsSpan(spanName, challengeStartTimestamp, challengeStartElapsedRealtime);
+    }
+
     ThreeDSecureResult() {
     }
 
@@ -101,12 +122,16 @@ public class ThreeDSecureResult implements Parcelable {
         dest.writeParcelable(tokenizedCard, flags);
         dest.writeString(errorMessage);
         dest.writeParcelable(lookup, flags);
+        dest.writeLong(challengeStartTimestamp);
+        dest.writeLong(challengeStartElapsedRealtime);
     }
 
     private ThreeDSecureResult(Parcel in) {
         tokenizedCard = in.readParcelable(CardNonce.class.getClassLoader());
         errorMessage = in.readString();
         lookup = in.readParcelable(ThreeDSecureLookup.class.getClassLoader());
+        challengeStartTimestamp = in.readLong();
+        challengeStartElapsedRealtime = in.readLong();
     }
 
     public static final Creator<ThreeDSecureResult> CREATOR =
@@ -269,4 +269,90 @@ public class ThreeDSecureAdditionalInformationUnitTest {
         assertTrue(jsonParams.isNull("sdk_max_timeout"));
         assertTrue(jsonParams.isNull("work_phone_number"));
     }
+
+    @Test
+    public void toJson_matchesJSONObjectOutputByteForByte() throws JSONException {
+        ThreeDSecurePostalAddress shippingAddress = new ThreeDSecurePostalAddress();
+        shippingAddress.setGivenName("shipping-given-name");
+        shippingAddress.setStreetAddress("1/2 \"Main\" St");
+        shippingAddress.setPostalCode("shipping-postal-code");
+
+        ThreeDSecureAdditionalInformation additionalInformation = new ThreeDSecureAdditionalInformation();
+        additionalInformation.setShippingAddress(shippingAddress);
+        additionalInformation.setDeliveryEmail("delivery/email@example.com");
+        additionalInformation.setAccountId("account_id");
+        additionalInformation.setOrderDescription("Caf\u00e9\tlatte");
+        additionalInformation.setWorkPhoneNumber("5551115555");
+
+        String expected = toJsonWithJSONObject(additionalInformation);
+        assertEquals(expected, additionalInformation.toJson().toString());
+        assertEquals(expected, ThreeDSecureAdditionalInformationJsonSerializer.toJson(additionalInformation));
+    }
+
+    @Test
+    public void toJson_withNoFieldsSet_matchesJSONObjectOutputByteForByte() throws JSONException {
+        ThreeDSecureAdditionalInformation additionalInformation = new ThreeDSecureAdditionalInformation();
+
+        assertEquals("{}", additionalInformation.toJson().toString());
+        assertEquals("{}", ThreeDSecureAdditionalInformationJsonSerializer.toJson(additionalInformation));
+    }
+
+    // the JSONObject tree ThreeDSecureAdditionalInformation#toJson() used to build
+    private static String toJsonWithJSONObject(ThreeDSecureAdditionalInformation additionalInformation)
+            throws JSONException {
+        JSONObject json = new JSONObject();
+        ThreeDSecurePostalAddress shippingAddress = additionalInformation.getShippingAddress();
+        if (shippingAddress != null) {
+            json.putOpt("shipping_given_name", shippingAddress.getGivenName());
+            json.putOpt("shipping_surname", shippingAddress.getSurname());
+            json.putOpt("shipping_phone", shippingAddress.getPhoneNumber());
+            json.putOpt("shipping_line1", shippingAddress.getStreetAddress());
+            json.putOpt("shipping_line2", shippingAddress.getExtendedAddress());
+            json.putOpt("shipping_line3", shippingAddress.getLine3());
+            json.putOpt("shipping_city", shippingAddress.getLocality());
+            json.putOpt("shipping_state", shippingAddress.getRegion());
+            json.putOpt("shipping_postal_code", shippingAddress.getPostalCode());
+            json.putOpt("shipping_country_code", shippingAddress.getCountryCodeAlpha2());
+        }
+        json.putOpt("shipping_method_indicator", additionalInformation.getShippingMethodIndicator());
+        json.putOpt("product_code", additionalInformation.getProductCode());
+        json.putOpt("delivery_timeframe", additionalInformation.getDeliveryTimeframe());
+        json.putOpt("delivery_email", additionalInformation.getDeliveryEmail());
+        json.putOpt("reorder_indicator", additionalInformation.getReorderIndicator());
+        json.putOpt("preorder_indicator", additionalInformation.getPreorderIndicator());
+        json.putOpt("preorder_date", additionalInformation.getPreorderDate());
+        json.putOpt("gift_card_amount", additionalInformation.getGiftCardAmount());
+        json.putOpt("gift_card_currency_code", additionalInformation.getGiftCardCurrencyCode());
+        json.putOpt("gift_card_count", additionalInformation.getGiftCardCount());
+        json.putOpt("account_age_indicator", additionalInformation.getAccountAgeIndicator());
+        json.putOpt("account_create_date", additionalInformation.getAccountCreateDate());
+        json.putOpt("account_change_indicator", additionalInformation.getAccountChangeIndicator());
+        json.putOpt("account_change_date", additionalInformation.getAccountChangeDate());
+        json.putOpt("account_pwd_change_indicator", additionalInformation.getAccountPwdChangeIndicator());
+        json.putOpt("account_pwd_change_date", additionalInformation.getAccountPwdChangeDate());
+        json.putOpt("shipping_address_usage_indicator", additionalInformation.getShippingAddressUsageIndicator());
+        json.putOpt("shipping_address_usage_date", additionalInformation.getShippingAddressUsageDate());
+        json.putOpt("transaction_count_day", additionalInformation.getTransactionCountDay());
+        json.putOpt("transaction_count_year", additionalInformation.getTransactionCountYear());
+        json.putOpt("add_card_attempts", additionalInformation.getAddCardAttempts());
+        json.putOpt("account_purchases", additionalInformation.getAccountPurchases());
+        json.putOpt("fraud_activity", additionalInformation.getFraudActivity());
+        json.putOpt("shipping_name_indicator", additionalInformation.getShippingNameIndicator());
+        json.putOpt("payment_account_indicator", additionalInformation.getPaymentAccountIndicator());
+        json.putOpt("payment_account_age", additionalInformation.getPaymentAccountAge());
+        json.putOpt("address_match", additionalInformation.getAddressMatch());
+        json.putOpt("account_id", additionalInformation.getAccountId());
+        json.putOpt("ip_address", additionalInformation.getIpAddress());
+        json.putOpt("order_description", additionalInformation.getOrderDescription());
+        json.putOpt("tax_amount", additionalInformation.getTaxAmount());
+        json.putOpt("user_agent", additionalInformation.getUserAgent());
+        json.putOpt("authentication_indicator", additionalInformation.getAuthenticationIndicator());
+        json.putOpt("installment", additionalInformation.getInstallment());
+        json.putOpt("purchase_date", additionalInformation.getPurchaseDate());
+        json.putOpt("recurring_end", additionalInformation.getRecurringEnd());
+        json.putOpt("recurring_frequency", additionalInformation.getRecurringFrequency());
+        json.putOpt("sdk_max_timeout", additionalInformation.getSdkMaxTimeout());
+        json.putOpt("work_phone_number", additionalInformation.getWorkPhoneNumber());
+        return json.toString();
+    }
 }
@@ -10,7 +10,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -36,6 +38,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
@@ -410,6 +413,28 @@ public class ThreeDSecureClientUnitTest {
         verify(braintreeClient).sendAnalyticsEvent("three-d-secure.verification-flow.cardinal-sdk.action-code.success");
     }
 
+    @Test
+    public void onCardinalResult_whenClientWasRecreatedDuringChallenge_sendsChallengeSpanFromResult() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+
+        ValidateResponse validateResponse = mock(ValidateResponse.class);
+        when(validateResponse.getActionCode()).thenReturn(CardinalActionCode.SUCCESS);
+        threeDSecureResult.setChallengeSpanStart(new AnalyticsSpan("three-d-secure.challenge", 100L, 200L));
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.setListener(listener);
+
+        CardinalResult cardinalResult = new CardinalResult(threeDSecureResult, "jwt", validateResponse);
+        sut.onCardinalResult(cardinalResult);
+
+        ArgumentCaptor<AnalyticsSpan> captor = ArgumentCaptor.forClass(AnalyticsSpan.class);
+        verify(braintreeClient).sendAnalyticsSpan(captor.capture());
+        assertEquals("three-d-secure.challenge", captor.getValue().getName());
+        assertEquals(100L, captor.getValue().getStartTimestamp());
+        assertEquals("success", captor.getValue().getAttributes().get("action_code"));
+    }
+
     @Test
     public void onCardinalResult_whenValidateResponseTimeout_returnsErrorAndSendsAnalytics() throws BraintreeException {
         CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
@@ -703,4 +728,160 @@ public class ThreeDSecureClientUnitTest {
         BrowserSwitchResult result = sut.deliverBrowserSwitchResultFromNewTask(activity);
         assertSame(browserSwitchResult, result);
     }
+
+    @Test
+    public void tokenizeAndVerify_setsUpCardinalWhileTokenizing_andPerformsLookupWithNonce() throws BraintreeException, JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+        CardinalClient cardinalClient = mock(CardinalClient.class);
+        when(cardinalClient.getConsumerSessionId()).thenReturn("df-reference-id");
+        CardClient cardClient = mock(CardClient.class);
+        Card card = new Card();
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("amount");
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.tokenizeAndVerify(activity, cardClient, card, request, threeDSecureResultCallback);
+
+        ArgumentCaptor<CardinalInitializeCallback> cardinalCaptor = ArgumentCaptor.forClass(CardinalInitializeCallback.class);
+        ArgumentCaptor<BraintreeRequestContext> requestContextCaptor = ArgumentCaptor.forClass(BraintreeRequestContext.class);
+        ArgumentCaptor<CardTokenizeCallback> tokenizeCaptor = ArgumentCaptor.forClass(CardTokenizeCallback.class);
+        InOrder inOrder = inOrder(cardinalClient, cardClient);
+        inOrder.verify(cardinalClient).initialize(same(activity), same(threeDSecureEnabledConfig), same(request), cardinalCaptor.capture());
+        inOrder.verify(cardClient).tokenize(same(card), requestContextCaptor.capture(), tokenizeCaptor.capture());
+        verify(braintreeClient, never()).getConfiguration(any(ConfigurationCallback.class));
+
+        tokenizeCaptor.getValue().onResult(CardNonce.fromJSON(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD)), null);
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), anyString(), any(BraintreeRequestContext.class), any(ThreeDSecureResultCallback.class));
+
+        cardinalCaptor.getValue().onResult("df-reference-id", null);
+        assertEquals("3744a73e-b1ab-0dbd-85f0-c12a0a4bd3d1", request.getNonce());
+        verify(threeDSecureAPI).performLookup(same(request), eq("df-reference-id"), same(requestContextCaptor.getValue()), same(threeDSecureResultCallback));
+        verify(braintreeClient).sendAnalyticsEvent(eq("three-d-secure.cardinal-sdk.init.setup-completed"), any(BraintreeRequestContext.class));
+    }
+
+    @Test
+    public void tokenizeAndVerify_whenCardinalSetupCompletesFirst_performsLookupOnceCardIsTokenized() throws BraintreeException, JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .error(new Exception("setup failed"))
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("amount");
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.tokenizeAndVerify(activity, cardClient, new Card(), request, threeDSecureResultCallback);
+
+        verify(threeDSecureAPI, never()).performLookup(any(ThreeDSecureRequest.class), any(), any(BraintreeRequestContext.class), any(ThreeDSecureResultCallback.class));
+
+        ArgumentCaptor<CardTokenizeCallback> tokenizeCaptor = ArgumentCaptor.forClass(CardTokenizeCallback.class);
+        verify(cardClient).tokenize(any(Card.class), any(BraintreeRequestContext.class), tokenizeCaptor.capture());
+        tokenizeCaptor.getValue().onResult(CardNonce.fromJSON(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD)), null);
+
+        verify(threeDSecureAPI).performLookup(same(request), (String) isNull(), any(BraintreeRequestContext.class), same(threeDSecureResultCallback));
+        verify(braintreeClient).sendAnalyticsEvent(eq("three-d-secure.cardinal-sdk.init.setup-failed"), any(BraintreeRequestContext.class));
+    }
+
+    @Test
+    public void tokenizeAndVerify_whenTokenizationFails_forwardsErrorWithoutLookup() throws BraintreeException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .successReferenceId("df-reference-id")
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+        final Exception tokenizeError = new ErrorWithResponse(422, "");
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                ((CardTokenizeCallback) invocation.getArguments()[2]).onResult(null, tokenizeError);
+                return null;
+            }
+        }).when(cardClient).tokenize(any(Card.class), any(BraintreeRequestContext.class), any(CardTokenizeCallback.class));
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("amount");
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.tokenizeAndVerify(activity, cardClient, new Card(), request, threeDSecureResultCallback);
+
+        verify(threeDSecureResultCallback).onResult(null, tokenizeError);
+        verifyNoMoreInteractions(threeDSecureAPI);
+    }
+
+    @Test
+    public void tokenizeAndVerify_whenCardinalInitializeFails_forwardsErrorWithoutTokenizing() throws BraintreeException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+        BraintreeException initializeError = new BraintreeException("initialize error");
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .initializeRuntimeError(initializeError)
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("amount");
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.tokenizeAndVerify(activity, cardClient, new Card(), request, threeDSecureResultCallback);
+
+        verify(threeDSecureResultCallback).onResult(null, initializeError);
+        verifyNoMoreInteractions(cardClient);
+        verify(braintreeClient).sendAnalyticsEvent(eq("three-d-secure.cardinal-sdk.init.failed"), any(BraintreeRequestContext.class));
+    }
+
+    @Test
+    public void tokenizeAndVerify_whenThreeDSecureIsDisabled_forwardsErrorWithoutTokenizing() throws BraintreeException {
+        Configuration configuration = new TestConfigurationBuilder()
+                .threeDSecureEnabled(false)
+                .buildConfiguration();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(configuration)
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+        CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
+        CardClient cardClient = mock(CardClient.class);
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("amount");
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.tokenizeAndVerify(activity, cardClient, new Card(), request, threeDSecureResultCallback);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(threeDSecureResultCallback).onResult((ThreeDSecureResult) isNull(), captor.capture());
+        assertEquals("Three D Secure is not enabled for this account. " +
+                "Please contact Braintree Support for assistance.", captor.getValue().getMessage());
+        verifyNoMoreInteractions(cardClient);
+    }
+
+    @Test
+    public void tokenizeAndVerify_withoutAmount_forwardsError() throws BraintreeException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(threeDSecureEnabledConfig)
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .build();
+        CardClient cardClient = mock(CardClient.class);
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, new MockCardinalClientBuilder().build(), threeDSecureAPI);
+        sut.tokenizeAndVerify(activity, cardClient, new Card(), new ThreeDSecureRequest(), threeDSecureResultCallback);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(threeDSecureResultCallback).onResult((ThreeDSecureResult) isNull(), captor.capture());
+        assertTrue(captor.getValue() instanceof InvalidArgumentException);
+        assertEquals("The ThreeDSecureRequest amount cannot be null", captor.getValue().getMessage());
+        verifyNoMoreInteractions(cardClient);
+    }
 }
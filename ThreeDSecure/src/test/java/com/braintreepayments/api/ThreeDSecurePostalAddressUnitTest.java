@@ -137,4 +137,44 @@ public class ThreeDSecurePostalAddressUnitTest {
         assertTrue(jsonParams.isNull("lastName"));
         assertTrue(jsonParams.isNull("phoneNumber"));
     }
+
+    @Test
+    public void testToJson_matchesJSONObjectOutputByteForByte() throws JSONException {
+        ThreeDSecurePostalAddress postalAddress = new ThreeDSecurePostalAddress();
+        postalAddress.setGivenName("Jos\u00e9");
+        postalAddress.setPhoneNumber("5151231234");
+        postalAddress.setStreetAddress("1/2 \"Main\" St");
+        postalAddress.setCountryCodeAlpha2("US");
+
+        assertEquals(toJsonWithJSONObject(postalAddress), postalAddress.toJson().toString());
+        assertEquals(toJsonWithJSONObject(postalAddress),
+                ThreeDSecurePostalAddressJsonSerializer.toJson(postalAddress));
+
+        ThreeDSecurePostalAddress emptyAddress = new ThreeDSecurePostalAddress();
+        assertEquals("{}", emptyAddress.toJson().toString());
+        assertEquals("{}", ThreeDSecurePostalAddressJsonSerializer.toJson(emptyAddress));
+    }
+
+    // the JSONObject tree ThreeDSecurePostalAddress#toJson() used to build
+    private static String toJsonWithJSONObject(ThreeDSecurePostalAddress postalAddress) throws JSONException {
+        JSONObject base = new JSONObject();
+        JSONObject billingAddress = new JSONObject();
+
+        base.putOpt("firstName", postalAddress.getGivenName());
+        base.putOpt("lastName", postalAddress.getSurname());
+        base.putOpt("phoneNumber", postalAddress.getPhoneNumber());
+
+        billingAddress.putOpt("line1", postalAddress.getStreetAddress());
+        billingAddress.putOpt("line2", postalAddress.getExtendedAddress());
+        billingAddress.putOpt("line3", postalAddress.getLine3());
+        billingAddress.putOpt("city", postalAddress.getLocality());
+        billingAddress.putOpt("state", postalAddress.getRegion());
+        billingAddress.putOpt("postalCode", postalAddress.getPostalCode());
+        billingAddress.putOpt("countryCode", postalAddress.getCountryCodeAlpha2());
+
+        if (billingAddress.length() != 0) {
+            base.put("billingAddress", billingAddress);
+        }
+        return base.toString();
+    }
 }
@@ -319,4 +319,112 @@ public class ThreeDSecureRequestUnitTest {
         JSONObject json = new JSONObject(threeDSecureRequest.build("df-reference-id"));
         assertFalse(json.getBoolean("card_add"));
     }
+
+    @Test
+    public void build_matchesJSONObjectOutputByteForByte() throws JSONException {
+        ThreeDSecurePostalAddress shippingAddress = new ThreeDSecurePostalAddress();
+        shippingAddress.setGivenName("Jos\u00e9");
+        shippingAddress.setStreetAddress("1/2 \"Main\" St\n");
+        shippingAddress.setCountryCodeAlpha2("US");
+
+        ThreeDSecureAdditionalInformation additionalInformation = new ThreeDSecureAdditionalInformation();
+        additionalInformation.setShippingAddress(shippingAddress);
+        additionalInformation.setAccountId("account-id");
+        additionalInformation.setUserAgent("Mozilla/5.0 (Linux; Android 14)");
+
+        ThreeDSecurePostalAddress billingAddress = new ThreeDSecurePostalAddress();
+        billingAddress.setGivenName("billing-given-name");
+        billingAddress.setExtendedAddress("Apt \\ 4");
+        billingAddress.setPhoneNumber("billing-phone-number");
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setAmount("1.00");
+        request.setEmail("email@example.com");
+        request.setShippingMethod(ThreeDSecureShippingMethod.SHIP_TO_STORE);
+        request.setBillingAddress(billingAddress);
+        request.setAdditionalInformation(additionalInformation);
+        request.setChallengeRequested(true);
+        request.setCardAddChallengeRequested(false);
+        request.setAccountType(ThreeDSecureRequest.DEBIT);
+        request.setRequestedExemptionType(ThreeDSecureRequest.LOW_VALUE);
+
+        assertEquals(buildWithJSONObject(request, "df/reference-id"), request.build("df/reference-id"));
+    }
+
+    @Test
+    public void build_withNoFieldsSet_matchesJSONObjectOutputByteForByte() throws JSONException {
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+
+        assertEquals(buildWithJSONObject(request, null), request.build(null));
+    }
+
+    @Test
+    public void build_withVersion1_matchesJSONObjectOutputByteForByte() throws JSONException {
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setVersionRequested(VERSION_1);
+        request.setAmount("1.00");
+        request.setAdditionalInformation(new ThreeDSecureAdditionalInformation());
+
+        assertEquals(buildWithJSONObject(request, "df-reference-id"), request.build("df-reference-id"));
+    }
+
+    // the JSONObject tree ThreeDSecureRequest#build() used to serialize
+    private static String buildWithJSONObject(ThreeDSecureRequest request, String dfReferenceId) throws JSONException {
+        JSONObject base = new JSONObject();
+        ThreeDSecurePostalAddress billing = request.getBillingAddress();
+        JSONObject additionalInfo = (request.getAdditionalInformation() == null)
+                ? new JSONObject() : request.getAdditionalInformation().toJson();
+
+        base.put("amount", request.getAmount());
+        base.put("additional_info", additionalInfo);
+        base.putOpt("account_type", request.getAccountType());
+        if (request.isCardAddChallengeRequested() != null) {
+            base.put("card_add", request.isCardAddChallengeRequested());
+        }
+
+        additionalInfo.putOpt("mobile_phone_number", request.getMobilePhoneNumber());
+        additionalInfo.putOpt("shipping_method", shippingMethodAsString(request.getShippingMethod()));
+        additionalInfo.putOpt("email", request.getEmail());
+        if (billing != null) {
+            additionalInfo.putOpt("billing_given_name", billing.getGivenName());
+            additionalInfo.putOpt("billing_surname", billing.getSurname());
+            additionalInfo.putOpt("billing_line1", billing.getStreetAddress());
+            additionalInfo.putOpt("billing_line2", billing.getExtendedAddress());
+            additionalInfo.putOpt("billing_line3", billing.getLine3());
+            additionalInfo.putOpt("billing_city", billing.getLocality());
+            additionalInfo.putOpt("billing_state", billing.getRegion());
+            additionalInfo.putOpt("billing_postal_code", billing.getPostalCode());
+            additionalInfo.putOpt("billing_country_code", billing.getCountryCodeAlpha2());
+            additionalInfo.putOpt("billing_phone_number", billing.getPhoneNumber());
+        }
+
+        if (VERSION_2.equals(request.getVersionRequested())) {
+            base.putOpt("df_reference_id", dfReferenceId);
+        }
+
+        base.put("challenge_requested", request.isChallengeRequested());
+        base.put("data_only_requested", request.isDataOnlyRequested());
+        base.put("exemption_requested", request.isExemptionRequested());
+        base.put("requested_exemption_type", request.getRequestedExemptionType());
+        return base.toString();
+    }
+
+    private static String shippingMethodAsString(int shippingMethod) {
+        switch (shippingMethod) {
+            case ThreeDSecureShippingMethod.SAME_DAY:
+                return "01";
+            case ThreeDSecureShippingMethod.EXPEDITED:
+                return "02";
+            case ThreeDSecureShippingMethod.PRIORITY:
+                return "03";
+            case ThreeDSecureShippingMethod.GROUND:
+                return "04";
+            case ThreeDSecureShippingMethod.ELECTRONIC_DELIVERY:
+                return "05";
+            case ThreeDSecureShippingMethod.SHIP_TO_STORE:
+                return "06";
+            default:
+                return null;
+        }
+    }
 }
@@ -73,4 +73,28 @@ public class ThreeDSecureResultUnitTest {
         assertEquals(authResponse.getTokenizedCard().getThreeDSecureInfo().isLiabilityShiftPossible(),
                 parceled.getTokenizedCard().getThreeDSecureInfo().isLiabilityShiftPossible());
     }
+
+    @Test
+    public void isParcelable_withChallengeSpanStart() throws JSONException {
+        ThreeDSecureResult result = ThreeDSecureResult.fromJson(
+                Fixtures.THREE_D_SECURE_AUTHENTICATION_RESPONSE);
+        result.setChallengeSpanStart(new AnalyticsSpan("three-d-secure.challenge", 100L, 200L));
+        Parcel parcel = Parcel.obtain();
+        result.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+
+        ThreeDSecureResult parceled = ThreeDSecureResult.CREATOR.createFromParcel(parcel);
+        AnalyticsSpan span = parceled.resumeChallengeSpan("three-d-secure.challenge");
+
+        assertEquals("three-d-secure.challenge", span.getName());
+        assertEquals(100L, span.getStartTimestamp());
+        assertEquals(200L, span.getStartElapsedRealtime());
+    }
+
+    @Test
+    public void resumeChallengeSpan_withoutChallengeSpanStart_returnsNull() throws JSONException {
+        ThreeDSecureResult result = ThreeDSecureResult.fromJson(
+                Fixtures.THREE_D_SECURE_AUTHENTICATION_RESPONSE);
+        assertNull(result.resumeChallengeSpan("three-d-secure.challenge"));
+    }
 }
@@ -8,11 +8,13 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -178,6 +180,27 @@ public class ThreeDSecureV2UnitTest {
         verify(callback).onResult(null, null, initializeRuntimeError);
     }
 
+    @Test
+    public void prepareLookup_whenCardinalClientInitializeFails_sendsAnalyticsEventWithResolvedRequestContext() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder()
+                .initializeRuntimeError(new BraintreeException("initialize error"))
+                .build();
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(threeDSecureEnabledConfig)
+                .build();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, new ThreeDSecureAPI(braintreeClient));
+
+        ThreeDSecurePrepareLookupCallback callback = mock(ThreeDSecurePrepareLookupCallback.class);
+        sut.prepareLookup(activity, basicRequest, callback);
+
+        verify(braintreeClient).getRequestContext(any(BraintreeRequestContextCallback.class));
+        verify(braintreeClient).sendAnalyticsEvent(eq("three-d-secure.cardinal-sdk.init.failed"), any(BraintreeRequestContext.class));
+        verify(braintreeClient, never()).getConfiguration(any(ConfigurationCallback.class));
+    }
+
     @Test
     public void prepareLookup_withoutCardinalJWT_postsException() throws BraintreeException {
         CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
@@ -0,0 +1,185 @@
+package com.braintreepayments.api;
+
+import android.util.Base64;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Caches {@link UnionPayCapabilities} by BIN prefix so repeated lookups of the same card, e.g. on
+ * every edit of a card form, resolve from memory. At most {@link #DEFAULT_MAX_ENTRIES} entries are
+ * kept, evicting the least recently used, and each entry expires after
+ * {@link #DEFAULT_TIME_TO_LIVE_MILLIS}.
+ *
+ * Keys are HMACs of the prefix under a random key that only lives in this instance, so card digits
+ * can't be recovered from them, even by hashing every possible prefix. Callers that look up a
+ * prefix while a request for it is already in flight wait for that request instead of sending
+ * another.
+ */
+class UnionPayCapabilitiesCache {
+
+    @VisibleForTesting
+    static final int DEFAULT_MAX_ENTRIES = 16;
+
+    @VisibleForTesting
+    static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final int MIN_PREFIX_DIGITS = 6;
+    private static final int MAX_PREFIX_DIGITS = 8;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String KEY_ALGORITHM = "HmacSHA256";
+    private static final int KEY_LENGTH_BYTES = 32;
+
+    private static class Entry {
+
+        final UnionPayCapabilities capabilities;
+        final long storedAt;
+
+        Entry(UnionPayCapabilities capabilities, long storedAt) {
+            this.capabilities = capabilities;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final long timeToLiveMillis;
+
+    // null if HMAC isn't available, in which case nothing is cached; guarded by this
+    @Nullable
+    private final Mac keyMac;
+
+    // guarded by this
+    private final Map<String, Entry> entries;
+    private final Map<String, List<UnionPayFetchCapabilitiesCallback>> pendingCallbacks =
+            new HashMap<>();
+
+    UnionPayCapabilitiesCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TIME_TO_LIVE_MILLIS);
+    }
+
+    @VisibleForTesting
+    UnionPayCapabilitiesCache(final int maxEntries, long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.keyMac = createKeyMac();
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Nullable
+    private static Mac createKeyMac() {
+        byte[] key = new byte[KEY_LENGTH_BYTES];
+        new SecureRandom().nextBytes(key);
+        try {
+            Mac mac = Mac.getInstance(KEY_ALGORITHM);
+            mac.init(new SecretKeySpec(key, KEY_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param cardNumber the card number; spaces and dashes are ignored
+     * @param isBinPrefixKey whether cards that share their first 8 digits share a key. Sandbox test
+     * cards share BINs but have different capabilities, so outside of production every digit of
+     * the number is part of the key.
+     * @return an HMAC of the first 6 to 8 digits of the number, or of all of them if
+     * {@code isBinPrefixKey} is false, or {@code null} if the number has fewer than 6 digits and
+     * shouldn't be cached. Keys are only valid for this instance.
+     */
+    @Nullable
+    synchronized String createCacheKey(@Nullable String cardNumber, boolean isBinPrefixKey) {
+        if (cardNumber == null || keyMac == null) {
+            return null;
+        }
+        int maxDigits = isBinPrefixKey ? MAX_PREFIX_DIGITS : cardNumber.length();
+        StringBuilder prefix = new StringBuilder(maxDigits);
+        for (int i = 0; i < cardNumber.length() && prefix.length() < maxDigits; i++) {
+            char c = cardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                prefix.append(c);
+            } else if (c != ' ' && c != '-') {
+                return null;
+            }
+        }
+        if (prefix.length() < MIN_PREFIX_DIGITS) {
+            return null;
+        }
+
+        byte[] digest = keyMac.doFinal(prefix.toString().getBytes(UTF_8));
+        return Base64.encodeToString(digest, Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+    }
+
+    /**
+     * @return the cached capabilities for {@code cacheKey}, or {@code null} if there are none or
+     * they have expired
+     */
+    @Nullable
+    synchronized UnionPayCapabilities get(String cacheKey, long elapsedRealtime) {
+        Entry entry = entries.get(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        if (elapsedRealtime - entry.storedAt >= timeToLiveMillis) {
+            entries.remove(cacheKey);
+            return null;
+        }
+        return entry.capabilities;
+    }
+
+    synchronized void put(String cacheKey, UnionPayCapabilities capabilities,
+            long elapsedRealtime) {
+        entries.put(cacheKey, new Entry(capabilities, elapsedRealtime));
+    }
+
+    /**
+     * Wait for the result of the request for {@code cacheKey}.
+     *
+     * @return {@code true} if no request was in flight and the caller should send one
+     */
+    synchronized boolean addPendingCallback(String cacheKey,
+            UnionPayFetchCapabilitiesCallback callback) {
+        List<UnionPayFetchCapabilitiesCallback> callbacks = pendingCallbacks.get(cacheKey);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return false;
+        }
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        pendingCallbacks.put(cacheKey, callbacks);
+        return true;
+    }
+
+    /**
+     * @return the callbacks waiting on the request for {@code cacheKey}; the next lookup of the
+     * key starts a new request
+     */
+    synchronized List<UnionPayFetchCapabilitiesCallback> takePendingCallbacks(String cacheKey) {
+        List<UnionPayFetchCapabilitiesCallback> callbacks = pendingCallbacks.remove(cacheKey);
+        return (callbacks == null)
+                ? Collections.<UnionPayFetchCapabilitiesCallback>emptyList() : callbacks;
+    }
+
+    @VisibleForTesting
+    synchronized int size() {
+        return entries.size();
+    }
+}
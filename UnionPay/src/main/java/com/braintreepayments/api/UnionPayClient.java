@@ -1,6 +1,7 @@
 package com.braintreepayments.api;
 
 import android.net.Uri;
+import android.os.SystemClock;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -9,6 +10,8 @@ import androidx.annotation.VisibleForTesting;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.List;
+
 /**
  * Used to check, enroll, and tokenize UnionPay cards. For more information see the
  * <a href="https://developer.paypal.com/braintree/docs/guides/unionpay/overview">documentation</a>
@@ -24,8 +27,11 @@ public class UnionPayClient {
     private static final String UNIONPAY_CAPABILITIES_PATH =
         ApiClient.versionedPath("payment_methods/credit_cards/capabilities");
 
+    private static final String PRODUCTION_ENVIRONMENT = "production";
+
     private final BraintreeClient braintreeClient;
     private final ApiClient apiClient;
+    private final UnionPayCapabilitiesCache capabilitiesCache;
 
     public UnionPayClient(@NonNull BraintreeClient braintreeClient) {
         this(braintreeClient, new ApiClient(braintreeClient));
@@ -33,14 +39,24 @@ public class UnionPayClient {
 
     @VisibleForTesting
     UnionPayClient(BraintreeClient braintreeClient, ApiClient apiClient) {
+        this(braintreeClient, apiClient, new UnionPayCapabilitiesCache());
+    }
+
+    @VisibleForTesting
+    UnionPayClient(BraintreeClient braintreeClient, ApiClient apiClient,
+            UnionPayCapabilitiesCache capabilitiesCache) {
         this.braintreeClient = braintreeClient;
         this.apiClient = apiClient;
+        this.capabilitiesCache = capabilitiesCache;
     }
 
     /**
      * Fetches the capabilities of a card. If the card needs to be enrolled use {@link
      * UnionPayClient#enroll(UnionPayCard, UnionPayEnrollCallback)}.
      * <p>
+     * Capabilities are cached by BIN prefix for a few minutes, so calling this again as the card
+     * number is edited doesn't send another request.
+     * <p>
      * On completion, returns the {@link UnionPayCapabilities} to
      * {@link UnionPayFetchCapabilitiesCallback#onResult(UnionPayCapabilities, Exception)}
      * <p>
@@ -59,28 +75,73 @@ public class UnionPayClient {
                     return;
                 }
 
-                String fetchCapabilitiesUrl = Uri.parse(UNIONPAY_CAPABILITIES_PATH)
+                // capabilities are the same for every card with the same BIN prefix, so lookups
+                // made on each edit of a card form are answered from memory or join the request
+                // that is already in flight
+                boolean isBinPrefixKey = PRODUCTION_ENVIRONMENT.equals(configuration.getEnvironment());
+                final String cacheKey =
+                        capabilitiesCache.createCacheKey(cardNumber, isBinPrefixKey);
+                if (cacheKey != null) {
+                    UnionPayCapabilities cachedCapabilities =
+                            capabilitiesCache.get(cacheKey, SystemClock.elapsedRealtime());
+                    if (cachedCapabilities != null) {
+                        callback.onResult(cachedCapabilities, null);
+                        return;
+                    }
+                    if (!capabilitiesCache.addPendingCallback(cacheKey, callback)) {
+                        return;
+                    }
+                }
+
+                final String fetchCapabilitiesUrl = Uri.parse(UNIONPAY_CAPABILITIES_PATH)
                         .buildUpon()
                         .appendQueryParameter("creditCard[number]", cardNumber)
                         .build()
                         .toString();
-                braintreeClient.sendGET(fetchCapabilitiesUrl, new HttpResponseCallback() {
-
+                // a fetch shared with other callers must not be canceled along with this one
+                HttpRequestScope scope = cacheKey == null ? HttpRequestScope.current() : null;
+                HttpRequestScope.runIn(scope, new Runnable() {
                     @Override
-                    public void onResult(String responseBody, Exception httpError) {
-                        if (responseBody != null) {
-                            callback.onResult(UnionPayCapabilities.fromJson(responseBody), null);
-                            braintreeClient.sendAnalyticsEvent("union-pay.capabilities-received");
-                        } else {
-                            callback.onResult(null, httpError);
-                            braintreeClient.sendAnalyticsEvent("union-pay.capabilities-failed");
-                        }
+                    public void run() {
+                        braintreeClient.sendGET(fetchCapabilitiesUrl, new HttpResponseCallback() {
+
+                            @Override
+                            public void onResult(String responseBody, Exception httpError) {
+                                if (responseBody != null) {
+                                    UnionPayCapabilities capabilities =
+                                            UnionPayCapabilities.fromJson(responseBody);
+                                    if (cacheKey != null) {
+                                        capabilitiesCache.put(cacheKey, capabilities,
+                                                SystemClock.elapsedRealtime());
+                                    }
+                                    notifyCapabilitiesResult(cacheKey, callback, capabilities, null);
+                                    braintreeClient.sendAnalyticsEvent("union-pay.capabilities-received");
+                                } else {
+                                    notifyCapabilitiesResult(cacheKey, callback, null, httpError);
+                                    braintreeClient.sendAnalyticsEvent("union-pay.capabilities-failed");
+                                }
+                            }
+                        });
                     }
                 });
             }
         });
     }
 
+    private void notifyCapabilitiesResult(@Nullable String cacheKey,
+            UnionPayFetchCapabilitiesCallback callback, UnionPayCapabilities capabilities,
+            Exception error) {
+        if (cacheKey == null) {
+            callback.onResult(capabilities, error);
+            return;
+        }
+        List<UnionPayFetchCapabilitiesCallback> callbacks =
+                capabilitiesCache.takePendingCallbacks(cacheKey);
+        for (UnionPayFetchCapabilitiesCallback pendingCallback : callbacks) {
+            pendingCallback.onResult(capabilities, error);
+        }
+    }
+
     /**
      * Enrolls a Union Pay card. Only call this method if the card needs to be enrolled. Check {@link
      * UnionPayClient#fetchCapabilities(String, UnionPayFetchCapabilitiesCallback)} if your card needs to be enrolled.
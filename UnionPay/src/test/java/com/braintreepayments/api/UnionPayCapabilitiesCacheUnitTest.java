@@ -0,0 +1,108 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class UnionPayCapabilitiesCacheUnitTest {
+
+    @Test
+    public void createCacheKey_withBinPrefixKey_isSameForCardsWithSameFirstEightDigits() {
+        UnionPayCapabilitiesCache sut = new UnionPayCapabilitiesCache();
+        String key = sut.createCacheKey(CardNumber.UNIONPAY_CREDIT, true);
+
+        assertEquals(key, sut.createCacheKey(CardNumber.UNIONPAY_DEBIT, true));
+        assertEquals(key, sut.createCacheKey("6212-3456 7", true));
+        assertNotEquals(key, sut.createCacheKey("62123457", true));
+    }
+
+    @Test
+    public void createCacheKey_withoutBinPrefixKey_usesEveryDigit() {
+        UnionPayCapabilitiesCache sut = new UnionPayCapabilitiesCache();
+        String key = sut.createCacheKey(CardNumber.UNIONPAY_CREDIT, false);
+
+        assertEquals(key, sut.createCacheKey("6212 3456 7890 1232", false));
+        assertNotEquals(key, sut.createCacheKey(CardNumber.UNIONPAY_DEBIT, false));
+    }
+
+    @Test
+    public void createCacheKey_doesNotContainCardDigits() {
+        UnionPayCapabilitiesCache sut = new UnionPayCapabilitiesCache();
+        String key = sut.createCacheKey(CardNumber.UNIONPAY_CREDIT, true);
+
+        assertFalse(key.contains("621234"));
+    }
+
+    @Test
+    public void createCacheKey_differsBetweenInstances() {
+        String key = new UnionPayCapabilitiesCache().createCacheKey(CardNumber.UNIONPAY_CREDIT, true);
+
+        assertNotEquals(key, new UnionPayCapabilitiesCache().createCacheKey(CardNumber.UNIONPAY_CREDIT, true));
+    }
+
+    @Test
+    public void createCacheKey_withFewerThanSixDigitsOrInvalidCharacters_returnsNull() {
+        UnionPayCapabilitiesCache sut = new UnionPayCapabilitiesCache();
+        assertNull(sut.createCacheKey(null, true));
+        assertNull(sut.createCacheKey("62123", true));
+        assertNull(sut.createCacheKey("6212a45678", true));
+    }
+
+    @Test
+    public void get_returnsCapabilitiesUntilTheyExpire() {
+        UnionPayCapabilitiesCache sut = new UnionPayCapabilitiesCache(4, 1000);
+        UnionPayCapabilities capabilities = UnionPayCapabilities.fromJson("{}");
+
+        sut.put("key", capabilities, 5000);
+
+        assertSame(capabilities, sut.get("key", 5999));
+        assertNull(sut.get("key", 6000));
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedEntry() {
+        UnionPayCapabilitiesCache sut = new UnionPayCapabilitiesCache(2, 1000);
+        UnionPayCapabilities capabilities = UnionPayCapabilities.fromJson("{}");
+
+        sut.put("first", capabilities, 0);
+        sut.put("second", capabilities, 0);
+        sut.get("first", 0);
+        sut.put("third", capabilities, 0);
+
+        assertEquals(2, sut.size());
+        assertSame(capabilities, sut.get("first", 0));
+        assertNull(sut.get("second", 0));
+        assertSame(capabilities, sut.get("third", 0));
+    }
+
+    @Test
+    public void addPendingCallback_returnsTrueOnlyForFirstCallerUntilCallbacksAreTaken() {
+        UnionPayCapabilitiesCache sut = new UnionPayCapabilitiesCache();
+        UnionPayFetchCapabilitiesCallback first = mock(UnionPayFetchCapabilitiesCallback.class);
+        UnionPayFetchCapabilitiesCallback second = mock(UnionPayFetchCapabilitiesCallback.class);
+
+        assertTrue(sut.addPendingCallback("key", first));
+        assertFalse(sut.addPendingCallback("key", second));
+        assertTrue(sut.addPendingCallback("other", second));
+
+        List<UnionPayFetchCapabilitiesCallback> callbacks = sut.takePendingCallbacks("key");
+        assertEquals(2, callbacks.size());
+        assertSame(first, callbacks.get(0));
+        assertSame(second, callbacks.get(1));
+
+        assertTrue(sut.takePendingCallbacks("key").isEmpty());
+        assertTrue(sut.addPendingCallback("key", first));
+    }
+}
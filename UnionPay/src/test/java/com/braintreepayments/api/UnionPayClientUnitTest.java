@@ -5,10 +5,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +38,7 @@ public class UnionPayClientUnitTest {
 
     private Configuration unionPayEnabledConfiguration;
     private Configuration unionPayDisabledConfiguration;
+    private Configuration unionPayProductionConfiguration;
 
     @Before
     public void beforeEach() throws JSONException {
@@ -46,6 +49,9 @@ public class UnionPayClientUnitTest {
 
         unionPayEnabledConfiguration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_UNIONPAY);
         unionPayDisabledConfiguration = Configuration.fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN);
+        unionPayProductionConfiguration = Configuration.fromJson(new JSONObject(Fixtures.CONFIGURATION_WITH_UNIONPAY)
+                .put("environment", "production")
+                .toString());
 
         unionPayCard = mock(UnionPayCard.class);
         unionPayEnrollCallback = mock(UnionPayEnrollCallback.class);
@@ -288,4 +294,110 @@ public class UnionPayClientUnitTest {
         assertTrue(exception instanceof ConfigurationException);
         assertEquals("UnionPay is not enabled", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fetchCapabilities_inProduction_reusesCapabilitiesForCardsWithSameBinPrefix() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayProductionConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities("6212 3456 7890 1265", unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(unionPayFetchCapabilitiesCallback, times(2)).onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+        verify(braintreeClient).sendAnalyticsEvent("union-pay.capabilities-received");
+    }
+
+    @Test
+    public void fetchCapabilities_inSandbox_reusesCapabilitiesOnlyForSameCardNumber() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayEnabledConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_DEBIT, unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(unionPayFetchCapabilitiesCallback, times(3)).onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+    }
+
+    @Test
+    public void fetchCapabilities_whileRequestIsInFlight_sharesRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayProductionConfiguration)
+                .build();
+        UnionPayFetchCapabilitiesCallback otherCallback = mock(UnionPayFetchCapabilitiesCallback.class);
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, otherCallback);
+
+        ArgumentCaptor<HttpResponseCallback> captor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendGET(anyString(), captor.capture());
+        captor.getValue().onResult(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE, null);
+
+        ArgumentCaptor<UnionPayCapabilities> capabilitiesCaptor = ArgumentCaptor.forClass(UnionPayCapabilities.class);
+        verify(unionPayFetchCapabilitiesCallback).onResult(capabilitiesCaptor.capture(), (Exception) isNull());
+        verify(otherCallback).onResult(same(capabilitiesCaptor.getValue()), (Exception) isNull());
+    }
+
+    @Test
+    public void fetchCapabilities_whenSharedRequestFails_forwardsErrorToEveryCallbackAndDoesNotCache() {
+        Exception error = new Exception("error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayProductionConfiguration)
+                .build();
+        UnionPayFetchCapabilitiesCallback otherCallback = mock(UnionPayFetchCapabilitiesCallback.class);
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, otherCallback);
+
+        ArgumentCaptor<HttpResponseCallback> captor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendGET(anyString(), captor.capture());
+        captor.getValue().onResult(null, error);
+
+        verify(unionPayFetchCapabilitiesCallback).onResult((UnionPayCapabilities) isNull(), same(error));
+        verify(otherCallback).onResult((UnionPayCapabilities) isNull(), same(error));
+
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void fetchCapabilities_afterCachedCapabilitiesExpire_sendsNewRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayProductionConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+        UnionPayCapabilitiesCache cache = new UnionPayCapabilitiesCache(
+                UnionPayCapabilitiesCache.DEFAULT_MAX_ENTRIES, 0);
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient, cache);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities(CardNumber.UNIONPAY_CREDIT, unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void fetchCapabilities_withFewerThanSixDigits_doesNotCache() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(unionPayProductionConfiguration)
+                .sendGETSuccessfulResponse(Fixtures.UNIONPAY_CAPABILITIES_SUCCESS_RESPONSE)
+                .build();
+
+        UnionPayClient sut = new UnionPayClient(braintreeClient, apiClient);
+        sut.fetchCapabilities("62123", unionPayFetchCapabilitiesCallback);
+        sut.fetchCapabilities("62123", unionPayFetchCapabilitiesCallback);
+
+        verify(braintreeClient, times(2)).sendGET(anyString(), any(HttpResponseCallback.class));
+        verify(unionPayFetchCapabilitiesCallback, times(2)).onResult(any(UnionPayCapabilities.class), (Exception) isNull());
+    }
+}
@@ -33,6 +33,8 @@ public class VenmoClient {
     static final String EXTRA_USERNAME = "com.braintreepayments.api.EXTRA_USER_NAME";
     static final String EXTRA_RESOURCE_ID = "com.braintreepayments.api.EXTRA_RESOURCE_ID";
 
+    private static final String APP_SWITCH_SPAN = "venmo.app-switch";
+
     private final BraintreeClient braintreeClient;
     private final VenmoApi venmoApi;
     private final VenmoSharedPrefsWriter sharedPrefsWriter;
@@ -132,7 +134,9 @@ public class VenmoClient {
             @Override
             public void onResult(@Nullable Exception error) {
                 if (error != null) {
-                    listener.onVenmoFailure(error);
+                    if (listener != null) {
+                        listener.onVenmoFailure(error);
+                    }
                 }
             }
         });
@@ -222,6 +226,8 @@ public class VenmoClient {
         boolean isClientTokenAuth = (authorization instanceof ClientToken);
         boolean shouldVault = request.getShouldVault() && isClientTokenAuth;
         sharedPrefsWriter.persistVenmoVaultOption(activity, shouldVault);
+        // persist the span start so the span survives process death during the app switch
+        sharedPrefsWriter.persistAppSwitchSpanStart(activity, new AnalyticsSpan(APP_SWITCH_SPAN));
         if (observer != null) {
             VenmoIntentData intentData = new VenmoIntentData(configuration, venmoProfileId, paymentContextId, braintreeClient.getSessionId(), braintreeClient.getIntegrationType());
             observer.launch(intentData);
@@ -235,12 +241,13 @@ public class VenmoClient {
     void onVenmoResult(final VenmoResult venmoResult) {
         if (venmoResult.getError() == null) {
             braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.success");
+            endAppSwitchSpan("success");
 
-            braintreeClient.getAuthorization(new AuthorizationCallback() {
+            braintreeClient.getRequestContext(new BraintreeRequestContextCallback() {
                 @Override
-                public void onAuthorizationResult(@Nullable Authorization authorization, @Nullable final Exception authError) {
-                    if (authorization != null) {
-                        final boolean isClientTokenAuth = (authorization instanceof ClientToken);
+                public void onResult(@Nullable final BraintreeRequestContext requestContext, @Nullable final Exception requestContextError) {
+                    if (requestContext != null) {
+                        final boolean isClientTokenAuth = (requestContext.getAuthorization() instanceof ClientToken);
 
                         String paymentContextId = venmoResult.getPaymentContextId();
                         if (paymentContextId != null) {
@@ -254,19 +261,27 @@ public class VenmoClient {
                                                 @Override
                                                 public void onResult(@Nullable VenmoAccountNonce venmoAccountNonce, @Nullable Exception error) {
                                                     if (venmoAccountNonce != null) {
-                                                        listener.onVenmoSuccess(venmoAccountNonce);
+                                                        if (listener != null) {
+                                                            listener.onVenmoSuccess(venmoAccountNonce);
+                                                        }
                                                     } else if (error != null) {
-                                                        listener.onVenmoFailure(error);
+                                                        if (listener != null) {
+                                                            listener.onVenmoFailure(error);
+                                                        }
                                                     }
                                                 }
                                             });
                                         } else {
-                                            braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.failure");
-                                            listener.onVenmoSuccess(nonce);
+                                            braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.failure", requestContext);
+                                            if (listener != null) {
+                                                listener.onVenmoSuccess(nonce);
+                                            }
                                         }
                                     } else {
-                                        braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.failure");
-                                        listener.onVenmoFailure(error);
+                                        braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.failure", requestContext);
+                                        if (listener != null) {
+                                            listener.onVenmoFailure(error);
+                                        }
                                     }
                                 }
                             });
@@ -279,21 +294,29 @@ public class VenmoClient {
                                     @Override
                                     public void onResult(@Nullable VenmoAccountNonce venmoAccountNonce, @Nullable Exception error) {
                                         if (venmoAccountNonce != null) {
-                                            listener.onVenmoSuccess(venmoAccountNonce);
+                                            if (listener != null) {
+                                                listener.onVenmoSuccess(venmoAccountNonce);
+                                            }
                                         } else if (error != null) {
-                                            listener.onVenmoFailure(error);
+                                            if (listener != null) {
+                                                listener.onVenmoFailure(error);
+                                            }
                                         }
                                     }
                                 });
                             } else {
                                 String venmoUsername = venmoResult.getVenmoUsername();
                                 VenmoAccountNonce venmoAccountNonce = new VenmoAccountNonce(nonce, venmoUsername, false);
-                                listener.onVenmoSuccess(venmoAccountNonce);
+                                if (listener != null) {
+                                    listener.onVenmoSuccess(venmoAccountNonce);
+                                }
                             }
 
                         }
-                    } else if (authError != null) {
-                        listener.onVenmoFailure(authError);
+                    } else if (requestContextError != null) {
+                        if (listener != null) {
+                            listener.onVenmoFailure(requestContextError);
+                        }
                     }
                 }
             });
@@ -301,8 +324,13 @@ public class VenmoClient {
         } else if (venmoResult.getError() != null) {
             if (venmoResult.getError() instanceof UserCanceledException) {
                 braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.canceled");
+                endAppSwitchSpan("canceled");
+            } else {
+                endAppSwitchSpan("failed");
+            }
+            if (listener != null) {
+                listener.onVenmoFailure(venmoResult.getError());
             }
-            listener.onVenmoFailure(venmoResult.getError());
         }
     }
 
@@ -315,6 +343,7 @@ public class VenmoClient {
     public void onActivityResult(@NonNull final Context context, int resultCode, @Nullable final Intent data, @NonNull final VenmoOnActivityResultCallback callback) {
         if (resultCode == AppCompatActivity.RESULT_OK) {
             braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.success");
+            endAppSwitchSpan("success");
 
             braintreeClient.getAuthorization(new AuthorizationCallback() {
                 @Override
@@ -362,6 +391,7 @@ public class VenmoClient {
 
         } else if (resultCode == AppCompatActivity.RESULT_CANCELED) {
             braintreeClient.sendAnalyticsEvent("pay-with-venmo.app-switch.canceled");
+            endAppSwitchSpan("canceled");
             callback.onResult(null, new UserCanceledException("User canceled Venmo."));
         }
     }
@@ -444,4 +474,13 @@ public class VenmoClient {
             }
         });
     }
+
+    private void endAppSwitchSpan(String outcome) {
+        AnalyticsSpan appSwitchSpan =
+                sharedPrefsWriter.removeAppSwitchSpan(braintreeClient.getApplicationContext(), APP_SWITCH_SPAN);
+        if (appSwitchSpan != null) {
+            appSwitchSpan.setAttribute("outcome", outcome);
+            braintreeClient.sendAnalyticsSpan(appSwitchSpan);
+        }
+    }
 }
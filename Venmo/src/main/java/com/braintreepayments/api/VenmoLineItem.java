@@ -13,6 +13,7 @@ import org.json.JSONObject;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
+@JsonSerializable
 public class VenmoLineItem implements Parcelable {
 
     /**
@@ -38,13 +39,21 @@ public class VenmoLineItem implements Parcelable {
     private static final String UNIT_TAX_AMOUNT_KEY = "unitTaxAmount";
     private static final String URL_KEY = "url";
 
+    @JsonProperty(DESCRIPTION_KEY)
     private String description;
+    @JsonProperty(KIND_KEY)
     private String kind;
+    @JsonProperty(NAME_KEY)
     private String name;
+    @JsonProperty(PRODUCT_CODE_KEY)
     private String productCode;
+    @JsonProperty(QUANTITY_KEY)
     private Integer quantity;
+    @JsonProperty(UNIT_AMOUNT_KEY)
     private String unitAmount;
+    @JsonProperty(UNIT_TAX_AMOUNT_KEY)
     private String unitTaxAmount;
+    @JsonProperty(URL_KEY)
     private String url;
 
     /**
@@ -180,15 +189,7 @@ public class VenmoLineItem implements Parcelable {
 
     public JSONObject toJson() {
         try {
-            return new JSONObject()
-                    .putOpt(DESCRIPTION_KEY, description)
-                    .putOpt(KIND_KEY, kind)
-                    .putOpt(NAME_KEY, name)
-                    .putOpt(PRODUCT_CODE_KEY, productCode)
-                    .putOpt(QUANTITY_KEY, quantity)
-                    .putOpt(UNIT_AMOUNT_KEY, unitAmount)
-                    .putOpt(UNIT_TAX_AMOUNT_KEY, unitTaxAmount)
-                    .putOpt(URL_KEY, url);
+            return VenmoLineItemJsonSerializer.toJsonObject(this);
         } catch (JSONException ignored) {
         }
 
@@ -7,6 +7,10 @@ import androidx.annotation.VisibleForTesting;
 class VenmoSharedPrefsWriter {
 
     private static final String VAULT_VENMO_KEY = "com.braintreepayments.api.Venmo.VAULT_VENMO_KEY";
+    private static final String APP_SWITCH_SPAN_START_TIMESTAMP_KEY =
+            "com.braintreepayments.api.Venmo.APP_SWITCH_SPAN_START_TIMESTAMP_KEY";
+    private static final String APP_SWITCH_SPAN_START_ELAPSED_REALTIME_KEY =
+            "com.braintreepayments.api.Venmo.APP_SWITCH_SPAN_START_ELAPSED_REALTIME_KEY";
 
     void persistVenmoVaultOption(Context context, boolean shouldVault) {
         persistVenmoVaultOption(BraintreeSharedPreferences.getInstance(context), shouldVault);
@@ -25,4 +29,35 @@ class VenmoSharedPrefsWriter {
     boolean getVenmoVaultOption(BraintreeSharedPreferences braintreeSharedPreferences) {
         return braintreeSharedPreferences.getBoolean(VAULT_VENMO_KEY);
     }
+
+    void persistAppSwitchSpanStart(Context context, AnalyticsSpan span) {
+        persistAppSwitchSpanStart(BraintreeSharedPreferences.getInstance(context), span);
+    }
+
+    @VisibleForTesting
+    void persistAppSwitchSpanStart(BraintreeSharedPreferences braintreeSharedPreferences, AnalyticsSpan span) {
+        braintreeSharedPreferences.putLong(APP_SWITCH_SPAN_START_TIMESTAMP_KEY, span.getStartTimestamp());
+        braintreeSharedPreferences.putLong(APP_SWITCH_SPAN_START_ELAPSED_REALTIME_KEY, span.getStartElapsedRealtime());
+    }
+
+    /**
+     * @return a span resumed from the persisted app switch start, or null if none was persisted.
+     * The persisted start is cleared so the span is only reported once.
+     */
+    AnalyticsSpan removeAppSwitchSpan(Context context, String spanName) {
+        return removeAppSwitchSpan(BraintreeSharedPreferences.getInstance(context), spanName);
+    }
+
+    @VisibleForTesting
+    AnalyticsSpan removeAppSwitchSpan(BraintreeSharedPreferences braintreeSharedPreferences, String spanName) {
+        if (!braintreeSharedPreferences.containsKey(APP_SWITCH_SPAN_START_ELAPSED_REALTIME_KEY)) {
+            return null;
+        }
+        AnalyticsSpan span = new AnalyticsSpan(spanName,
+                braintreeSharedPreferences.getLong(APP_SWITCH_SPAN_START_TIMESTAMP_KEY),
+                braintreeSharedPreferences.getLong(APP_SWITCH_SPAN_START_ELAPSED_REALTIME_KEY));
+        braintreeSharedPreferences.remove(APP_SWITCH_SPAN_START_TIMESTAMP_KEY);
+        braintreeSharedPreferences.remove(APP_SWITCH_SPAN_START_ELAPSED_REALTIME_KEY);
+        return span;
+    }
 }
@@ -194,6 +194,31 @@ public class VenmoClientUnitTest {
         verify(braintreeClient).sendAnalyticsEvent("pay-with-venmo.app-switch.started");
     }
 
+    @Test
+    public void tokenizeVenmoAccount_persistsAppSwitchSpanStart() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
+                .sessionId("session-id")
+                .integration("custom")
+                .authorizationSuccess(clientToken)
+                .build();
+        venmoApi = new MockVenmoApiBuilder()
+                .createPaymentContextSuccess("venmo-payment-context-id")
+                .build();
+        when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        request.setProfileId("sample-venmo-merchant");
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.observer = mock(VenmoLifecycleObserver.class);
+        sut.tokenizeVenmoAccount(activity, request);
+
+        ArgumentCaptor<AnalyticsSpan> captor = ArgumentCaptor.forClass(AnalyticsSpan.class);
+        verify(sharedPrefsWriter).persistAppSwitchSpanStart(same(activity), captor.capture());
+        assertEquals("venmo.app-switch", captor.getValue().getName());
+    }
+
     @Test
     public void tokenizeVenmoAccount_whenCreatePaymentContextFails_collectAddressWithEcdDisabled() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -886,6 +911,26 @@ public class VenmoClientUnitTest {
         verify(braintreeClient).sendAnalyticsEvent("pay-with-venmo.app-switch.canceled");
     }
 
+    @Test
+    public void onActivityResult_onCancel_sendsPersistedAppSwitchSpan() {
+        AnalyticsSpan persistedSpan = new AnalyticsSpan("venmo.app-switch", 100L, 200L);
+        when(sharedPrefsWriter.removeAppSwitchSpan(any(), eq("venmo.app-switch"))).thenReturn(persistedSpan);
+
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.onActivityResult(activity, AppCompatActivity.RESULT_CANCELED, new Intent(), onActivityResultCallback);
+
+        verify(braintreeClient).sendAnalyticsSpan(persistedSpan);
+        assertEquals("canceled", persistedSpan.getAttributes().get("outcome"));
+    }
+
+    @Test
+    public void onActivityResult_withoutPersistedAppSwitchSpan_doesNotSendSpan() {
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+        sut.onActivityResult(activity, AppCompatActivity.RESULT_CANCELED, new Intent(), onActivityResultCallback);
+
+        verify(braintreeClient, never()).sendAnalyticsSpan(any(AnalyticsSpan.class));
+    }
+
     @Test
     public void onActivityResult_forwardsExceptionToCallbackOnCancel() {
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
@@ -1226,7 +1271,7 @@ public class VenmoClientUnitTest {
         sut.onVenmoResult(venmoResult);
 
         verify(listener).onVenmoFailure(graphQLError);
-        verify(braintreeClient).sendAnalyticsEvent("pay-with-venmo.app-switch.failure");
+        verify(braintreeClient).sendAnalyticsEvent(eq("pay-with-venmo.app-switch.failure"), any(BraintreeRequestContext.class));
     }
 
     @Test
@@ -1264,6 +1309,7 @@ public class VenmoClientUnitTest {
     @Test
     public void onVenmoResult_postsPaymentMethodNonceOnSuccess() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(venmoEnabledConfiguration)
                 .authorizationSuccess(clientToken)
                 .build();
 
@@ -1344,6 +1390,7 @@ public class VenmoClientUnitTest {
     public void onVenmoResult_doesNotPerformRequestIfTokenizationKeyUsed() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .sessionId("another-session-id")
+                .configuration(venmoEnabledConfiguration)
                 .authorizationSuccess(tokenizationKey)
                 .build();
 
@@ -1363,6 +1410,7 @@ public class VenmoClientUnitTest {
     public void onVenmoResult_withSuccessfulVaultCall_forwardsResultToActivityResultListener_andSendsAnalytics() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .sessionId("session-id")
+                .configuration(venmoEnabledConfiguration)
                 .authorizationSuccess(clientToken)
                 .build();
         when(braintreeClient.getApplicationContext()).thenReturn(activity);
@@ -1390,6 +1438,7 @@ public class VenmoClientUnitTest {
     public void onVenmoResult_withPaymentContext_withSuccessfulVaultCall_forwardsNonceToCallback_andSendsAnalytics() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .sessionId("session-id")
+                .configuration(venmoEnabledConfiguration)
                 .authorizationSuccess(clientToken)
                 .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_GET_PAYMENT_CONTEXT_RESPONSE)
                 .build();
@@ -1419,6 +1468,7 @@ public class VenmoClientUnitTest {
     public void onVenmoResult_withFailedVaultCall_forwardsErrorToActivityResultListener_andSendsAnalytics() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .sessionId("session-id")
+                .configuration(venmoEnabledConfiguration)
                 .authorizationSuccess(clientToken)
                 .build();
         when(braintreeClient.getApplicationContext()).thenReturn(activity);
@@ -1446,6 +1496,7 @@ public class VenmoClientUnitTest {
     public void onVenmoResult_withPaymentContext_withFailedVaultCall_forwardsErrorToCallback_andSendsAnalytics() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .sessionId("session-id")
+                .configuration(venmoEnabledConfiguration)
                 .authorizationSuccess(clientToken)
                 .sendGraphQLPOSTSuccessfulResponse(Fixtures.VENMO_GRAPHQL_GET_PAYMENT_CONTEXT_RESPONSE)
                 .build();
@@ -30,5 +30,28 @@ public class VenmoLineItemUnitTest {
         assertEquals("1.50", json.getString("unitTaxAmount"));
         assertEquals("http://example.com", json.getString("url"));
     }
-}
 
+    @Test
+    public void toJson_matchesJSONObjectOutputByteForByte() throws JSONException {
+        VenmoLineItem item = new VenmoLineItem(VenmoLineItem.KIND_DEBIT, "An \"Item\"", 1, "2");
+        item.setDescription("Caf\u00e9\tlatte");
+        item.setUrl("http://example.com/item");
+
+        assertEquals(toJsonWithJSONObject(item), item.toJson().toString());
+        assertEquals(toJsonWithJSONObject(item), VenmoLineItemJsonSerializer.toJson(item));
+    }
+
+    // the JSONObject tree VenmoLineItem#toJson() used to build
+    private static String toJsonWithJSONObject(VenmoLineItem item) throws JSONException {
+        return new JSONObject()
+                .putOpt("description", item.getDescription())
+                .putOpt("type", item.getKind())
+                .putOpt("name", item.getName())
+                .putOpt("productCode", item.getProductCode())
+                .putOpt("quantity", item.getQuantity())
+                .putOpt("unitAmount", item.getUnitAmount())
+                .putOpt("unitTaxAmount", item.getUnitTaxAmount())
+                .putOpt("url", item.getUrl())
+                .toString();
+    }
+}
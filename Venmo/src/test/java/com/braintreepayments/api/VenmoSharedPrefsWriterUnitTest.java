@@ -1,7 +1,11 @@
 package com.braintreepayments.api;
 
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -28,4 +32,35 @@ public class VenmoSharedPrefsWriterUnitTest {
         sut.getVenmoVaultOption(braintreeSharedPreferences);
         verify(braintreeSharedPreferences).getBoolean("com.braintreepayments.api.Venmo.VAULT_VENMO_KEY");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void persistAppSwitchSpanStart_persistsSpanStartTimes() {
+        VenmoSharedPrefsWriter sut = new VenmoSharedPrefsWriter();
+        sut.persistAppSwitchSpanStart(braintreeSharedPreferences, new AnalyticsSpan("venmo.app-switch", 100L, 200L));
+        verify(braintreeSharedPreferences).putLong("com.braintreepayments.api.Venmo.APP_SWITCH_SPAN_START_TIMESTAMP_KEY", 100L);
+        verify(braintreeSharedPreferences).putLong("com.braintreepayments.api.Venmo.APP_SWITCH_SPAN_START_ELAPSED_REALTIME_KEY", 200L);
+    }
+
+    @Test
+    public void removeAppSwitchSpan_resumesSpanFromPersistedStartAndClearsIt() {
+        when(braintreeSharedPreferences.containsKey("com.braintreepayments.api.Venmo.APP_SWITCH_SPAN_START_ELAPSED_REALTIME_KEY")).thenReturn(true);
+        when(braintreeSharedPreferences.getLong("com.braintreepayments.api.Venmo.APP_SWITCH_SPAN_START_TIMESTAMP_KEY")).thenReturn(100L);
+        when(braintreeSharedPreferences.getLong("com.braintreepayments.api.Venmo.APP_SWITCH_SPAN_START_ELAPSED_REALTIME_KEY")).thenReturn(200L);
+
+        VenmoSharedPrefsWriter sut = new VenmoSharedPrefsWriter();
+        AnalyticsSpan span = sut.removeAppSwitchSpan(braintreeSharedPreferences, "venmo.app-switch");
+
+        assertEquals("venmo.app-switch", span.getName());
+        assertEquals(100L, span.getStartTimestamp());
+        assertEquals(200L, span.getStartElapsedRealtime());
+        verify(braintreeSharedPreferences).remove("com.braintreepayments.api.Venmo.APP_SWITCH_SPAN_START_TIMESTAMP_KEY");
+        verify(braintreeSharedPreferences).remove("com.braintreepayments.api.Venmo.APP_SWITCH_SPAN_START_ELAPSED_REALTIME_KEY");
+    }
+
+    @Test
+    public void removeAppSwitchSpan_whenNothingPersisted_returnsNull() {
+        VenmoSharedPrefsWriter sut = new VenmoSharedPrefsWriter();
+        assertNull(sut.removeAppSwitchSpan(braintreeSharedPreferences, "venmo.app-switch"));
+        verify(braintreeSharedPreferences, never()).remove("com.braintreepayments.api.Venmo.APP_SWITCH_SPAN_START_TIMESTAMP_KEY");
+    }
+}